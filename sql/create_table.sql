@@ -82,6 +82,7 @@ create table if not exists job_info
 (
     id           bigint auto_increment comment 'id' primary key,
     url          varchar(1024)                          null comment '招聘链接',
+    urlHash      bigint                                 not null comment '规范化链接指纹 CONV(LEFT(SHA1(url), 15), 16, 10)',
     workName     varchar(256)                          null comment '工作名称',
     workSalary   varchar(128)                           null comment '薪水',
     workAddress  varchar(512)                          null comment '工作地址',
@@ -90,10 +91,64 @@ create table if not exists job_info
     graduate     varchar(128)                           null comment '学历要求',
     hrTime       varchar(128)                           null comment '招聘人什么时候活跃',
     companyName  varchar(256)                          null comment '公司名',
+    salaryMin    int                                    null comment '每月最低薪资（元）',
+    salaryMax    int                                    null comment '每月最高薪资（元）',
+    salaryMonths tinyint                                null comment '每年发放薪资月数',
+    workYearMin  tinyint                                null comment '最少工作年限',
+    workYearMax  tinyint                                null comment '最多工作年限，无上限为空',
+    degreeLevel  tinyint                                null comment '学历序数：0不限 1初中及以下 2中专/中技 3高中 4大专 5本科 6硕士 7博士',
+    normalizeVersion tinyint     default 0              not null comment '规范化规则版本，0 表示未规范化',
+    contentHash  bigint                                 null comment '职位内容指纹（不含HR活跃时间）',
+    simHash      bigint                                 null comment '职位描述、名称、公司名的 SimHash 指纹',
+    canonicalId  bigint                                 null comment '近似重复时指向的原始职位 id，原始职位为空',
+    lastCrawlTime  datetime                             null comment '最近一次抓取时间',
+    nextCrawlTime  datetime                             null comment '下次重新抓取时间',
+    recrawlInterval int          default 24             not null comment '重新抓取间隔（小时），内容变化时减半，不变时翻倍',
+    changeCount  int          default 0                 not null comment '内容变化次数',
+    lastChangeTime datetime                             null comment '内容最近一次变化时间',
     createTime   datetime     default CURRENT_TIMESTAMP not null comment '创建时间',
     updateTime   datetime     default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
     isDelete     tinyint      default 0                 not null comment '是否删除',
-    index idx_url (url(255)),
+    unique key uk_urlHash (urlHash),
     index idx_companyName (companyName),
-    index idx_createTime (createTime)
-) comment 'BOSS直聘招聘信息表' collate = utf8mb4_unicode_ci;
\ No newline at end of file
+    index idx_createTime (createTime),
+    index idx_nextCrawlTime (nextCrawlTime),
+    index idx_salary (salaryMin, salaryMax),
+    index idx_workYear (workYearMin, workYearMax),
+    index idx_degreeLevel_salary (degreeLevel, salaryMin),
+    index idx_canonicalId (canonicalId),
+    fulltext index ft_job_text (workName, workContent, companyName) with parser ngram
+) comment 'BOSS直聘招聘信息表' collate = utf8mb4_unicode_ci;
+
+-- 职位市场日汇总（爬虫写入新职位时增量更新，分析接口只读汇总行）
+create table if not exists job_market_rollup
+(
+    id             bigint auto_increment comment 'id' primary key,
+    searchQuery    varchar(64)  collate utf8mb4_bin               not null comment '搜索关键词（去掉首尾空白、小写）',
+    cityCode       varchar(32)  collate utf8mb4_bin default ''    not null comment '城市代码，空字符串表示全部城市',
+    companyName    varchar(256) collate utf8mb4_bin default ''    not null comment '公司名（去掉首尾空白），空字符串表示全部公司',
+    statDay        date                                           not null comment '统计日期',
+    jobCount       bigint       default 0                         not null comment '新增职位数',
+    salarySketch   varbinary(2048)                                null comment '月薪分布草图（SalarySketch）',
+    degreeCounts   varchar(255)                                   null comment '各学历序数职位数，逗号分隔，最后一项为未知',
+    workYearCounts varchar(255)                                   null comment '各经验分段职位数，逗号分隔，最后一项为未知',
+    createTime     datetime     default CURRENT_TIMESTAMP         not null comment '创建时间',
+    updateTime     datetime     default CURRENT_TIMESTAMP         not null on update CURRENT_TIMESTAMP comment '更新时间',
+    -- 唯一键列用二进制排序规则，与服务端按归一后的键精确匹配保持一致
+    unique key uk_rollup (searchQuery, cityCode, companyName, statDay)
+) comment '职位市场日汇总' collate = utf8mb4_unicode_ci;
+
+-- 竞赛排名历史（每次刷新追加一组快照，按保留策略降采样）
+create table if not exists competition_rank_history
+(
+    id              bigint auto_increment comment 'id' primary key,
+    snapshotTime    datetime                               not null comment '快照时间',
+    competitionKey  bigint                                 not null comment '竞赛链接的指纹',
+    ranking         int                                    not null comment '排名',
+    name            varchar(256)                           not null comment '竞赛名称',
+    popularity      varchar(64)                            null comment '热度值（原文）',
+    popularityValue bigint                                 null comment '热度值（数字）',
+    url             varchar(512)                           not null comment '竞赛链接',
+    index idx_snapshotTime (snapshotTime),
+    index idx_competition_time (competitionKey, snapshotTime)
+) comment '竞赛排名历史' collate = utf8mb4_unicode_ci;
@@ -0,0 +1,60 @@
+# 已有 job_info 表的升级脚本（新建库直接执行 create_table.sql 即可）
+
+use digital_college_students_backend;
+
+-- 链接指纹唯一键，替代 url 前缀索引，用于批量 upsert 去重
+alter table job_info add column urlHash bigint null comment '规范化链接指纹 CONV(LEFT(SHA1(url), 15), 16, 10)' after url;
+update job_info
+set urlHash = conv(left(sha1(substring_index(substring_index(url, '#', 1), '?', 1)), 15), 16, 10)
+where urlHash is null;
+-- 同一职位只保留最早的一条
+delete j1 from job_info j1
+    join job_info j2 on j1.urlHash = j2.urlHash and j1.id > j2.id;
+alter table job_info modify column urlHash bigint not null comment '规范化链接指纹 CONV(LEFT(SHA1(url), 15), 16, 10)';
+alter table job_info add unique key uk_urlHash (urlHash);
+alter table job_info drop index idx_url;
+
+-- 增量重爬：内容指纹 + 自适应重爬间隔
+alter table job_info
+    add column contentHash bigint null comment '职位内容指纹（不含HR活跃时间）' after companyName,
+    add column lastCrawlTime datetime null comment '最近一次抓取时间' after contentHash,
+    add column nextCrawlTime datetime null comment '下次重新抓取时间' after lastCrawlTime,
+    add column recrawlInterval int default 24 not null comment '重新抓取间隔（小时），内容变化时减半，不变时翻倍' after nextCrawlTime,
+    add column changeCount int default 0 not null comment '内容变化次数' after recrawlInterval,
+    add column lastChangeTime datetime null comment '内容最近一次变化时间' after changeCount,
+    add index idx_nextCrawlTime (nextCrawlTime);
+-- 已有职位在接下来 24 小时内分散重爬一次，之后按内容是否变化自适应
+update job_info
+set lastCrawlTime = updateTime,
+    nextCrawlTime = date_add(now(), interval floor(rand() * 1440) minute)
+where nextCrawlTime is null;
+
+-- 薪资、经验、学历规范化为数值列，范围查询走索引；已有数据由 BackfillJobInfoNormalization 分块回填
+alter table job_info
+    add column salaryMin int null comment '每月最低薪资（元）' after companyName,
+    add column salaryMax int null comment '每月最高薪资（元）' after salaryMin,
+    add column salaryMonths tinyint null comment '每年发放薪资月数' after salaryMax,
+    add column workYearMin tinyint null comment '最少工作年限' after salaryMonths,
+    add column workYearMax tinyint null comment '最多工作年限，无上限为空' after workYearMin,
+    add column degreeLevel tinyint null comment '学历序数：0不限 1初中及以下 2中专/中技 3高中 4大专 5本科 6硕士 7博士' after workYearMax,
+    add column normalizeVersion tinyint default 0 not null comment '规范化规则版本，0 表示未规范化' after degreeLevel,
+    add index idx_salary (salaryMin, salaryMax),
+    add index idx_workYear (workYearMin, workYearMax),
+    add index idx_degreeLevel_salary (degreeLevel, salaryMin);
+
+-- 职位搜索：职位名称、描述、公司名的 ngram 全文索引（中文按二元组切分）
+alter table job_info add fulltext index ft_job_text (workName, workContent, companyName) with parser ngram;
+
+-- 职位市场日汇总：新表，执行 create_table.sql 中的 create table if not exists job_market_rollup
+-- 已按旧定义建表的：先把键归一（旧排序规则下大小写、尾部空格不同的键本就是同一行，不会冲突），再改为二进制排序规则
+update job_market_rollup set searchQuery = lower(trim(searchQuery)), cityCode = trim(cityCode), companyName = trim(companyName);
+alter table job_market_rollup
+    modify searchQuery varchar(64) collate utf8mb4_bin not null comment '搜索关键词（去掉首尾空白、小写）',
+    modify cityCode varchar(32) collate utf8mb4_bin default '' not null comment '城市代码，空字符串表示全部城市',
+    modify companyName varchar(256) collate utf8mb4_bin default '' not null comment '公司名（去掉首尾空白），空字符串表示全部公司';
+
+-- 近似重复检测：SimHash 指纹和原始职位 id；已有数据由 BackfillJobInfoSimHash 分块回填
+alter table job_info
+    add column simHash bigint null comment '职位描述、名称、公司名的 SimHash 指纹' after contentHash,
+    add column canonicalId bigint null comment '近似重复时指向的原始职位 id，原始职位为空' after simHash,
+    add index idx_canonicalId (canonicalId);
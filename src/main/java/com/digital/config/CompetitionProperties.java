@@ -0,0 +1,88 @@
+package com.digital.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 竞赛信息配置
+ *
+ * @author digital
+ */
+@Configuration
+@ConfigurationProperties(prefix = "competition")
+@Data
+public class CompetitionProperties {
+
+    /**
+     * 后台刷新竞赛列表的间隔（毫秒）
+     */
+    private long refreshIntervalMillis = 10 * 60 * 1000L;
+
+    /**
+     * 一次刷新等待各来源的总时间（毫秒），到时仍未返回的来源不参与本次合并，返回后再补充
+     */
+    private long deadlineMillis = 5000;
+
+    /**
+     * 启动后还没有任何结果时，接口等待首次刷新的最长时间（毫秒），超时返回空列表
+     */
+    private long coldStartWaitMillis = 3000;
+
+    /**
+     * 各来源配置，键为来源名称（如 saikr），未配置的来源使用默认值
+     */
+    private Map<String, Source> sources = new LinkedHashMap<>();
+
+    /**
+     * 排名历史配置
+     */
+    private History history = new History();
+
+    private static final Source DEFAULT_SOURCE = new Source();
+
+    public Source getSource(String name) {
+        return sources.getOrDefault(name, DEFAULT_SOURCE);
+    }
+
+    @Data
+    public static class Source {
+
+        /**
+         * 是否启用
+         */
+        private boolean enabled = true;
+
+        /**
+         * 单次抓取的总超时（毫秒）
+         */
+        private long timeoutMillis = 10000;
+
+        /**
+         * 抓取结果的缓存时间（毫秒），缓存未过期时刷新不再请求该来源
+         */
+        private long cacheTtlMillis = 10 * 60 * 1000L;
+    }
+
+    @Data
+    public static class History {
+
+        /**
+         * 是否记录每次刷新的排名快照
+         */
+        private boolean enabled = true;
+
+        /**
+         * 保留全部快照的天数，之后每小时只保留一个
+         */
+        private int rawRetentionDays = 7;
+
+        /**
+         * 每小时保留一个快照的天数，之后每天只保留一个
+         */
+        private int hourlyRetentionDays = 90;
+    }
+}
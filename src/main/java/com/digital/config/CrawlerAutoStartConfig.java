@@ -1,6 +1,6 @@
 package com.digital.config;
 
-import com.digital.service.BossZhiPinCrawler.BossZhiPinCrawlerService;
+import com.digital.service.BossZhiPinCrawler.CrawlJobManager;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -18,14 +18,13 @@ import jakarta.annotation.Resource;
 public class CrawlerAutoStartConfig implements CommandLineRunner {
 
     @Resource
-    private BossZhiPinCrawlerService crawlerService;
+    private CrawlJobManager crawlJobManager;
 
     /**
-     * 爬虫配置（可以根据需要修改这些参数）
+     * 爬取计划（关键词 × 城市），见 application.yml 的 crawler.plan
      */
-    private static final String DEFAULT_QUERY = "Java"; // 默认搜索关键词
-    private static final String DEFAULT_CITY_CODE = "101270100"; // 默认城市代码（成都）101300600广州
-    private static final int DEFAULT_MAX_PAGES = 40; // 默认最大页数
+    @Resource
+    private CrawlerProperties crawlerProperties;
 
     /**
      * 是否启用自动启动（设置为false可以禁用自动启动）
@@ -47,20 +46,13 @@ public class CrawlerAutoStartConfig implements CommandLineRunner {
                 
                 log.info("========================================");
                 log.info("开始自动启动爬虫任务");
-                log.info("参数: query={}, cityCode={}, maxPages={}", DEFAULT_QUERY, DEFAULT_CITY_CODE, DEFAULT_MAX_PAGES);
+                CrawlerProperties.Plan plan = crawlerProperties.getPlan();
+                log.info("参数: queries={}, cityCodes={}, maxPagesPerSeed={}", plan.getQueries(), plan.getCityCodes(),
+                        plan.getMaxPagesPerSeed());
                 log.info("========================================");
                 
-                String startUrl = "https://www.zhipin.com/web/geek/job?query=" + DEFAULT_QUERY + "&city=" + DEFAULT_CITY_CODE;
-                
-                // 初始化爬虫
-                crawlerService.initialize(startUrl, DEFAULT_QUERY, DEFAULT_CITY_CODE, DEFAULT_MAX_PAGES);
-                
-                // 开始爬取
-                crawlerService.crawl(startUrl);
-                
-                log.info("========================================");
-                log.info("自动爬虫任务完成");
-                log.info("========================================");
+                // 提交爬取任务，由任务调度器在后台运行
+                crawlJobManager.submitPlan();
                 
             } catch (Exception e) {
                 log.error("自动启动爬虫失败", e);
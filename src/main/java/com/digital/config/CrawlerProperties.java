@@ -0,0 +1,507 @@
+package com.digital.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 爬虫配置
+ *
+ * @author digital
+ */
+@Configuration
+@ConfigurationProperties(prefix = "crawler")
+@Data
+public class CrawlerProperties {
+
+    /**
+     * 浏览器工作线程数（每个线程独占一个浏览器）
+     */
+    private int workerCount = 3;
+
+    /**
+     * 同一域名两次请求之间的最小间隔（毫秒）；开启自适应限速时为初始间隔
+     */
+    private long hostMinIntervalMillis = 1500;
+
+    /**
+     * 同一域名允许的最大并发请求数；开启自适应限速时为并发上限的最大值
+     */
+    private int hostMaxConcurrency = 3;
+
+    /**
+     * 按域名的自适应限速（AIMD）配置
+     */
+    private RateControl rateControl = new RateControl();
+
+    /**
+     * 待爬队列为空时工作线程的等待时间（毫秒）
+     */
+    private long idlePollMillis = 500;
+
+    /**
+     * 浏览器池配置
+     */
+    private Browser browser = new Browser();
+
+    /**
+     * 页面就绪判定配置
+     */
+    private Readiness readiness = new Readiness();
+
+    /**
+     * 职位信息异步写入配置
+     */
+    private Persist persist = new Persist();
+
+    /**
+     * 已抓取职位的持久化去重集合配置
+     */
+    private SeenStore seenStore = new SeenStore();
+
+    /**
+     * 爬取任务调度配置
+     */
+    private Jobs jobs = new Jobs();
+
+    /**
+     * 爬取计划（关键词 × 城市）
+     */
+    private Plan plan = new Plan();
+
+    /**
+     * 增量重爬配置
+     */
+    private Recrawl recrawl = new Recrawl();
+
+    /**
+     * 详情页抽取规则配置
+     */
+    private Extraction extraction = new Extraction();
+
+    /**
+     * 分级页面获取配置
+     */
+    private Fetch fetch = new Fetch();
+
+    /**
+     * 获取/解析/写入流水线配置
+     */
+    private Pipeline pipeline = new Pipeline();
+
+    /**
+     * 页面录制配置（录制的归档可离线回放，见 CrawlReplay）
+     */
+    private Recording recording = new Recording();
+
+    /**
+     * 职位近似重复检测配置
+     */
+    private NearDuplicate nearDuplicate = new NearDuplicate();
+
+    /**
+     * 浏览器资源拦截策略，按名称引用；爬取任务未指定时使用 defaultResourcePolicy
+     */
+    private Map<String, ResourcePolicy> resourcePolicies = defaultResourcePolicies();
+
+    /**
+     * 默认资源拦截策略名称
+     */
+    private String defaultResourcePolicy = "lean";
+
+    /**
+     * 按名称获取资源拦截策略，名称为空时取默认策略
+     */
+    public ResourcePolicy resolveResourcePolicy(String name) {
+        String policyName = name == null || name.isEmpty() ? defaultResourcePolicy : name;
+        ResourcePolicy policy = resourcePolicies.get(policyName);
+        return policy != null ? policy : new ResourcePolicy();
+    }
+
+    private static Map<String, ResourcePolicy> defaultResourcePolicies() {
+        Map<String, ResourcePolicy> policies = new LinkedHashMap<>();
+        ResourcePolicy lean = new ResourcePolicy();
+        lean.setBlockTypes(new ArrayList<>(List.of("image", "media", "font")));
+        lean.setBlockUrlPatterns(new ArrayList<>(List.of("*google-analytics.com*", "*googletagmanager.com*",
+                "*doubleclick.net*", "*hm.baidu.com*", "*cnzz.com*", "*growingio.com*", "*sensorsdata*")));
+        policies.put("lean", lean);
+        policies.put("full", new ResourcePolicy());
+        return policies;
+    }
+
+    @Data
+    public static class Browser {
+
+        /**
+         * 是否无头模式
+         */
+        private boolean headless = true;
+
+        /**
+         * 窗口大小
+         */
+        private String windowSize = "1280,700";
+
+        /**
+         * 浏览器池最大实例数
+         */
+        private int maxSize = 3;
+
+        /**
+         * 池被使用后保持的空闲热备实例数
+         */
+        private int minIdle = 1;
+
+        /**
+         * 单个浏览器最多加载的页面数，超过后回收重建，防止内存持续增长
+         */
+        private int maxPagesPerDriver = 200;
+
+        /**
+         * 借用浏览器的最长等待时间（毫秒）
+         */
+        private long borrowTimeoutMillis = 60000;
+
+        /**
+         * 空闲超过该时间的多余实例会被关闭（毫秒）
+         */
+        private long idleTimeoutMillis = 10 * 60 * 1000L;
+
+        /**
+         * 借出超过该时间未归还视为泄漏，强制关闭（毫秒）
+         */
+        private long leakTimeoutMillis = 10 * 60 * 1000L;
+
+        /**
+         * 是否在应用启动时预热浏览器
+         */
+        private boolean warmOnStartup = false;
+    }
+
+    @Data
+    public static class Readiness {
+
+        /**
+         * 就绪判定策略：SELECTOR / NETWORK_IDLE / DOM_QUIET
+         */
+        private String strategy = "SELECTOR";
+
+        /**
+         * 列表页就绪标志（CSS选择器）
+         */
+        private String listSelector = ".job-list-box .job-card-wrapper, a.job-card-left";
+
+        /**
+         * 详情页就绪标志（CSS选择器）
+         */
+        private String detailSelector = ".job-sec-text, .job-detail-header h1";
+
+        /**
+         * 网络空闲/DOM静默需要持续的时间（毫秒）
+         */
+        private long quietWindowMillis = 500;
+
+        /**
+         * 轮询间隔（毫秒）
+         */
+        private long pollIntervalMillis = 100;
+
+        /**
+         * 硬超时，超时后直接取当前页面内容（毫秒）
+         */
+        private long timeoutMillis = 10000;
+
+        /**
+         * 就绪后是否滚动到底部触发懒加载（滚动后再等待一个静默窗口）
+         */
+        private boolean scrollToBottom = true;
+    }
+
+    @Data
+    public static class Persist {
+
+        /**
+         * 待写入队列容量
+         */
+        private int queueCapacity = 5000;
+
+        /**
+         * 每批写入的最大行数
+         */
+        private int batchSize = 200;
+
+        /**
+         * 未攒满一批时的最长刷新间隔（毫秒）
+         */
+        private long flushIntervalMillis = 1000;
+
+        /**
+         * 队列满时的处理方式：BLOCK 等待 offerTimeoutMillis 后丢弃，DROP 直接丢弃
+         */
+        private String backpressure = "BLOCK";
+
+        /**
+         * BLOCK 模式下等待队列空位的最长时间（毫秒）
+         */
+        private long offerTimeoutMillis = 5000;
+
+        /**
+         * 单批写入失败后的重试次数
+         */
+        private int maxRetries = 3;
+    }
+
+    @Data
+    public static class SeenStore {
+
+        /**
+         * 是否启用（关闭后每次重启都会重新抓取已入库的职位）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 指纹文件路径
+         */
+        private String path = "data/crawler/seen-urls.bin";
+
+        /**
+         * 预计容纳的URL数量，用于确定布隆过滤器大小
+         */
+        private int expectedEntries = 2000000;
+
+        /**
+         * 布隆过滤器误判率
+         */
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Data
+    public static class Jobs {
+
+        /**
+         * 同时运行的爬取任务数
+         */
+        private int maxConcurrent = 2;
+
+        /**
+         * 排队等待的任务数上限，超过后拒绝提交
+         */
+        private int queueCapacity = 20;
+
+        /**
+         * 保留的已结束任务数
+         */
+        private int historySize = 100;
+    }
+
+    @Data
+    public static class Plan {
+
+        /**
+         * 搜索关键词
+         */
+        private List<String> queries = new ArrayList<>(List.of("Java"));
+
+        /**
+         * 城市代码
+         */
+        private List<String> cityCodes = new ArrayList<>(List.of("101270100"));
+
+        /**
+         * 每个（关键词, 城市）种子的最大爬取页面数
+         */
+        private int maxPagesPerSeed = 40;
+    }
+
+    @Data
+    public static class Recrawl {
+
+        /**
+         * 是否在每次爬取时重新抓取到期的已入库职位
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每次爬取最多重新抓取的职位数
+         */
+        private int maxPerCrawl = 200;
+
+        /**
+         * 新职位的重新抓取间隔（小时）
+         */
+        private int initialIntervalHours = 24;
+
+        /**
+         * 重新抓取间隔下限（小时），内容经常变化的职位逐步缩短到这里
+         */
+        private int minIntervalHours = 6;
+
+        /**
+         * 重新抓取间隔上限（小时），内容一直不变的职位逐步延长到这里
+         */
+        private int maxIntervalHours = 720;
+
+        /**
+         * 领取到期职位后推迟的分钟数，避免并发的爬取任务重复领取
+         */
+        private int leaseMinutes = 60;
+    }
+
+    @Data
+    public static class Extraction {
+
+        /**
+         * 外部抽取规则文件（JSON），存在时覆盖 classpath:crawler/extraction-rules.json，修改后自动重新加载
+         */
+        private String rulesPath = "config/extraction-rules.json";
+
+        /**
+         * 检查规则文件是否修改的间隔
+         */
+        private long reloadIntervalMillis = 5000;
+    }
+
+    @Data
+    public static class Fetch {
+
+        /**
+         * 是否先尝试 HTTP 请求
+         */
+        private boolean httpEnabled = true;
+
+        /**
+         * HTTP 连接和请求超时
+         */
+        private long httpTimeoutMillis = 10000;
+
+        /**
+         * 每个URL模式至少试探多少次 HTTP 后才根据命中率决定
+         */
+        private int probeSamples = 10;
+
+        /**
+         * HTTP 命中率（页面中有职位结构的比例）低于该值时直接使用浏览器
+         */
+        private double minHttpHitRate = 0.3;
+
+        /**
+         * 直接使用浏览器的模式，每隔多少次请求仍试一次 HTTP
+         */
+        private int reprobeEvery = 50;
+
+        /**
+         * HTTP 请求的 User-Agent，与浏览器保持一致
+         */
+        private String userAgent = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0.6668.101 Safari/537.36";
+    }
+
+    @Data
+    public static class Pipeline {
+
+        /**
+         * 解析线程数，0 表示按 CPU 核数
+         */
+        private int parseThreads = 0;
+
+        /**
+         * 获取线程与解析线程之间的待解析页面队列容量，满时获取线程阻塞等待
+         */
+        private int parseQueueCapacity = 32;
+    }
+
+    @Data
+    public static class Recording {
+
+        /**
+         * 是否把抓取到的页面写入归档
+         */
+        private boolean enabled = false;
+
+        /**
+         * 归档文件路径（gzip 压缩，只追加）；每次启动录制新建一个分段，之后的分段为 path.1、path.2 ……
+         */
+        private String path = "data/crawler/page-archive.gz";
+    }
+
+    @Data
+    public static class NearDuplicate {
+
+        /**
+         * 是否在入库时检测近似重复的职位
+         */
+        private boolean enabled = true;
+
+        /**
+         * SimHash 汉明距离不超过该值视为近似重复（1 ~ 15），索引按该值 + 1 分段（至少 4 段）
+         */
+        private int maxDistance = 6;
+    }
+
+    @Data
+    public static class RateControl {
+
+        /**
+         * 是否按响应耗时和成功率自动调整速率和并发，关闭时按固定间隔和并发
+         */
+        private boolean enabled = true;
+
+        /**
+         * 请求间隔下限（毫秒），即速率上限
+         */
+        private long minIntervalMillis = 300;
+
+        /**
+         * 请求间隔上限（毫秒），即连续退让后的最低速率
+         */
+        private long maxIntervalMillis = 30000;
+
+        /**
+         * 并发上限的最小值
+         */
+        private int minConcurrency = 1;
+
+        /**
+         * 每次健康的成功请求后速率增加的量（次/秒）
+         */
+        private double increaseRatePerSecond = 0.05;
+
+        /**
+         * 失败、空页面或超时后速率和并发上限乘以的系数
+         */
+        private double decreaseFactor = 0.5;
+
+        /**
+         * 请求耗时不低于该值视为超时，按失败退让（毫秒）
+         */
+        private long slowLatencyMillis = 15000;
+
+        /**
+         * 耗时超过平均耗时的该倍数视为变慢，暂停增加
+         */
+        private double latencyTolerance = 2.0;
+
+        /**
+         * 近期成功率低于该值时暂停增加
+         */
+        private double minSuccessRate = 0.9;
+    }
+
+    @Data
+    public static class ResourcePolicy {
+
+        /**
+         * 拦截的资源类型：image、media、font、stylesheet
+         */
+        private List<String> blockTypes = new ArrayList<>();
+
+        /**
+         * 额外拦截的URL通配符（* 匹配任意字符），如第三方统计脚本
+         */
+        private List<String> blockUrlPatterns = new ArrayList<>();
+    }
+}
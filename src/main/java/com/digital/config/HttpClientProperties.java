@@ -0,0 +1,76 @@
+package com.digital.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 对外 HTTP 请求配置（竞赛来源、短信、爬虫 HTTP 获取共用）
+ *
+ * @author digital
+ */
+@Configuration
+@ConfigurationProperties(prefix = "http-client")
+@Data
+public class HttpClientProperties {
+
+    private long connectTimeoutMillis = 10000;
+
+    private long readTimeoutMillis = 30000;
+
+    private long writeTimeoutMillis = 10000;
+
+    /**
+     * 连接池最大空闲连接数
+     */
+    private int maxIdleConnections = 20;
+
+    /**
+     * 空闲连接保留时间（毫秒）
+     */
+    private long keepAliveMillis = 5 * 60 * 1000L;
+
+    /**
+     * 每个域名同时进行的请求数上限
+     */
+    private int maxConcurrencyPerHost = 8;
+
+    /**
+     * 响应缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 重试配置
+     */
+    private Retry retry = new Retry();
+
+    @Data
+    public static class Cache {
+
+        /**
+         * 是否启用磁盘响应缓存，带 ETag/Last-Modified 的响应过期后用条件请求重新验证
+         */
+        private boolean enabled = true;
+
+        private String directory = "data/http-cache";
+
+        private long maxSizeMb = 50;
+    }
+
+    @Data
+    public static class Retry {
+
+        /**
+         * GET/HEAD 请求遇到连接异常或 429/502/503/504 时的最大重试次数，0 表示不重试
+         */
+        private int maxRetries = 2;
+
+        /**
+         * 首次重试前的基础等待时间（毫秒），之后每次翻倍并加随机抖动
+         */
+        private long baseDelayMillis = 200;
+
+        private long maxDelayMillis = 3000;
+    }
+}
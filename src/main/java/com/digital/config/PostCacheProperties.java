@@ -0,0 +1,48 @@
+package com.digital.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 帖子详情缓存配置
+ *
+ * @author digital
+ */
+@Configuration
+@ConfigurationProperties(prefix = "post-cache")
+@Data
+public class PostCacheProperties {
+
+    /**
+     * 是否启用帖子详情缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 进程内缓存的最大帖子数
+     */
+    private long localMaxSize = 10000;
+
+    /**
+     * 进程内缓存的过期时间（秒）；多实例部署时其他实例的修改最多延迟这么久可见
+     */
+    private long localTtlSeconds = 30;
+
+    /**
+     * 是否使用 Redis 作为二级缓存（需同时开启 Redis 配置）
+     */
+    private boolean redisEnabled = false;
+
+    /**
+     * Redis 缓存的过期时间（秒）
+     */
+    private long redisTtlSeconds = 600;
+
+    /**
+     * 清除缓存后再延迟清除一次 Redis 缓存的时间（毫秒），清掉其他实例在修改前读到、修改后才写回的旧数据；0 表示不延迟清除
+     */
+    private long redisDelayedEvictMillis = 1000;
+
+    private String redisKeyPrefix = "post:detail:";
+}
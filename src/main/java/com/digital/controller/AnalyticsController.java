@@ -0,0 +1,47 @@
+package com.digital.controller;
+
+import com.digital.common.BaseResponse;
+import com.digital.common.ErrorCode;
+import com.digital.common.ResultUtils;
+import com.digital.exception.ThrowUtils;
+import com.digital.model.vo.SalaryStatsVO;
+import com.digital.service.JobMarketRollupService;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 职位市场分析接口（只读预先汇总的日统计，不扫描职位表）
+ *
+ * @author digital
+ */
+@RestController
+@RequestMapping("/analytics")
+@Slf4j
+public class AnalyticsController {
+
+    @Resource
+    private JobMarketRollupService jobMarketRollupService;
+
+    /**
+     * 薪资分位数、学历和经验分布，如 "最近一周成都 Java 职位的月薪中位数"
+     *
+     * @param query       搜索关键词（爬取计划中的关键词）
+     * @param cityCode    城市代码，不传为全部城市
+     * @param companyName 公司名，不传为全部公司
+     * @param days        最近几天（含今天），最多 366
+     * @return
+     */
+    @GetMapping("/salary")
+    public BaseResponse<SalaryStatsVO> getSalaryStats(@RequestParam String query,
+            @RequestParam(required = false) String cityCode,
+            @RequestParam(required = false) String companyName,
+            @RequestParam(defaultValue = "7") int days) {
+        ThrowUtils.throwIf(StringUtils.isBlank(query) || days <= 0 || days > 366, ErrorCode.PARAMS_ERROR);
+        return ResultUtils.success(jobMarketRollupService.getSalaryStats(query, cityCode, companyName, days));
+    }
+}
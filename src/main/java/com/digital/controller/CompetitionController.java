@@ -1,15 +1,25 @@
 package com.digital.controller;
 
 import com.digital.common.BaseResponse;
+import com.digital.common.ErrorCode;
 import com.digital.common.ResultUtils;
+import com.digital.exception.ThrowUtils;
 import com.digital.model.entity.Competition;
+import com.digital.model.vo.CompetitionDiffVO;
+import com.digital.model.vo.CompetitionRankPointVO;
+import com.digital.model.vo.CompetitionSnapshotVO;
+import com.digital.model.vo.CompetitionSourceVO;
+import com.digital.service.CompetitionHistoryService;
 import com.digital.service.CompetitionService;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.annotation.Resource;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -23,21 +33,81 @@ public class CompetitionController {
     @Resource
     private CompetitionService competitionService;
 
+    @Resource
+    private CompetitionHistoryService competitionHistoryService;
+
     /**
-     * 获取最新竞赛TOP10
+     * 获取最新竞赛TOP10（后台定时刷新，返回最近一次成功的结果）
      *
      * @return 竞赛列表
      */
     @GetMapping("/latest")
     public BaseResponse<List<Competition>> getLatestCompetitions() {
         try {
-            log.info("开始获取最新竞赛信息");
             List<Competition> competitions = competitionService.getLatestCompetitions();
-            log.info("成功获取 {} 个竞赛信息", competitions.size());
             return ResultUtils.success(competitions);
         } catch (Exception e) {
             log.error("获取竞赛信息失败", e);
             return ResultUtils.error(500, "获取竞赛信息失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 各竞赛来源的状态（缓存、耗时、成功/失败/超时次数）
+     *
+     * @return 来源状态列表
+     */
+    @GetMapping("/sources")
+    public BaseResponse<List<CompetitionSourceVO>> listSources() {
+        return ResultUtils.success(competitionService.getSourceStats());
+    }
+
+    /**
+     * 最近几天的排名快照（时间和竞赛数），快照时间可用于查询差异
+     *
+     * @param days 最近几天，最多 366
+     * @return 快照列表
+     */
+    @GetMapping("/history/snapshots")
+    public BaseResponse<List<CompetitionSnapshotVO>> listSnapshots(@RequestParam(defaultValue = "1") int days) {
+        ThrowUtils.throwIf(days <= 0 || days > 366, ErrorCode.PARAMS_ERROR);
+        Date now = new Date();
+        return ResultUtils.success(competitionHistoryService.listSnapshots(daysBefore(now, days), now));
+    }
+
+    /**
+     * 某个竞赛最近几天的排名和热度轨迹
+     *
+     * @param url  竞赛链接（与 /latest 返回的 url 相同）
+     * @param days 最近几天，最多 366
+     * @return 按时间升序的轨迹
+     */
+    @GetMapping("/history/trajectory")
+    public BaseResponse<List<CompetitionRankPointVO>> getTrajectory(@RequestParam String url,
+            @RequestParam(defaultValue = "30") int days) {
+        ThrowUtils.throwIf(StringUtils.isBlank(url) || days <= 0 || days > 366, ErrorCode.PARAMS_ERROR);
+        Date now = new Date();
+        return ResultUtils.success(competitionHistoryService.getTrajectory(url, daysBefore(now, days), now));
+    }
+
+    /**
+     * 两个快照之间的排名变化，不传时比较最新的两个快照
+     *
+     * @param from 旧快照时间（毫秒时间戳），取不晚于该时间的最近快照；不传时为新快照的前一个
+     * @param to   新快照时间（毫秒时间戳），取不晚于该时间的最近快照；不传时为最新快照
+     * @return 排名变化
+     */
+    @GetMapping("/history/diff")
+    public BaseResponse<CompetitionDiffVO> diff(@RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to) {
+        ThrowUtils.throwIf(from != null && to != null && from > to, ErrorCode.PARAMS_ERROR, "from 不能晚于 to");
+        CompetitionDiffVO diffVO = competitionHistoryService.diff(from != null ? new Date(from) : null,
+                to != null ? new Date(to) : null);
+        ThrowUtils.throwIf(diffVO == null, ErrorCode.NOT_FOUND_ERROR, "没有可比较的快照");
+        return ResultUtils.success(diffVO);
+    }
+
+    private static Date daysBefore(Date time, int days) {
+        return new Date(time.getTime() - days * 86400000L);
+    }
 }
@@ -1,12 +1,24 @@
 package com.digital.controller;
 
 import com.digital.common.BaseResponse;
+import com.digital.common.ErrorCode;
 import com.digital.common.ResultUtils;
-import com.digital.service.BossZhiPinCrawler.BossZhiPinCrawlerService;
+import com.digital.exception.BusinessException;
+import com.digital.exception.ThrowUtils;
+import com.digital.model.vo.CrawlJobVO;
+import com.digital.service.BossZhiPinCrawler.CrawlJob;
+import com.digital.service.BossZhiPinCrawler.CrawlJobManager;
+import com.digital.service.BossZhiPinCrawler.CrawlSeed;
+import com.digital.service.BossZhiPinCrawler.HostPolitenessBudget;
+import com.digital.service.BossZhiPinCrawler.PageReadinessRecorder;
+import com.digital.service.BossZhiPinCrawler.TieredPageFetcher;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.annotation.Resource;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 爬虫接口
@@ -19,60 +31,137 @@ import jakarta.annotation.Resource;
 public class CrawlerController {
 
     @Resource
-    private BossZhiPinCrawlerService crawlerService;
+    private CrawlJobManager crawlJobManager;
+
+    @Resource
+    private PageReadinessRecorder readinessRecorder;
+
+    @Resource
+    private TieredPageFetcher tieredPageFetcher;
+
+    @Resource
+    private HostPolitenessBudget hostPolitenessBudget;
 
     /**
-     * 启动BOSS直聘爬虫
+     * 启动BOSS直聘爬虫（提交爬取任务，排队后在后台运行）
      *
      * @param query    搜索关键词，如 "Java"
      * @param cityCode 城市代码，如 "101300600" (广州)
      * @param maxPages 最大爬取页面数，默认500
-     * @return 响应结果
+     * @param resourcePolicy 浏览器资源拦截策略（如 lean、full），不传时使用默认策略
+     * @return 任务信息
      */
     @PostMapping("/boss-zhipin/start")
-    public BaseResponse<String> startCrawler(
+    public BaseResponse<CrawlJobVO> startCrawler(
             @RequestParam String query,
             @RequestParam String cityCode,
-            @RequestParam(defaultValue = "500") Integer maxPages) {
-        
-        try {
-            String startUrl = "https://www.zhipin.com/web/geek/job?query=" + query + "&city=" + cityCode;
-            
-            // 初始化爬虫参数
-            log.info("爬虫初始化: query={}, cityCode={}, maxPages={}", query, cityCode, maxPages);
-            crawlerService.initialize(startUrl, query, cityCode, maxPages);
-            
-            // 在新线程中运行爬虫，避免阻塞请求
-            Thread crawlerThread = new Thread(() -> {
-                try {
-                    crawlerService.crawl(startUrl);
-                    log.info("爬虫完成: query={}, cityCode={}", query, cityCode);
-                } catch (Exception e) {
-                    log.error("爬虫错误", e);
-                }
-            });
-            crawlerThread.setName("BossZhiPin-Crawler");
-            crawlerThread.setDaemon(false);
-            crawlerThread.start();
-            log.info("爬虫已启动，后台运行中...");
-            
-            return ResultUtils.success("爬虫已启动，正在后台运行中...");
-        } catch (Exception e) {
-            log.error("启动爬虫失败", e);
-            @SuppressWarnings("unchecked")
-            BaseResponse<String> errorResponse = (BaseResponse<String>) ResultUtils.error(500, "启动爬虫失败: " + e.getMessage());
-            return errorResponse;
+            @RequestParam(defaultValue = "500") Integer maxPages,
+            @RequestParam(required = false) String resourcePolicy) {
+        ThrowUtils.throwIf(StringUtils.isAnyBlank(query, cityCode) || maxPages <= 0, ErrorCode.PARAMS_ERROR);
+        CrawlJob crawlJob = crawlJobManager.submit(List.of(new CrawlSeed(query, cityCode, maxPages)), resourcePolicy);
+        return ResultUtils.success(CrawlJobVO.objToVo(crawlJob));
+    }
+
+    /**
+     * 按关键词 × 城市矩阵提交一个爬取任务，所有组合共享职位去重，按种子轮询分配工作线程
+     *
+     * @param queries         搜索关键词，逗号分隔；不传时使用配置的爬取计划
+     * @param cityCodes       城市代码，逗号分隔；不传时使用配置的爬取计划
+     * @param maxPagesPerSeed 每个组合的最大爬取页面数，默认40
+     * @param resourcePolicy  浏览器资源拦截策略（如 lean、full），不传时使用默认策略
+     * @return 任务信息
+     */
+    @PostMapping("/boss-zhipin/plan")
+    public BaseResponse<CrawlJobVO> startPlan(
+            @RequestParam(required = false) List<String> queries,
+            @RequestParam(required = false) List<String> cityCodes,
+            @RequestParam(defaultValue = "40") Integer maxPagesPerSeed,
+            @RequestParam(required = false) String resourcePolicy) {
+        if (queries == null && cityCodes == null) {
+            return ResultUtils.success(CrawlJobVO.objToVo(crawlJobManager.submitPlan(resourcePolicy)));
         }
+        ThrowUtils.throwIf(queries == null || cityCodes == null || maxPagesPerSeed <= 0, ErrorCode.PARAMS_ERROR);
+        List<CrawlSeed> seeds = CrawlJobManager.buildPlan(queries, cityCodes, maxPagesPerSeed);
+        ThrowUtils.throwIf(seeds.isEmpty(), ErrorCode.PARAMS_ERROR, "爬取计划为空");
+        return ResultUtils.success(CrawlJobVO.objToVo(crawlJobManager.submit(seeds, resourcePolicy)));
     }
 
     /**
-     * 获取爬虫状态（简单示例）
+     * 获取所有爬取任务的状态和进度（按提交时间倒序）
      *
      * @return 响应结果
      */
     @GetMapping("/boss-zhipin/status")
-    public BaseResponse<String> getStatus() {
-        return ResultUtils.success("爬虫服务运行正常");
+    public BaseResponse<List<CrawlJobVO>> getStatus() {
+        return ResultUtils.success(crawlJobManager.list().stream().map(CrawlJobVO::objToVo).toList());
+    }
+
+    /**
+     * 获取单个爬取任务的状态和进度
+     *
+     * @param id 任务 id
+     * @return 响应结果
+     */
+    @GetMapping("/boss-zhipin/jobs/{id}")
+    public BaseResponse<CrawlJobVO> getJob(@PathVariable String id) {
+        CrawlJob crawlJob = crawlJobManager.get(id);
+        ThrowUtils.throwIf(crawlJob == null, ErrorCode.NOT_FOUND_ERROR);
+        return ResultUtils.success(CrawlJobVO.objToVo(crawlJob));
+    }
+
+    /**
+     * 取消爬取任务（排队中的直接移除，运行中的停止爬取）
+     *
+     * @param id 任务 id
+     * @return 响应结果
+     */
+    @PostMapping("/boss-zhipin/jobs/{id}/cancel")
+    public BaseResponse<Boolean> cancelJob(@PathVariable String id) {
+        ThrowUtils.throwIf(crawlJobManager.get(id) == null, ErrorCode.NOT_FOUND_ERROR);
+        if (!crawlJobManager.cancel(id)) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "任务已结束");
+        }
+        return ResultUtils.success(true);
+    }
+
+    /**
+     * 页面就绪耗时统计（按列表页/详情页），用于调优就绪策略
+     *
+     * @return 响应结果
+     */
+    @GetMapping("/boss-zhipin/readiness")
+    public BaseResponse<Map<String, PageReadinessRecorder.ReadinessSummary>> getReadinessStats() {
+        return ResultUtils.success(readinessRecorder.snapshot());
+    }
+
+    /**
+     * 浏览器页面成本统计（按 页面类型/资源策略：平均传输KB、资源数、渲染耗时），用于比较拦截策略的效果
+     *
+     * @return 响应结果
+     */
+    @GetMapping("/boss-zhipin/page-cost")
+    public BaseResponse<Map<String, PageReadinessRecorder.PageCostSummary>> getPageCost() {
+        return ResultUtils.success(readinessRecorder.costSnapshot());
+    }
+
+    /**
+     * 按URL模式的分级获取统计（HTTP 命中率、各方式耗时、当前优先的方式）
+     *
+     * @return 响应结果
+     */
+    @GetMapping("/boss-zhipin/fetch-stats")
+    public BaseResponse<Map<String, TieredPageFetcher.FetchStatsSummary>> getFetchStats() {
+        return ResultUtils.success(tieredPageFetcher.snapshot());
+    }
+
+    /**
+     * 按域名的自适应限速状态（当前速率、并发上限、平均耗时、成功率、退让次数）
+     *
+     * @return 响应结果
+     */
+    @GetMapping("/boss-zhipin/rate")
+    public BaseResponse<Map<String, HostPolitenessBudget.HostRateSummary>> getRateStats() {
+        return ResultUtils.success(hostPolitenessBudget.snapshot());
     }
 
     /**
@@ -80,7 +169,7 @@ public class CrawlerController {
      * 
      * @param query    搜索关键词，默认 "Java"
      * @param cityCode 城市代码，默认 "101300600" (广州)
-     * @param maxPages 最大爬取页面数，默认 20
+     * @param maxPages 最大爬取页面数，默认 40
      * @return 响应结果
      */
     @GetMapping("/boss-zhipin/test")
@@ -88,37 +177,9 @@ public class CrawlerController {
             @RequestParam(defaultValue = "Java") String query,
             @RequestParam(defaultValue = "101300600") String cityCode,
             @RequestParam(defaultValue = "40") Integer maxPages) {
-        
-        try {
-            String startUrl = "https://www.zhipin.com/web/geek/job?query=" + query + "&city=" + cityCode;
-            
-            // 初始化爬虫参数
-            log.info("爬虫初始化: query={}, cityCode={}, maxPages={}", query, cityCode, maxPages);
-            crawlerService.initialize(startUrl, query, cityCode, maxPages);
-            
-            // 在新线程中运行爬虫，避免阻塞请求
-            Thread crawlerThread = new Thread(() -> {
-                try {
-                    crawlerService.crawl(startUrl);
-                    log.info("爬虫完成: query={}, cityCode={}", query, cityCode);
-                } catch (Exception e) {
-                    log.error("爬虫错误", e);
-                }
-            });
-            crawlerThread.setName("BossZhiPin-Crawler");
-            crawlerThread.setDaemon(false);
-            crawlerThread.start();
-            log.info("爬虫已启动，后台运行中...");
-            
-            String message = String.format("爬虫已启动！参数: 关键词=%s, 城市代码=%s, 最大页数=%d", 
-                    query, cityCode, maxPages);
-            return ResultUtils.success(message);
-        } catch (Exception e) {
-            log.error("启动爬虫失败", e);
-            @SuppressWarnings("unchecked")
-            BaseResponse<String> errorResponse = (BaseResponse<String>) ResultUtils.error(500, "启动爬虫失败: " + e.getMessage());
-            return errorResponse;
-        }
+        CrawlJob crawlJob = crawlJobManager.submit(query, cityCode, maxPages);
+        String message = String.format("爬虫已提交！任务id=%s, 参数: 关键词=%s, 城市代码=%s, 最大页数=%d",
+                crawlJob.getId(), query, cityCode, maxPages);
+        return ResultUtils.success(message);
     }
 }
-
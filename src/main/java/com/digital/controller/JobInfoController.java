@@ -0,0 +1,79 @@
+package com.digital.controller;
+
+import com.digital.annotation.AuthCheck;
+import com.digital.common.BaseResponse;
+import com.digital.common.ErrorCode;
+import com.digital.common.ResultUtils;
+import com.digital.constant.UserConstant;
+import com.digital.exception.ThrowUtils;
+import com.digital.model.dto.jobinfo.JobInfoSearchRequest;
+import com.digital.model.vo.JobSearchResultVO;
+import com.digital.service.JobInfoExportService;
+import com.digital.service.JobInfoSearchService;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Date;
+
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 招聘信息接口
+ *
+ * @author digital
+ */
+@RestController
+@RequestMapping("/job")
+@Slf4j
+public class JobInfoController {
+
+    @Resource
+    private JobInfoExportService jobInfoExportService;
+
+    @Resource
+    private JobInfoSearchService jobInfoSearchService;
+
+    /**
+     * 搜索职位：关键词匹配职位名称、描述和公司名，可按公司、学历、经验、最低月薪筛选；
+     * 按 id 倒序游标分页，第一页附带分面统计
+     *
+     * @param searchRequest
+     * @return
+     */
+    @PostMapping("/search")
+    public BaseResponse<JobSearchResultVO> searchJobInfo(@RequestBody JobInfoSearchRequest searchRequest) {
+        ThrowUtils.throwIf(searchRequest == null, ErrorCode.PARAMS_ERROR);
+        // 限制爬虫
+        ThrowUtils.throwIf(searchRequest.getPageSize() <= 0 || searchRequest.getPageSize() > 50, ErrorCode.PARAMS_ERROR);
+        ThrowUtils.throwIf(searchRequest.getSearchText() != null && searchRequest.getSearchText().length() > 64,
+                ErrorCode.PARAMS_ERROR, "搜索词过长");
+        return ResultUtils.success(jobInfoSearchService.search(searchRequest));
+    }
+
+    /**
+     * 流式导出招聘信息 CSV（仅管理员）
+     *
+     * @param gzip     是否 gzip 压缩
+     * @param days     只导出最近几天创建的职位，不传导出全部
+     * @param response
+     */
+    @GetMapping("/export")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public void exportJobInfo(@RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Integer days,
+            HttpServletResponse response) throws IOException {
+        Date minCreateTime = days == null ? null : new Date(System.currentTimeMillis() - days * 24L * 60 * 60 * 1000);
+        String fileName = gzip ? "job_info.csv.gz" : "job_info.csv";
+        response.setContentType(gzip ? "application/gzip" : "text/csv;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=" + fileName);
+        long count = jobInfoExportService.exportCsv(Channels.newChannel(response.getOutputStream()), gzip, minCreateTime);
+        log.info("导出职位信息 {} 条", count);
+    }
+}
@@ -0,0 +1,34 @@
+package com.digital.job.cycle;
+
+import com.digital.service.JobInfoExportService;
+import java.nio.file.Paths;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 每天全量导出招聘信息到 CSV 文件
+ *
+ */
+// todo 取消注释开启任务
+//@Component
+@Slf4j
+public class ExportJobInfoToCsv {
+
+    @Resource
+    private JobInfoExportService jobInfoExportService;
+
+    /**
+     * 每天凌晨 3 点执行
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    public void run() {
+        try {
+            long count = jobInfoExportService.exportCsvToFile(Paths.get("export", "job_info.csv.gz"), true, null);
+            log.info("ExportJobInfoToCsv end, total {}", count);
+        } catch (Exception e) {
+            log.error("ExportJobInfoToCsv error", e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.digital.job.cycle;
+
+import com.digital.service.BossZhiPinCrawler.CrawlJob;
+import com.digital.service.BossZhiPinCrawler.CrawlJobManager;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 每晚按 crawler.plan 配置的关键词 × 城市矩阵提交爬取任务
+ *
+ */
+// todo 取消注释开启任务
+//@Component
+@Slf4j
+public class NightlyCrawlPlan {
+
+    @Resource
+    private CrawlJobManager crawlJobManager;
+
+    /**
+     * 每天凌晨 1 点执行
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void run() {
+        try {
+            CrawlJob crawlJob = crawlJobManager.submitPlan();
+            log.info("NightlyCrawlPlan submitted, job id {}, {} seeds", crawlJob.getId(), crawlJob.getSeeds().size());
+        } catch (Exception e) {
+            log.error("NightlyCrawlPlan error", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.digital.job.once;
+
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.utils.JobAttributeNormalizer;
+import java.util.List;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+
+/**
+ * 回填职位的规范化数值列（薪资、经验、学历）
+ * <p>
+ * 按主键分块读取规范化版本低于当前版本的职位，只读原始文本列，每块批量写回；
+ * 规范化规则升级（JobAttributeNormalizer.VERSION 加一）后再次执行即可重新处理。
+ *
+ */
+// todo 取消注释开启任务
+//@Component
+@Slf4j
+public class BackfillJobInfoNormalization implements CommandLineRunner {
+
+    @Resource
+    private JobInfoMapper jobInfoMapper;
+
+    @Override
+    public void run(String... args) {
+        final int pageSize = 500;
+        long afterId = 0;
+        long total = 0;
+        log.info("BackfillJobInfoNormalization start, version {}", JobAttributeNormalizer.VERSION);
+        while (true) {
+            List<JobInfo> jobInfoList = jobInfoMapper.selectForNormalization(afterId, JobAttributeNormalizer.VERSION, pageSize);
+            if (jobInfoList.isEmpty()) {
+                break;
+            }
+            jobInfoList.forEach(JobAttributeNormalizer::normalize);
+            jobInfoMapper.updateNormalized(jobInfoList, JobAttributeNormalizer.VERSION);
+            afterId = jobInfoList.get(jobInfoList.size() - 1).getId();
+            total += jobInfoList.size();
+            log.info("normalized up to id {}, total {}", afterId, total);
+        }
+        log.info("BackfillJobInfoNormalization end, total {}", total);
+    }
+}
@@ -0,0 +1,58 @@
+package com.digital.job.once;
+
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.service.BossZhiPinCrawler.NearDuplicateIndex;
+import com.digital.utils.SimHash;
+import java.util.List;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+
+/**
+ * 回填职位的 SimHash 指纹和原始职位 id
+ * <p>
+ * 按主键从小到大分块处理还没有指纹的职位，较早入库的职位先进入近似重复索引，成为后续重复职位的原始职位。
+ *
+ */
+// todo 取消注释开启任务
+//@Component
+@Slf4j
+public class BackfillJobInfoSimHash implements CommandLineRunner {
+
+    @Resource
+    private JobInfoMapper jobInfoMapper;
+
+    @Resource
+    private NearDuplicateIndex nearDuplicateIndex;
+
+    @Override
+    public void run(String... args) {
+        final int pageSize = 500;
+        long afterId = 0;
+        long total = 0;
+        long duplicates = 0;
+        log.info("BackfillJobInfoSimHash start");
+        while (true) {
+            List<JobInfo> jobInfoList = jobInfoMapper.selectForSimHash(afterId, pageSize);
+            if (jobInfoList.isEmpty()) {
+                break;
+            }
+            for (JobInfo jobInfo : jobInfoList) {
+                jobInfo.setSimHash(SimHash.ofJob(jobInfo.getWorkName(), jobInfo.getWorkContent(), jobInfo.getCompanyName()));
+                jobInfo.setCanonicalId(nearDuplicateIndex.findCanonical(jobInfo.getSimHash(), jobInfo.getUrlHash()));
+                if (jobInfo.getCanonicalId() != null) {
+                    duplicates++;
+                }
+                // 同一块中后面的职位也要能匹配到前面的职位
+                nearDuplicateIndex.addAll(List.of(jobInfo));
+            }
+            jobInfoMapper.updateSimHash(jobInfoList);
+            afterId = jobInfoList.get(jobInfoList.size() - 1).getId();
+            total += jobInfoList.size();
+            log.info("simhash up to id {}, total {}, duplicates {}", afterId, total, duplicates);
+        }
+        log.info("BackfillJobInfoSimHash end, total {}, duplicates {}", total, duplicates);
+    }
+}
@@ -0,0 +1,239 @@
+package com.digital.manager;
+
+import com.digital.config.HttpClientProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对外 HTTP 请求
+ * <p>
+ * 所有对外请求共用一个 OkHttpClient：共享连接池和调度线程，默认协商 HTTP/2；
+ * 磁盘响应缓存按响应头缓存，过期后带 If-None-Match/If-Modified-Since 重新验证，304 时直接使用缓存内容；
+ * 每个域名同时进行的请求数有上限（缓存命中不占用）；GET/HEAD 遇到连接异常或 429/502/503/504 时按指数退避加随机抖动重试。
+ * 每次请求按域名记录耗时（outbound.http.requests，标签 host/method/status/cache）。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class HttpClientManager {
+
+    private static final String METRIC_PREFIX = "outbound.http";
+
+    private final HttpClientProperties config;
+
+    private final MeterRegistry registry;
+
+    private final OkHttpClient client;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    /**
+     * 重试拦截器，单独保存以便 {@link #withoutRetry} 去掉
+     */
+    private final Interceptor retryInterceptor = this::retry;
+
+    public HttpClientManager(HttpClientProperties httpClientProperties, MeterRegistry meterRegistry) {
+        this.config = httpClientProperties;
+        this.registry = meterRegistry;
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(Math.max(1, config.getMaxConcurrencyPerHost()));
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(), config.getKeepAliveMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(config.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(config.getWriteTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .addInterceptor(retryInterceptor)
+                .addInterceptor(this::measure)
+                .addNetworkInterceptor(this::limitPerHost);
+        HttpClientProperties.Cache cacheConfig = config.getCache();
+        if (cacheConfig.isEnabled()) {
+            builder.cache(new Cache(new File(cacheConfig.getDirectory()), cacheConfig.getMaxSizeMb() * 1024 * 1024));
+        }
+        this.client = builder.build();
+    }
+
+    /**
+     * 非Spring环境下直接构造时使用：默认配置，不启用磁盘缓存，指标不导出
+     */
+    public static HttpClientManager standalone() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getCache().setEnabled(false);
+        return new HttpClientManager(properties, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 共享的客户端
+     */
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * 带总超时的客户端，与共享客户端使用同一个连接池、缓存和限流
+     *
+     * @param callTimeout 单次调用（含重试）的总超时
+     */
+    public OkHttpClient withCallTimeout(Duration callTimeout) {
+        return client.newBuilder().callTimeout(callTimeout).build();
+    }
+
+    /**
+     * 带总超时、不自动重试的客户端，与共享客户端使用同一个连接池、缓存和限流。
+     * 供自行控制访问速率的调用方使用（如爬虫），429/503 等状态码原样返回给调用方
+     *
+     * @param callTimeout 单次调用的总超时
+     */
+    public OkHttpClient withoutRetry(Duration callTimeout) {
+        OkHttpClient.Builder builder = client.newBuilder().callTimeout(callTimeout);
+        builder.interceptors().remove(retryInterceptor);
+        return builder.build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        Cache cache = client.cache();
+        if (cache != null) {
+            try {
+                cache.close();
+            } catch (IOException e) {
+                log.warn("关闭 HTTP 响应缓存失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 幂等请求遇到连接异常或可重试的状态码时重试
+     */
+    private Response retry(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean idempotent = "GET".equals(request.method()) || "HEAD".equals(request.method());
+        int maxRetries = idempotent ? Math.max(0, config.getRetry().getMaxRetries()) : 0;
+        for (int attempt = 0; ; attempt++) {
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                if (attempt >= maxRetries || chain.call().isCanceled() || e instanceof InterruptedIOException) {
+                    throw e;
+                }
+                log.debug("请求 {} 失败，第 {} 次重试: {}", request.url().host(), attempt + 1, e.toString());
+                backoff(request, attempt);
+                continue;
+            }
+            if (attempt >= maxRetries || !isRetryableStatus(response.code())) {
+                return response;
+            }
+            response.close();
+            log.debug("请求 {} 返回 {}，第 {} 次重试", request.url().host(), response.code(), attempt + 1);
+            backoff(request, attempt);
+        }
+    }
+
+    private void backoff(Request request, int attempt) throws InterruptedIOException {
+        Counter.builder(METRIC_PREFIX + ".retries")
+                .tag("host", request.url().host())
+                .register(registry)
+                .increment();
+        try {
+            Thread.sleep(backoffMillis(attempt, config.getRetry().getBaseDelayMillis(), config.getRetry().getMaxDelayMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("重试等待被中断");
+        }
+    }
+
+    /**
+     * 第 attempt 次重试前的等待时间：base * 2^attempt（不超过 max），取其一半到全部之间的随机值
+     */
+    static long backoffMillis(int attempt, long baseDelayMillis, long maxDelayMillis) {
+        long delay = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt, 20));
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    static boolean isRetryableStatus(int code) {
+        return code == 429 || code == 502 || code == 503 || code == 504;
+    }
+
+    /**
+     * 按域名记录每次尝试的耗时、状态码和缓存使用情况
+     */
+    private Response measure(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        String cache = "NONE";
+        try {
+            Response response = chain.proceed(request);
+            status = String.valueOf(response.code());
+            cache = cacheOutcome(response);
+            return response;
+        } finally {
+            Timer.builder(METRIC_PREFIX + ".requests")
+                    .tag("host", request.url().host())
+                    .tag("method", request.method())
+                    .tag("status", status)
+                    .tag("cache", cache)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * HIT：直接使用缓存；REVALIDATED：条件请求返回 304 后使用缓存；MISS：从网络获取（含条件请求返回新内容）
+     */
+    static String cacheOutcome(Response response) {
+        if (response.cacheResponse() == null) {
+            return "MISS";
+        }
+        if (response.networkResponse() == null) {
+            return "HIT";
+        }
+        return response.networkResponse().code() == 304 ? "REVALIDATED" : "MISS";
+    }
+
+    /**
+     * 每个域名同时等待响应的网络请求数不超过 maxConcurrencyPerHost
+     */
+    private Response limitPerHost(Interceptor.Chain chain) throws IOException {
+        Semaphore permits = hostPermits.computeIfAbsent(chain.request().url().host(),
+                host -> new Semaphore(Math.max(1, config.getMaxConcurrencyPerHost())));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待域名并发许可被中断");
+        }
+        try {
+            return chain.proceed(chain.request());
+        } finally {
+            permits.release();
+        }
+    }
+}
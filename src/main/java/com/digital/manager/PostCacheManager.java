@@ -0,0 +1,264 @@
+package com.digital.manager;
+
+import com.digital.config.PostCacheProperties;
+import com.digital.model.vo.PostVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongFunction;
+
+/**
+ * 帖子详情缓存
+ * <p>
+ * 缓存帖子详情中与当前用户、作者资料都无关的部分（帖子内容和计数）；作者信息和当前用户的点赞、收藏状态由调用方每次请求单独查询，
+ * 作者修改资料后不需要清除帖子缓存。Redis 中的内容用应用统一配置的 ObjectMapper 序列化。
+ * 一级缓存为进程内 Caffeine，二级缓存为可选的 Redis（post-cache.redis-enabled 且 Redis 已配置时启用），都未命中时查询数据库并回填。
+ * 帖子修改、删除以及点赞、收藏计数变化时调用 {@link #invalidate(long)}；在事务中调用时提交后会再清除一次，
+ * 避免提交前被并发请求用旧数据回填。清除时递增该帖子所在分段的版本号，加载前后版本号不同的结果不写回缓存，
+ * 避免清除前开始加载的请求在清除后写回旧数据；其他实例写回的旧数据由延迟的第二次 Redis 清除兜底。
+ * 命中情况记录在 post.cache.requests（标签 level=local/redis，result=hit/miss）。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class PostCacheManager {
+
+    private static final String METRIC_NAME = "post.cache.requests";
+
+    /**
+     * 清除版本号的分段数（2 的幂），帖子 id 按分段共用版本号
+     */
+    private static final int VERSION_STRIPES = 1024;
+
+    private final PostCacheProperties config;
+
+    private final Cache<Long, PostVO> localCache;
+
+    /**
+     * 未启用 Redis 二级缓存时为 null
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 各分段的清除版本号
+     */
+    private final AtomicLongArray invalidationVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    /**
+     * 延迟清除 Redis 缓存的线程，未启用 Redis 或不延迟清除时为 null
+     */
+    private final ScheduledExecutorService delayedEvictor;
+
+    private final Counter localHits;
+
+    private final Counter localMisses;
+
+    private final Counter redisHits;
+
+    private final Counter redisMisses;
+
+    @Autowired
+    public PostCacheManager(PostCacheProperties postCacheProperties, MeterRegistry meterRegistry,
+                            ObjectProvider<StringRedisTemplate> redisTemplateProvider, ObjectMapper objectMapper) {
+        this(postCacheProperties, meterRegistry,
+                postCacheProperties.isRedisEnabled() ? redisTemplateProvider.getIfAvailable() : null, objectMapper);
+    }
+
+    PostCacheManager(PostCacheProperties postCacheProperties, MeterRegistry meterRegistry, StringRedisTemplate redisTemplate,
+                     ObjectMapper objectMapper) {
+        this.config = postCacheProperties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        if (config.isRedisEnabled() && redisTemplate == null) {
+            log.warn("post-cache.redis-enabled 已开启但没有可用的 Redis，只使用进程内缓存");
+        }
+        this.delayedEvictor = redisTemplate != null && config.getRedisDelayedEvictMillis() > 0
+                ? Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "PostCache-DelayedEvict");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(config.getLocalMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getLocalTtlSeconds()))
+                .build();
+        this.localHits = counter(meterRegistry, "local", "hit");
+        this.localMisses = counter(meterRegistry, "local", "miss");
+        this.redisHits = counter(meterRegistry, "redis", "hit");
+        this.redisMisses = counter(meterRegistry, "redis", "miss");
+    }
+
+    private static Counter counter(MeterRegistry registry, String level, String result) {
+        return Counter.builder(METRIC_NAME).tag("level", level).tag("result", result).register(registry);
+    }
+
+    /**
+     * 获取帖子详情，依次查一级缓存、二级缓存、loader
+     *
+     * @param postId 帖子 id
+     * @param loader 缓存未命中时加载帖子详情（作者信息、当前用户状态即使填了也不缓存），帖子不存在时返回 null（不缓存）
+     * @return 帖子详情的副本（不含作者信息和当前用户状态），调用方可以直接修改；帖子不存在时返回 null
+     */
+    public PostVO get(long postId, LongFunction<PostVO> loader) {
+        if (!config.isEnabled()) {
+            return loader.apply(postId);
+        }
+        PostVO postVO = localCache.getIfPresent(postId);
+        if (postVO != null) {
+            localHits.increment();
+            return copyOf(postVO);
+        }
+        localMisses.increment();
+        long version = versionOf(postId);
+        boolean loaded = false;
+        postVO = getFromRedis(postId);
+        if (postVO == null) {
+            postVO = loader.apply(postId);
+            if (postVO == null) {
+                return null;
+            }
+            postVO = copyOf(postVO);
+            loaded = true;
+        }
+        if (versionOf(postId) != version) {
+            // 加载期间帖子被清除过，结果可能是修改前的数据，只返回不写回
+            return copyOf(postVO);
+        }
+        if (loaded) {
+            putToRedis(postId, postVO);
+        }
+        localCache.put(postId, postVO);
+        if (versionOf(postId) != version) {
+            // 写回的同时被清除：清除可能发生在写回之前，再清除一次
+            evict(postId);
+        }
+        return copyOf(postVO);
+    }
+
+    /**
+     * 清除帖子详情缓存
+     *
+     * @param postId 帖子 id
+     */
+    public void invalidate(long postId) {
+        invalidationVersions.incrementAndGet(stripeOf(postId));
+        evict(postId);
+        if (delayedEvictor != null) {
+            try {
+                delayedEvictor.schedule(() -> evict(postId), config.getRedisDelayedEvictMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 应用关闭中
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationVersions.incrementAndGet(stripeOf(postId));
+                    evict(postId);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (delayedEvictor != null) {
+            delayedEvictor.shutdownNow();
+        }
+    }
+
+    private long versionOf(long postId) {
+        return invalidationVersions.get(stripeOf(postId));
+    }
+
+    private static int stripeOf(long postId) {
+        return Long.hashCode(postId) & (VERSION_STRIPES - 1);
+    }
+
+    private void evict(long postId) {
+        localCache.invalidate(postId);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.delete(config.getRedisKeyPrefix() + postId);
+        } catch (Exception e) {
+            log.warn("删除帖子 {} 的 Redis 缓存失败: {}", postId, e.getMessage());
+        }
+    }
+
+    private PostVO getFromRedis(long postId) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(config.getRedisKeyPrefix() + postId);
+            if (json != null) {
+                redisHits.increment();
+                return objectMapper.readValue(json, PostVO.class);
+            }
+        } catch (Exception e) {
+            log.warn("读取帖子 {} 的 Redis 缓存失败: {}", postId, e.getMessage());
+        }
+        redisMisses.increment();
+        return null;
+    }
+
+    private void putToRedis(long postId, PostVO postVO) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(config.getRedisKeyPrefix() + postId, objectMapper.writeValueAsString(postVO),
+                    Duration.ofSeconds(config.getRedisTtlSeconds()));
+        } catch (Exception e) {
+            log.warn("写入帖子 {} 的 Redis 缓存失败: {}", postId, e.getMessage());
+        }
+    }
+
+    /**
+     * 深复制一份，缓存中的对象不被调用方修改；作者信息和当前用户状态不进入缓存
+     */
+    private static PostVO copyOf(PostVO postVO) {
+        PostVO copy = new PostVO();
+        BeanUtils.copyProperties(postVO, copy);
+        if (postVO.getTagList() != null) {
+            copy.setTagList(new ArrayList<>(postVO.getTagList()));
+        }
+        if (postVO.getCreateTime() != null) {
+            copy.setCreateTime(new Date(postVO.getCreateTime().getTime()));
+        }
+        if (postVO.getUpdateTime() != null) {
+            copy.setUpdateTime(new Date(postVO.getUpdateTime().getTime()));
+        }
+        copy.setUser(null);
+        copy.setHasThumb(null);
+        copy.setHasFavour(null);
+        return copy;
+    }
+}
@@ -0,0 +1,57 @@
+package com.digital.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.digital.model.entity.CompetitionRankHistory;
+import com.digital.model.vo.CompetitionSnapshotVO;
+import java.util.Date;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 竞赛排名历史数据库操作
+ *
+ * @author digital
+ */
+public interface CompetitionRankHistoryMapper extends BaseMapper<CompetitionRankHistory> {
+
+    /**
+     * 批量追加一次快照的所有行
+     */
+    int batchInsert(@Param("list") List<CompetitionRankHistory> historyList);
+
+    /**
+     * 一段时间内的快照（时间和竞赛数），按时间升序
+     *
+     * @param fromTime 起始时间（含）
+     * @param toTime   结束时间（含）
+     */
+    List<CompetitionSnapshotVO> selectSnapshots(@Param("fromTime") Date fromTime, @Param("toTime") Date toTime);
+
+    /**
+     * 最近的几个快照时间，按时间倒序
+     *
+     * @param beforeTime 只取不晚于该时间的快照，为 null 时不限
+     * @param limit      最多个数
+     */
+    List<Date> selectLatestSnapshotTimes(@Param("beforeTime") Date beforeTime, @Param("limit") int limit);
+
+    /**
+     * 某个快照的所有行，按排名升序
+     */
+    List<CompetitionRankHistory> selectBySnapshotTime(@Param("snapshotTime") Date snapshotTime);
+
+    /**
+     * 某个竞赛在一段时间内的排名轨迹，按时间升序
+     *
+     * @param competitionKey 竞赛链接的指纹
+     * @param fromTime       起始时间（含）
+     * @param toTime         结束时间（含）
+     */
+    List<CompetitionRankHistory> selectTrajectory(@Param("competitionKey") long competitionKey,
+            @Param("fromTime") Date fromTime, @Param("toTime") Date toTime);
+
+    /**
+     * 删除一批快照（降采样）
+     */
+    int deleteBySnapshotTimes(@Param("list") List<Date> snapshotTimeList);
+}
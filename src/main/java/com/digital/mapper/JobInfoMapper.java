@@ -1,7 +1,13 @@
 package com.digital.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.digital.model.dto.jobinfo.JobInfoSearchRequest;
 import com.digital.model.entity.JobInfo;
+import com.digital.model.vo.FacetCountVO;
+import java.util.Date;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 /**
  * 招聘信息数据库操作
@@ -10,5 +16,126 @@ import com.digital.model.entity.JobInfo;
  */
 public interface JobInfoMapper extends BaseMapper<JobInfo> {
 
-}
+    /**
+     * 批量写入，urlHash 已存在时只在内容指纹变化时更新职位内容，并按是否变化调整重新抓取间隔
+     *
+     * @param jobInfoList         职位列表
+     * @param initialInterval     新职位的重新抓取间隔（小时）
+     * @param minInterval         重新抓取间隔下限（小时）
+     * @param maxInterval         重新抓取间隔上限（小时）
+     */
+    int batchUpsert(@Param("list") List<JobInfo> jobInfoList, @Param("initialInterval") int initialInterval,
+            @Param("minInterval") int minInterval, @Param("maxInterval") int maxInterval);
+
+    /**
+     * 按 urlHash 查询已入库的职位（id, urlHash, canonicalId），用于区分新职位和重新抓取的已有职位
+     *
+     * @param urlHashList urlHash 列表
+     */
+    List<JobInfo> selectByUrlHashes(@Param("urlHashList") List<Long> urlHashList);
+
+    /**
+     * 查询到期需要重新抓取的职位（id, url），按到期时间排序
+     *
+     * @param limit 最多条数
+     */
+    List<JobInfo> selectDueForRecrawl(@Param("limit") int limit);
+
+    /**
+     * 推迟一批职位的下次抓取时间（领取后避免被其它爬取任务重复领取）
+     *
+     * @param idList  职位 id
+     * @param minutes 推迟的分钟数
+     */
+    int postponeRecrawl(@Param("idList") List<Long> idList, @Param("minutes") int minutes);
+
+    /**
+     * 流式读取职位信息
+     *
+     * @param minCreateTime 最早创建时间，为 null 时读取全部
+     */
+    Cursor<JobInfo> streamJobInfo(@Param("minCreateTime") Date minCreateTime);
+
+    /**
+     * 按链接指纹读取职位信息（用于导出指定的职位），按 id 排序
+     *
+     * @param urlHashList 链接指纹，每次不宜超过 1000 个
+     */
+    List<JobInfo> selectForExport(@Param("urlHashList") List<Long> urlHashList);
+
+    /**
+     * 职位搜索（全文 + 条件），按 id 倒序游标分页
+     *
+     * @param query        搜索条件
+     * @param searchPhrase 全文检索短语，为 null 时不做全文匹配
+     * @param limit        最多条数
+     */
+    List<JobInfo> searchJobInfo(@Param("query") JobInfoSearchRequest query, @Param("searchPhrase") String searchPhrase,
+            @Param("limit") int limit);
+
+    /**
+     * 分面统计范围（不应用公司、学历、经验筛选）内的职位数，最多数到 scanLimit
+     *
+     * @param scanLimit 分面统计扫描的职位数上限
+     */
+    int countFacetScope(@Param("query") JobInfoSearchRequest query, @Param("searchPhrase") String searchPhrase,
+            @Param("scanLimit") int scanLimit);
 
+    /**
+     * 按公司统计匹配的职位数（不应用公司筛选），按数量倒序
+     *
+     * @param scanLimit 只统计最新的多少条匹配职位
+     */
+    List<FacetCountVO> facetByCompany(@Param("query") JobInfoSearchRequest query, @Param("searchPhrase") String searchPhrase,
+            @Param("limit") int limit, @Param("scanLimit") int scanLimit);
+
+    /**
+     * 按学历统计匹配的职位数（不应用学历筛选）
+     *
+     * @param scanLimit 只统计最新的多少条匹配职位
+     */
+    List<FacetCountVO> facetByDegree(@Param("query") JobInfoSearchRequest query, @Param("searchPhrase") String searchPhrase,
+            @Param("scanLimit") int scanLimit);
+
+    /**
+     * 按最少工作年限统计匹配的职位数（不应用经验筛选）
+     *
+     * @param scanLimit 只统计最新的多少条匹配职位
+     */
+    List<FacetCountVO> facetByWorkYear(@Param("query") JobInfoSearchRequest query, @Param("searchPhrase") String searchPhrase,
+            @Param("scanLimit") int scanLimit);
+
+    /**
+     * 按主键分块读取规范化版本低于 version 的职位（id, workSalary, workYear, graduate）
+     *
+     * @param afterId 上一块的最大 id
+     * @param version 当前规范化规则版本
+     * @param limit   每块条数
+     */
+    List<JobInfo> selectForNormalization(@Param("afterId") long afterId, @Param("version") int version,
+            @Param("limit") int limit);
+
+    /**
+     * 批量写回规范化后的数值列
+     *
+     * @param jobInfoList 已规范化的职位
+     * @param version     规范化规则版本
+     */
+    int updateNormalized(@Param("list") List<JobInfo> jobInfoList, @Param("version") int version);
+
+    /**
+     * 按主键分块读取还没有 SimHash 指纹的职位（id, urlHash, workName, workContent, companyName）
+     *
+     * @param afterId 上一块的最大 id
+     * @param limit   每块条数
+     */
+    List<JobInfo> selectForSimHash(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 批量写回 SimHash 指纹和原始职位 id
+     *
+     * @param jobInfoList 已计算指纹的职位
+     */
+    int updateSimHash(@Param("list") List<JobInfo> jobInfoList);
+
+}
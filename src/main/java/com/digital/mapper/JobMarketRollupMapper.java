@@ -0,0 +1,39 @@
+package com.digital.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.digital.model.entity.JobMarketRollup;
+import java.util.Date;
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 职位市场日汇总数据库操作
+ *
+ * @author digital
+ */
+public interface JobMarketRollupMapper extends BaseMapper<JobMarketRollup> {
+
+    /**
+     * 按唯一键（关键词, 城市, 公司, 日期）批量读取并加行锁，用于读-合并-写
+     *
+     * @param keyList 只需填充唯一键字段
+     */
+    List<JobMarketRollup> selectByKeysForUpdate(@Param("list") List<JobMarketRollup> keyList);
+
+    /**
+     * 批量写入合并后的汇总行，唯一键已存在时覆盖统计列
+     */
+    int batchUpsert(@Param("list") List<JobMarketRollup> rollupList);
+
+    /**
+     * 读取一段日期内的汇总行
+     *
+     * @param searchQuery 搜索关键词
+     * @param cityCode    城市代码，空字符串为全部城市
+     * @param companyName 公司名，空字符串为全部公司
+     * @param fromDay     起始日期（含）
+     * @param toDay       结束日期（含）
+     */
+    List<JobMarketRollup> selectRange(@Param("searchQuery") String searchQuery, @Param("cityCode") String cityCode,
+            @Param("companyName") String companyName, @Param("fromDay") Date fromDay, @Param("toDay") Date toDay);
+}
@@ -0,0 +1,55 @@
+package com.digital.model.dto.jobinfo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 职位搜索请求（游标分页：按 id 倒序，下一页传上一页返回的 nextCursor）
+ *
+ * @author digital
+ */
+@Data
+public class JobInfoSearchRequest implements Serializable {
+
+    /**
+     * 搜索词，匹配职位名称、职位描述、公司名
+     */
+    private String searchText;
+
+    /**
+     * 公司名（精确匹配）
+     */
+    private String companyName;
+
+    /**
+     * 学历序数（精确匹配，0 不限 … 7 博士）
+     */
+    private Integer degreeLevel;
+
+    /**
+     * 最少工作年限（精确匹配，与经验分面一致）
+     */
+    private Integer workYearMin;
+
+    /**
+     * 最低月薪（元），只返回每月最低薪资不低于该值的职位
+     */
+    private Integer salary;
+
+    /**
+     * 游标：上一页最后一条的 id，第一页不传
+     */
+    private Long cursor;
+
+    /**
+     * 每页条数
+     */
+    private int pageSize = 20;
+
+    /**
+     * 是否返回分面统计（只在第一页计算）
+     */
+    private boolean facets = true;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -35,4 +35,9 @@ public class Competition implements Serializable {
      * 竞赛链接
      */
     private String url;
+
+    /**
+     * 来源网站
+     */
+    private String source;
 }
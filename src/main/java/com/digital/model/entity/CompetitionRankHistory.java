@@ -0,0 +1,64 @@
+package com.digital.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 竞赛排名历史（每次刷新的 TOP10 中每个竞赛一行，同一次刷新的行 snapshotTime 相同，只追加）
+ *
+ * @author digital
+ */
+@TableName(value = "competition_rank_history")
+@Data
+public class CompetitionRankHistory implements Serializable {
+
+    /**
+     * id
+     */
+    @TableId(type = IdType.ASSIGN_ID)
+    private Long id;
+
+    /**
+     * 快照时间（精确到秒）
+     */
+    private Date snapshotTime;
+
+    /**
+     * 竞赛链接的指纹，用于按竞赛查询排名轨迹
+     */
+    private Long competitionKey;
+
+    /**
+     * 排名
+     */
+    private Integer ranking;
+
+    /**
+     * 竞赛名称
+     */
+    private String name;
+
+    /**
+     * 热度值（原文）
+     */
+    private String popularity;
+
+    /**
+     * 热度值解析成的数字，无法解析时为空
+     */
+    private Long popularityValue;
+
+    /**
+     * 竞赛链接
+     */
+    private String url;
+
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
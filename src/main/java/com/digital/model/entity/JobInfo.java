@@ -30,6 +30,11 @@ public class JobInfo implements Serializable {
      */
     private String url;
 
+    /**
+     * 规范化链接的指纹（唯一键，用于幂等写入）
+     */
+    private Long urlHash;
+
     /**
      * 工作名称
      */
@@ -70,6 +75,81 @@ public class JobInfo implements Serializable {
      */
     private String companyName;
 
+    /**
+     * 每月最低薪资（元），由 workSalary 解析
+     */
+    private Integer salaryMin;
+
+    /**
+     * 每月最高薪资（元）
+     */
+    private Integer salaryMax;
+
+    /**
+     * 每年发放薪资的月数（如 13 薪）
+     */
+    private Integer salaryMonths;
+
+    /**
+     * 最少工作年限，由 workYear 解析
+     */
+    private Integer workYearMin;
+
+    /**
+     * 最多工作年限，没有上限时为空
+     */
+    private Integer workYearMax;
+
+    /**
+     * 学历序数（0 不限 … 7 博士），由 graduate 解析
+     */
+    private Integer degreeLevel;
+
+    /**
+     * 规范化规则版本，0 表示未规范化
+     */
+    private Integer normalizeVersion;
+
+    /**
+     * 职位内容指纹（不含HR活跃时间），用于判断重新抓取后内容是否变化
+     */
+    private Long contentHash;
+
+    /**
+     * 职位描述、名称和公司名的 SimHash 指纹，用于近似重复检测
+     */
+    private Long simHash;
+
+    /**
+     * 近似重复时指向的原始职位 id，原始职位本身为空
+     */
+    private Long canonicalId;
+
+    /**
+     * 最近一次抓取时间
+     */
+    private Date lastCrawlTime;
+
+    /**
+     * 下次重新抓取时间
+     */
+    private Date nextCrawlTime;
+
+    /**
+     * 重新抓取间隔（小时）
+     */
+    private Integer recrawlInterval;
+
+    /**
+     * 内容变化次数
+     */
+    private Integer changeCount;
+
+    /**
+     * 内容最近一次变化时间
+     */
+    private Date lastChangeTime;
+
     /**
      * 创建时间
      */
@@ -86,6 +166,18 @@ public class JobInfo implements Serializable {
     @TableLogic
     private Integer isDelete;
 
+    /**
+     * 发现该职位的搜索关键词（不入库，用于职位市场汇总；重新抓取的职位为空）
+     */
+    @TableField(exist = false)
+    private String crawlQuery;
+
+    /**
+     * 发现该职位的城市代码（不入库）
+     */
+    @TableField(exist = false)
+    private String crawlCityCode;
+
     @TableField(exist = false)
     private static final long serialVersionUID = 1L;
 }
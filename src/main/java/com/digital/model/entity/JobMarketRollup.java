@@ -0,0 +1,81 @@
+package com.digital.model.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 职位市场日汇总（按 搜索关键词 × 城市 × 公司 × 日期）
+ * <p>
+ * 城市或公司为空字符串的行是对应维度的合计，按城市或关键词查询时不需要再合并各公司的行。
+ *
+ * @author digital
+ */
+@TableName(value = "job_market_rollup")
+@Data
+public class JobMarketRollup implements Serializable {
+
+    /**
+     * id
+     */
+    @TableId(type = IdType.ASSIGN_ID)
+    private Long id;
+
+    /**
+     * 搜索关键词
+     */
+    private String searchQuery;
+
+    /**
+     * 城市代码，空字符串表示全部城市
+     */
+    private String cityCode;
+
+    /**
+     * 公司名，空字符串表示全部公司
+     */
+    private String companyName;
+
+    /**
+     * 统计日期（职位入库日期）
+     */
+    private Date statDay;
+
+    /**
+     * 新增职位数
+     */
+    private Long jobCount;
+
+    /**
+     * 月薪分布草图（SalarySketch 序列化）
+     */
+    private byte[] salarySketch;
+
+    /**
+     * 各学历序数的职位数，逗号分隔，最后一项为未知学历
+     */
+    private String degreeCounts;
+
+    /**
+     * 各经验分段的职位数，逗号分隔，最后一项为未知经验
+     */
+    private String workYearCounts;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    @TableField(exist = false)
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,26 @@
+package com.digital.model.vo;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 两个竞赛排名快照的差异
+ *
+ * @author digital
+ */
+@Data
+public class CompetitionDiffVO implements Serializable {
+
+    private Date fromTime;
+
+    private Date toTime;
+
+    /**
+     * 按新快照排名排列，跌出榜单的排在最后
+     */
+    private List<CompetitionRankDiffVO> items;
+
+    private static final long serialVersionUID = 1L;
+}
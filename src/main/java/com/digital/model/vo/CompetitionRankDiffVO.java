@@ -0,0 +1,64 @@
+package com.digital.model.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 两个快照之间单个竞赛的排名变化
+ *
+ * @author digital
+ */
+@Data
+public class CompetitionRankDiffVO implements Serializable {
+
+    /**
+     * 新上榜
+     */
+    public static final String NEW = "NEW";
+
+    /**
+     * 跌出榜单
+     */
+    public static final String DROPPED = "DROPPED";
+
+    public static final String UP = "UP";
+
+    public static final String DOWN = "DOWN";
+
+    public static final String SAME = "SAME";
+
+    private String url;
+
+    private String name;
+
+    /**
+     * 旧快照中的排名，新上榜时为空
+     */
+    private Integer fromRanking;
+
+    /**
+     * 新快照中的排名，跌出榜单时为空
+     */
+    private Integer toRanking;
+
+    /**
+     * 排名上升的名次（负数为下降），新上榜或跌出时为空
+     */
+    private Integer rankingChange;
+
+    private String fromPopularity;
+
+    private String toPopularity;
+
+    /**
+     * 热度值变化，任一边无法解析时为空
+     */
+    private Long popularityChange;
+
+    /**
+     * NEW / DROPPED / UP / DOWN / SAME
+     */
+    private String status;
+
+    private static final long serialVersionUID = 1L;
+}
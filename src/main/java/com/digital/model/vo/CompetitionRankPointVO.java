@@ -0,0 +1,26 @@
+package com.digital.model.vo;
+
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * 竞赛排名轨迹上的一个点
+ *
+ * @author digital
+ */
+@Data
+public class CompetitionRankPointVO implements Serializable {
+
+    private Date snapshotTime;
+
+    private Integer ranking;
+
+    private String name;
+
+    private String popularity;
+
+    private Long popularityValue;
+
+    private static final long serialVersionUID = 1L;
+}
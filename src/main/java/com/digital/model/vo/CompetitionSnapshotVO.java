@@ -0,0 +1,26 @@
+package com.digital.model.vo;
+
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * 竞赛排名快照
+ *
+ * @author digital
+ */
+@Data
+public class CompetitionSnapshotVO implements Serializable {
+
+    /**
+     * 快照时间，作为查询差异时的快照标识
+     */
+    private Date snapshotTime;
+
+    /**
+     * 快照中的竞赛数
+     */
+    private Integer itemCount;
+
+    private static final long serialVersionUID = 1L;
+}
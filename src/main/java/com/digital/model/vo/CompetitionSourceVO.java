@@ -0,0 +1,61 @@
+package com.digital.model.vo;
+
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+
+/**
+ * 竞赛来源状态
+ *
+ * @author digital
+ */
+@Data
+public class CompetitionSourceVO implements Serializable {
+
+    /**
+     * 来源名称
+     */
+    private String name;
+
+    private Boolean enabled;
+
+    private Long timeoutMillis;
+
+    private Long cacheTtlMillis;
+
+    /**
+     * 缓存中的竞赛数
+     */
+    private Integer itemCount;
+
+    /**
+     * 最近一次成功抓取的时间，还没有成功过时为空
+     */
+    private Date lastSuccessTime;
+
+    /**
+     * 最近一次抓取的耗时（毫秒）
+     */
+    private Long lastLatencyMillis;
+
+    private Long successCount;
+
+    /**
+     * 失败次数（含超时）
+     */
+    private Long failureCount;
+
+    private Long timeoutCount;
+
+    /**
+     * 连续失败次数，成功后清零
+     */
+    private Integer consecutiveFailures;
+
+    /**
+     * 最近一次失败的原因
+     */
+    private String lastError;
+
+    private static final long serialVersionUID = 1L;
+}
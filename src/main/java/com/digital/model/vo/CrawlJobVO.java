@@ -0,0 +1,176 @@
+package com.digital.model.vo;
+
+import com.digital.service.BossZhiPinCrawler.BossZhiPinCrawlerService;
+import com.digital.service.BossZhiPinCrawler.CrawlJob;
+import com.digital.service.BossZhiPinCrawler.CrawlSeed;
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 爬取任务视图
+ *
+ */
+@Data
+public class CrawlJobVO implements Serializable {
+
+    /**
+     * 任务 id
+     */
+    private String id;
+
+    /**
+     * 搜索关键词
+     */
+    private String query;
+
+    /**
+     * 城市代码
+     */
+    private String cityCode;
+
+    /**
+     * 最大爬取页面数
+     */
+    private Integer maxPages;
+
+    /**
+     * 各（关键词, 城市）种子的进度
+     */
+    private List<SeedProgress> seeds;
+
+    /**
+     * 状态：QUEUED/RUNNING/SUCCEEDED/FAILED/CANCELLED
+     */
+    private String status;
+
+    /**
+     * 已爬取页面数
+     */
+    private Integer pagesCrawled;
+
+    /**
+     * 确认写入数据库的职位数
+     */
+    private Integer jobsSaved;
+
+    /**
+     * 进入写入队列的职位数（包括待写入和写入失败的）
+     */
+    private Integer jobsQueued;
+
+    /**
+     * 重试后仍写入失败的职位数
+     */
+    private Integer jobsFailed;
+
+    /**
+     * 因已入库而跳过的职位数
+     */
+    private Integer skippedSeen;
+
+    /**
+     * 出错次数
+     */
+    private Integer errors;
+
+    /**
+     * 待爬队列长度
+     */
+    private Integer frontierSize;
+
+    /**
+     * 等待解析的页面数（持续偏高说明解析跟不上获取）
+     */
+    private Integer parseQueueSize;
+
+    /**
+     * 每分钟爬取页面数
+     */
+    private Double pagesPerMinute;
+
+    /**
+     * 错误信息
+     */
+    private String errorMessage;
+
+    /**
+     * 提交时间
+     */
+    private Date createTime;
+
+    /**
+     * 开始时间
+     */
+    private Date startTime;
+
+    /**
+     * 结束时间
+     */
+    private Date endTime;
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 种子进度
+     */
+    @Data
+    public static class SeedProgress implements Serializable {
+
+        private String query;
+
+        private String cityCode;
+
+        private Integer maxPages;
+
+        private Integer pagesCrawled;
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * 对象转包装类
+     *
+     * @param crawlJob
+     * @return
+     */
+    public static CrawlJobVO objToVo(CrawlJob crawlJob) {
+        if (crawlJob == null) {
+            return null;
+        }
+        BossZhiPinCrawlerService crawler = crawlJob.getCrawler();
+        CrawlJobVO crawlJobVO = new CrawlJobVO();
+        crawlJobVO.setId(crawlJob.getId());
+        crawlJobVO.setQuery(crawlJob.getQuery());
+        crawlJobVO.setCityCode(crawlJob.getCityCode());
+        crawlJobVO.setMaxPages(crawlJob.getMaxPages());
+        // 运行后爬虫的种子列表可能多出重新抓取种子
+        List<CrawlSeed> crawlSeeds = crawler.getSeeds().isEmpty() ? crawlJob.getSeeds() : crawler.getSeeds();
+        crawlJobVO.setSeeds(crawlSeeds.stream().map(CrawlJobVO::toSeedProgress).toList());
+        crawlJobVO.setStatus(crawlJob.getStatus().name());
+        crawlJobVO.setPagesCrawled(crawler.getPagesCrawled());
+        crawlJobVO.setJobsSaved(crawler.getJobsSaved());
+        crawlJobVO.setJobsQueued(crawler.getJobsQueued());
+        crawlJobVO.setJobsFailed(crawler.getJobsFailed());
+        crawlJobVO.setSkippedSeen(crawler.getSkippedSeen());
+        crawlJobVO.setErrors(crawler.getErrorCount());
+        crawlJobVO.setFrontierSize(crawler.getFrontierSize());
+        crawlJobVO.setParseQueueSize(crawler.getParseQueueSize());
+        crawlJobVO.setPagesPerMinute(Math.round(crawlJob.getPagesPerMinute() * 10) / 10.0);
+        crawlJobVO.setErrorMessage(crawlJob.getErrorMessage());
+        crawlJobVO.setCreateTime(crawlJob.getCreateTime());
+        crawlJobVO.setStartTime(crawlJob.getStartTime());
+        crawlJobVO.setEndTime(crawlJob.getEndTime());
+        return crawlJobVO;
+    }
+
+    private static SeedProgress toSeedProgress(CrawlSeed crawlSeed) {
+        SeedProgress seedProgress = new SeedProgress();
+        seedProgress.setQuery(crawlSeed.getQuery());
+        seedProgress.setCityCode(crawlSeed.getCityCode());
+        seedProgress.setMaxPages(crawlSeed.getMaxPages());
+        seedProgress.setPagesCrawled(crawlSeed.getPagesCrawled().get());
+        return seedProgress;
+    }
+}
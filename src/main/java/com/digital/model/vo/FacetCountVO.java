@@ -0,0 +1,30 @@
+package com.digital.model.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 分面统计项
+ *
+ * @author digital
+ */
+@Data
+public class FacetCountVO implements Serializable {
+
+    /**
+     * 取值（请求中用于筛选的值）
+     */
+    private String value;
+
+    /**
+     * 显示名称
+     */
+    private String label;
+
+    /**
+     * 匹配的职位数
+     */
+    private Long count;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,57 @@
+package com.digital.model.vo;
+
+import com.digital.model.entity.JobInfo;
+import java.io.Serializable;
+import java.util.Date;
+import lombok.Data;
+import org.springframework.beans.BeanUtils;
+
+/**
+ * 职位视图
+ *
+ * @author digital
+ */
+@Data
+public class JobInfoVO implements Serializable {
+
+    private Long id;
+
+    private String url;
+
+    private String workName;
+
+    private String workSalary;
+
+    private Integer salaryMin;
+
+    private Integer salaryMax;
+
+    private Integer salaryMonths;
+
+    private String workAddress;
+
+    private String workContent;
+
+    private String workYear;
+
+    private String graduate;
+
+    private String companyName;
+
+    private String hrTime;
+
+    private Date createTime;
+
+    private Date updateTime;
+
+    private static final long serialVersionUID = 1L;
+
+    public static JobInfoVO objToVo(JobInfo jobInfo) {
+        if (jobInfo == null) {
+            return null;
+        }
+        JobInfoVO jobInfoVO = new JobInfoVO();
+        BeanUtils.copyProperties(jobInfo, jobInfoVO);
+        return jobInfoVO;
+    }
+}
@@ -0,0 +1,49 @@
+package com.digital.model.vo;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 职位搜索结果
+ *
+ * @author digital
+ */
+@Data
+public class JobSearchResultVO implements Serializable {
+
+    private List<JobInfoVO> records;
+
+    /**
+     * 下一页游标，没有下一页时为 null
+     */
+    private Long nextCursor;
+
+    /**
+     * 按公司统计（前若干个公司），未请求分面时为 null。分面只统计最新的 facetScanLimit 条匹配职位
+     */
+    private List<FacetCountVO> companyFacets;
+
+    /**
+     * 按学历统计
+     */
+    private List<FacetCountVO> degreeFacets;
+
+    /**
+     * 按最少工作年限统计
+     */
+    private List<FacetCountVO> workYearFacets;
+
+    /**
+     * 分面统计最多扫描的匹配职位数，未请求分面时为 null
+     */
+    private Integer facetScanLimit;
+
+    /**
+     * 分面计数是否只覆盖了部分匹配职位：匹配的职位达到 facetScanLimit 时为 true，计数是最新职位的分布而不是精确总数。
+     * 未请求分面时为 null
+     */
+    private Boolean facetsApproximate;
+
+    private static final long serialVersionUID = 1L;
+}
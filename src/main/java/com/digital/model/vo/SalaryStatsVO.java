@@ -0,0 +1,70 @@
+package com.digital.model.vo;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 职位市场薪资统计（由日汇总合并得到）
+ *
+ * @author digital
+ */
+@Data
+public class SalaryStatsVO implements Serializable {
+
+    private String searchQuery;
+
+    /**
+     * 城市代码，空字符串表示全部城市
+     */
+    private String cityCode;
+
+    /**
+     * 公司名，空字符串表示全部公司
+     */
+    private String companyName;
+
+    private Date fromDay;
+
+    private Date toDay;
+
+    /**
+     * 新增职位数
+     */
+    private Long jobCount;
+
+    /**
+     * 有可解析薪资的职位数
+     */
+    private Long salaryCount;
+
+    /**
+     * 月薪（元，取薪资范围中点）的最小值、分位数、最大值和平均值
+     */
+    private Integer salaryMin;
+
+    private Integer salaryP25;
+
+    private Integer salaryMedian;
+
+    private Integer salaryP75;
+
+    private Integer salaryP90;
+
+    private Integer salaryMax;
+
+    private Integer salaryMean;
+
+    /**
+     * 按学历的职位数
+     */
+    private List<FacetCountVO> degreeCounts;
+
+    /**
+     * 按经验分段的职位数
+     */
+    private List<FacetCountVO> workYearCounts;
+
+    private static final long serialVersionUID = 1L;
+}
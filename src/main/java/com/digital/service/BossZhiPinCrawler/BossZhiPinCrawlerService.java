@@ -1,57 +1,121 @@
 package com.digital.service.BossZhiPinCrawler;
 
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.digital.config.CrawlerProperties;
 import com.digital.mapper.JobInfoMapper;
 import com.digital.model.entity.JobInfo;
+import com.digital.service.JobInfoExportService;
+import com.digital.utils.JobAttributeNormalizer;
+import com.digital.utils.UrlFingerprint;
 import jakarta.annotation.Resource;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.http.HttpClient;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * BOSS直聘爬虫主类
+ * <p>
+ * 原型作用域：每个爬取任务（见 {@link CrawlJobManager}）获取独立实例，任务之间的爬取状态互不干扰。
+ * <p>
+ * 爬取分三个阶段流水线执行：获取线程（I/O 密集，数量为 workerCount）只负责抓取页面，
+ * 解析线程池（按 CPU 核数）对每个页面构建一次 DOM 并同时产出链接和职位信息，
+ * 写入阶段由 {@link JobInfoWriteBehind} 异步批量落库。阶段之间是有界队列，
+ * 下游跟不上时上游阻塞等待，解析慢或数据库慢不会让浏览器空转堆积页面。
  *
  * @author digital
  */
 @Service
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @Slf4j
 public class BossZhiPinCrawlerService {
     private Set<String> visitedUrls = ConcurrentHashMap.newKeySet();
-    // HttpClient实例
-    private HttpClient httpClient;
+    // 本次领取的到期重新抓取职位（规范化URL），不受已入库去重的限制
+    private final Set<String> dueUrls = ConcurrentHashMap.newKeySet();
     // 要爬取的域名限制
     private String domain;
-    // Chrome下载器
-    private ChromeDownloaderService chromeDownloader;
-    // 页面计数器
-    private AtomicInteger pageCounter = new AtomicInteger(1);
-    // 最大爬取页面数
-    private int maxPages;
-    // 工作信息列表
-    private List<WorkInfService> workInfList = new ArrayList<>();
-    // 搜索关键词
-    private String query;
-    // 城市代码
-    private String cityCode;
+    // 待爬队列
+    private final CrawlFrontier frontier = new CrawlFrontier();
+    // 按域名的礼貌性访问预算（所有任务共享）
+    @Resource
+    private HostPolitenessBudget hostBudget;
+    // 爬取计划中的种子（搜索关键词 × 城市），共享去重集合和工作线程
+    private List<CrawlSeed> seeds = List.of();
+    // 已成功爬取的页面数
+    private final AtomicInteger pagesCrawled = new AtomicInteger();
+    // 因已入库而跳过的职位数
+    private final AtomicInteger skippedSeen = new AtomicInteger();
+    // 出错次数（页面获取失败、解析失败）
+    private final AtomicInteger errorCount = new AtomicInteger();
+    // 结果CSV文件
+    private String resultFile = "boss_zhipin_results.csv";
+    // 浏览器加载页面时的资源拦截策略，为空时使用默认策略
+    private String resourcePolicy;
+    // 本次进入写入队列的职位数
+    private final AtomicInteger jobsQueued = new AtomicInteger();
+    // 本次提交的职位的写入统计（确认入库、写入失败、待写入），每次初始化重新创建
+    private volatile JobInfoWriteBehind.WriteTracker writeTracker = new JobInfoWriteBehind.WriteTracker();
+    // 解析阶段线程池（每次爬取创建，结束后关闭）
+    private volatile ThreadPoolExecutor parsers;
+
+    @Resource
+    private JobInfoWriteBehind jobInfoWriteBehind;
+
+    @Resource
+    private JobInfoExportService jobInfoExportService;
+
+    // 已入库职位的持久化去重集合
+    @Resource
+    private PersistentSeenStore seenStore;
+
+    @Resource
+    private CrawlerProperties crawlerProperties;
 
     @Resource
     private JobInfoMapper jobInfoMapper;
 
+    // 详情页字段抽取规则
+    @Resource
+    private DetailPageExtractor detailPageExtractor;
+
+    // Chrome浏览器池（全局共享，跨多次爬取复用）
+    @Resource
+    private ChromeDriverPool chromeDriverPool;
+
+    // 分级页面获取（先 HTTP，需要渲染时再用浏览器池）
+    @Resource
+    private TieredPageFetcher pageFetcher;
+
+    // 页面录制（开启后抓到的页面写入归档，供离线回放）
+    @Resource
+    private PageRecorder pageRecorder;
+
+    // 爬虫指标（各阶段耗时、计数、队列长度）
+    @Resource
+    private CrawlerMetrics crawlerMetrics;
+
     public BossZhiPinCrawlerService() {
     }
 
@@ -68,11 +132,18 @@ public class BossZhiPinCrawlerService {
      * @param maxPages 最大爬取页面数
      */
     public void initialize(String startUrl, String query, String cityCode, int maxPages) {
-        log.info("初始化爬虫: query={}, cityCode={}, maxPages={}", query, cityCode, maxPages);
-        
-        this.httpClient = HttpClient.newBuilder()
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
+        initialize(startUrl, List.of(new CrawlSeed(query, cityCode, maxPages)));
+    }
+
+    /**
+     * 按爬取计划初始化：多个（搜索关键词, 城市代码）种子在一次爬取中并行，
+     * 共用一个职位详情页去重集合，不同种子搜到的同一职位只抓取一次
+     *
+     * @param startUrl 起始URL（用于确定爬取域名）
+     * @param seeds    种子列表，每个种子有自己的最大页数
+     */
+    public void initialize(String startUrl, List<CrawlSeed> seeds) {
+        log.info("初始化爬虫: seeds={}", seeds);
 
         try {
             URI uri = new URI(startUrl);
@@ -81,124 +152,385 @@ public class BossZhiPinCrawlerService {
             log.error("URL解析失败: {}", startUrl, e);
         }
 
-        try {
-            this.chromeDownloader = new ChromeDownloaderService();
-            log.info("Chrome下载器初始化成功");
-        } catch (Exception e) {
-            log.error("Chrome下载器初始化失败", e);
-            throw new RuntimeException("Chrome下载器初始化失败", e);
+        if (crawlerProperties == null) {
+            // 非Spring环境下直接构造时使用默认配置
+            crawlerProperties = new CrawlerProperties();
+        }
+        if (crawlerMetrics == null) {
+            this.crawlerMetrics = CrawlerMetrics.noop();
+        }
+        if (chromeDriverPool == null) {
+            this.chromeDriverPool = new ChromeDriverPool(crawlerProperties, new PageReadinessRecorder(), crawlerMetrics);
+        }
+        if (hostBudget == null) {
+            this.hostBudget = new HostPolitenessBudget(crawlerProperties, crawlerMetrics);
+        }
+        if (pageFetcher == null) {
+            this.pageFetcher = new TieredPageFetcher(crawlerProperties, chromeDriverPool);
+        }
+        if (detailPageExtractor == null) {
+            this.detailPageExtractor = new DetailPageExtractor(crawlerProperties);
         }
         
-        this.maxPages = maxPages;
-        this.query = query;
-        this.cityCode = cityCode;
+        this.seeds = List.copyOf(seeds);
         this.visitedUrls.clear();
-        this.workInfList.clear();
-        this.pageCounter.set(1);
+        this.dueUrls.clear();
+        this.jobsQueued.set(0);
+        this.writeTracker = new JobInfoWriteBehind.WriteTracker();
+        this.frontier.clear();
+        this.pagesCrawled.set(0);
+        this.skippedSeen.set(0);
+        this.errorCount.set(0);
     }
 
     /**
      * 开始爬取
+     * 由 workerCount 个工作线程并发消费待爬队列，每个线程从浏览器池借用浏览器，
+     * 按域名礼貌性预算控制访问频率；爬取计划中其它种子的第一页同时入队
+     *
      * @param startUrl 起始URL
      */
     public void crawl(String startUrl) {
         log.info("开始爬取: {}", startUrl);
         
-        if (chromeDownloader == null) {
+        if (chromeDriverPool == null) {
             log.error("Chrome下载器未初始化，无法开始爬取");
             throw new IllegalStateException("Chrome下载器未初始化，请先调用initialize方法");
         }
-        
-        Set<String> toVisit = new HashSet<>();
-        toVisit.add(startUrl);
 
-        int pagesCrawled = 0;
-        while (!toVisit.isEmpty() && pagesCrawled < maxPages) {
-            String url = toVisit.iterator().next();
-            toVisit.remove(url);
+        // 启动浏览器前先加载已入库职位的指纹
+        seenStore.ensureOpen();
+        frontier.offer(CrawlRequest.of(startUrl));
+        for (int i = 0; i < seeds.size(); i++) {
+            if (seeds.get(i).getStartUrl() != null) {
+                frontier.offer(new CrawlRequest(seeds.get(i).getStartUrl(), CrawlRequest.PRIORITY_LIST, i));
+            }
+        }
+        seedRecrawl();
 
-            if (visitedUrls.contains(url)) {
-                continue;
+        int workerCount = Math.max(1, crawlerProperties.getWorkerCount());
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount, namedThreadFactory("BossZhiPin-Worker-"));
+        this.parsers = newParserPool(crawlerProperties.getPipeline());
+        long startMillis = System.currentTimeMillis();
+        crawlerMetrics.crawlStarted(this);
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workers.submit(this::runWorker);
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("爬取中: 已爬取{}页, 待爬队列{}个, 待解析{}个", pagesCrawled.get(), frontier.size(),
+                        parsers.getQueue().size());
             }
+            // 获取线程在待爬队列清空（含解析中的页面）后才退出，此时解析队列已经为空
+            parsers.shutdown();
+            if (!parsers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.warn("解析线程 1 分钟内未结束，强制停止: 待解析{}个", parsers.getQueue().size());
+                parsers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 中断工作线程，线程退出前会把浏览器归还到池中
+            workers.shutdownNow();
+            parsers.shutdownNow();
+            log.warn("爬取被中断: {}", startUrl);
+        } finally {
+            crawlerMetrics.crawlFinished(this);
+        }
+
+        long elapsedMillis = Math.max(1, System.currentTimeMillis() - startMillis);
+        log.info("爬取完成: {}页, 提交{}条职位, 跳过已入库{}条, 耗时{}秒, {}页/分钟", pagesCrawled.get(), jobsQueued.get(),
+                skippedSeen.get(), elapsedMillis / 1000, String.format("%.1f", pagesCrawled.get() * 60000.0 / elapsedMillis));
 
+        // 保存结果到文件
+        saveResultsToFile();
+    }
+
+    /**
+     * 增量重爬：领取到期的已入库职位，作为单独的种子入队（与其它种子轮询，不会挤占新职位的抓取）。
+     * 写入时按内容指纹判断是否变化，变化的职位缩短下次重爬间隔，不变的延长。
+     */
+    private void seedRecrawl() {
+        CrawlerProperties.Recrawl recrawl = crawlerProperties.getRecrawl();
+        if (!recrawl.isEnabled() || recrawl.getMaxPerCrawl() <= 0 || jobInfoMapper == null) {
+            return;
+        }
+        try {
+            List<JobInfo> dueList = jobInfoMapper.selectDueForRecrawl(recrawl.getMaxPerCrawl());
+            if (dueList.isEmpty()) {
+                return;
+            }
+            // 先推迟下次抓取时间，并发的其它爬取任务不会再领取到同一批职位
+            jobInfoMapper.postponeRecrawl(dueList.stream().map(JobInfo::getId).toList(), recrawl.getLeaseMinutes());
+            List<CrawlSeed> newSeeds = new ArrayList<>(seeds);
+            newSeeds.add(CrawlSeed.recrawl(dueList.size()));
+            int seedIndex = newSeeds.size() - 1;
+            this.seeds = List.copyOf(newSeeds);
+            for (JobInfo jobInfo : dueList) {
+                dueUrls.add(UrlFingerprint.normalize(jobInfo.getUrl()));
+                frontier.offer(new CrawlRequest(jobInfo.getUrl(), CrawlRequest.PRIORITY_DETAIL, seedIndex));
+            }
+            log.info("领取到期重新抓取的职位 {} 个", dueList.size());
+        } catch (Exception e) {
+            log.warn("查询到期职位失败，本次不重新抓取: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 解析线程池：核心数取 parseThreads（0 表示 CPU 核数），任务队列有界；
+     * 队列满时提交的获取线程阻塞等待，而不是丢弃页面或在获取线程里解析
+     */
+    private static ThreadPoolExecutor newParserPool(CrawlerProperties.Pipeline config) {
+        int threads = config.getParseThreads() > 0 ? config.getParseThreads() : Runtime.getRuntime().availableProcessors();
+        RejectedExecutionHandler blockWhenFull = (task, executor) -> {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("解析线程池已关闭");
+            }
             try {
-                System.out.println("[爬取进度] 第" + (pagesCrawled + 1) + "页: " + url);
-                String htmlContent = fetchHtmlContent(url);
-                
-                if (htmlContent == null || htmlContent.isEmpty()) {
-                    log.warn("HTML内容为空，跳过: {}", url);
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("等待解析队列时被中断", e);
+            }
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getParseQueueCapacity())),
+                namedThreadFactory("BossZhiPin-Parser-"), blockWhenFull);
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, prefix + index.incrementAndGet());
+            }
+        };
+    }
+
+    /**
+     * 获取线程：循环取出待爬请求并抓取页面，抓到的页面交给解析线程池，直到队列清空；
+     * 种子的页数名额用完后丢弃其剩余请求。
+     * 请求交给解析阶段后由解析任务调用 frontier.done，解析中的页面仍计入 pending，获取线程不会提前退出
+     */
+    private void runWorker() {
+        long idlePollMillis = crawlerProperties.getIdlePollMillis();
+        while (!Thread.currentThread().isInterrupted()) {
+            CrawlRequest request;
+            try {
+                request = frontier.poll(idlePollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (request == null) {
+                if (frontier.isDrained()) {
+                    return;
+                }
+                continue;
+            }
+            CrawlSeed seed = seedOf(request);
+            boolean handedOff = false;
+            try {
+                if (!seed.tryReservePage()) {
                     continue;
                 }
-                
-                visitedUrls.add(url);
-                pagesCrawled++;
-
-                // 解析HTML并提取链接
-                Set<String> links = extractLinks(htmlContent, url);
-
-                // 处理页面内容
-                if (url.contains("/job_detail/")) {
-                    // 详情页
-                    processDetailPage(htmlContent, url);
-                } else {
-                    // 列表页
-                    processListPage(htmlContent, url);
-
-                    // 添加下一页
-                    int nextPage = pageCounter.incrementAndGet();
-                    String nextPageUrl = "https://www.zhipin.com/web/geek/job?query=" + query +
-                            "&city=" + cityCode + "&page=" + nextPage;
-                    if (!visitedUrls.contains(nextPageUrl) && nextPage <= maxPages) {
-                        toVisit.add(nextPageUrl);
-                    }
+                FetchResult fetchResult;
+                crawlerMetrics.workerBusy();
+                try {
+                    fetchResult = fetchPage(request);
+                } finally {
+                    crawlerMetrics.workerIdle();
                 }
-
-                // 将新链接添加到待访问队列
-                for (String link : links) {
-                    if (!visitedUrls.contains(link) && isSameDomain(link) && link.contains("/job_detail/")) {
-                        toVisit.add(link);
-                    }
+                if (fetchResult == null) {
+                    seed.releasePage();
+                    continue;
                 }
-
-                // 礼貌性延迟，避免请求过于频繁
-                Thread.sleep(4000);
-
+                parsers.execute(() -> parseAndEmit(fetchResult, request, seed));
+                handedOff = true;
+            } catch (InterruptedException e) {
+                seed.releasePage();
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RejectedExecutionException e) {
+                // 解析线程池已关闭（爬取被中断）
+                seed.releasePage();
+                return;
             } catch (Exception e) {
-                log.error("爬取出错: {}", url, e);
+                seed.releasePage();
+                errorCount.incrementAndGet();
+                crawlerMetrics.failure("fetch_error");
+                log.error("爬取出错: {}", request.getUrl(), e);
+            } finally {
+                if (!handedOff) {
+                    frontier.done(request);
+                }
             }
         }
+    }
 
-        System.out.println("[爬取完成] 共爬取 " + pagesCrawled + " 页，获取 " + workInfList.size() + " 条职位信息");
-        log.info("爬取完成: {}页, {}条职位", pagesCrawled, workInfList.size());
-        
-        // 关闭浏览器
+    /**
+     * 获取阶段：抓取单个页面
+     *
+     * @return 页面内容，已爬取、已入库或内容为空时返回 null
+     */
+    private FetchResult fetchPage(CrawlRequest request) throws InterruptedException {
+        String url = request.getUrl();
+        if (visitedUrls.contains(UrlFingerprint.normalize(url))) {
+            return null;
+        }
+        // 已入库的职位不再启动浏览器抓取（到期重新抓取的除外；重启或中断后从这里续爬）
+        if (request.isDetail() && !dueUrls.contains(UrlFingerprint.normalize(url)) && seenStore.contains(url)) {
+            skippedSeen.incrementAndGet();
+            crawlerMetrics.duplicateSkipped("seen");
+            return null;
+        }
+
+        String host = hostOf(url);
+        FetchResult fetchResult;
+        long startedAt = hostBudget.acquire(host);
         try {
-            if (chromeDownloader != null) {
-                chromeDownloader.close();
-            }
+            log.debug("[爬取进度] 第{}页: {}", pagesCrawled.get() + 1, url);
+            fetchResult = pageFetcher.fetch(url, resourcePolicy);
+        } catch (InterruptedException e) {
+            // 任务被取消：只归还名额，不反馈结果，避免降低其他任务共用的该域名速率
+            hostBudget.release(host);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            hostBudget.release(host, startedAt, false);
+            throw e;
+        }
+        // 按结果调整该域名的速率：空页面、限流都算失败
+        hostBudget.release(host, startedAt, !fetchResult.isEmpty());
+
+        if (fetchResult.isThrottled()) {
+            errorCount.incrementAndGet();
+            crawlerMetrics.failure("throttled");
+            log.warn("目标站点限流，跳过: {}", url);
+            return null;
+        }
+        if (fetchResult.isEmpty()) {
+            errorCount.incrementAndGet();
+            crawlerMetrics.failure("empty_page");
+            log.warn("HTML内容为空，跳过: {}", url);
+            return null;
+        }
+
+        if (pageRecorder != null) {
+            pageRecorder.record(fetchResult);
+        }
+        visitedUrls.add(UrlFingerprint.normalize(url));
+        pagesCrawled.incrementAndGet();
+        crawlerMetrics.recordFetch(fetchResult);
+        return fetchResult;
+    }
+
+    /**
+     * 解析阶段：在解析线程中解析页面并把结果交给下游（新链接入队、职位信息提交写入），最后标记请求处理完毕
+     */
+    private void parseAndEmit(FetchResult fetchResult, CrawlRequest request, CrawlSeed seed) {
+        try {
+            seed.getPagesCrawled().incrementAndGet();
+            long parseStart = System.nanoTime();
+            ParsedPage page = parsePage(fetchResult, request);
+            crawlerMetrics.recordParse(System.nanoTime() - parseStart);
+            emit(page, request, seed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
-            log.error("关闭浏览器出错", e);
+            errorCount.incrementAndGet();
+            crawlerMetrics.failure("parse_error");
+            log.error("解析页面出错: {}", request.getUrl(), e);
+        } finally {
+            frontier.done(request);
         }
+    }
 
-        // 保存结果到文件
-        saveResultsToFile();
+    /**
+     * 每个页面只构建一次 DOM，同时提取职位链接和职位信息（HTTP 获取时检测页面结构已解析过，直接复用）
+     */
+    ParsedPage parsePage(FetchResult fetchResult, CrawlRequest request) {
+        String url = request.getUrl();
+        Document doc = fetchResult.getDocument() != null
+                ? fetchResult.getDocument()
+                : Jsoup.parse(fetchResult.getHtml(), url);
+        ParsedPage page = new ParsedPage(url);
+        if (request.isDetail()) {
+            // 详情页
+            page.setJobInfo(processDetailPage(doc, url));
+        } else {
+            // 列表页
+            processListPage(doc, url, page.getDetailLinks());
+        }
+        for (String link : extractLinks(doc)) {
+            if (isSameDomain(link) && CrawlRequest.isDetailUrl(link)) {
+                page.getDetailLinks().add(link);
+            }
+        }
+        return page;
     }
 
     /**
-     * 获取HTML内容
+     * 把解析结果交给下游：职位信息提交异步写入（写入队列满时在这里阻塞），链接和下一页入队
      */
-    private String fetchHtmlContent(String url) {
-        // 使用ChromeDriver获取页面内容
-        return chromeDownloader.download(url);
+    private void emit(ParsedPage page, CrawlRequest request, CrawlSeed seed) throws InterruptedException {
+        JobInfo jobInfo = page.getJobInfo();
+        if (jobInfo != null && !seed.isRecrawl()) {
+            jobInfo.setCrawlQuery(seed.getQuery());
+            jobInfo.setCrawlCityCode(seed.getCityCode());
+        }
+        if (jobInfo != null && jobInfoWriteBehind.submit(jobInfo, writeTracker)) {
+            jobsQueued.incrementAndGet();
+            crawlerMetrics.jobQueued();
+            log.debug("[提交写入] {}", jobInfo.getWorkName());
+        }
+
+        if (!request.isDetail()) {
+            // 添加下一页
+            int nextPage = seed.getPageCounter().incrementAndGet();
+            String nextPageUrl = searchUrl(seed.getQuery(), seed.getCityCode(), nextPage);
+            if (!visitedUrls.contains(UrlFingerprint.normalize(nextPageUrl)) && nextPage <= seed.getMaxPages()) {
+                frontier.offer(new CrawlRequest(nextPageUrl, CrawlRequest.PRIORITY_LIST, request.getSeed()));
+            }
+        }
+
+        // 将新链接添加到待访问队列
+        int linkCount = 0;
+        for (String link : page.getDetailLinks()) {
+            if (enqueueDetail(link, request.getSeed())) {
+                linkCount++;
+            }
+        }
+        if (!request.isDetail() && linkCount > 0) {
+            log.debug("列表页提取到 {} 个职位链接: {}", linkCount, request.getUrl());
+        }
+    }
+
+    /**
+     * 详情页入队，本次已爬取或已入库的职位直接跳过
+     *
+     * @param seed 发现该职位的种子序号，抓取计入该种子的页数
+     * @return 是否入队
+     */
+    private boolean enqueueDetail(String jobUrl, int seed) {
+        if (visitedUrls.contains(UrlFingerprint.normalize(jobUrl))) {
+            return false;
+        }
+        if (seenStore.contains(jobUrl)) {
+            skippedSeen.incrementAndGet();
+            crawlerMetrics.duplicateSkipped("seen");
+            return false;
+        }
+        return frontier.offer(new CrawlRequest(jobUrl, CrawlRequest.PRIORITY_DETAIL, seed));
     }
 
     /**
      * 从HTML中提取链接
      */
-    private Set<String> extractLinks(String html, String baseUrl) {
+    private Set<String> extractLinks(Document doc) {
         Set<String> links = new HashSet<>();
         try {
-            Document doc = Jsoup.parse(html, baseUrl);
             Elements linkElements = doc.select("a[href]");
 
             for (Element link : linkElements) {
@@ -208,34 +540,24 @@ public class BossZhiPinCrawlerService {
                 }
             }
         } catch (Exception e) {
-            System.err.println("解析链接时出错: " + e.getMessage());
+            log.warn("解析链接时出错: {}", e.getMessage());
         }
         return links;
     }
 
     /**
-     * 处理列表页面
+     * 处理列表页面：收集职位卡片链接
      */
-    private void processListPage(String html, String url) {
+    private void processListPage(Document doc, String url, Set<String> jobLinks) {
         try {
-            Document doc = Jsoup.parse(html);
-
             // 提取职位链接 - 使用多种选择器确保匹配
-            Elements jobLinks = doc.select("a.job-card-left, a[ka*='job_list'], .job-list-box a[href*='/job_detail/']");
-            
-            int linkCount = 0;
-            for (Element link : jobLinks) {
+            Elements links = doc.select("a.job-card-left, a[ka*='job_list'], .job-list-box a[href*='/job_detail/']");
+            for (Element link : links) {
                 String jobUrl = link.attr("abs:href");
-                if (!jobUrl.isEmpty() && jobUrl.contains("/job_detail/") && !visitedUrls.contains(jobUrl)) {
-                    visitedUrls.add(jobUrl);
-                    linkCount++;
+                if (!jobUrl.isEmpty() && jobUrl.contains("/job_detail/")) {
+                    jobLinks.add(jobUrl);
                 }
             }
-            
-            if (linkCount > 0) {
-                System.out.println("列表页提取到 " + linkCount + " 个职位链接");
-            }
-
         } catch (Exception e) {
             log.error("处理列表页时出错: {}", url, e);
         }
@@ -243,126 +565,115 @@ public class BossZhiPinCrawlerService {
 
     /**
      * 处理详情页面
+     *
+     * @return 抽取出的职位信息，缺少必填字段或出错时返回 null
      */
-    private void processDetailPage(String html, String url) {
+    private JobInfo processDetailPage(Document doc, String url) {
         try {
-            Document doc = Jsoup.parse(html);
-
-            // 检查是否已存在该URL的记录，避免重复存储
-            QueryWrapper<JobInfo> queryWrapper = new QueryWrapper<>();
-            queryWrapper.eq("url", url);
-            queryWrapper.eq("isDelete", 0);
-            Long count = jobInfoMapper.selectCount(queryWrapper);
-            if (count > 0) {
-                log.debug("职位信息已存在，跳过: {}", url);
-                return;
-            }
-
+            // 重复的职位由写入阶段按 urlHash 幂等合并，这里不再逐条查库
             JobInfo jobInfo = new JobInfo();
             jobInfo.setUrl(url);
+            jobInfo.setUrlHash(UrlFingerprint.of(url));
 
-            // 提取工作名称 - 使用多种选择器确保匹配
-            Element nameElement = doc.selectFirst("div.name h1, .job-name h1, h1.job-name, .job-detail-header h1");
-            if (nameElement != null) {
-                jobInfo.setWorkName(nameElement.text().trim());
-            } else {
-                log.warn("未找到职位名称: {}", url);
+            // 按预编译的抽取规则一次遍历提取所有字段（规则见 DetailPageExtractor），缺少必填字段（职位名称）时不保存
+            if (!detailPageExtractor.extract(doc, jobInfo)) {
+                crawlerMetrics.failure("incomplete_job");
+                log.warn("职位信息不完整，跳过保存: {}", url);
+                return null;
             }
+            // 薪资、经验、学历解析成数值列
+            JobAttributeNormalizer.normalize(jobInfo);
+            return jobInfo;
+        } catch (Exception e) {
+            errorCount.incrementAndGet();
+            crawlerMetrics.failure("extract_error");
+            log.error("处理详情页时出错: {}", url, e);
+            return null;
+        }
+    }
 
-            // 提取薪水 - 使用多种选择器
-            Element salaryElement = doc.selectFirst("div.name span.salary, .job-primary span.salary, span.salary-text, .salary");
-            if (salaryElement != null) {
-                jobInfo.setWorkSalary(salaryElement.text().trim());
-            }
+    /**
+     * 搜索列表页URL
+     *
+     * @param query    搜索关键词
+     * @param cityCode 城市代码
+     * @param page     页码，从 1 开始
+     */
+    public static String searchUrl(String query, String cityCode, int page) {
+        String url = "https://www.zhipin.com/web/geek/job?query=" + query + "&city=" + cityCode;
+        return page > 1 ? url + "&page=" + page : url;
+    }
 
-            // 提取工作地址 - 使用多种选择器
-            Element addressElement = doc.selectFirst("div.location-address, .location-address, .job-location, [class*=location]");
-            if (addressElement != null) {
-                jobInfo.setWorkAddress(addressElement.text().trim());
-            }
+    private CrawlSeed seedOf(CrawlRequest request) {
+        return seeds.get(Math.min(request.getSeed(), seeds.size() - 1));
+    }
 
-            // 提取工作内容/职位描述 - 使用多种选择器
-            Element contentElement = doc.selectFirst("div.job-sec-text, .job-sec-text, .job-detail-content, .job-detail-text");
-            if (contentElement != null) {
-                jobInfo.setWorkContent(contentElement.text().trim());
-            }
+    public List<CrawlSeed> getSeeds() {
+        return seeds;
+    }
 
-            // 提取工作经验要求 - 使用多种选择器
-            Element yearElement = doc.selectFirst("p.text-experience, .text-experience, [class*=experience], .job-require span");
-            if (yearElement != null) {
-                String yearText = yearElement.text().trim();
-                // 尝试从多个地方提取经验要求
-                if (yearText.isEmpty()) {
-                    Elements yearElements = doc.select(".job-primary-info span, .job-detail-header .text");
-                    for (Element el : yearElements) {
-                        String text = el.text().trim();
-                        if (text.contains("经验") || text.contains("年")) {
-                            yearText = text;
-                            break;
-                        }
-                    }
-                }
-                jobInfo.setWorkYear(yearText);
-            }
+    public int getPagesCrawled() {
+        return pagesCrawled.get();
+    }
 
-            // 提取学历要求 - 使用多种选择器
-            Element graduateElement = doc.selectFirst("p.text-degree, .text-degree, [class*=degree], .job-require span");
-            if (graduateElement != null) {
-                String degreeText = graduateElement.text().trim();
-                // 尝试从多个地方提取学历要求
-                if (degreeText.isEmpty()) {
-                    Elements degreeElements = doc.select(".job-primary-info span, .job-detail-header .text");
-                    for (Element el : degreeElements) {
-                        String text = el.text().trim();
-                        if (text.contains("学历") || text.contains("大专") || text.contains("本科") || text.contains("硕士")) {
-                            degreeText = text;
-                            break;
-                        }
-                    }
-                }
-                jobInfo.setGraduate(degreeText);
-            }
+    /**
+     * 本次提交的职位中确认写入数据库的条数
+     */
+    public int getJobsSaved() {
+        return (int) writeTracker.getWrittenCount();
+    }
 
-            // 提取HR活跃时间
-            Element hrTimeElement = doc.selectFirst("h2.name span, .hr-info span, .hr-active-time, [class*=active]");
-            if (hrTimeElement != null) {
-                jobInfo.setHrTime(hrTimeElement.text().trim());
-            }
+    /**
+     * 本次进入写入队列的职位数（包括还在队列中的和写入失败的）
+     */
+    public int getJobsQueued() {
+        return jobsQueued.get();
+    }
 
-            // 提取公司名 - 使用多种选择器
-            Element companyElement = doc.selectFirst("a.company-name, .company-name, .company-info a, [class*=company] a");
-            if (companyElement != null) {
-                jobInfo.setCompanyName(companyElement.text().trim());
-            }
-            
-            // 验证是否有基本数据（至少要有职位名称）
-            if (jobInfo.getWorkName() == null || jobInfo.getWorkName().isEmpty()) {
-                log.warn("职位信息不完整，跳过保存: {}", url);
-                return;
-            }
+    /**
+     * 本次提交的职位中重试后仍写入失败的条数
+     */
+    public int getJobsFailed() {
+        return (int) writeTracker.getFailedCount();
+    }
+
+    public int getSkippedSeen() {
+        return skippedSeen.get();
+    }
 
-            // 保存到数据库
-            jobInfoMapper.insert(jobInfo);
-            
-            // 同时添加到列表（用于CSV备份）
-            System.out.println("[保存成功] " + (jobInfo.getWorkName() != null ? jobInfo.getWorkName() : "未知职位"));
-            WorkInfService workInf = new WorkInfService();
-            workInf.setUrl(jobInfo.getUrl());
-            workInf.setWorkName(jobInfo.getWorkName());
-            workInf.setWorkSalary(jobInfo.getWorkSalary());
-            workInf.setWorkAddress(jobInfo.getWorkAddress());
-            workInf.setWorkContent(jobInfo.getWorkContent());
-            workInf.setWorkYear(jobInfo.getWorkYear());
-            workInf.setGraduate(jobInfo.getGraduate());
-            workInf.setHRTime(jobInfo.getHrTime());
-            workInf.setCompanyName(jobInfo.getCompanyName());
-            workInfList.add(workInf);
-            
-            System.out.println("成功提取并保存工作信息到数据库: " + jobInfo.getWorkName());
+    public int getErrorCount() {
+        return errorCount.get();
+    }
 
-        } catch (Exception e) {
-            System.err.println("处理详情页时出错: " + e.getMessage());
-            e.printStackTrace();
+    public int getFrontierSize() {
+        return frontier.size();
+    }
+
+    /**
+     * 等待解析的页面数
+     */
+    public int getParseQueueSize() {
+        ThreadPoolExecutor pool = parsers;
+        return pool != null ? pool.getQueue().size() : 0;
+    }
+
+    public void setResultFile(String resultFile) {
+        this.resultFile = resultFile;
+    }
+
+    public void setResourcePolicy(String resourcePolicy) {
+        this.resourcePolicy = resourcePolicy;
+    }
+
+    /**
+     * 获取URL的域名，解析失败时归入空域名
+     */
+    private String hostOf(String url) {
+        try {
+            String host = new URI(url).getHost();
+            return host != null ? host : "";
+        } catch (URISyntaxException e) {
+            return "";
         }
     }
 
@@ -379,29 +690,26 @@ public class BossZhiPinCrawlerService {
     }
 
     /**
-     * 保存结果到文件
+     * 保存结果到文件：等待本次提交的职位落库后，从数据库导出本次写入的职位
+     * （包括重新抓取和内容更新的已有职位，不包括同时进行的其它爬取任务写入的职位）
      */
     private void saveResultsToFile() {
-        try (FileWriter writer = new FileWriter("boss_zhipin_results.csv")) {
-            // 写入CSV头部（添加工作内容）
-            writer.write("URL,工作名称,薪水,工作地址,工作经验,学历要求,公司名称,工作内容\n");
-
-            // 写入数据
-            for (WorkInfService workInf : workInfList) {
-                writer.write(String.format("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"\n",
-                        workInf.getUrl(),
-                        workInf.getWorkName() != null ? workInf.getWorkName() : "",
-                        workInf.getWorkSalary() != null ? workInf.getWorkSalary() : "",
-                        workInf.getWorkAddress() != null ? workInf.getWorkAddress() : "",
-                        workInf.getWorkYear() != null ? workInf.getWorkYear() : "",
-                        workInf.getGraduate() != null ? workInf.getGraduate() : "",
-                        workInf.getCompanyName() != null ? workInf.getCompanyName() : "",
-                        workInf.getWorkContent() != null ? workInf.getWorkContent() : ""));
+        try {
+            // 只等待本次提交的职位，不等待其它爬取任务的积压
+            JobInfoWriteBehind.WriteTracker tracker = writeTracker;
+            if (!tracker.awaitFlushed(60000)) {
+                log.warn("等待职位写入超时，还有 {} 条未写入，CSV 中可能缺少部分职位", tracker.getPendingCount());
             }
-
-            System.out.println("结果已保存到 boss_zhipin_results.csv，共 " + workInfList.size() + " 条记录");
-        } catch (IOException e) {
-            System.err.println("保存文件时出错: " + e.getMessage());
+            if (tracker.getFailedCount() > 0) {
+                log.warn("本次有 {} 条职位写入失败，不在 CSV 中", tracker.getFailedCount());
+            }
+            long count = jobInfoExportService.exportCsvToFileByUrlHashes(Paths.get(resultFile), false,
+                    tracker.getWrittenUrlHashes());
+            log.info("结果已保存到 {}，共 {} 条记录", resultFile, count);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.error("保存文件 {} 时出错", resultFile, e);
         }
     }
 
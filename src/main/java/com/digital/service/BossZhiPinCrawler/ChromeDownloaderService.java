@@ -1,67 +1,320 @@
 package com.digital.service.BossZhiPinCrawler;
 
+import com.digital.config.CrawlerProperties;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
 import io.github.bonigarcia.wdm.WebDriverManager;
+import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
 public class ChromeDownloaderService {
+    // 资源类型对应的URL通配符（Network.setBlockedURLs 只支持按URL拦截）
+    private static final Map<String, List<String>> TYPE_PATTERNS = Map.of(
+            "image", List.of("*.png*", "*.jpg*", "*.jpeg*", "*.gif*", "*.webp*", "*.svg*", "*.ico*", "*.avif*"),
+            "font", List.of("*.woff*", "*.ttf*", "*.otf*", "*.eot*"),
+            "media", List.of("*.mp4*", "*.webm*", "*.mp3*", "*.m3u8*", "*.ogg*", "*.flv*"),
+            "stylesheet", List.of("*.css*"));
+
+    // 页面及资源的传输字节数：导航条目 + 各资源条目的 transferSize
+    private static final String TRANSFER_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];" +
+            "var res = performance.getEntriesByType('resource');" +
+            "var total = nav ? nav.transferSize : 0;" +
+            "for (var i = 0; i < res.length; i++) { total += res[i].transferSize || 0; }" +
+            "return [total, res.length];";
+
+    // chromedriver 只需下载/设置一次
+    private static volatile boolean driverBinaryReady = false;
+
     // 声明驱动
     private RemoteWebDriver driver;
 
+    // 页面就绪判定配置
+    private final CrawlerProperties.Readiness readiness;
+
+    // 爬虫配置（资源拦截策略）
+    private final CrawlerProperties crawlerProperties;
+
+    // 当前浏览器会话已应用的资源拦截策略名称
+    private String appliedPolicy;
+
+    // 就绪判定策略
+    private final PageReadinessStrategy strategy;
+
+    // 就绪耗时记录
+    private final PageReadinessRecorder readinessRecorder;
+
+    // 爬虫指标（导航、就绪等待耗时和失败原因）
+    private final CrawlerMetrics crawlerMetrics;
+
+    // 创建时间
+    private final long createdAt = System.currentTimeMillis();
+
+    // 已加载的页面数
+    private int pagesServed;
+
+    // 浏览器会话已失效（崩溃或被关闭），不能再复用
+    private volatile boolean broken;
+
 
     public ChromeDownloaderService() {
+        this(new CrawlerProperties(), new PageReadinessRecorder());
+    }
+
+    public ChromeDownloaderService(CrawlerProperties crawlerProperties, PageReadinessRecorder readinessRecorder) {
+        this(crawlerProperties, readinessRecorder, CrawlerMetrics.noop());
+    }
+
+    public ChromeDownloaderService(CrawlerProperties crawlerProperties, PageReadinessRecorder readinessRecorder,
+                                   CrawlerMetrics crawlerMetrics) {
+        this.crawlerMetrics = crawlerMetrics;
+        CrawlerProperties.Browser browserConfig = crawlerProperties.getBrowser();
+        this.readiness = crawlerProperties.getReadiness();
+        this.crawlerProperties = crawlerProperties;
+        this.strategy = PageReadinessStrategy.of(readiness.getStrategy());
+        this.readinessRecorder = readinessRecorder;
+
         // 自动下载并设置 chromedriver
-        WebDriverManager.chromedriver().setup();
+        setupDriverBinary();
 
         // 创建浏览器参数对象
         ChromeOptions chromeOptions = new ChromeOptions();
-        // chromeOptions.addArguments("--headless");
-        chromeOptions.addArguments("--window-size=1280,700");
+        if (browserConfig.isHeadless()) {
+            chromeOptions.addArguments("--headless=new");
+        }
+        chromeOptions.addArguments("--window-size=" + browserConfig.getWindowSize());
         chromeOptions.addArguments("--disable-blink-features=AutomationControlled");
+        chromeOptions.addArguments("--disable-dev-shm-usage");
         chromeOptions.addArguments("--user-agent=Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/129.0.6668.101 Safari/537.36");
+        // DOMContentLoaded 后即返回，剩余的等待交给就绪策略
+        chromeOptions.setPageLoadStrategy(PageLoadStrategy.EAGER);
 
         // 创建驱动
         this.driver = new ChromeDriver(chromeOptions);
+        this.driver.manage().timeouts().pageLoadTimeout(Duration.ofMillis(readiness.getTimeoutMillis()));
     }
 
-    public String download(String url) {
-        try {
-            driver.get(url);
-            Thread.sleep(4000);
+    private static void setupDriverBinary() {
+        if (driverBinaryReady) {
+            return;
+        }
+        synchronized (ChromeDownloaderService.class) {
+            if (!driverBinaryReady) {
+                WebDriverManager.chromedriver().setup();
+                driverBinaryReady = true;
+            }
+        }
+    }
+
+    public String download(String url) throws InterruptedException {
+        return fetch(url).getHtml();
+    }
 
-            // 滚动到页面底部，确保所有内容加载（添加空值检查）
+    public PageSnapshot fetch(String url) throws InterruptedException {
+        return fetch(url, null);
+    }
+
+    /**
+     * 下载页面：导航后按就绪策略等待，而不是固定 sleep，并记录就绪耗时
+     *
+     * @param url        页面URL
+     * @param policyName 资源拦截策略名称，为空时使用默认策略
+     * @throws InterruptedException 等待页面时线程被中断（爬取任务取消），不返回空页面，由调用方结束本次获取
+     */
+    public PageSnapshot fetch(String url, String policyName) throws InterruptedException {
+        String policy = policyName == null || policyName.isEmpty()
+                ? crawlerProperties.getDefaultResourcePolicy() : policyName;
+        PageSnapshot snapshot = new PageSnapshot();
+        snapshot.setUrl(url);
+        snapshot.setResourcePolicy(policy);
+        pagesServed++;
+        long start = System.currentTimeMillis();
+        try {
+            applyResourcePolicy(policy);
             try {
-                Object result = driver.executeScript(
-                    "if (document.body && document.body.scrollHeight) { " +
-                    "window.scrollTo(0, document.body.scrollHeight - 1000); " +
-                    "return true; } else { return false; }"
-                );
-                if (result != null && result.equals(true)) {
-                    Thread.sleep(3000);
+                driver.get(url);
+            } catch (TimeoutException e) {
+                // 导航超时仍尝试取已加载的内容
+                crawlerMetrics.failure("navigation_timeout");
+                log.warn("页面导航超时，继续获取内容: {}", url);
+            }
+            snapshot.setNavigationMillis(System.currentTimeMillis() - start);
+            crawlerMetrics.recordNavigation(snapshot.getNavigationMillis());
+
+            String selector = CrawlRequest.isDetailUrl(url) ? readiness.getDetailSelector() : readiness.getListSelector();
+            boolean ready = waitUntil(strategy.newProbe(selector, readiness.getQuietWindowMillis()),
+                    start + readiness.getTimeoutMillis());
+            snapshot.setReady(ready);
+            snapshot.setReadyMillis(System.currentTimeMillis() - start);
+            crawlerMetrics.recordReadinessWait(snapshot.getReadyMillis() - snapshot.getNavigationMillis());
+            if (!ready) {
+                crawlerMetrics.failure("readiness_timeout");
+            }
+            readinessRecorder.record(url, strategy, snapshot.getReadyMillis(), ready);
+
+            // 滚动到页面底部，确保懒加载内容加载（添加空值检查）
+            if (readiness.isScrollToBottom()) {
+                try {
+                    Object result = driver.executeScript(
+                        "if (document.body && document.body.scrollHeight) { " +
+                        "window.__crawlerLastMutation = performance.now(); " +
+                        "window.scrollTo(0, document.body.scrollHeight - 1000); " +
+                        "return true; } else { return false; }"
+                    );
+                    if (result != null && result.equals(true)) {
+                        long quietDeadline = System.currentTimeMillis() + readiness.getQuietWindowMillis() * 4;
+                        waitUntil(PageReadinessStrategy.DOM_QUIET.newProbe(null, readiness.getQuietWindowMillis()),
+                                quietDeadline);
+                    }
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // 如果滚动失败，继续执行，不影响页面内容获取
+                    log.debug("页面滚动失败，继续获取内容: {}", e.getMessage());
                 }
-            } catch (Exception e) {
-                // 如果滚动失败，继续执行，不影响页面内容获取
-                System.out.println("页面滚动失败，继续获取内容: " + e.getMessage());
             }
 
             // 获取页面源代码
-            String pageSource = driver.getPageSource();
-
-            return pageSource;
+            snapshot.setHtml(driver.getPageSource());
+            snapshot.setRenderMillis(System.currentTimeMillis() - start);
+            measureTransfer(snapshot);
+            readinessRecorder.recordCost(url, policy, snapshot.getTransferBytes(), snapshot.getResourceCount(),
+                    snapshot.getRenderMillis());
 
         } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            e.printStackTrace();
+            throw e;
+        } catch (NoSuchSessionException | UnreachableBrowserException e) {
+            // 浏览器已崩溃，交由浏览器池回收
+            broken = true;
+            crawlerMetrics.failure("browser_crashed");
+            log.error("浏览器会话已失效: {}", url, e);
         } catch (Exception e) {
-            e.printStackTrace();
+            // WebDriver 在等待浏览器响应时被中断会包装成自己的异常
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("渲染页面被中断: " + url);
+            }
+            crawlerMetrics.failure("browser_error");
+            log.error("浏览器加载页面出错: {}", url, e);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 按策略拦截资源：与当前会话已应用的策略相同时不重复下发
+     */
+    private void applyResourcePolicy(String policy) {
+        if (policy.equals(appliedPolicy)) {
+            return;
+        }
+        ChromeDriver chromeDriver = (ChromeDriver) driver;
+        List<String> patterns = blockedUrlPatterns(crawlerProperties.resolveResourcePolicy(policy));
+        chromeDriver.executeCdpCommand("Network.enable", Map.of());
+        chromeDriver.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+        appliedPolicy = policy;
+    }
+
+    /**
+     * 策略转换为拦截的URL通配符列表
+     */
+    static List<String> blockedUrlPatterns(CrawlerProperties.ResourcePolicy policy) {
+        Set<String> patterns = new LinkedHashSet<>();
+        for (String type : policy.getBlockTypes()) {
+            List<String> typePatterns = TYPE_PATTERNS.get(type.toLowerCase(Locale.ROOT));
+            if (typePatterns == null) {
+                throw new IllegalArgumentException("不支持的资源类型: " + type);
+            }
+            patterns.addAll(typePatterns);
+        }
+        patterns.addAll(policy.getBlockUrlPatterns());
+        return new ArrayList<>(patterns);
+    }
+
+    /**
+     * 统计页面及资源的传输字节数；未返回 Timing-Allow-Origin 的跨域资源 transferSize 为 0，结果偏低
+     */
+    private void measureTransfer(PageSnapshot snapshot) {
+        try {
+            Object result = driver.executeScript(TRANSFER_SCRIPT);
+            if (result instanceof List<?> values && values.size() == 2) {
+                snapshot.setTransferBytes(((Number) values.get(0)).longValue());
+                snapshot.setResourceCount(((Number) values.get(1)).intValue());
+            }
+        } catch (NoSuchSessionException | UnreachableBrowserException e) {
+            throw e;
+        } catch (Exception e) {
+            // 统计失败不影响页面内容
+        }
+    }
+
+    /**
+     * 轮询判定器直到就绪或到达截止时间
+     *
+     * @return 是否在截止时间前就绪
+     */
+    private boolean waitUntil(PageReadinessStrategy.Probe probe, long deadline) throws InterruptedException {
+        while (true) {
+            try {
+                if (probe.isReady(driver)) {
+                    return true;
+                }
+            } catch (NoSuchSessionException | UnreachableBrowserException e) {
+                throw e;
+            } catch (Exception e) {
+                // 页面跳转过程中脚本执行可能失败，继续轮询
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            Thread.sleep(Math.min(remaining, readiness.getPollIntervalMillis()));
         }
-        return null;
+    }
+
+    /**
+     * 健康检查：浏览器会话仍可执行脚本
+     */
+    public boolean isHealthy() {
+        if (broken || driver == null) {
+            return false;
+        }
+        try {
+            Object result = driver.executeScript("return 1");
+            return result != null;
+        } catch (Exception e) {
+            broken = true;
+            return false;
+        }
+    }
+
+    public boolean isBroken() {
+        return broken;
+    }
+
+    public int getPagesServed() {
+        return pagesServed;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
     }
 
     public void close() {
         if (driver != null) {
             driver.quit();
+            driver = null;
         }
     }
-}
\ No newline at end of file
+}
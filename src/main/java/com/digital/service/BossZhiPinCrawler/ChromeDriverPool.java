@@ -0,0 +1,301 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 全局共享的无头浏览器池
+ * <p>
+ * 浏览器在多次爬取之间复用，避免每次爬取都冷启动 Chrome；
+ * 借出时做健康检查，加载页面数达到上限后回收重建；
+ * 定时维护任务负责保持热备实例、关闭多余的空闲实例，并强制回收借出后长时间未归还的实例（泄漏）。
+ * 应用关闭时退出所有浏览器进程。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class ChromeDriverPool {
+
+    private final CrawlerProperties crawlerProperties;
+
+    private final CrawlerProperties.Browser config;
+
+    private final PageReadinessRecorder readinessRecorder;
+
+    private final CrawlerMetrics crawlerMetrics;
+
+    /**
+     * 空闲实例，头部为最近归还的实例
+     */
+    private final LinkedBlockingDeque<IdleEntry> idle = new LinkedBlockingDeque<>();
+
+    /**
+     * 已借出的实例及借出信息
+     */
+    private final Map<ChromeDownloaderService, BorrowRecord> borrowed = new ConcurrentHashMap<>();
+
+    /**
+     * 存活实例数上限（空闲 + 借出）
+     */
+    private final Semaphore slots;
+
+    /**
+     * 池被使用过之后才开始维持热备实例
+     */
+    private final AtomicBoolean activated = new AtomicBoolean(false);
+
+    private volatile boolean closed = false;
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private final AtomicLong recycledCount = new AtomicLong();
+
+    private final AtomicLong leakedCount = new AtomicLong();
+
+    public ChromeDriverPool(CrawlerProperties crawlerProperties, PageReadinessRecorder readinessRecorder) {
+        this(crawlerProperties, readinessRecorder, CrawlerMetrics.noop());
+    }
+
+    @Autowired
+    public ChromeDriverPool(CrawlerProperties crawlerProperties, PageReadinessRecorder readinessRecorder,
+                            CrawlerMetrics crawlerMetrics) {
+        this.crawlerProperties = crawlerProperties;
+        this.config = crawlerProperties.getBrowser();
+        this.readinessRecorder = readinessRecorder;
+        this.crawlerMetrics = crawlerMetrics;
+        this.slots = new Semaphore(Math.max(1, config.getMaxSize()), true);
+        Gauge.builder("crawler.browser.pool", idle, LinkedBlockingDeque::size).tag("state", "idle")
+                .description("浏览器池实例数").register(crawlerMetrics.getRegistry());
+        Gauge.builder("crawler.browser.pool", borrowed, Map::size).tag("state", "borrowed")
+                .description("浏览器池实例数").register(crawlerMetrics.getRegistry());
+    }
+
+    @PostConstruct
+    public void init() {
+        if (config.isWarmOnStartup()) {
+            activated.set(true);
+            Thread warmer = new Thread(this::ensureWarmSpares, "ChromeDriverPool-Warmer");
+            warmer.setDaemon(true);
+            warmer.start();
+        }
+    }
+
+    /**
+     * 借出一个健康的浏览器，池满时等待归还，超过 borrowTimeoutMillis 抛出异常
+     */
+    public ChromeDownloaderService borrow() throws InterruptedException {
+        if (closed) {
+            throw new IllegalStateException("浏览器池已关闭");
+        }
+        activated.set(true);
+        long deadline = System.currentTimeMillis() + config.getBorrowTimeoutMillis();
+        while (true) {
+            IdleEntry entry = idle.pollFirst();
+            if (entry != null) {
+                if (entry.downloader.isHealthy()) {
+                    return markBorrowed(entry.downloader);
+                }
+                log.warn("浏览器健康检查失败，重建实例");
+                destroy(entry.downloader);
+                continue;
+            }
+            if (slots.tryAcquire()) {
+                return markBorrowed(create());
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new IllegalStateException("借用浏览器超时，当前借出 " + borrowed.size() + " 个");
+            }
+            // 分段等待：实例既可能被归还到空闲队列，也可能被销毁后释放名额
+            entry = idle.pollFirst(Math.min(remaining, 200), TimeUnit.MILLISECONDS);
+            if (entry != null) {
+                idle.offerFirst(entry);
+            }
+        }
+    }
+
+    /**
+     * 归还浏览器；已损坏或达到页面数上限的实例直接回收
+     */
+    public void giveBack(ChromeDownloaderService downloader) {
+        if (downloader == null) {
+            return;
+        }
+        if (borrowed.remove(downloader) == null) {
+            // 已被泄漏检测强制回收，名额已释放
+            closeQuietly(downloader);
+            return;
+        }
+        if (closed || downloader.isBroken()) {
+            destroy(downloader);
+            return;
+        }
+        if (downloader.getPagesServed() >= config.getMaxPagesPerDriver()) {
+            log.info("浏览器已加载 {} 个页面，回收重建", downloader.getPagesServed());
+            recycledCount.incrementAndGet();
+            destroy(downloader);
+            return;
+        }
+        idle.offerFirst(new IdleEntry(downloader));
+    }
+
+    /**
+     * 定时维护：泄漏检测、空闲回收、空闲实例健康检查、补足热备实例
+     */
+    @Scheduled(fixedDelayString = "${crawler.browser.maintenance-interval-millis:30000}")
+    public void maintain() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        // 1. 泄漏检测
+        for (Map.Entry<ChromeDownloaderService, BorrowRecord> e : borrowed.entrySet()) {
+            BorrowRecord record = e.getValue();
+            if (now - record.borrowedAt > config.getLeakTimeoutMillis()
+                    && borrowed.remove(e.getKey(), record)) {
+                leakedCount.incrementAndGet();
+                log.warn("浏览器借出 {} 秒未归还，判定为泄漏并强制关闭，借用线程: {}",
+                        (now - record.borrowedAt) / 1000, record.threadName);
+                destroy(e.getKey());
+            }
+        }
+        // 2. 关闭超过热备数量且空闲过久的实例，并剔除不健康的实例
+        for (IdleEntry entry : new ArrayList<>(idle)) {
+            boolean expired = now - entry.idleSince > config.getIdleTimeoutMillis()
+                    && idle.size() > config.getMinIdle();
+            if (!idle.remove(entry)) {
+                continue;
+            }
+            if (expired || !entry.downloader.isHealthy()) {
+                destroy(entry.downloader);
+            } else {
+                idle.offerLast(entry);
+            }
+        }
+        // 3. 补足热备实例
+        if (activated.get()) {
+            ensureWarmSpares();
+        }
+    }
+
+    private void ensureWarmSpares() {
+        while (!closed && idle.size() < config.getMinIdle() && slots.tryAcquire()) {
+            try {
+                idle.offerLast(new IdleEntry(create()));
+            } catch (RuntimeException e) {
+                log.error("预热浏览器失败", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 新建实例，调用前必须已占用一个名额
+     */
+    private ChromeDownloaderService create() {
+        try {
+            ChromeDownloaderService downloader = new ChromeDownloaderService(crawlerProperties, readinessRecorder, crawlerMetrics);
+            createdCount.incrementAndGet();
+            log.info("新建浏览器实例，空闲 {} 个，借出 {} 个", idle.size(), borrowed.size());
+            return downloader;
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    private ChromeDownloaderService markBorrowed(ChromeDownloaderService downloader) {
+        borrowed.put(downloader, new BorrowRecord(Thread.currentThread().getName()));
+        return downloader;
+    }
+
+    private void destroy(ChromeDownloaderService downloader) {
+        closeQuietly(downloader);
+        slots.release();
+    }
+
+    private void closeQuietly(ChromeDownloaderService downloader) {
+        try {
+            downloader.close();
+        } catch (Exception e) {
+            log.error("关闭浏览器出错", e);
+        }
+    }
+
+    /**
+     * 应用关闭时退出所有浏览器进程
+     */
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        List<ChromeDownloaderService> all = new ArrayList<>(borrowed.keySet());
+        borrowed.clear();
+        IdleEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            all.add(entry.downloader);
+        }
+        for (ChromeDownloaderService downloader : all) {
+            destroy(downloader);
+        }
+        log.info("浏览器池已关闭，共关闭 {} 个实例", all.size());
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getBorrowedCount() {
+        return borrowed.size();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getRecycledCount() {
+        return recycledCount.get();
+    }
+
+    public long getLeakedCount() {
+        return leakedCount.get();
+    }
+
+    private static class IdleEntry {
+
+        private final ChromeDownloaderService downloader;
+
+        private final long idleSince = System.currentTimeMillis();
+
+        IdleEntry(ChromeDownloaderService downloader) {
+            this.downloader = downloader;
+        }
+    }
+
+    private static class BorrowRecord {
+
+        private final String threadName;
+
+        private final long borrowedAt = System.currentTimeMillis();
+
+        BorrowRecord(String threadName) {
+            this.threadName = threadName;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.model.entity.JobInfo;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Collector;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.QueryParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的详情页抽取规则（不可变，可被多个线程共享）
+ * <p>
+ * 选择器在加载规则时一次性编译为 jsoup {@link Evaluator}，正则编译为 {@link Pattern}；
+ * 抽取时只遍历一次 DOM，每个元素依次用各字段尚未命中的更高优先级候选去匹配，
+ * 所有字段都命中首选候选后提前结束遍历。
+ *
+ * @author digital
+ */
+public class CompiledExtractionRules {
+
+    /**
+     * 可抽取的字段
+     */
+    private static final Map<String, BiConsumer<JobInfo, String>> SETTERS = Map.of(
+            "workName", JobInfo::setWorkName,
+            "workSalary", JobInfo::setWorkSalary,
+            "workAddress", JobInfo::setWorkAddress,
+            "workContent", JobInfo::setWorkContent,
+            "workYear", JobInfo::setWorkYear,
+            "graduate", JobInfo::setGraduate,
+            "hrTime", JobInfo::setHrTime,
+            "companyName", JobInfo::setCompanyName);
+
+    /**
+     * 用于清空结构选择器（祖先、父子）按线程缓存的匹配结果
+     */
+    private static final Element RESET_ROOT = new Element("html");
+
+    private final int version;
+
+    private final CompiledField[] fields;
+
+    private final List<Evaluator> evaluators = new ArrayList<>();
+
+    private CompiledExtractionRules(int version, CompiledField[] fields) {
+        this.version = version;
+        this.fields = fields;
+        for (CompiledField field : fields) {
+            for (CompiledCandidate candidate : field.candidates) {
+                evaluators.add(candidate.evaluator);
+            }
+        }
+    }
+
+    /**
+     * 编译规则，选择器、正则或字段名有误时抛出 IllegalArgumentException
+     */
+    public static CompiledExtractionRules compile(ExtractionRuleSet ruleSet) {
+        CompiledField[] fields = new CompiledField[ruleSet.getRules().size()];
+        for (int i = 0; i < fields.length; i++) {
+            ExtractionRuleSet.Rule rule = ruleSet.getRules().get(i);
+            BiConsumer<JobInfo, String> setter = SETTERS.get(rule.getField());
+            if (setter == null) {
+                throw new IllegalArgumentException("未知的字段: " + rule.getField());
+            }
+            if (rule.getCandidates().isEmpty()) {
+                throw new IllegalArgumentException("字段没有候选选择器: " + rule.getField());
+            }
+            CompiledCandidate[] candidates = new CompiledCandidate[rule.getCandidates().size()];
+            for (int j = 0; j < candidates.length; j++) {
+                ExtractionRuleSet.Candidate candidate = rule.getCandidates().get(j);
+                try {
+                    candidates[j] = new CompiledCandidate(QueryParser.parse(candidate.getSelector()),
+                            compilePattern(candidate.getMatch()), compilePattern(candidate.getExtract()));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("字段 " + rule.getField() + " 的第 " + (j + 1) + " 个候选无效: "
+                            + e.getMessage(), e);
+                }
+            }
+            fields[i] = new CompiledField(rule.getField(), rule.isRequired(), setter, candidates);
+        }
+        return new CompiledExtractionRules(ruleSet.getVersion(), fields);
+    }
+
+    private static Pattern compilePattern(String regex) {
+        return regex == null || regex.isEmpty() ? null : Pattern.compile(regex);
+    }
+
+    /**
+     * 抽取字段写入 target
+     *
+     * @param root   文档或页面根元素
+     * @param target 写入的职位对象
+     * @return 必填字段是否都已抽取到
+     */
+    public boolean extract(Element root, JobInfo target) {
+        String[] values = new String[fields.length];
+        // 每个字段当前命中的候选序号，只需再尝试比它优先级更高的候选
+        int[] best = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            best[i] = fields[i].candidates.length;
+        }
+        int[] unresolved = {fields.length};
+        try {
+            NodeTraversor.filter(new NodeFilter() {
+                @Override
+                public FilterResult head(org.jsoup.nodes.Node node, int depth) {
+                    if (!(node instanceof Element element)) {
+                        return FilterResult.CONTINUE;
+                    }
+                    String text = null;
+                    for (int f = 0; f < fields.length; f++) {
+                        CompiledCandidate[] candidates = fields[f].candidates;
+                        for (int c = 0; c < best[f]; c++) {
+                            if (!candidates[c].evaluator.matches(root, element)) {
+                                continue;
+                            }
+                            if (text == null) {
+                                text = element.text().trim();
+                            }
+                            String value = candidates[c].apply(text);
+                            if (value == null) {
+                                continue;
+                            }
+                            values[f] = value;
+                            best[f] = c;
+                            if (c == 0) {
+                                unresolved[0]--;
+                            }
+                            break;
+                        }
+                    }
+                    return unresolved[0] == 0 ? FilterResult.STOP : FilterResult.CONTINUE;
+                }
+            }, root);
+        } finally {
+            for (Evaluator evaluator : evaluators) {
+                Collector.findFirst(evaluator, RESET_ROOT);
+            }
+        }
+
+        boolean complete = true;
+        for (int f = 0; f < fields.length; f++) {
+            if (values[f] != null) {
+                fields[f].setter.accept(target, values[f]);
+            } else if (fields[f].required) {
+                complete = false;
+            }
+        }
+        return complete;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public List<String> getFieldNames() {
+        return Arrays.stream(fields).map(field -> field.name).toList();
+    }
+
+    private record CompiledField(String name, boolean required, BiConsumer<JobInfo, String> setter,
+                                 CompiledCandidate[] candidates) {
+    }
+
+    private record CompiledCandidate(Evaluator evaluator, Pattern match, Pattern extract) {
+
+        /**
+         * 对命中元素的文本做后处理，不满足条件时返回 null
+         */
+        String apply(String text) {
+            if (text.isEmpty()) {
+                return null;
+            }
+            if (match != null && !match.matcher(text).find()) {
+                return null;
+            }
+            if (extract == null) {
+                return text;
+            }
+            Matcher matcher = extract.matcher(text);
+            if (!matcher.find()) {
+                return null;
+            }
+            String value = matcher.groupCount() >= 1 ? matcher.group(1) : matcher.group();
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.utils.UrlFingerprint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 线程安全的优先级待爬队列
+ * <p>
+ * 按种子分区：每个种子一个优先级队列，出队时在分区之间轮询，
+ * 结果很多的种子（如大城市）不会把其它种子饿死。
+ * 同一URL（按规范化后的地址）只会入队一次，多个种子搜到的同一职位只抓取一次；
+ * pending 统计“已入队但尚未处理完”的请求数，当 pending 归零时说明没有工作线程还会产生新链接，爬取可以结束。
+ *
+ * @author digital
+ */
+public class CrawlFrontier {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final List<PriorityQueue<CrawlRequest>> partitions = new ArrayList<>();
+
+    /**
+     * 下一次从哪个分区开始找
+     */
+    private int cursor;
+
+    private int size;
+
+    private final Set<String> enqueued = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * 入队，URL已入队过则忽略
+     *
+     * @return 是否入队成功
+     */
+    public boolean offer(CrawlRequest request) {
+        if (!enqueued.add(UrlFingerprint.normalize(request.getUrl()))) {
+            return false;
+        }
+        pending.incrementAndGet();
+        lock.lock();
+        try {
+            while (partitions.size() <= request.getSeed()) {
+                partitions.add(new PriorityQueue<>());
+            }
+            partitions.get(request.getSeed()).add(request);
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 轮询各分区，取出下一个分区中优先级最高的请求，队列为空时最多等待 timeoutMillis
+     */
+    public CrawlRequest poll(long timeoutMillis) throws InterruptedException {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            int partitionCount = partitions.size();
+            for (int i = 0; i < partitionCount; i++) {
+                int index = (cursor + i) % partitionCount;
+                CrawlRequest request = partitions.get(index).poll();
+                if (request != null) {
+                    cursor = (index + 1) % partitionCount;
+                    size--;
+                    return request;
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 请求处理完毕（无论成功与否），必须与 poll 成对调用
+     */
+    public void done(CrawlRequest request) {
+        pending.decrementAndGet();
+    }
+
+    /**
+     * 队列中和处理中的请求都已清空
+     */
+    public boolean isDrained() {
+        return pending.get() <= 0;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            partitions.clear();
+            cursor = 0;
+            size = 0;
+            enqueued.clear();
+            pending.set(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
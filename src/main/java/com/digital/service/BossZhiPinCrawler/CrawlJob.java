@@ -0,0 +1,144 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.Future;
+
+/**
+ * 一次爬取任务（一个或多个搜索关键词 × 城市种子）
+ * <p>
+ * 每个任务持有独立的爬虫实例（待爬队列、已访问集合、计数器互不干扰），
+ * 浏览器池、域名访问预算和已入库去重集合在任务之间共享。
+ *
+ * @author digital
+ */
+public class CrawlJob {
+
+    private final String id;
+
+    private final List<CrawlSeed> seeds;
+
+    private final Date createTime = new Date();
+
+    private final BossZhiPinCrawlerService crawler;
+
+    private volatile CrawlJobStatus status = CrawlJobStatus.QUEUED;
+
+    private volatile Date startTime;
+
+    private volatile Date endTime;
+
+    private volatile String errorMessage;
+
+    private volatile boolean cancelRequested;
+
+    private volatile Future<?> future;
+
+    CrawlJob(String id, List<CrawlSeed> seeds, BossZhiPinCrawlerService crawler) {
+        this.id = id;
+        this.seeds = List.copyOf(seeds);
+        this.crawler = crawler;
+    }
+
+    public String getStartUrl() {
+        return seeds.get(0).getStartUrl();
+    }
+
+    /**
+     * 每分钟爬取的页面数（运行中按当前时间计算）
+     */
+    public double getPagesPerMinute() {
+        if (startTime == null) {
+            return 0;
+        }
+        long end = endTime != null ? endTime.getTime() : System.currentTimeMillis();
+        long elapsedMillis = Math.max(1, end - startTime.getTime());
+        return crawler.getPagesCrawled() * 60000.0 / elapsedMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<CrawlSeed> getSeeds() {
+        return seeds;
+    }
+
+    /**
+     * 所有种子的搜索关键词（去重，逗号分隔）
+     */
+    public String getQuery() {
+        return seeds.stream().map(CrawlSeed::getQuery).distinct().collect(Collectors.joining(","));
+    }
+
+    /**
+     * 所有种子的城市代码（去重，逗号分隔）
+     */
+    public String getCityCode() {
+        return seeds.stream().map(CrawlSeed::getCityCode).distinct().collect(Collectors.joining(","));
+    }
+
+    /**
+     * 所有种子的页数上限之和
+     */
+    public int getMaxPages() {
+        return seeds.stream().mapToInt(CrawlSeed::getMaxPages).sum();
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public BossZhiPinCrawlerService getCrawler() {
+        return crawler;
+    }
+
+    public CrawlJobStatus getStatus() {
+        return status;
+    }
+
+    void setStatus(CrawlJobStatus status) {
+        this.status = status;
+    }
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    void setStartTime(Date startTime) {
+        this.startTime = startTime;
+    }
+
+    public Date getEndTime() {
+        return endTime;
+    }
+
+    void setEndTime(Date endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void setCancelRequested(boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+}
@@ -0,0 +1,241 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.digital.common.ErrorCode;
+import com.digital.config.CrawlerProperties;
+import com.digital.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 爬取任务调度器
+ * <p>
+ * 任务提交后进入有界线程池排队，最多 maxConcurrent 个任务同时运行，
+ * 每个任务使用独立的爬虫实例；任务登记在注册表中，可查询进度和取消。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class CrawlJobManager {
+
+    private final ObjectProvider<BossZhiPinCrawlerService> crawlerProvider;
+
+    private final CrawlerProperties.Jobs config;
+
+    private final CrawlerProperties.Plan plan;
+
+    private final CrawlerProperties crawlerProperties;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, CrawlJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 已结束任务的先后顺序，用于淘汰最早的历史记录
+     */
+    private final Queue<String> finishedOrder = new ConcurrentLinkedQueue<>();
+
+    public CrawlJobManager(ObjectProvider<BossZhiPinCrawlerService> crawlerProvider,
+                           CrawlerProperties crawlerProperties) {
+        this.crawlerProvider = crawlerProvider;
+        this.config = crawlerProperties.getJobs();
+        this.plan = crawlerProperties.getPlan();
+        this.crawlerProperties = crawlerProperties;
+        int maxConcurrent = Math.max(1, config.getMaxConcurrent());
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                r -> new Thread(r, "CrawlJob-" + index.incrementAndGet()));
+    }
+
+    /**
+     * 提交爬取任务
+     *
+     * @param query    搜索关键词
+     * @param cityCode 城市代码
+     * @param maxPages 最大爬取页面数
+     * @return 任务
+     */
+    public CrawlJob submit(String query, String cityCode, int maxPages) {
+        return submit(List.of(new CrawlSeed(query, cityCode, maxPages)));
+    }
+
+    /**
+     * 提交爬取计划：所有种子在同一个任务中并行爬取，共享职位去重
+     *
+     * @param seeds 种子列表
+     * @return 任务
+     */
+    public CrawlJob submit(List<CrawlSeed> seeds) {
+        return submit(seeds, null);
+    }
+
+    /**
+     * 提交爬取计划，并指定浏览器资源拦截策略
+     *
+     * @param seeds          种子列表
+     * @param resourcePolicy 资源拦截策略名称，为空时使用默认策略
+     * @return 任务
+     */
+    public CrawlJob submit(List<CrawlSeed> seeds, String resourcePolicy) {
+        if (seeds.isEmpty()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "爬取计划为空");
+        }
+        if (StringUtils.isNotBlank(resourcePolicy) && !crawlerProperties.getResourcePolicies().containsKey(resourcePolicy)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "资源拦截策略不存在: " + resourcePolicy);
+        }
+        String id = IdWorker.getIdStr();
+        CrawlJob job = new CrawlJob(id, seeds, crawlerProvider.getObject());
+        job.getCrawler().setResultFile("boss_zhipin_results_" + id + ".csv");
+        job.getCrawler().setResourcePolicy(StringUtils.trimToNull(resourcePolicy));
+        jobs.put(id, job);
+        try {
+            job.setFuture(executor.submit(() -> runJob(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "爬取任务排队已满，请稍后再试");
+        }
+        log.info("爬取任务已提交: id={}, seeds={}", id, seeds);
+        return job;
+    }
+
+    private void runJob(CrawlJob job) {
+        synchronized (job) {
+            if (job.isCancelRequested()) {
+                return;
+            }
+            job.setStatus(CrawlJobStatus.RUNNING);
+            job.setStartTime(new Date());
+        }
+        BossZhiPinCrawlerService crawler = job.getCrawler();
+        try {
+            crawler.initialize(job.getStartUrl(), job.getSeeds());
+            crawler.crawl(job.getStartUrl());
+            finish(job, job.isCancelRequested() ? CrawlJobStatus.CANCELLED : CrawlJobStatus.SUCCEEDED, null);
+        } catch (Exception e) {
+            log.error("爬取任务失败: id={}", job.getId(), e);
+            finish(job, job.isCancelRequested() ? CrawlJobStatus.CANCELLED : CrawlJobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private void finish(CrawlJob job, CrawlJobStatus status, String errorMessage) {
+        job.setErrorMessage(errorMessage);
+        job.setEndTime(new Date());
+        job.setStatus(status);
+        log.info("爬取任务结束: id={}, 状态={}, {}页, {}条职位", job.getId(), status.getText(),
+                job.getCrawler().getPagesCrawled(), job.getCrawler().getJobsSaved());
+        finishedOrder.add(job.getId());
+        while (finishedOrder.size() > Math.max(0, config.getHistorySize())) {
+            String oldest = finishedOrder.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    /**
+     * 按配置的爬取计划（queries × cityCodes）提交任务
+     *
+     * @return 任务
+     */
+    public CrawlJob submitPlan() {
+        return submitPlan(null);
+    }
+
+    public CrawlJob submitPlan(String resourcePolicy) {
+        return submit(buildPlan(plan.getQueries(), plan.getCityCodes(), plan.getMaxPagesPerSeed()), resourcePolicy);
+    }
+
+    /**
+     * 展开关键词 × 城市矩阵，每个组合一个种子
+     */
+    public static List<CrawlSeed> buildPlan(List<String> queries, List<String> cityCodes, int maxPagesPerSeed) {
+        List<CrawlSeed> seeds = new ArrayList<>();
+        for (String query : queries) {
+            for (String cityCode : cityCodes) {
+                if (StringUtils.isNoneBlank(query, cityCode)) {
+                    seeds.add(new CrawlSeed(query.trim(), cityCode.trim(), maxPagesPerSeed));
+                }
+            }
+        }
+        return seeds;
+    }
+
+    /**
+     * 取消任务：排队中的直接移除，运行中的中断其工作线程（浏览器会归还到池中）
+     *
+     * @return 是否发出了取消
+     */
+    public boolean cancel(String id) {
+        CrawlJob job = jobs.get(id);
+        if (job == null) {
+            return false;
+        }
+        synchronized (job) {
+            if (job.getStatus().isFinished() || job.isCancelRequested()) {
+                return false;
+            }
+            job.setCancelRequested(true);
+            if (job.getStatus() == CrawlJobStatus.QUEUED) {
+                finish(job, CrawlJobStatus.CANCELLED, null);
+            }
+        }
+        Future<?> future = job.getFuture();
+        if (future != null) {
+            future.cancel(true);
+            executor.purge();
+        }
+        log.info("爬取任务已取消: id={}", id);
+        return true;
+    }
+
+    public CrawlJob get(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * 所有任务，按提交时间倒序
+     */
+    public List<CrawlJob> list() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(CrawlJob::getCreateTime).reversed())
+                .toList();
+    }
+
+    public int getRunningCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (CrawlJob job : jobs.values()) {
+            if (!job.getStatus().isFinished()) {
+                cancel(job.getId());
+            }
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,29 @@
+package com.digital.service.BossZhiPinCrawler;
+
+/**
+ * 爬取任务状态
+ *
+ * @author digital
+ */
+public enum CrawlJobStatus {
+
+    QUEUED("排队中"),
+    RUNNING("运行中"),
+    SUCCEEDED("已完成"),
+    FAILED("失败"),
+    CANCELLED("已取消");
+
+    private final String text;
+
+    CrawlJobStatus(String text) {
+        this.text = text;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
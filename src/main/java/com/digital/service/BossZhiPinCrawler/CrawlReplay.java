@@ -0,0 +1,244 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.entity.JobInfo;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 离线回放：把录制的页面归档（见 {@link PageRecorder}）以最快速度送入解析和写入阶段，统计解析吞吐
+ * <p>
+ * 不需要网络、浏览器和数据库：解析使用爬虫的 parsePage（与在线爬取相同的 DOM 构建和字段抽取），
+ * 写入使用真实的 {@link JobInfoWriteBehind} 批量队列，落库换成只计数的本地桩。
+ * 回放不跟进页面中的链接，只处理归档中已有的页面。
+ * <p>
+ * 用法：{@code CrawlReplay <归档路径> [解析线程数] [回放轮数]}，多轮回放时第一轮可视为预热。
+ *
+ * @author digital
+ */
+@Slf4j
+public class CrawlReplay {
+
+    private static final String START_URL = "https://www.zhipin.com/";
+
+    private final CrawlerProperties crawlerProperties;
+
+    private final int parseThreads;
+
+    public CrawlReplay(CrawlerProperties crawlerProperties, int parseThreads) {
+        this.crawlerProperties = crawlerProperties;
+        this.parseThreads = parseThreads > 0 ? parseThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 回放一遍归档
+     */
+    public ReplayReport replay(Path archive) throws IOException, InterruptedException {
+        BossZhiPinCrawlerService crawler = new BossZhiPinCrawlerService();
+        crawler.initialize(START_URL, List.of());
+
+        CountingJobInfoStore store = new CountingJobInfoStore();
+        CrawlerProperties.SeenStore seenConfig = new CrawlerProperties.SeenStore();
+        seenConfig.setEnabled(false);
+        CrawlerProperties storeProperties = new CrawlerProperties();
+        storeProperties.setSeenStore(seenConfig);
+        storeProperties.setPersist(crawlerProperties.getPersist());
+        storeProperties.setRecrawl(crawlerProperties.getRecrawl());
+        JobInfoWriteBehind writeBehind = new JobInfoWriteBehind(store.asMapper(),
+                new PersistentSeenStore(null, storeProperties), storeProperties);
+        writeBehind.start();
+
+        Set<Thread> workerThreads = ConcurrentHashMap.newKeySet();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor parsers = new ThreadPoolExecutor(parseThreads, parseThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parseThreads * 4), r -> {
+                    Thread thread = new Thread(r, "CrawlReplay-Parser-" + threadIndex.incrementAndGet());
+                    workerThreads.add(thread);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        parsers.prestartAllCoreThreads();
+        workerThreads.add(Thread.currentThread());
+
+        AtomicLong pages = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong jobs = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        long allocatedBefore = allocatedBytes(workerThreads);
+        long start = System.nanoTime();
+        try (PageArchive.Reader reader = PageArchive.openForRead(archive)) {
+            PageArchive.ArchivedPage archived;
+            while ((archived = reader.next()) != null) {
+                FetchResult fetchResult = archived.toFetchResult();
+                parsers.execute(() -> {
+                    try {
+                        CrawlRequest request = CrawlRequest.of(fetchResult.getUrl());
+                        JobInfo jobInfo = crawler.parsePage(fetchResult, request).getJobInfo();
+                        if (jobInfo != null && writeBehind.submit(jobInfo)) {
+                            jobs.incrementAndGet();
+                        }
+                        pages.incrementAndGet();
+                        bytes.addAndGet(fetchResult.getHtml().length());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                        log.warn("回放页面解析失败: {}", fetchResult.getUrl(), e);
+                    }
+                });
+            }
+            // 全部解析完后再统计分配量，此时解析线程还活着
+            while (parsers.getCompletedTaskCount() < parsers.getTaskCount()) {
+                Thread.sleep(1);
+            }
+        } finally {
+            parsers.shutdown();
+        }
+        long parseNanos = System.nanoTime() - start;
+        long allocated = allocatedBytes(workerThreads) - allocatedBefore;
+        writeBehind.awaitFlushed(60000);
+        long totalNanos = System.nanoTime() - start;
+        writeBehind.shutdown();
+        parsers.awaitTermination(1, TimeUnit.MINUTES);
+
+        ReplayReport report = new ReplayReport();
+        report.setPages(pages.get());
+        report.setJobs(jobs.get());
+        report.setFailures(failures.get());
+        report.setRowsWritten(store.rows.get());
+        report.setParseThreads(parseThreads);
+        report.setParseMillis(TimeUnit.NANOSECONDS.toMillis(parseNanos));
+        report.setTotalMillis(TimeUnit.NANOSECONDS.toMillis(totalNanos));
+        report.setPagesPerSecond(pages.get() * 1e9 / Math.max(1, parseNanos));
+        report.setCharsPerPage(pages.get() > 0 ? bytes.get() / pages.get() : 0);
+        report.setAllocatedBytesPerPage(allocated >= 0 && pages.get() > 0 ? allocated / pages.get() : -1);
+        return report;
+    }
+
+    /**
+     * 指定线程累计分配的堆内存，JVM 不支持时返回 -1
+     */
+    private static long allocatedBytes(Set<Thread> threads) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean)
+                || !threadMXBean.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        long total = 0;
+        for (Thread thread : threads) {
+            long allocated = threadMXBean.getThreadAllocatedBytes(thread.getId());
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 回放结果
+     */
+    @Data
+    public static class ReplayReport {
+
+        private long pages;
+
+        /**
+         * 抽取出职位信息并提交写入的页面数
+         */
+        private long jobs;
+
+        private long failures;
+
+        /**
+         * 写入阶段实际批量写出的行数
+         */
+        private long rowsWritten;
+
+        private int parseThreads;
+
+        /**
+         * 读取和解析全部页面的耗时
+         */
+        private long parseMillis;
+
+        /**
+         * 含等待写入队列清空的总耗时
+         */
+        private long totalMillis;
+
+        private double pagesPerSecond;
+
+        private long charsPerPage;
+
+        /**
+         * 每个页面在读取和解析线程上分配的堆内存（字节），不支持统计时为 -1
+         */
+        private long allocatedBytesPerPage;
+
+        @Override
+        public String toString() {
+            return String.format("%d 页（职位 %d，失败 %d，写入 %d 行），%d 个解析线程，解析 %d ms，总计 %d ms，"
+                            + "%.1f 页/秒，平均 %d 字符/页，分配 %d KB/页",
+                    pages, jobs, failures, rowsWritten, parseThreads, parseMillis, totalMillis,
+                    pagesPerSecond, charsPerPage, allocatedBytesPerPage / 1024);
+        }
+    }
+
+    /**
+     * 只计数的职位写入桩，替代数据库
+     */
+    private static class CountingJobInfoStore {
+
+        private final AtomicLong rows = new AtomicLong();
+
+        JobInfoMapper asMapper() {
+            return (JobInfoMapper) Proxy.newProxyInstance(JobInfoMapper.class.getClassLoader(),
+                    new Class<?>[]{JobInfoMapper.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "batchUpsert":
+                                List<?> list = (List<?>) args[0];
+                                rows.addAndGet(list.size());
+                                return list.size();
+                            case "selectByUrlHashes":
+                                // 回放时每个职位都按新职位处理
+                                return List.of();
+                            case "toString":
+                                return "CountingJobInfoStore";
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                throw new UnsupportedOperationException("回放不支持: " + method.getName());
+                        }
+                    });
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("用法: CrawlReplay <归档路径> [解析线程数] [回放轮数]");
+            return;
+        }
+        Path archive = Paths.get(args[0]);
+        int parseThreads = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        CrawlReplay replay = new CrawlReplay(new CrawlerProperties(), parseThreads);
+        for (int round = 1; round <= rounds; round++) {
+            System.out.println("[回放 " + round + "/" + rounds + "] " + replay.replay(archive));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 待爬取的URL请求
+ * 优先级高的先出队，同优先级按入队顺序（FIFO）
+ *
+ * @author digital
+ */
+@Getter
+public class CrawlRequest implements Comparable<CrawlRequest> {
+
+    /**
+     * 详情页优先级：先把已发现的职位抓完，再翻下一页列表，避免待爬队列无限膨胀
+     */
+    public static final int PRIORITY_DETAIL = 10;
+
+    /**
+     * 列表页优先级
+     */
+    public static final int PRIORITY_LIST = 0;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final String url;
+
+    private final int priority;
+
+    private final long seq;
+
+    /**
+     * 所属种子在爬取计划中的序号
+     */
+    private final int seed;
+
+    public CrawlRequest(String url, int priority) {
+        this(url, priority, 0);
+    }
+
+    public CrawlRequest(String url, int priority, int seed) {
+        this.url = url;
+        this.priority = priority;
+        this.seq = SEQUENCE.incrementAndGet();
+        this.seed = seed;
+    }
+
+    public static CrawlRequest of(String url) {
+        return new CrawlRequest(url, isDetailUrl(url) ? PRIORITY_DETAIL : PRIORITY_LIST);
+    }
+
+    public static boolean isDetailUrl(String url) {
+        return url != null && url.contains("/job_detail/");
+    }
+
+    public boolean isDetail() {
+        return isDetailUrl(url);
+    }
+
+    @Override
+    public int compareTo(CrawlRequest other) {
+        if (priority != other.priority) {
+            return Integer.compare(other.priority, priority);
+        }
+        return Long.compare(seq, other.seq);
+    }
+
+    @Override
+    public String toString() {
+        return "CrawlRequest{url='" + url + "', priority=" + priority + ", seed=" + seed + '}';
+    }
+}
@@ -0,0 +1,91 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 爬取计划中的一个种子（搜索关键词 + 城市）
+ * <p>
+ * 每个种子有独立的页数预算和列表页页码，多个种子共享同一个爬虫实例的去重集合和工作线程。
+ *
+ * @author digital
+ */
+@Getter
+public class CrawlSeed {
+
+    private final String query;
+
+    private final String cityCode;
+
+    private final int maxPages;
+
+    /**
+     * 是否是重新抓取到期职位的种子（没有列表页，只有详情页）
+     */
+    private final boolean recrawl;
+
+    /**
+     * 列表页页码计数器
+     */
+    private final AtomicInteger pageCounter = new AtomicInteger(1);
+
+    /**
+     * 已预占的页面名额（含正在爬取的页面）
+     */
+    private final AtomicInteger pageBudget = new AtomicInteger();
+
+    /**
+     * 已成功爬取的页面数
+     */
+    private final AtomicInteger pagesCrawled = new AtomicInteger();
+
+    public CrawlSeed(String query, String cityCode, int maxPages) {
+        this(query, cityCode, maxPages, false);
+    }
+
+    private CrawlSeed(String query, String cityCode, int maxPages, boolean recrawl) {
+        this.query = query;
+        this.cityCode = cityCode;
+        this.maxPages = maxPages;
+        this.recrawl = recrawl;
+    }
+
+    /**
+     * 重新抓取到期职位的种子
+     *
+     * @param maxPages 最多重新抓取的职位数
+     */
+    public static CrawlSeed recrawl(int maxPages) {
+        return new CrawlSeed("(重新抓取)", "", maxPages, true);
+    }
+
+    /**
+     * 第一页列表页URL，重新抓取种子没有列表页，返回 null
+     */
+    public String getStartUrl() {
+        return recrawl ? null : BossZhiPinCrawlerService.searchUrl(query, cityCode, 1);
+    }
+
+    /**
+     * 预占一个页面名额，保证并发下也不会超过 maxPages
+     *
+     * @return 是否还有名额
+     */
+    public boolean tryReservePage() {
+        if (pageBudget.incrementAndGet() > maxPages) {
+            pageBudget.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void releasePage() {
+        pageBudget.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return query + "@" + cityCode;
+    }
+}
@@ -0,0 +1,183 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 爬虫指标（Micrometer），通过 /actuator/metrics/crawler.* 查看
+ * <p>
+ * 各阶段耗时是带分位数的直方图，可以区分爬取慢在浏览器（导航、就绪等待）、解析还是数据库写入；
+ * 计数器按原因（cause / reason 标签）区分失败和跳过；队列长度、忙碌线程数是所有进行中的爬取任务之和。
+ *
+ * @author digital
+ */
+@Component
+public class CrawlerMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+
+    private final Timer fetchHttp;
+
+    private final Timer fetchBrowser;
+
+    private final Timer navigation;
+
+    private final Timer readinessWait;
+
+    private final Timer parse;
+
+    private final Timer persist;
+
+    private final DistributionSummary pageSourceSize;
+
+    private final DistributionSummary persistBatchSize;
+
+    private final Counter pagesHttp;
+
+    private final Counter pagesBrowser;
+
+    private final Counter jobsQueued;
+
+    private final Counter jobsWritten;
+
+    /**
+     * 正在获取页面的工作线程数
+     */
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+
+    /**
+     * 进行中的爬取任务（原型作用域，每个任务一个实例）
+     */
+    private final Set<BossZhiPinCrawlerService> activeCrawlers = ConcurrentHashMap.newKeySet();
+
+    public CrawlerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.fetchHttp = timer("crawler.fetch", "获取一个页面的总耗时", "tier", "http");
+        this.fetchBrowser = timer("crawler.fetch", "获取一个页面的总耗时", "tier", "browser");
+        this.navigation = timer("crawler.browser.navigation", "浏览器导航耗时（到 DOMContentLoaded）");
+        this.readinessWait = timer("crawler.browser.readiness", "导航完成后等待页面就绪的耗时");
+        this.parse = timer("crawler.parse", "解析一个页面（构建 DOM、抽取链接和职位）的耗时");
+        this.persist = timer("crawler.persist", "一批职位 upsert 的耗时");
+        this.pageSourceSize = DistributionSummary.builder("crawler.page.source.size")
+                .description("页面源代码长度").baseUnit("chars")
+                .publishPercentiles(PERCENTILES).publishPercentileHistogram()
+                .register(registry);
+        this.persistBatchSize = DistributionSummary.builder("crawler.persist.batch.size")
+                .description("每批写入的职位数").baseUnit("rows")
+                .register(registry);
+        this.pagesHttp = Counter.builder("crawler.pages").description("抓取成功的页面数").tag("tier", "http").register(registry);
+        this.pagesBrowser = Counter.builder("crawler.pages").description("抓取成功的页面数").tag("tier", "browser").register(registry);
+        this.jobsQueued = Counter.builder("crawler.jobs.queued").description("进入写入队列的职位数（确认入库的见 crawler.jobs.written）").register(registry);
+        this.jobsWritten = Counter.builder("crawler.jobs.written").description("已写入数据库的职位数").register(registry);
+        Gauge.builder("crawler.workers.busy", busyWorkers, AtomicInteger::get)
+                .description("正在获取页面的工作线程数").register(registry);
+        gaugeOfCrawlers("crawler.frontier.size", "待爬队列长度", BossZhiPinCrawlerService::getFrontierSize);
+        gaugeOfCrawlers("crawler.parse.queue.size", "等待解析的页面数", BossZhiPinCrawlerService::getParseQueueSize);
+        gaugeOfCrawlers("crawler.active", "进行中的爬取任务数", crawler -> 1);
+    }
+
+    /**
+     * 不导出的指标（非 Spring 环境下直接构造爬虫组件时使用）
+     */
+    public static CrawlerMetrics noop() {
+        return new CrawlerMetrics(new SimpleMeterRegistry());
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    public void crawlStarted(BossZhiPinCrawlerService crawler) {
+        activeCrawlers.add(crawler);
+    }
+
+    public void crawlFinished(BossZhiPinCrawlerService crawler) {
+        activeCrawlers.remove(crawler);
+    }
+
+    public void workerBusy() {
+        busyWorkers.incrementAndGet();
+    }
+
+    public void workerIdle() {
+        busyWorkers.decrementAndGet();
+    }
+
+    /**
+     * 抓取成功一个页面：总耗时和源代码长度
+     */
+    public void recordFetch(FetchResult fetchResult) {
+        boolean browser = fetchResult.getTier() == FetchTier.BROWSER;
+        (browser ? fetchBrowser : fetchHttp).record(fetchResult.getElapsedMillis(), TimeUnit.MILLISECONDS);
+        (browser ? pagesBrowser : pagesHttp).increment();
+        pageSourceSize.record(fetchResult.getHtml().length());
+    }
+
+    public void recordNavigation(long millis) {
+        navigation.record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordReadinessWait(long millis) {
+        readinessWait.record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordParse(long nanos) {
+        parse.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPersist(long nanos, int rows) {
+        persist.record(nanos, TimeUnit.NANOSECONDS);
+        persistBatchSize.record(rows);
+        jobsWritten.increment(rows);
+    }
+
+    public void jobQueued() {
+        jobsQueued.increment();
+    }
+
+    /**
+     * 跳过的重复职位
+     *
+     * @param reason seen（已入库）、near_duplicate（近似重复）
+     */
+    public void duplicateSkipped(String reason) {
+        registry.counter("crawler.jobs.duplicate", "reason", reason).increment();
+    }
+
+    /**
+     * 失败
+     *
+     * @param cause 原因，如 empty_page、navigation_timeout、browser_crashed、parse_error、persist_failed
+     */
+    public void failure(String cause) {
+        failure(cause, 1);
+    }
+
+    public void failure(String cause, int count) {
+        registry.counter("crawler.failures", "cause", cause).increment(count);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name).description(description).tags(tags)
+                .publishPercentiles(PERCENTILES).publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private void gaugeOfCrawlers(String name, String description, ToDoubleFunction<BossZhiPinCrawlerService> value) {
+        Gauge.builder(name, activeCrawlers, crawlers -> crawlers.stream().mapToDouble(value).sum())
+                .description(description).register(registry);
+    }
+}
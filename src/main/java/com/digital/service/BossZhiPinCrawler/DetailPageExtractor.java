@@ -0,0 +1,110 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import cn.hutool.json.JSONUtil;
+import com.digital.config.CrawlerProperties;
+import com.digital.model.entity.JobInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Element;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 职位详情页字段抽取
+ * <p>
+ * 默认规则来自 classpath:crawler/extraction-rules.json；配置的外部规则文件存在时优先使用，
+ * 并定期检查修改时间，页面结构变化时改文件即可生效，无需重新部署。
+ * 新规则编译失败时继续使用旧规则。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class DetailPageExtractor {
+
+    private static final String DEFAULT_RULES = "crawler/extraction-rules.json";
+
+    private final CrawlerProperties.Extraction config;
+
+    private final CompiledExtractionRules defaultRules;
+
+    private volatile CompiledExtractionRules rules;
+
+    /**
+     * 已加载的外部规则文件修改时间，0 表示未加载外部规则
+     */
+    private long loadedModifiedTime;
+
+    public DetailPageExtractor(CrawlerProperties crawlerProperties) {
+        this.config = crawlerProperties.getExtraction();
+        this.defaultRules = CompiledExtractionRules.compile(loadDefaultRuleSet());
+        this.rules = defaultRules;
+        reloadIfChanged();
+    }
+
+    /**
+     * 抽取字段写入 jobInfo
+     *
+     * @return 必填字段是否都已抽取到
+     */
+    public boolean extract(Element document, JobInfo jobInfo) {
+        return rules.extract(document, jobInfo);
+    }
+
+    public CompiledExtractionRules getRules() {
+        return rules;
+    }
+
+    /**
+     * 外部规则文件有变化时重新编译
+     */
+    @Scheduled(fixedDelayString = "${crawler.extraction.reload-interval-millis:5000}")
+    public synchronized void reloadIfChanged() {
+        if (config.getRulesPath() == null || config.getRulesPath().isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(config.getRulesPath());
+        try {
+            if (!Files.exists(path)) {
+                if (loadedModifiedTime != 0) {
+                    rules = defaultRules;
+                    loadedModifiedTime = 0;
+                    log.info("抽取规则文件已删除，恢复默认规则");
+                }
+                return;
+            }
+            long modifiedTime = Files.getLastModifiedTime(path).toMillis();
+            if (modifiedTime == loadedModifiedTime) {
+                return;
+            }
+            loadedModifiedTime = modifiedTime;
+            ExtractionRuleSet ruleSet = parse(Files.readString(path, StandardCharsets.UTF_8));
+            rules = CompiledExtractionRules.compile(ruleSet);
+            log.info("抽取规则已加载: 版本 {}, 字段 {}, 文件 {}", rules.getVersion(), rules.getFieldNames(),
+                    path.toAbsolutePath());
+        } catch (Exception e) {
+            log.error("抽取规则加载失败，继续使用版本 {} 的规则: {}", rules.getVersion(), e.getMessage());
+        }
+    }
+
+    public static ExtractionRuleSet parse(String json) {
+        return JSONUtil.toBean(json, ExtractionRuleSet.class);
+    }
+
+    public static ExtractionRuleSet loadDefaultRuleSet() {
+        try (InputStream in = DetailPageExtractor.class.getClassLoader().getResourceAsStream(DEFAULT_RULES)) {
+            if (in == null) {
+                throw new IllegalStateException("缺少默认抽取规则: " + DEFAULT_RULES);
+            }
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("读取默认抽取规则失败", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 详情页字段抽取规则（声明式配置，JSON 格式）
+ * <p>
+ * 每个字段按顺序尝试若干候选选择器，取第一个命中的候选；候选可以带 match 正则（元素文本需包含匹配）
+ * 和 extract 正则（只取匹配部分，有分组时取第 1 组）。
+ *
+ * @author digital
+ */
+@Data
+public class ExtractionRuleSet {
+
+    /**
+     * 规则版本，便于确认热加载是否生效
+     */
+    private int version;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        /**
+         * JobInfo 的属性名，如 workName
+         */
+        private String field;
+
+        /**
+         * 是否必填，必填字段抽取不到时该页不入库
+         */
+        private boolean required;
+
+        /**
+         * 候选选择器，按优先级排列
+         */
+        private List<Candidate> candidates = new ArrayList<>();
+    }
+
+    @Data
+    public static class Candidate {
+
+        /**
+         * CSS 选择器
+         */
+        private String selector;
+
+        /**
+         * 元素文本需包含此正则的匹配，才算命中
+         */
+        private String match;
+
+        /**
+         * 只取文本中此正则的匹配部分，有分组时取第 1 组
+         */
+        private String extract;
+    }
+}
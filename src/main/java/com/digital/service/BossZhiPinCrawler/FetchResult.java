@@ -0,0 +1,49 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import lombok.Data;
+import org.jsoup.nodes.Document;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 页面获取结果
+ *
+ * @author digital
+ */
+@Data
+public class FetchResult {
+
+    private String url;
+
+    private String html;
+
+    /**
+     * 已解析的文档（HTTP 方式检测页面结构时已解析，后续直接复用；浏览器方式为 null）
+     */
+    private Document document;
+
+    /**
+     * 响应头（仅 HTTP 方式有，浏览器方式为 null）
+     */
+    private Map<String, List<String>> headers;
+
+    /**
+     * 实际使用的获取方式
+     */
+    private FetchTier tier;
+
+    /**
+     * 目标站点返回了限流状态码（429/503），此时 html 为空，不再改用浏览器访问
+     */
+    private boolean throttled;
+
+    /**
+     * 总耗时（含 HTTP 失败后改用浏览器的时间）
+     */
+    private long elapsedMillis;
+
+    public boolean isEmpty() {
+        return html == null || html.isEmpty();
+    }
+}
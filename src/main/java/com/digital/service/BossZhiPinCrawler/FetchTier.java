@@ -0,0 +1,19 @@
+package com.digital.service.BossZhiPinCrawler;
+
+/**
+ * 页面获取方式
+ *
+ * @author digital
+ */
+public enum FetchTier {
+
+    /**
+     * 普通 HTTP 请求，不执行 JavaScript
+     */
+    HTTP,
+
+    /**
+     * 浏览器池中的 Chrome 渲染
+     */
+    BROWSER
+}
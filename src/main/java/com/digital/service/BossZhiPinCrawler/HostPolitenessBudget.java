@@ -0,0 +1,282 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import io.micrometer.core.instrument.Gauge;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按域名的礼貌性访问预算（AIMD 自适应）
+ * <p>
+ * 每个域名有一个并发上限和一个请求速率（相邻两次请求发起时间的最小间隔），不同域名之间互不影响。
+ * 请求结束时按结果调整：成功、耗时正常且近期成功率够高时加性增加（速率 + increaseRatePerSecond，
+ * 并发上限每轮 + 1）；失败、空页面或超时时乘性减少（乘以 decreaseFactor）；变慢时保持不变。
+ * 减少后，减少之前就已发出的请求再失败不重复减少，避免一次故障把速率降到底。
+ * 这样速率会收敛到目标站点能承受的最高水平，并在站点变慢或出错时迅速退让。
+ * 关闭自适应时按固定的 hostMinIntervalMillis 和 hostMaxConcurrency 限制。
+ * <p>
+ * 作为单例在所有爬取任务之间共享，多个任务同时运行时对同一域名的访问频率仍受同一预算约束。
+ *
+ * @author digital
+ */
+@Component
+public class HostPolitenessBudget {
+
+    /**
+     * 耗时、成功率滑动平均的权重
+     */
+    private static final double EWMA_ALPHA = 0.1;
+
+    private final CrawlerProperties.RateControl config;
+
+    private final long initialIntervalMillis;
+
+    private final int maxConcurrency;
+
+    private final CrawlerMetrics crawlerMetrics;
+
+    private final Map<String, HostSlot> slots = new ConcurrentHashMap<>();
+
+    public HostPolitenessBudget(CrawlerProperties crawlerProperties) {
+        this(crawlerProperties, CrawlerMetrics.noop());
+    }
+
+    @Autowired
+    public HostPolitenessBudget(CrawlerProperties crawlerProperties, CrawlerMetrics crawlerMetrics) {
+        this.config = crawlerProperties.getRateControl();
+        this.initialIntervalMillis = Math.max(0, crawlerProperties.getHostMinIntervalMillis());
+        this.maxConcurrency = Math.max(1, crawlerProperties.getHostMaxConcurrency());
+        this.crawlerMetrics = crawlerMetrics;
+    }
+
+    /**
+     * 申请访问某个域名，必要时阻塞直到预算允许；必须与 release 成对调用
+     *
+     * @return 请求获准发起的时间（毫秒时间戳），结束时传给 release 计算耗时
+     */
+    public long acquire(String host) throws InterruptedException {
+        HostSlot slot = slots.computeIfAbsent(host, this::newSlot);
+        long waitMillis = slot.reserve();
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                slot.release();
+                throw e;
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * 结束访问，不反馈结果（不调整速率）
+     */
+    public void release(String host) {
+        HostSlot slot = slots.get(host);
+        if (slot != null) {
+            slot.release();
+        }
+    }
+
+    /**
+     * 结束访问并按结果调整该域名的速率和并发上限
+     *
+     * @param startedAt acquire 的返回值
+     * @param success   是否拿到了有效页面（失败、空页面都算失败）
+     */
+    public void release(String host, long startedAt, boolean success) {
+        HostSlot slot = slots.get(host);
+        if (slot != null) {
+            slot.release(startedAt, System.currentTimeMillis() - startedAt, success);
+        }
+    }
+
+    /**
+     * 各域名当前的速率、并发上限和近期表现
+     */
+    public Map<String, HostRateSummary> snapshot() {
+        Map<String, HostRateSummary> result = new LinkedHashMap<>();
+        new TreeMap<>(slots).forEach((host, slot) -> result.put(host, slot.summary()));
+        return result;
+    }
+
+    private HostSlot newSlot(String host) {
+        HostSlot slot = new HostSlot();
+        Gauge.builder("crawler.host.rate", slot, HostSlot::currentRate).tag("host", host)
+                .description("域名当前允许的请求速率（次/秒）").register(crawlerMetrics.getRegistry());
+        Gauge.builder("crawler.host.concurrency.limit", slot, HostSlot::currentLimit).tag("host", host)
+                .description("域名当前的并发上限").register(crawlerMetrics.getRegistry());
+        return slot;
+    }
+
+    private class HostSlot {
+
+        private final double minRate = config.getMaxIntervalMillis() > 0 ? 1000.0 / config.getMaxIntervalMillis() : 0;
+
+        private final double maxRate = 1000.0 / Math.max(0, config.getMinIntervalMillis());
+
+        private final int minConcurrency = Math.max(1, Math.min(config.getMinConcurrency(), maxConcurrency));
+
+        /**
+         * 请求速率（次/秒）
+         */
+        private double rate;
+
+        /**
+         * 并发上限（取整后生效）
+         */
+        private double concurrencyLimit;
+
+        private int inFlight;
+
+        /**
+         * 下一次允许发起请求的时间
+         */
+        private long nextAllowedAt;
+
+        /**
+         * 最近一次减少的时间
+         */
+        private long lastDecreaseAt;
+
+        private double latencyEwma = -1;
+
+        private double successRate = 1.0;
+
+        private long requests;
+
+        private long failures;
+
+        private long decreases;
+
+        HostSlot() {
+            if (config.isEnabled()) {
+                this.rate = Math.max(minRate, Math.min(maxRate, 1000.0 / initialIntervalMillis));
+                this.concurrencyLimit = minConcurrency;
+            } else {
+                this.rate = 1000.0 / initialIntervalMillis;
+                this.concurrencyLimit = maxConcurrency;
+            }
+        }
+
+        /**
+         * 等待并发名额，并预约一个发起时间，返回需要等待的毫秒数
+         */
+        synchronized long reserve() throws InterruptedException {
+            while (inFlight >= (int) concurrencyLimit) {
+                wait();
+            }
+            inFlight++;
+            long now = System.currentTimeMillis();
+            long startAt = Math.max(now, nextAllowedAt);
+            nextAllowedAt = startAt + intervalMillis();
+            return startAt - now;
+        }
+
+        synchronized void release() {
+            inFlight = Math.max(0, inFlight - 1);
+            notifyAll();
+        }
+
+        synchronized void release(long startedAt, long latencyMillis, boolean success) {
+            release();
+            requests++;
+            if (!success) {
+                failures++;
+            }
+            successRate = successRate * (1 - EWMA_ALPHA) + (success ? EWMA_ALPHA : 0);
+            if (!config.isEnabled()) {
+                return;
+            }
+            boolean timedOut = latencyMillis >= config.getSlowLatencyMillis();
+            if (!success || timedOut) {
+                // 减少之前发出的请求已经反映在这次减少里，不再重复减少
+                if (startedAt > lastDecreaseAt) {
+                    rate = Math.max(minRate, rate * config.getDecreaseFactor());
+                    concurrencyLimit = Math.max(minConcurrency, concurrencyLimit * config.getDecreaseFactor());
+                    lastDecreaseAt = System.currentTimeMillis();
+                    decreases++;
+                    // 已预约的发起时间按新的间隔顺延
+                    nextAllowedAt = Math.max(nextAllowedAt, lastDecreaseAt + intervalMillis());
+                }
+                return;
+            }
+            boolean slow = latencyEwma > 0 && latencyMillis > latencyEwma * config.getLatencyTolerance();
+            latencyEwma = latencyEwma < 0 ? latencyMillis : latencyEwma * (1 - EWMA_ALPHA) + latencyMillis * EWMA_ALPHA;
+            if (slow || successRate < config.getMinSuccessRate()) {
+                return;
+            }
+            rate = Math.min(maxRate, rate + config.getIncreaseRatePerSecond());
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1.0 / Math.max(1, (int) concurrencyLimit));
+        }
+
+        private long intervalMillis() {
+            return rate <= 0 ? config.getMaxIntervalMillis() : (long) (1000.0 / rate);
+        }
+
+        synchronized double currentRate() {
+            return rate;
+        }
+
+        synchronized double currentLimit() {
+            return (int) concurrencyLimit;
+        }
+
+        synchronized HostRateSummary summary() {
+            HostRateSummary summary = new HostRateSummary();
+            summary.setRatePerSecond(Math.round(rate * 1000) / 1000.0);
+            summary.setIntervalMillis(intervalMillis());
+            summary.setConcurrencyLimit((int) concurrencyLimit);
+            summary.setInFlight(inFlight);
+            summary.setLatencyMillis(Math.max(0, Math.round(latencyEwma)));
+            summary.setSuccessRate(Math.round(successRate * 1000) / 1000.0);
+            summary.setRequests(requests);
+            summary.setFailures(failures);
+            summary.setDecreases(decreases);
+            return summary;
+        }
+    }
+
+    @Data
+    public static class HostRateSummary {
+
+        /**
+         * 当前允许的请求速率（次/秒）
+         */
+        private double ratePerSecond;
+
+        /**
+         * 相邻两次请求的发起间隔（毫秒）
+         */
+        private long intervalMillis;
+
+        private int concurrencyLimit;
+
+        private int inFlight;
+
+        /**
+         * 成功请求耗时的滑动平均（毫秒）
+         */
+        private long latencyMillis;
+
+        /**
+         * 成功率的滑动平均
+         */
+        private double successRate;
+
+        private long requests;
+
+        private long failures;
+
+        /**
+         * 退让（乘性减少）次数
+         */
+        private long decreases;
+    }
+}
@@ -0,0 +1,473 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.digital.config.CrawlerProperties;
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.service.JobMarketRollupService;
+import com.digital.utils.ContentFingerprint;
+import com.digital.utils.SimHash;
+import com.digital.utils.UrlFingerprint;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 职位信息异步批量写入（write-behind）
+ * <p>
+ * 爬虫线程只把解析好的 JobInfo 放入有界队列，由单独的刷新线程按批次（batchSize 或 flushIntervalMillis）
+ * 以多行 upsert 写入数据库，按 urlHash 唯一键去重，重复写入是幂等的；
+ * 已有职位只在内容指纹（contentHash）变化时才更新内容，并据此调整下次重新抓取的时间。
+ * 队列满时按 backpressure 配置阻塞等待或丢弃，爬虫线程不会等待数据库。
+ * 新职位写入前按 SimHash 指纹查找近似重复的职位，重复的职位记录原始职位 id（canonicalId）；
+ * 重新抓取的已有职位保留库中的 canonicalId。
+ * 提交时可以带上一个 {@link WriteTracker}，按提交方（如一次爬取任务）统计确认入库和写入失败的条数，
+ * 并只等待自己提交的数据写完。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class JobInfoWriteBehind {
+
+    private final JobInfoMapper jobInfoMapper;
+
+    private final PersistentSeenStore seenStore;
+
+    private final CrawlerProperties.Persist config;
+
+    private final CrawlerProperties.Recrawl recrawlConfig;
+
+    /**
+     * 职位市场汇总，为 null 时不汇总（离线回放等非 Spring 环境）
+     */
+    private final JobMarketRollupService jobMarketRollupService;
+
+    /**
+     * 近似重复索引，为 null 时不检测
+     */
+    private final NearDuplicateIndex nearDuplicateIndex;
+
+    private final CrawlerMetrics crawlerMetrics;
+
+    private final BlockingQueue<Pending> queue;
+
+    private final boolean blockWhenFull;
+
+    private volatile boolean running = true;
+
+    private Thread flusher;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public JobInfoWriteBehind(JobInfoMapper jobInfoMapper, PersistentSeenStore seenStore,
+                              CrawlerProperties crawlerProperties) {
+        this(jobInfoMapper, seenStore, crawlerProperties, null, null, CrawlerMetrics.noop());
+    }
+
+    @Autowired
+    public JobInfoWriteBehind(JobInfoMapper jobInfoMapper, PersistentSeenStore seenStore,
+                              CrawlerProperties crawlerProperties, JobMarketRollupService jobMarketRollupService,
+                              NearDuplicateIndex nearDuplicateIndex, CrawlerMetrics crawlerMetrics) {
+        this.jobMarketRollupService = jobMarketRollupService;
+        this.nearDuplicateIndex = nearDuplicateIndex;
+        this.crawlerMetrics = crawlerMetrics;
+        this.jobInfoMapper = jobInfoMapper;
+        this.seenStore = seenStore;
+        this.config = crawlerProperties.getPersist();
+        this.recrawlConfig = crawlerProperties.getRecrawl();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+        this.blockWhenFull = !"DROP".equalsIgnoreCase(config.getBackpressure());
+        Gauge.builder("crawler.persist.queue.size", queue, BlockingQueue::size)
+                .description("等待写入数据库的职位数").register(crawlerMetrics.getRegistry());
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = new Thread(this::runFlusher, "JobInfo-WriteBehind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * 提交一条职位信息等待写入
+     *
+     * @return 是否进入队列（队列满且超时/丢弃策略时返回 false）
+     */
+    public boolean submit(JobInfo jobInfo) throws InterruptedException {
+        return submit(jobInfo, null);
+    }
+
+    /**
+     * 提交一条职位信息等待写入，写入结果计入 tracker
+     *
+     * @param tracker 提交方的写入统计，为 null 时只计入全局统计
+     * @return 是否进入队列（队列满且超时/丢弃策略时返回 false）
+     */
+    public boolean submit(JobInfo jobInfo, WriteTracker tracker) throws InterruptedException {
+        if (jobInfo.getUrlHash() == null) {
+            jobInfo.setUrlHash(UrlFingerprint.of(jobInfo.getUrl()));
+        }
+        if (jobInfo.getContentHash() == null) {
+            jobInfo.setContentHash(contentHashOf(jobInfo));
+        }
+        if (jobInfo.getSimHash() == null) {
+            jobInfo.setSimHash(SimHash.ofJob(jobInfo.getWorkName(), jobInfo.getWorkContent(), jobInfo.getCompanyName()));
+        }
+        if (jobInfo.getId() == null) {
+            jobInfo.setId(IdWorker.getId());
+        }
+        if (tracker != null) {
+            // 先计入待写入，刷新线程确认写入时不会先于这里减少
+            tracker.pending.incrementAndGet();
+        }
+        Pending pending = new Pending(jobInfo, tracker);
+        boolean accepted = blockWhenFull
+                ? queue.offer(pending, config.getOfferTimeoutMillis(), TimeUnit.MILLISECONDS)
+                : queue.offer(pending);
+        if (accepted) {
+            submittedCount.incrementAndGet();
+        } else {
+            if (tracker != null) {
+                tracker.pending.decrementAndGet();
+            }
+            droppedCount.incrementAndGet();
+            crawlerMetrics.failure("persist_dropped");
+            log.warn("职位写入队列已满，丢弃: {}", jobInfo.getUrl());
+        }
+        return accepted;
+    }
+
+    private void runFlusher() {
+        int batchSize = Math.max(1, config.getBatchSize());
+        List<Pending> batch = new ArrayList<>(batchSize);
+        long lastFlushAt = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(config.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // 关闭时被中断，继续把队列中剩余的数据写完
+                running = false;
+            }
+            long now = System.currentTimeMillis();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - lastFlushAt >= config.getFlushIntervalMillis())
+                    || (!running && !batch.isEmpty())) {
+                flush(batch);
+                batch.clear();
+                lastFlushAt = now;
+            }
+        }
+    }
+
+    private void flush(List<Pending> submitted) {
+        List<JobInfo> batch = distinctByUrlHash(submitted.stream().map(Pending::jobInfo).toList());
+        for (int attempt = 0; ; attempt++) {
+            List<JobInfo> newJobs;
+            try {
+                long start = System.nanoTime();
+                newJobs = newJobsOf(batch);
+                linkNearDuplicates(newJobs);
+                jobInfoMapper.batchUpsert(batch, recrawlConfig.getInitialIntervalHours(),
+                        recrawlConfig.getMinIntervalHours(), recrawlConfig.getMaxIntervalHours());
+                crawlerMetrics.recordPersist(System.nanoTime() - start, batch.size());
+                writtenCount.addAndGet(submitted.size());
+                submitted.forEach(pending -> pending.completed(true));
+                log.debug("批量写入职位信息 {} 条", batch.size());
+            } catch (Exception e) {
+                if (attempt >= config.getMaxRetries()) {
+                    failedCount.addAndGet(submitted.size());
+                    submitted.forEach(pending -> pending.completed(false));
+                    crawlerMetrics.failure("persist_failed", submitted.size());
+                    log.error("批量写入职位信息失败，放弃 {} 条", submitted.size(), e);
+                    return;
+                }
+                log.warn("批量写入职位信息失败，第 {} 次重试: {}", attempt + 1, e.getMessage());
+                try {
+                    Thread.sleep(500L << attempt);
+                } catch (InterruptedException ie) {
+                    running = false;
+                }
+                continue;
+            }
+            List<JobInfo> insertedJobs = insertedOf(newJobs);
+            recordRollup(insertedJobs);
+            if (nearDuplicateIndex != null) {
+                try {
+                    nearDuplicateIndex.addAll(insertedJobs);
+                } catch (Exception e) {
+                    log.error("记录职位近似重复索引失败", e);
+                }
+            }
+            // 入库成功后才记为已抓取，写入失败的职位下次还会重新抓取
+            try {
+                seenStore.addFingerprints(batch.stream().map(JobInfo::getUrlHash).toList());
+            } catch (Exception e) {
+                log.error("记录URL指纹失败", e);
+            }
+            return;
+        }
+    }
+
+    /**
+     * 同一批次中同一链接只保留最后提交的一条，避免同一职位在批内被当作两个新职位
+     */
+    private static List<JobInfo> distinctByUrlHash(List<JobInfo> batch) {
+        Map<Long, JobInfo> byUrlHash = new LinkedHashMap<>(batch.size() * 2);
+        for (JobInfo jobInfo : batch) {
+            byUrlHash.put(jobInfo.getUrlHash(), jobInfo);
+        }
+        return byUrlHash.size() == batch.size() ? batch : new ArrayList<>(byUrlHash.values());
+    }
+
+    /**
+     * 新入库的职位：数据库中还没有该 urlHash 的行（以数据库为准，已抓取集合可能关闭或不完整）。
+     * 重新抓取的已有职位改用数据库中的 id 和 canonicalId，upsert 保留的也是它们。
+     */
+    private List<JobInfo> newJobsOf(List<JobInfo> batch) {
+        Map<Long, JobInfo> existingRows = selectByUrlHash(batch);
+        List<JobInfo> newJobs = new ArrayList<>(batch.size());
+        for (JobInfo jobInfo : batch) {
+            JobInfo existing = existingRows.get(jobInfo.getUrlHash());
+            if (existing == null) {
+                newJobs.add(jobInfo);
+            } else {
+                jobInfo.setId(existing.getId());
+                jobInfo.setCanonicalId(existing.getCanonicalId());
+            }
+        }
+        return newJobs;
+    }
+
+    /**
+     * 确认新职位确实以本次分配的 id 入库：查询与 upsert 之间同一链接可能已被其他写入方插入，
+     * 这时库中的 id 不是这里分配的，不计入汇总也不加入近似重复索引。确认失败时都跳过。
+     */
+    private List<JobInfo> insertedOf(List<JobInfo> newJobs) {
+        if (newJobs.isEmpty()) {
+            return newJobs;
+        }
+        try {
+            Map<Long, JobInfo> storedRows = selectByUrlHash(newJobs);
+            return newJobs.stream().filter(jobInfo -> {
+                JobInfo stored = storedRows.get(jobInfo.getUrlHash());
+                return stored != null && stored.getId().equals(jobInfo.getId());
+            }).toList();
+        } catch (Exception e) {
+            log.error("确认新入库职位失败，本批次不计入汇总和近似重复索引", e);
+            return List.of();
+        }
+    }
+
+    private Map<Long, JobInfo> selectByUrlHash(List<JobInfo> jobInfoList) {
+        Map<Long, JobInfo> rows = new HashMap<>(jobInfoList.size() * 2);
+        for (JobInfo row : jobInfoMapper.selectByUrlHashes(jobInfoList.stream().map(JobInfo::getUrlHash).toList())) {
+            rows.put(row.getUrlHash(), row);
+        }
+        return rows;
+    }
+
+    /**
+     * 为新职位查找近似重复的原始职位：先查索引，再查同批次中先出现的新职位。
+     * 重新抓取的已有职位不重新计算，避免原始职位内容变化后匹配到指向自己的重复职位
+     */
+    private void linkNearDuplicates(List<JobInfo> newJobs) {
+        if (nearDuplicateIndex == null || !nearDuplicateIndex.isEnabled()) {
+            return;
+        }
+        try {
+            for (JobInfo jobInfo : newJobs) {
+                Long canonicalId = nearDuplicateIndex.findCanonical(jobInfo.getSimHash(), jobInfo.getUrlHash());
+                for (int i = 0; canonicalId == null && i < newJobs.size() && newJobs.get(i) != jobInfo; i++) {
+                    JobInfo earlier = newJobs.get(i);
+                    if (!earlier.getUrlHash().equals(jobInfo.getUrlHash())
+                            && nearDuplicateIndex.isNearDuplicate(earlier.getSimHash(), jobInfo.getSimHash())) {
+                        canonicalId = earlier.getCanonicalId() != null ? earlier.getCanonicalId() : earlier.getId();
+                    }
+                }
+                jobInfo.setCanonicalId(canonicalId);
+                if (canonicalId != null) {
+                    crawlerMetrics.duplicateSkipped("near_duplicate");
+                }
+            }
+        } catch (Exception e) {
+            log.error("查找近似重复职位失败", e);
+        }
+    }
+
+    /**
+     * 新入库的职位计入职位市场汇总，重新抓取的已有职位和近似重复的职位不重复计数
+     */
+    private void recordRollup(List<JobInfo> newJobs) {
+        if (jobMarketRollupService == null) {
+            return;
+        }
+        try {
+            List<JobInfo> rollupJobs = newJobs.stream()
+                    .filter(jobInfo -> jobInfo.getCrawlQuery() != null && jobInfo.getCanonicalId() == null)
+                    .toList();
+            if (!rollupJobs.isEmpty()) {
+                jobMarketRollupService.record(rollupJobs);
+            }
+        } catch (Exception e) {
+            log.error("记录职位汇总失败", e);
+        }
+    }
+
+    /**
+     * 职位内容指纹：HR活跃时间每次抓取都不同，不计入
+     */
+    public static long contentHashOf(JobInfo jobInfo) {
+        return ContentFingerprint.of(jobInfo.getWorkName(), jobInfo.getWorkSalary(), jobInfo.getWorkAddress(),
+                jobInfo.getWorkContent(), jobInfo.getWorkYear(), jobInfo.getGraduate(), jobInfo.getCompanyName());
+    }
+
+    /**
+     * 等待已提交的数据全部写入（或放弃）
+     *
+     * @param timeoutMillis 最长等待时间
+     * @return 是否在超时前全部处理完
+     */
+    public boolean awaitFlushed(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (writtenCount.get() + failedCount.get() < submittedCount.get()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    /**
+     * 应用关闭时写完队列中剩余的数据
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(30000);
+        }
+        log.info("职位写入线程已停止: 提交{}条, 写入{}条, 丢弃{}条, 失败{}条",
+                submittedCount.get(), writtenCount.get(), droppedCount.get(), failedCount.get());
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 队列中的一条职位及其提交方
+     */
+    private record Pending(JobInfo jobInfo, WriteTracker tracker) {
+
+        void completed(boolean written) {
+            if (tracker != null) {
+                if (written) {
+                    tracker.writtenUrlHashes.add(jobInfo.getUrlHash());
+                }
+                (written ? tracker.written : tracker.failed).incrementAndGet();
+                tracker.pending.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 一个提交方（如一次爬取任务）的写入统计：只统计经它提交的职位
+     */
+    public static class WriteTracker {
+
+        private final AtomicLong pending = new AtomicLong();
+
+        private final AtomicLong written = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final Set<Long> writtenUrlHashes = ConcurrentHashMap.newKeySet();
+
+        /**
+         * 等待经它提交的数据全部写入（或放弃），不等待其它提交方的数据
+         *
+         * @param timeoutMillis 最长等待时间
+         * @return 是否在超时前全部处理完
+         */
+        public boolean awaitFlushed(long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (pending.get() > 0) {
+                if (System.currentTimeMillis() >= deadline) {
+                    return false;
+                }
+                Thread.sleep(50);
+            }
+            return true;
+        }
+
+        /**
+         * 已进入队列、还没有写入或放弃的条数
+         */
+        public long getPendingCount() {
+            return pending.get();
+        }
+
+        /**
+         * 确认写入数据库的条数
+         */
+        public long getWrittenCount() {
+            return written.get();
+        }
+
+        /**
+         * 重试后仍写入失败、已放弃的条数
+         */
+        public long getFailedCount() {
+            return failed.get();
+        }
+
+        /**
+         * 确认写入的职位链接指纹（新职位和重新抓取的已有职位），同一职位只记一次
+         */
+        public Set<Long> getWrittenUrlHashes() {
+            return Set.copyOf(writtenUrlHashes);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.digital.config.CrawlerProperties;
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.utils.SimHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 职位近似重复索引（SimHash + LSH 分段）
+ * <p>
+ * 64 位指纹切成 maxDistance + 1 段（至少 MIN_BANDS 段，每段不超过 16 位），按抽屉原理，
+ * 汉明距离不超过 maxDistance 的两个指纹至少有一段完全相同，因此只需比较与新指纹任一段相同的候选，入库时查询不访问数据库。
+ * 每条记录保存指纹、urlHash 和所属的原始职位 id（canonical），近似重复的职位都指向同一个原始职位。
+ * <p>
+ * 启动后首次使用时从 job_info 的 simHash 列加载，之后由写入线程在新职位入库成功后追加；
+ * 已有职位内容变化后的新指纹要到下次加载才生效。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class NearDuplicateIndex {
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    private static final int INITIAL_CAPACITY = 1 << 14;
+
+    /**
+     * 最少分段数：段数多于 maxDistance + 1 不影响召回，但每段位数决定桶数组大小（2^位数），4 段时每段 16 位
+     */
+    static final int MIN_BANDS = 4;
+
+    private final JobInfoMapper jobInfoMapper;
+
+    private final CrawlerProperties.NearDuplicate config;
+
+    private final int maxDistance;
+
+    /**
+     * 每段的起始位和位数
+     */
+    private final int[] bandShift;
+
+    private final int[] bandBits;
+
+    /**
+     * buckets[段][段值] 为该段取该值的记录下标
+     */
+    private final int[][][] buckets;
+
+    private final int[][] bucketSizes;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded = false;
+
+    private long[] simHashes = new long[INITIAL_CAPACITY];
+
+    private long[] urlHashes = new long[INITIAL_CAPACITY];
+
+    private long[] canonicalIds = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    public NearDuplicateIndex(JobInfoMapper jobInfoMapper, CrawlerProperties crawlerProperties) {
+        this.jobInfoMapper = jobInfoMapper;
+        this.config = crawlerProperties.getNearDuplicate();
+        this.maxDistance = Math.max(1, Math.min(15, config.getMaxDistance()));
+        int bands = Math.max(MIN_BANDS, maxDistance + 1);
+        this.bandShift = new int[bands];
+        this.bandBits = new int[bands];
+        this.buckets = new int[bands][][];
+        this.bucketSizes = new int[bands][];
+        for (int band = 0; band < bands; band++) {
+            bandShift[band] = band * 64 / bands;
+            bandBits[band] = (band + 1) * 64 / bands - bandShift[band];
+            buckets[band] = new int[1 << bandBits[band]][];
+            bucketSizes[band] = new int[1 << bandBits[band]];
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 查找近似重复的原始职位
+     *
+     * @param simHash 新职位的指纹
+     * @param urlHash 新职位的 urlHash，同一链接的记录不算重复
+     * @return 原始职位 id，没有近似重复时返回 null
+     */
+    public Long findCanonical(long simHash, long urlHash) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int bestDistance = maxDistance + 1;
+            long best = 0;
+            for (int band = 0; band < bandShift.length; band++) {
+                int value = bandValue(simHash, band);
+                int[] bucket = buckets[band][value];
+                int count = bucketSizes[band][value];
+                for (int i = 0; i < count; i++) {
+                    int index = bucket[i];
+                    if (urlHashes[index] == urlHash) {
+                        continue;
+                    }
+                    int distance = SimHash.hammingDistance(simHashes[index], simHash);
+                    if (distance < bestDistance) {
+                        bestDistance = distance;
+                        best = canonicalIds[index];
+                    }
+                }
+            }
+            return bestDistance <= maxDistance ? best : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 两个指纹是否近似重复
+     */
+    public boolean isNearDuplicate(long simHash, long otherSimHash) {
+        return SimHash.hammingDistance(simHash, otherSimHash) <= maxDistance;
+    }
+
+    /**
+     * 记录一批已入库的职位（simHash 为空的跳过）
+     */
+    public void addAll(List<JobInfo> jobInfoList) {
+        if (!config.isEnabled() || jobInfoList.isEmpty()) {
+            return;
+        }
+        ensureLoaded();
+        lock.writeLock().lock();
+        try {
+            for (JobInfo jobInfo : jobInfoList) {
+                add(jobInfo);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    int bandCount() {
+        return bandShift.length;
+    }
+
+    int maxBandBits() {
+        return Arrays.stream(bandBits).max().orElse(0);
+    }
+
+    /**
+     * 从 job_info 加载已有指纹（按 id 分页）
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            loaded = true;
+            if (jobInfoMapper == null) {
+                return;
+            }
+            long lastId = 0;
+            try {
+                while (true) {
+                    QueryWrapper<JobInfo> queryWrapper = new QueryWrapper<>();
+                    queryWrapper.select("id", "urlHash", "simHash", "canonicalId").gt("id", lastId)
+                            .isNotNull("simHash").orderByAsc("id").last("limit " + LOAD_PAGE_SIZE);
+                    List<JobInfo> page = jobInfoMapper.selectList(queryWrapper);
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    addAll(page);
+                    lastId = page.get(page.size() - 1).getId();
+                }
+                log.info("职位近似重复索引已加载: {} 条", size);
+            } catch (Exception e) {
+                log.warn("加载职位近似重复索引失败，已加载 {} 条: {}", size, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 追加一条记录（调用方持有写锁）
+     */
+    private void add(JobInfo jobInfo) {
+        if (jobInfo.getSimHash() == null || jobInfo.getUrlHash() == null || jobInfo.getId() == null) {
+            return;
+        }
+        if (size == simHashes.length) {
+            int capacity = size * 2;
+            simHashes = Arrays.copyOf(simHashes, capacity);
+            urlHashes = Arrays.copyOf(urlHashes, capacity);
+            canonicalIds = Arrays.copyOf(canonicalIds, capacity);
+        }
+        int index = size++;
+        long simHash = jobInfo.getSimHash();
+        simHashes[index] = simHash;
+        urlHashes[index] = jobInfo.getUrlHash();
+        canonicalIds[index] = jobInfo.getCanonicalId() != null ? jobInfo.getCanonicalId() : jobInfo.getId();
+        for (int band = 0; band < bandShift.length; band++) {
+            int value = bandValue(simHash, band);
+            int[] bucket = buckets[band][value];
+            int count = bucketSizes[band][value];
+            if (bucket == null) {
+                bucket = new int[4];
+            } else if (count == bucket.length) {
+                bucket = Arrays.copyOf(bucket, count * 2);
+            }
+            bucket[count] = index;
+            buckets[band][value] = bucket;
+            bucketSizes[band][value] = count + 1;
+        }
+    }
+
+    private int bandValue(long simHash, int band) {
+        return (int) ((simHash >>> bandShift[band]) & ((1L << bandBits[band]) - 1));
+    }
+}
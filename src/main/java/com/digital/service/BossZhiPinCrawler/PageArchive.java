@@ -0,0 +1,264 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 页面录制归档：只追加的 gzip 压缩文件，每条记录包含 URL、抓取时间、获取方式、响应头和页面内容
+ * <p>
+ * 每次打开写入时新建一个分段文件：第一段就是 path 本身，之后依次为 path.1、path.2 ……，读取时按顺序读完所有分段。
+ * 每条记录写完后同步刷新压缩流，进程异常退出时只丢失该分段最后一条不完整的记录，读取时忽略不完整的尾部；
+ * 重启后的写入在新的分段里，不会接在没有结束的压缩流后面导致之后的记录都读不出来。
+ *
+ * @author digital
+ */
+@Slf4j
+public final class PageArchive {
+
+    /**
+     * 记录起始标记（"PAG1"），用于发现格式不兼容或损坏的文件
+     */
+    private static final int RECORD_MAGIC = 0x50414731;
+
+    private PageArchive() {
+    }
+
+    /**
+     * 打开归档写入：在已有分段之后新建一个分段
+     */
+    public static Writer openForAppend(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        for (int index = 0; ; index++) {
+            try {
+                OutputStream out = Files.newOutputStream(segmentOf(path, index), StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                return new Writer(new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(out, 64 * 1024), 64 * 1024, true)));
+            } catch (FileAlreadyExistsException e) {
+                // 该分段已被之前的写入占用
+            }
+        }
+    }
+
+    /**
+     * 打开归档读取（依次读取所有分段）
+     */
+    public static Reader openForRead(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return new Reader(path);
+    }
+
+    /**
+     * 第 index 个分段的文件
+     */
+    static Path segmentOf(Path path, int index) {
+        return index == 0 ? path : path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    /**
+     * 归档中的一个页面
+     */
+    @Data
+    public static class ArchivedPage {
+
+        private String url;
+
+        /**
+         * 抓取时间（毫秒时间戳）
+         */
+        private long fetchedAt;
+
+        private FetchTier tier;
+
+        /**
+         * 响应头，浏览器获取的页面没有响应头
+         */
+        private Map<String, List<String>> headers = new LinkedHashMap<>();
+
+        private String body;
+
+        public static ArchivedPage of(FetchResult fetchResult) {
+            ArchivedPage page = new ArchivedPage();
+            page.setUrl(fetchResult.getUrl());
+            page.setFetchedAt(System.currentTimeMillis());
+            page.setTier(fetchResult.getTier());
+            if (fetchResult.getHeaders() != null) {
+                page.setHeaders(fetchResult.getHeaders());
+            }
+            page.setBody(fetchResult.getHtml());
+            return page;
+        }
+
+        /**
+         * 转换为获取结果，交给解析阶段
+         */
+        public FetchResult toFetchResult() {
+            FetchResult result = new FetchResult();
+            result.setUrl(url);
+            result.setHtml(body);
+            result.setTier(tier);
+            result.setHeaders(headers);
+            return result;
+        }
+    }
+
+    public static class Writer implements Closeable {
+
+        private final DataOutputStream out;
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public synchronized void append(ArchivedPage page) throws IOException {
+            out.writeInt(RECORD_MAGIC);
+            writeString(out, page.getUrl());
+            out.writeLong(page.getFetchedAt());
+            writeString(out, page.getTier() != null ? page.getTier().name() : "");
+            Map<String, List<String>> headers = page.getHeaders() != null ? page.getHeaders() : Map.of();
+            out.writeInt(headers.size());
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                writeString(out, header.getKey());
+                out.writeInt(header.getValue().size());
+                for (String value : header.getValue()) {
+                    writeString(out, value);
+                }
+            }
+            writeString(out, page.getBody());
+            out.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    public static class Reader implements Closeable {
+
+        private final Path path;
+
+        private int segmentIndex;
+
+        private DataInputStream in;
+
+        private Reader(Path path) throws IOException {
+            this.path = path;
+            this.in = openSegment(path);
+        }
+
+        /**
+         * 读取下一条记录，当前分段读完（或只剩不完整的尾部记录）后继续读下一个分段
+         *
+         * @return 所有分段都已读完时返回 null
+         */
+        public ArchivedPage next() throws IOException {
+            while (in != null) {
+                ArchivedPage page = readRecord(in);
+                if (page != null) {
+                    return page;
+                }
+                in.close();
+                Path next = segmentOf(path, ++segmentIndex);
+                in = Files.exists(next) ? openSegment(next) : null;
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+                in = null;
+            }
+        }
+
+        private static DataInputStream openSegment(Path segment) throws IOException {
+            InputStream in = Files.newInputStream(segment);
+            try {
+                return new DataInputStream(new BufferedInputStream(new GZIPInputStream(in, 64 * 1024), 64 * 1024));
+            } catch (EOFException e) {
+                // 写入方刚创建分段就退出，连 gzip 头都不完整
+                in.close();
+                return new DataInputStream(InputStream.nullInputStream());
+            }
+        }
+
+        private static ArchivedPage readRecord(DataInputStream in) throws IOException {
+            int magic;
+            try {
+                magic = in.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            if (magic != RECORD_MAGIC) {
+                throw new IOException("页面归档格式错误: 0x" + Integer.toHexString(magic));
+            }
+            try {
+                ArchivedPage page = new ArchivedPage();
+                page.setUrl(readString(in));
+                page.setFetchedAt(in.readLong());
+                String tier = readString(in);
+                page.setTier(tier.isEmpty() ? null : FetchTier.valueOf(tier));
+                int headerCount = in.readInt();
+                Map<String, List<String>> headers = new LinkedHashMap<>();
+                for (int i = 0; i < headerCount; i++) {
+                    String name = readString(in);
+                    int valueCount = in.readInt();
+                    List<String> values = new ArrayList<>(valueCount);
+                    for (int j = 0; j < valueCount; j++) {
+                        values.add(readString(in));
+                    }
+                    headers.put(name, values);
+                }
+                page.setHeaders(headers);
+                page.setBody(readString(in));
+                return page;
+            } catch (EOFException e) {
+                log.warn("页面归档分段末尾有不完整的记录，已忽略");
+                return null;
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("页面归档记录长度错误: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
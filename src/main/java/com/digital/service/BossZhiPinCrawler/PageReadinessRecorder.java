@@ -0,0 +1,173 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 记录每个页面从发起导航到判定就绪的耗时，按页面类型统计，用于调优就绪策略和超时
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class PageReadinessRecorder {
+
+    /**
+     * 每种页面保留最近多少个样本用于计算分位数
+     */
+    private static final int SAMPLE_SIZE = 256;
+
+    private final Map<String, KindStats> statsByKind = new ConcurrentHashMap<>();
+
+    private final Map<String, CostStats> costByKindAndPolicy = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次页面加载
+     *
+     * @param url         页面URL
+     * @param strategy    使用的就绪策略
+     * @param readyMillis 导航开始到就绪（或超时）的耗时
+     * @param ready       是否在超时前就绪
+     */
+    public void record(String url, PageReadinessStrategy strategy, long readyMillis, boolean ready) {
+        String kind = CrawlRequest.isDetailUrl(url) ? "detail" : "list";
+        statsByKind.computeIfAbsent(kind, k -> new KindStats()).add(readyMillis, ready);
+        if (ready) {
+            log.debug("页面就绪 {}ms ({}): {}", readyMillis, strategy, url);
+        } else {
+            log.warn("页面就绪等待超时 {}ms ({}): {}", readyMillis, strategy, url);
+        }
+    }
+
+    /**
+     * 记录一次浏览器加载的页面成本，按 页面类型/资源策略 统计
+     *
+     * @param url           页面URL
+     * @param policy        资源拦截策略名称
+     * @param transferBytes 传输字节数
+     * @param resourceCount 加载的资源数
+     * @param renderMillis  导航开始到取得页面源代码的耗时
+     */
+    public void recordCost(String url, String policy, long transferBytes, int resourceCount, long renderMillis) {
+        String key = (CrawlRequest.isDetailUrl(url) ? "detail" : "list") + "/" + policy;
+        costByKindAndPolicy.computeIfAbsent(key, k -> new CostStats()).add(transferBytes, resourceCount, renderMillis);
+    }
+
+    /**
+     * 各类页面在不同资源策略下的平均传输量和渲染耗时
+     */
+    public Map<String, PageCostSummary> costSnapshot() {
+        Map<String, PageCostSummary> result = new LinkedHashMap<>();
+        costByKindAndPolicy.forEach((key, stats) -> result.put(key, stats.summary()));
+        return result;
+    }
+
+    /**
+     * 各类页面的就绪耗时统计
+     */
+    public Map<String, ReadinessSummary> snapshot() {
+        Map<String, ReadinessSummary> result = new LinkedHashMap<>();
+        statsByKind.forEach((kind, stats) -> result.put(kind, stats.summary()));
+        return result;
+    }
+
+    private static class KindStats {
+
+        private final long[] samples = new long[SAMPLE_SIZE];
+
+        private long count;
+
+        private long timeouts;
+
+        private long totalMillis;
+
+        private long maxMillis;
+
+        synchronized void add(long millis, boolean ready) {
+            samples[(int) (count % SAMPLE_SIZE)] = millis;
+            count++;
+            if (!ready) {
+                timeouts++;
+            }
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+
+        synchronized ReadinessSummary summary() {
+            int n = (int) Math.min(count, SAMPLE_SIZE);
+            long[] recent = Arrays.copyOf(samples, n);
+            Arrays.sort(recent);
+            ReadinessSummary summary = new ReadinessSummary();
+            summary.setCount(count);
+            summary.setTimeouts(timeouts);
+            summary.setAvgMillis(count == 0 ? 0 : totalMillis / count);
+            summary.setMaxMillis(maxMillis);
+            summary.setP50Millis(n == 0 ? 0 : recent[(n - 1) / 2]);
+            summary.setP90Millis(n == 0 ? 0 : recent[(int) Math.ceil(n * 0.9) - 1]);
+            return summary;
+        }
+    }
+
+    private static class CostStats {
+
+        private long count;
+
+        private long totalBytes;
+
+        private long totalResources;
+
+        private long totalMillis;
+
+        synchronized void add(long bytes, int resources, long millis) {
+            count++;
+            totalBytes += bytes;
+            totalResources += resources;
+            totalMillis += millis;
+        }
+
+        synchronized PageCostSummary summary() {
+            PageCostSummary summary = new PageCostSummary();
+            summary.setCount(count);
+            if (count > 0) {
+                summary.setAvgTransferKb(totalBytes / 1024.0 / count);
+                summary.setAvgResources((double) totalResources / count);
+                summary.setAvgRenderMillis(totalMillis / count);
+            }
+            return summary;
+        }
+    }
+
+    @Data
+    public static class PageCostSummary {
+
+        private long count;
+
+        private double avgTransferKb;
+
+        private double avgResources;
+
+        private long avgRenderMillis;
+    }
+
+    @Data
+    public static class ReadinessSummary {
+
+        private long count;
+
+        private long timeouts;
+
+        private long avgMillis;
+
+        private long p50Millis;
+
+        private long p90Millis;
+
+        private long maxMillis;
+    }
+}
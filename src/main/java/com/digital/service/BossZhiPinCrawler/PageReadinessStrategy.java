@@ -0,0 +1,98 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.List;
+
+/**
+ * 页面就绪判定策略
+ * 下载器在导航后按轮询间隔调用 {@link Probe#isReady}，直到返回 true 或达到硬超时
+ *
+ * @author digital
+ */
+public enum PageReadinessStrategy {
+
+    /**
+     * 指定的CSS选择器已出现在DOM中（如职位卡片列表、.job-sec-text）
+     */
+    SELECTOR {
+        @Override
+        public Probe newProbe(String selector, long quietWindowMillis) {
+            return driver -> Boolean.TRUE.equals(driver.executeScript(
+                    "return document.querySelector(arguments[0]) !== null;", selector));
+        }
+    },
+
+    /**
+     * 网络空闲：文档加载完成，且资源请求数在静默窗口内不再增加
+     */
+    NETWORK_IDLE {
+        @Override
+        public Probe newProbe(String selector, long quietWindowMillis) {
+            return new Probe() {
+                private long lastCount = -1;
+                private long lastChangeAt = System.currentTimeMillis();
+
+                @Override
+                public boolean isReady(RemoteWebDriver driver) {
+                    List<?> state = (List<?>) driver.executeScript(
+                            "return [document.readyState, performance.getEntriesByType('resource').length];");
+                    long count = ((Number) state.get(1)).longValue();
+                    long now = System.currentTimeMillis();
+                    if (count != lastCount) {
+                        lastCount = count;
+                        lastChangeAt = now;
+                    }
+                    return "complete".equals(state.get(0)) && now - lastChangeAt >= quietWindowMillis;
+                }
+            };
+        }
+    },
+
+    /**
+     * DOM静默：通过 MutationObserver 记录最后一次DOM变化，静默窗口内无变化即就绪
+     */
+    DOM_QUIET {
+        @Override
+        public Probe newProbe(String selector, long quietWindowMillis) {
+            return driver -> {
+                Object quietFor = driver.executeScript(DOM_QUIET_SCRIPT);
+                return quietFor instanceof Number && ((Number) quietFor).longValue() >= quietWindowMillis;
+            };
+        }
+    };
+
+    /**
+     * 首次调用时安装 MutationObserver，返回距最后一次DOM变化的毫秒数；文档仍在解析时返回 -1
+     */
+    static final String DOM_QUIET_SCRIPT =
+            "if (!window.__crawlerObserver) {" +
+            "  window.__crawlerLastMutation = performance.now();" +
+            "  window.__crawlerObserver = new MutationObserver(function () { window.__crawlerLastMutation = performance.now(); });" +
+            "  window.__crawlerObserver.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});" +
+            "}" +
+            "if (document.readyState === 'loading') { return -1; }" +
+            "return Math.floor(performance.now() - window.__crawlerLastMutation);";
+
+    /**
+     * 为一次页面加载创建判定器（判定器可以有状态，不能跨页面复用）
+     *
+     * @param selector          就绪标志选择器，仅 SELECTOR 策略使用
+     * @param quietWindowMillis 静默窗口，仅 NETWORK_IDLE / DOM_QUIET 策略使用
+     */
+    public abstract Probe newProbe(String selector, long quietWindowMillis);
+
+    public static PageReadinessStrategy of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (Exception e) {
+            return SELECTOR;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Probe {
+
+        boolean isReady(RemoteWebDriver driver);
+    }
+}
@@ -0,0 +1,68 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * 页面录制：开启后把获取阶段抓到的页面追加写入归档（{@link PageArchive}），所有爬取任务共用一个归档文件
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class PageRecorder {
+
+    private final CrawlerProperties.Recording config;
+
+    private PageArchive.Writer writer;
+
+    private long recordedCount;
+
+    public PageRecorder(CrawlerProperties crawlerProperties) {
+        this.config = crawlerProperties.getRecording();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * 录制一个页面，写入失败只记录日志，不影响爬取
+     */
+    public void record(FetchResult fetchResult) {
+        if (!config.isEnabled() || fetchResult.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            try {
+                if (writer == null) {
+                    writer = PageArchive.openForAppend(Paths.get(config.getPath()));
+                    log.info("开始录制页面到 {}", config.getPath());
+                }
+                writer.append(PageArchive.ArchivedPage.of(fetchResult));
+                recordedCount++;
+            } catch (IOException e) {
+                log.error("录制页面失败: {}", fetchResult.getUrl(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            log.info("页面录制已关闭: 共录制 {} 个页面", recordedCount);
+        } catch (IOException e) {
+            log.error("关闭页面归档失败", e);
+        }
+        writer = null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import lombok.Data;
+
+/**
+ * 一次页面下载的结果
+ *
+ * @author digital
+ */
+@Data
+public class PageSnapshot {
+
+    /**
+     * 页面URL
+     */
+    private String url;
+
+    /**
+     * 页面源代码，下载失败时为 null
+     */
+    private String html;
+
+    /**
+     * driver.get 导航耗时（毫秒）
+     */
+    private long navigationMillis;
+
+    /**
+     * 导航开始到判定就绪（或超时）的耗时（毫秒）
+     */
+    private long readyMillis;
+
+    /**
+     * 是否在超时前就绪
+     */
+    private boolean ready;
+
+    /**
+     * 使用的资源拦截策略名称
+     */
+    private String resourcePolicy;
+
+    /**
+     * 页面及其资源传输的字节数（Resource Timing 统计，未返回 Timing-Allow-Origin 的跨域资源计为 0）
+     */
+    private long transferBytes;
+
+    /**
+     * 加载的资源数（被拦截的不计）
+     */
+    private int resourceCount;
+
+    /**
+     * 导航开始到取得页面源代码的总耗时（毫秒）
+     */
+    private long renderMillis;
+}
@@ -0,0 +1,36 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.model.entity.JobInfo;
+import lombok.Getter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 解析阶段的产出：一次构建 DOM 后同时得到的职位详情链接和职位信息
+ *
+ * @author digital
+ */
+@Getter
+public class ParsedPage {
+
+    private final String url;
+
+    /**
+     * 页面中同域名的职位详情页链接（列表页的职位卡片和页面中其它职位链接合并去重）
+     */
+    private final Set<String> detailLinks = new LinkedHashSet<>();
+
+    /**
+     * 详情页抽取出的职位信息，列表页或缺少必填字段时为 null
+     */
+    private JobInfo jobInfo;
+
+    public ParsedPage(String url) {
+        this.url = url;
+    }
+
+    void setJobInfo(JobInfo jobInfo) {
+        this.jobInfo = jobInfo;
+    }
+}
@@ -0,0 +1,389 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.digital.config.CrawlerProperties;
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.utils.UrlFingerprint;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 已入库职位的持久化去重集合
+ * <p>
+ * 由两部分组成：
+ * <ul>
+ *     <li>内存布隆过滤器：绝大多数未见过的URL在这里直接判定，不加锁、不查文件；</li>
+ *     <li>内存映射的开放寻址哈希文件：存放 URL 的 64 位指纹（每条 8 字节），是判定的最终依据，重启后保留。</li>
+ * </ul>
+ * 首次创建文件时从 job_info 的 urlHash 导入一次，之后职位写入成功时追加，
+ * 爬虫在启动浏览器前先查询这里，重启或中断后不会重复抓取已入库的职位。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class PersistentSeenStore {
+
+    /**
+     * 文件头：magic(0) 槽数(8) 条数(16) 是否已从数据库导入(24)
+     */
+    private static final long MAGIC = 0x5345454E55524C31L;
+
+    private static final int HEADER_BYTES = 64;
+
+    private static final int INITIAL_SLOTS = 1 << 20;
+
+    /**
+     * 装载因子超过该值时扩容
+     */
+    private static final double MAX_LOAD = 0.7;
+
+    private static final int BOOTSTRAP_PAGE_SIZE = 5000;
+
+    private final JobInfoMapper jobInfoMapper;
+
+    private final CrawlerProperties.SeenStore config;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean opened = false;
+
+    private Path path;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private long slotCount;
+
+    private long size;
+
+    private BloomFilter bloomFilter;
+
+    public PersistentSeenStore(JobInfoMapper jobInfoMapper, CrawlerProperties crawlerProperties) {
+        this.jobInfoMapper = jobInfoMapper;
+        this.config = crawlerProperties.getSeenStore();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * URL 是否已入库
+     */
+    public boolean contains(String url) {
+        return containsFingerprint(UrlFingerprint.of(url));
+    }
+
+    public boolean containsFingerprint(long fingerprint) {
+        if (!config.isEnabled()) {
+            return false;
+        }
+        ensureOpen();
+        long key = toKey(fingerprint);
+        if (!bloomFilter.mightContain(key)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return buffer.getLong(offsetOf(findSlot(key))) == key;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 记录一批已入库的指纹
+     */
+    public void addFingerprints(List<Long> fingerprints) {
+        if (!config.isEnabled() || fingerprints.isEmpty()) {
+            return;
+        }
+        ensureOpen();
+        lock.writeLock().lock();
+        try {
+            for (Long fingerprint : fingerprints) {
+                if (fingerprint != null) {
+                    insert(toKey(fingerprint));
+                }
+            }
+            buffer.putLong(16, size);
+        } catch (IOException e) {
+            log.error("写入URL指纹文件失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        return opened ? size : 0;
+    }
+
+    /**
+     * 打开或创建指纹文件，并据此重建布隆过滤器
+     */
+    public void ensureOpen() {
+        if (opened) {
+            return;
+        }
+        synchronized (this) {
+            if (opened) {
+                return;
+            }
+            try {
+                path = Paths.get(config.getPath());
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                boolean fresh = !Files.exists(path) || Files.size(path) < HEADER_BYTES;
+                bloomFilter = new BloomFilter(config.getExpectedEntries(), config.getFalsePositiveRate());
+                if (fresh) {
+                    map(path, INITIAL_SLOTS);
+                } else {
+                    mapExisting(path);
+                }
+                opened = true;
+                if (buffer.getLong(24) == 0) {
+                    bootstrapFromDatabase();
+                }
+                log.info("URL指纹集合已加载: {} 条, 文件 {}", size, path.toAbsolutePath());
+            } catch (IOException e) {
+                throw new IllegalStateException("打开URL指纹文件失败: " + config.getPath(), e);
+            }
+        }
+    }
+
+    /**
+     * 首次创建时从 job_info 导入已入库职位的指纹（按 id 分页）
+     */
+    private void bootstrapFromDatabase() {
+        try {
+            long lastId = 0;
+            long total = 0;
+            while (true) {
+                QueryWrapper<JobInfo> queryWrapper = new QueryWrapper<>();
+                queryWrapper.select("id", "urlHash").gt("id", lastId).orderByAsc("id")
+                        .last("limit " + BOOTSTRAP_PAGE_SIZE);
+                List<JobInfo> page = jobInfoMapper.selectList(queryWrapper);
+                if (page.isEmpty()) {
+                    break;
+                }
+                addFingerprints(page.stream().map(JobInfo::getUrlHash).toList());
+                total += page.size();
+                lastId = page.get(page.size() - 1).getId();
+            }
+            // 标记已导入，之后只靠写入回调追加
+            buffer.putLong(24, 1);
+            log.info("从 job_info 导入URL指纹 {} 条", total);
+        } catch (Exception e) {
+            log.warn("从 job_info 导入URL指纹失败，下次启动时重试: {}", e.getMessage());
+        }
+    }
+
+    private void mapExisting(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.getLong(0) != MAGIC) {
+            throw new IOException("URL指纹文件格式错误: " + file);
+        }
+        slotCount = buffer.getLong(8);
+        size = buffer.getLong(16);
+        for (long slot = 0; slot < slotCount; slot++) {
+            long key = buffer.getLong(offsetOf(slot));
+            if (key != 0) {
+                bloomFilter.put(key);
+            }
+        }
+    }
+
+    /**
+     * 创建新的空文件并映射
+     */
+    private void map(Path file, long slots) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + slots * 8);
+        buffer.putLong(0, MAGIC);
+        buffer.putLong(8, slots);
+        buffer.putLong(16, 0);
+        buffer.putLong(24, 0);
+        slotCount = slots;
+        size = 0;
+    }
+
+    /**
+     * 插入一个指纹（调用方持有写锁）
+     */
+    private void insert(long key) throws IOException {
+        if (size + 1 > slotCount * MAX_LOAD) {
+            grow();
+        }
+        long slot = findSlot(key);
+        if (buffer.getLong(offsetOf(slot)) == key) {
+            return;
+        }
+        buffer.putLong(offsetOf(slot), key);
+        size++;
+        bloomFilter.put(key);
+    }
+
+    /**
+     * 容量翻倍：写入临时文件后原子替换
+     */
+    private void grow() throws IOException {
+        long oldSlots = slotCount;
+        MappedByteBuffer oldBuffer = buffer;
+        FileChannel oldChannel = channel;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        map(tmp, oldSlots * 2);
+        for (long slot = 0; slot < oldSlots; slot++) {
+            long key = oldBuffer.getLong(offsetOf(slot));
+            if (key != 0) {
+                long newSlot = findSlot(key);
+                buffer.putLong(offsetOf(newSlot), key);
+                size++;
+            }
+        }
+        buffer.putLong(16, size);
+        buffer.putLong(24, oldBuffer.getLong(24));
+        buffer.force();
+        oldChannel.close();
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        log.info("URL指纹文件扩容: {} -> {} 槽", oldSlots, slotCount);
+    }
+
+    /**
+     * 线性探测：返回 key 所在的槽，或者第一个空槽
+     */
+    private long findSlot(long key) {
+        long mask = slotCount - 1;
+        long slot = mix(key) & mask;
+        while (true) {
+            long existing = buffer.getLong(offsetOf(slot));
+            if (existing == 0 || existing == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int offsetOf(long slot) {
+        return (int) (HEADER_BYTES + slot * 8);
+    }
+
+    /**
+     * 0 表示空槽，指纹为 0 时映射为 1
+     */
+    private static long toKey(long fingerprint) {
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * 定期把映射内存刷到磁盘
+     */
+    @Scheduled(fixedDelay = 10000)
+    public void flush() {
+        if (!opened) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            buffer.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!opened) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+            opened = false;
+        } catch (IOException e) {
+            log.error("关闭URL指纹文件失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 基于 AtomicLongArray 的无锁布隆过滤器，使用双重哈希生成 k 个位置
+     */
+    private static class BloomFilter {
+
+        private final AtomicLongArray bits;
+
+        private final long bitCount;
+
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            long n = Math.max(1, expectedEntries);
+            double p = Math.min(0.5, Math.max(1e-6, falsePositiveRate));
+            long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+            this.bits = new AtomicLongArray((int) (bitCount / 64));
+        }
+
+        void put(long key) {
+            long h1 = mix(key);
+            long h2 = mix(h1 ^ key) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << (bit & 63);
+                long current;
+                do {
+                    current = bits.get(index);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        boolean mightContain(long key) {
+            long h1 = mix(key);
+            long h2 = mix(h1 ^ key) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import com.digital.manager.HttpClientManager;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分级页面获取：先用 HTTP 请求，页面里已经有职位结构时直接使用；
+ * 结构缺失（需要 JavaScript 渲染、被安全验证拦截等）时再借用浏览器渲染。
+ * <p>
+ * 按URL模式统计 HTTP 的命中率（指数滑动平均），命中率低的模式直接走浏览器，
+ * 但每隔 reprobeEvery 次仍用 HTTP 试一次，页面改版后可以自动切回。
+ * <p>
+ * HTTP 请求不自动重试；目标站点返回 429/503 时直接返回限流结果，不再用浏览器访问一次，
+ * 由调用方按失败反馈给域名速率控制（{@link HostPolitenessBudget}）。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class TieredPageFetcher {
+
+    /**
+     * 命中率滑动平均的权重
+     */
+    private static final double EWMA_ALPHA = 0.1;
+
+    private final CrawlerProperties.Fetch config;
+
+    private final ChromeDriverPool chromeDriverPool;
+
+    private final OkHttpClient httpClient;
+
+    private final Evaluator detailMarkup;
+
+    private final Evaluator listMarkup;
+
+    private final Map<String, PatternStats> statsByPattern = new ConcurrentHashMap<>();
+
+    public TieredPageFetcher(CrawlerProperties crawlerProperties, ChromeDriverPool chromeDriverPool) {
+        this(crawlerProperties, chromeDriverPool, HttpClientManager.standalone());
+    }
+
+    @Autowired
+    public TieredPageFetcher(CrawlerProperties crawlerProperties, ChromeDriverPool chromeDriverPool,
+                             HttpClientManager httpClientManager) {
+        this.config = crawlerProperties.getFetch();
+        this.chromeDriverPool = chromeDriverPool;
+        // 与其他对外请求共用连接池、响应缓存和域名并发限制；不自动重试，限流状态码要反馈给域名速率控制
+        this.httpClient = httpClientManager.withoutRetry(Duration.ofMillis(config.getHttpTimeoutMillis()));
+        this.detailMarkup = QueryParser.parse(crawlerProperties.getReadiness().getDetailSelector());
+        this.listMarkup = QueryParser.parse(crawlerProperties.getReadiness().getListSelector());
+    }
+
+    /**
+     * 获取页面
+     */
+    public FetchResult fetch(String url) throws InterruptedException {
+        return fetch(url, null);
+    }
+
+    /**
+     * @param resourcePolicy 回退到浏览器时使用的资源拦截策略，为空时使用默认策略
+     */
+    public FetchResult fetch(String url, String resourcePolicy) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        PatternStats stats = statsByPattern.computeIfAbsent(patternOf(url), p -> new PatternStats());
+        FetchResult result = null;
+        if (stats.shouldTryHttp(config)) {
+            result = fetchByHttp(url, stats);
+        }
+        if (result == null) {
+            result = fetchByBrowser(url, resourcePolicy, stats);
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * HTTP 获取，页面中没有预期的职位结构时返回 null，被限流时返回 throttled 的空结果
+     */
+    private FetchResult fetchByHttp(String url, PatternStats stats) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        try {
+            Request request = new Request.Builder()
+                    .url(url)
+                    .header("User-Agent", config.getUserAgent())
+                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                    .header("Accept-Language", "zh-CN,zh;q=0.9")
+                    .get()
+                    .build();
+            try (Response response = httpClient.newCall(request).execute()) {
+                if (isThrottled(response.code())) {
+                    // 限流与页面结构无关，不计入 HTTP 命中率
+                    log.debug("HTTP 获取被限流（状态码 {}）: {}", response.code(), url);
+                    FetchResult result = new FetchResult();
+                    result.setUrl(url);
+                    result.setHeaders(response.headers().toMultimap());
+                    result.setTier(FetchTier.HTTP);
+                    result.setThrottled(true);
+                    return result;
+                }
+                String body = response.body() != null ? response.body().string() : null;
+                long elapsed = System.currentTimeMillis() - start;
+                if (response.code() == 200 && body != null && !body.isEmpty()) {
+                    Document document = Jsoup.parse(body, url);
+                    Evaluator markup = CrawlRequest.isDetailUrl(url) ? detailMarkup : listMarkup;
+                    if (document.selectFirst(markup) != null) {
+                        stats.recordHttp(true, elapsed);
+                        FetchResult result = new FetchResult();
+                        result.setUrl(url);
+                        result.setHtml(body);
+                        result.setDocument(document);
+                        result.setHeaders(response.headers().toMultimap());
+                        result.setTier(FetchTier.HTTP);
+                        return result;
+                    }
+                }
+                stats.recordHttp(false, elapsed);
+                log.debug("HTTP 获取的页面缺少职位结构（状态码 {}），改用浏览器: {}", response.code(), url);
+            }
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("HTTP 获取被中断");
+            }
+            stats.recordHttp(false, System.currentTimeMillis() - start);
+            log.debug("HTTP 获取失败，改用浏览器: {} ({})", url, e.getMessage());
+        }
+        return null;
+    }
+
+    static boolean isThrottled(int code) {
+        return code == 429 || code == 503;
+    }
+
+    private FetchResult fetchByBrowser(String url, String resourcePolicy, PatternStats stats) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        ChromeDownloaderService chromeDownloader = chromeDriverPool.borrow();
+        FetchResult result = new FetchResult();
+        result.setUrl(url);
+        result.setTier(FetchTier.BROWSER);
+        try {
+            result.setHtml(chromeDownloader.fetch(url, resourcePolicy).getHtml());
+        } finally {
+            chromeDriverPool.giveBack(chromeDownloader);
+        }
+        stats.recordBrowser(!result.isEmpty(), System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * URL模式：域名 + 路径，路径中带数字或较长的段（职位 id 等）替换为 *，查询参数只保留参数名
+     */
+    public static String patternOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            StringBuilder sb = new StringBuilder(uri.getHost() == null ? "" : uri.getHost());
+            String path = uri.getPath() == null ? "" : uri.getPath();
+            for (String segment : path.split("/")) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                sb.append('/');
+                boolean variable = segment.length() > 24 || segment.chars().anyMatch(Character::isDigit);
+                sb.append(variable ? "*" : segment);
+            }
+            if (uri.getQuery() != null) {
+                // 参数名排序，忽略参数值和顺序
+                TreeMap<String, Boolean> names = new TreeMap<>();
+                for (String pair : uri.getQuery().split("&")) {
+                    int eq = pair.indexOf('=');
+                    names.put(eq >= 0 ? pair.substring(0, eq) : pair, true);
+                }
+                sb.append('?').append(String.join("&", names.keySet()));
+            }
+            return sb.toString();
+        } catch (IllegalArgumentException e) {
+            return "invalid";
+        }
+    }
+
+    /**
+     * 各URL模式的分级获取统计
+     */
+    public Map<String, FetchStatsSummary> snapshot() {
+        Map<String, FetchStatsSummary> result = new LinkedHashMap<>();
+        new TreeMap<>(statsByPattern).forEach((pattern, stats) -> result.put(pattern, stats.summary(config)));
+        return result;
+    }
+
+    private static class PatternStats {
+
+        private long requests;
+
+        private long httpAttempts;
+
+        private long httpHits;
+
+        private long httpMillis;
+
+        private long browserFetches;
+
+        private long browserFailures;
+
+        private long browserMillis;
+
+        /**
+         * HTTP 命中率的指数滑动平均，初始乐观地认为 HTTP 可用
+         */
+        private double httpHitRate = 1.0;
+
+        synchronized boolean shouldTryHttp(CrawlerProperties.Fetch config) {
+            requests++;
+            if (!config.isHttpEnabled()) {
+                return false;
+            }
+            if (httpAttempts < config.getProbeSamples() || httpHitRate >= config.getMinHttpHitRate()) {
+                return true;
+            }
+            return requests % Math.max(1, config.getReprobeEvery()) == 0;
+        }
+
+        synchronized void recordHttp(boolean hit, long millis) {
+            httpAttempts++;
+            httpMillis += millis;
+            if (hit) {
+                httpHits++;
+            }
+            httpHitRate = httpHitRate * (1 - EWMA_ALPHA) + (hit ? EWMA_ALPHA : 0);
+        }
+
+        synchronized void recordBrowser(boolean success, long millis) {
+            browserFetches++;
+            browserMillis += millis;
+            if (!success) {
+                browserFailures++;
+            }
+        }
+
+        synchronized FetchStatsSummary summary(CrawlerProperties.Fetch config) {
+            FetchStatsSummary summary = new FetchStatsSummary();
+            summary.setRequests(requests);
+            summary.setHttpAttempts(httpAttempts);
+            summary.setHttpHits(httpHits);
+            summary.setHttpHitRate(Math.round(httpHitRate * 1000) / 1000.0);
+            summary.setHttpAvgMillis(httpAttempts == 0 ? 0 : httpMillis / httpAttempts);
+            summary.setBrowserFetches(browserFetches);
+            summary.setBrowserFailures(browserFailures);
+            summary.setBrowserAvgMillis(browserFetches == 0 ? 0 : browserMillis / browserFetches);
+            boolean preferHttp = config.isHttpEnabled()
+                    && (httpAttempts < config.getProbeSamples() || httpHitRate >= config.getMinHttpHitRate());
+            summary.setPreferredTier(preferHttp ? FetchTier.HTTP : FetchTier.BROWSER);
+            return summary;
+        }
+    }
+
+    @Data
+    public static class FetchStatsSummary {
+
+        private long requests;
+
+        private long httpAttempts;
+
+        private long httpHits;
+
+        private double httpHitRate;
+
+        private long httpAvgMillis;
+
+        private long browserFetches;
+
+        private long browserFailures;
+
+        private long browserAvgMillis;
+
+        /**
+         * 当前优先使用的获取方式
+         */
+        private FetchTier preferredTier;
+    }
+}
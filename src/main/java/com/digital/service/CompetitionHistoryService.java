@@ -0,0 +1,52 @@
+package com.digital.service;
+
+import com.digital.model.entity.Competition;
+import com.digital.model.vo.CompetitionDiffVO;
+import com.digital.model.vo.CompetitionRankPointVO;
+import com.digital.model.vo.CompetitionSnapshotVO;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 竞赛排名历史服务
+ *
+ * @author digital
+ */
+public interface CompetitionHistoryService {
+
+    /**
+     * 追加一次刷新得到的竞赛列表
+     *
+     * @param competitionList 竞赛列表
+     * @param snapshotTime    刷新时间
+     */
+    void record(List<Competition> competitionList, Date snapshotTime);
+
+    /**
+     * 一段时间内的快照
+     */
+    List<CompetitionSnapshotVO> listSnapshots(Date fromTime, Date toTime);
+
+    /**
+     * 某个竞赛在一段时间内的排名轨迹
+     *
+     * @param url 竞赛链接
+     */
+    List<CompetitionRankPointVO> getTrajectory(String url, Date fromTime, Date toTime);
+
+    /**
+     * 两个快照之间的排名变化
+     *
+     * @param fromTime 旧快照时间，为空时取新快照的前一个快照
+     * @param toTime   新快照时间，为空时取最新快照
+     * @return 没有可比较的快照时返回 null
+     */
+    CompetitionDiffVO diff(Date fromTime, Date toTime);
+
+    /**
+     * 按保留策略降采样：超过 rawRetentionDays 的快照每小时只保留第一个，超过 hourlyRetentionDays 的每天只保留第一个
+     *
+     * @return 删除的快照数
+     */
+    int downsample();
+}
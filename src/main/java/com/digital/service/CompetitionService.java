@@ -1,171 +1,219 @@
 package com.digital.service;
 
+import com.digital.config.CompetitionProperties;
 import com.digital.model.entity.Competition;
+import com.digital.model.vo.CompetitionSourceVO;
+import com.digital.service.competition.CompetitionAggregator;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 竞赛信息解析服务
+ * <p>
+ * 竞赛列表由后台线程按 refreshIntervalMillis 定时从各来源聚合（见 {@link CompetitionAggregator}），
+ * 接口直接返回内存中最近一次成功的结果，不再每个请求都访问外部网站。同一时间最多只有一个刷新在进行，
+ * 并发的刷新请求共用同一次结果；所有来源都失败（合并结果为空）时保留旧结果继续返回。
+ * 未按时返回的来源完成后会再触发一次刷新，把它的结果补充进来；完成时恰好有刷新在进行的，
+ * 那次刷新可能已经聚合过，结束后会立即再刷新一次。
+ * 刷新结果中至少有一个来源是新抓取的数据时追加到排名历史（见 {@link CompetitionHistoryService}），
+ * 全部来自缓存或上一次结果时不记录，避免旧数据以新的时间重复进入历史。
  */
 @Service
 @Slf4j
 public class CompetitionService {
 
-    private final OkHttpClient httpClient;
-    private static final String SAIKR_URL = "https://www.saikr.com/vs";
+    private final CompetitionProperties config;
 
-    public CompetitionService() {
-        this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(10, TimeUnit.SECONDS)
-                .build();
+    private final CompetitionAggregator competitionAggregator;
+
+    @Resource
+    private CompetitionHistoryService competitionHistoryService;
+
+    /**
+     * 刷新线程，刷新不占用定时任务线程和请求线程
+     */
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Competition-Refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 最近一次成功的结果，启动后首次刷新成功前为 null
+     */
+    private volatile List<Competition> latest;
+
+    private volatile long latestFetchedAt;
+
+    /**
+     * 已记录到排名历史的各来源抓取时间，只在刷新线程中访问
+     */
+    private final Map<String, Long> recordedFetchedAt = new HashMap<>();
+
+    /**
+     * 进行中的刷新
+     */
+    private final AtomicReference<CompletableFuture<List<Competition>>> refreshing = new AtomicReference<>();
+
+    /**
+     * 上次开始聚合之后有迟到的来源完成，需要再刷新一次
+     */
+    private final AtomicBoolean lateSourceArrived = new AtomicBoolean();
+
+    public CompetitionService(CompetitionProperties competitionProperties, CompetitionAggregator competitionAggregator) {
+        this.config = competitionProperties;
+        this.competitionAggregator = competitionAggregator;
     }
 
     /**
-     * 获取赛氪网最新竞赛TOP10
+     * 获取最新竞赛榜单（内存中最近一次成功的结果）
      *
      * @return 竞赛列表
      */
     public List<Competition> getLatestCompetitions() {
+        List<Competition> competitions = latest;
+        if (competitions != null) {
+            return competitions;
+        }
+        // 启动后还没有结果：等待首次刷新（与定时刷新共用同一次请求）
         try {
-            // 从赛氪网获取HTML内容
-            String html = fetchHtmlFromSaikr();
-            if (html == null || html.isEmpty()) {
-                log.error("获取赛氪网HTML内容失败");
-                return new ArrayList<>();
-            }
-
-            // 解析HTML并提取竞赛信息
-            return parseCompetitionsFromHtml(html);
-        } catch (Exception e) {
-            log.error("获取竞赛信息失败", e);
-            return new ArrayList<>();
+            return refreshAsync().get(config.getColdStartWaitMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("等待竞赛信息首次刷新失败: {}", e.toString());
         }
+        return latest != null ? latest : List.of();
     }
 
     /**
-     * 从赛氪网获取HTML内容
-     *
-     * @return HTML字符串
+     * 定时刷新，启动后立即执行一次
      */
-    private String fetchHtmlFromSaikr() {
-        try {
-            Request request = new Request.Builder()
-                    .url(SAIKR_URL)
-                    .addHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
-                    .addHeader("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8")
-                    .addHeader("Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8")
-                    .build();
-
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (response.isSuccessful() && response.body() != null) {
-                    return response.body().string();
-                } else {
-                    log.error("HTTP请求失败，状态码: {}", response.code());
-                    return null;
-                }
-            }
-        } catch (IOException e) {
-            log.error("获取赛氪网HTML内容时发生IO异常", e);
-            return null;
-        }
+    @Scheduled(fixedDelayString = "${competition.refresh-interval-millis:600000}")
+    public void scheduledRefresh() {
+        refreshAsync();
     }
 
     /**
-     * 从HTML中解析竞赛信息
+     * 触发一次刷新；已有刷新在进行时返回同一个结果
      *
-     * @param html HTML内容
-     * @return 竞赛列表
+     * @return 刷新后的竞赛列表（失败时为上一次成功的结果）
      */
-    private List<Competition> parseCompetitionsFromHtml(String html) {
-        List<Competition> competitions = new ArrayList<>();
-
+    public CompletableFuture<List<Competition>> refreshAsync() {
+        CompletableFuture<List<Competition>> future = new CompletableFuture<>();
+        CompletableFuture<List<Competition>> inFlight = refreshing.compareAndExchange(null, future);
+        if (inFlight != null) {
+            return inFlight;
+        }
         try {
-            // 解析HTML文档
-            Document doc = Jsoup.parse(html);
-
-            // 查找最新竞赛TOP10的容器
-            Element listContainer = doc.selectFirst("div.ranking-new-list");
-            if (listContainer == null) {
-                log.warn("未找到最新竞赛列表容器 div.ranking-new-list");
-                return competitions;
-            }
-
-            // 提取所有竞赛链接
-            Elements competitionLinks = listContainer.select("a");
-            log.info("找到 {} 个竞赛链接", competitionLinks.size());
-
-            // 遍历每个竞赛链接，提取信息
-            for (Element link : competitionLinks) {
+            refresher.execute(() -> {
                 try {
-                    Competition competition = parseCompetitionFromLink(link);
-                    if (competition != null) {
-                        competitions.add(competition);
-                    }
-                } catch (Exception e) {
-                    log.warn("解析单个竞赛信息失败", e);
+                    future.complete(refresh());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    refreshing.set(null);
                 }
-            }
-
-            log.info("成功解析 {} 个竞赛信息", competitions.size());
-        } catch (Exception e) {
-            log.error("解析HTML时发生异常", e);
+                // 刷新期间完成的迟到来源合并进了这次刷新，但可能没赶上聚合
+                if (lateSourceArrived.get()) {
+                    refreshAsync();
+                }
+            });
+        } catch (RuntimeException e) {
+            // 应用关闭中
+            refreshing.set(null);
+            future.completeExceptionally(e);
         }
-
-        return competitions;
+        return future;
     }
 
     /**
-     * 从单个链接元素解析竞赛信息
-     *
-     * @param link 链接元素
-     * @return 竞赛信息
+     * 聚合各来源，结果非空时替换内存中的结果
      */
-    private Competition parseCompetitionFromLink(Element link) {
-        try {
-            // 提取链接
-            String url = link.attr("href");
-            if (url.isEmpty()) {
-                return null;
+    private List<Competition> refresh() {
+        long start = System.currentTimeMillis();
+        // 在此之前完成的迟到来源已写入聚合器的缓存，本次聚合会用到
+        lateSourceArrived.set(false);
+        CompetitionAggregator.Aggregation aggregation = competitionAggregator.aggregate();
+        if (!aggregation.getLateSources().isEmpty()) {
+            log.warn("竞赛来源 {} 未在 {}ms 内返回，完成后再补充", aggregation.getLateSources(), config.getDeadlineMillis());
+            for (CompletableFuture<List<Competition>> late : aggregation.getLate()) {
+                late.thenRun(() -> {
+                    lateSourceArrived.set(true);
+                    refreshAsync();
+                });
             }
-
-            // 提取排名、名称、热度值（<a>标签下的3个<span>）
-            Elements spans = link.select("span");
-            if (spans.size() < 3) {
-                log.warn("竞赛链接格式异常，span数量: {}", spans.size());
-                return null;
+        }
+        List<Competition> competitions = aggregation.getCompetitions();
+        if (competitions.isEmpty()) {
+            if (latest != null) {
+                log.warn("刷新竞赛信息失败，继续使用 {} 秒前的结果", (start - latestFetchedAt) / 1000);
             }
+            return latest != null ? latest : List.of();
+        }
+        latest = competitions;
+        latestFetchedAt = System.currentTimeMillis();
+        log.info("竞赛信息已刷新: {} 条, 耗时 {}ms", competitions.size(), latestFetchedAt - start);
+        recordHistory(competitions, aggregation.getSourceFetchedAt());
+        return latest;
+    }
 
-            // 解析排名
-            String rankText = spans.get(0).text().trim();
-            Integer rank = Integer.parseInt(rankText);
+    /**
+     * 有来源的抓取时间比上次记录时新才追加快照，快照时间取最新的抓取时间
+     */
+    private void recordHistory(List<Competition> competitions, Map<String, Long> sourceFetchedAt) {
+        long snapshotTime = 0;
+        boolean fetchedNewData = false;
+        for (Map.Entry<String, Long> entry : sourceFetchedAt.entrySet()) {
+            long fetchedAt = entry.getValue();
+            snapshotTime = Math.max(snapshotTime, fetchedAt);
+            if (fetchedAt > recordedFetchedAt.getOrDefault(entry.getKey(), 0L)) {
+                fetchedNewData = true;
+            }
+        }
+        if (!fetchedNewData || competitionHistoryService == null) {
+            return;
+        }
+        try {
+            competitionHistoryService.record(competitions, new Date(snapshotTime));
+            recordedFetchedAt.putAll(sourceFetchedAt);
+        } catch (Exception e) {
+            log.error("记录竞赛排名历史失败", e);
+        }
+    }
 
-            // 解析名称
-            String name = spans.get(1).text().trim();
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
 
-            // 解析热度值
-            String popularityText = spans.get(2).text().trim();
+    /**
+     * 最近一次成功刷新的时间（毫秒时间戳），还没有成功过时为 0
+     */
+    public long getLatestFetchedAt() {
+        return latestFetchedAt;
+    }
 
-            return new Competition(rank, name, popularityText, url);
-        } catch (NumberFormatException e) {
-            log.warn("解析竞赛数据时数字格式异常", e);
-            return null;
-        } catch (Exception e) {
-            log.warn("解析竞赛信息时发生异常", e);
-            return null;
-        }
+    /**
+     * 各来源的状态
+     */
+    public List<CompetitionSourceVO> getSourceStats() {
+        return competitionAggregator.getSourceStats();
     }
 }
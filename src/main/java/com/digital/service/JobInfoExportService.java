@@ -0,0 +1,45 @@
+package com.digital.service;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * 招聘信息导出服务
+ *
+ * @author digital
+ */
+public interface JobInfoExportService {
+
+    /**
+     * 以 CSV 格式流式导出到通道（逐行读取数据库，内存占用与数据量无关）
+     *
+     * @param channel       输出通道
+     * @param gzip          是否 gzip 压缩
+     * @param minCreateTime 最早创建时间，为 null 时导出全部
+     * @return 导出的职位数
+     */
+    long exportCsv(WritableByteChannel channel, boolean gzip, Date minCreateTime) throws IOException;
+
+    /**
+     * 以 CSV 格式导出到文件（先写临时文件，完成后替换目标文件）
+     *
+     * @param file          目标文件
+     * @param gzip          是否 gzip 压缩
+     * @param minCreateTime 最早创建时间，为 null 时导出全部
+     * @return 导出的职位数
+     */
+    long exportCsvToFile(Path file, boolean gzip, Date minCreateTime) throws IOException;
+
+    /**
+     * 按链接指纹导出指定的职位到 CSV 文件（如一次爬取任务写入的职位），已删除或不存在的跳过
+     *
+     * @param file      目标文件
+     * @param gzip      是否 gzip 压缩
+     * @param urlHashes 职位链接指纹
+     * @return 导出的职位数
+     */
+    long exportCsvToFileByUrlHashes(Path file, boolean gzip, Collection<Long> urlHashes) throws IOException;
+}
@@ -0,0 +1,20 @@
+package com.digital.service;
+
+import com.digital.model.dto.jobinfo.JobInfoSearchRequest;
+import com.digital.model.vo.JobSearchResultVO;
+
+/**
+ * 职位搜索服务
+ *
+ * @author digital
+ */
+public interface JobInfoSearchService {
+
+    /**
+     * 关键词 + 条件搜索职位，按 id 倒序游标分页；第一页可附带公司、学历、经验分面统计
+     *
+     * @param searchRequest 搜索条件
+     * @return 当前页职位、下一页游标和分面统计
+     */
+    JobSearchResultVO search(JobInfoSearchRequest searchRequest);
+}
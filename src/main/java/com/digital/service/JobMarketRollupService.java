@@ -0,0 +1,35 @@
+package com.digital.service;
+
+import com.digital.model.entity.JobInfo;
+import com.digital.model.vo.SalaryStatsVO;
+import java.util.List;
+
+/**
+ * 职位市场汇总服务
+ *
+ * @author digital
+ */
+public interface JobMarketRollupService {
+
+    /**
+     * 记录一批新入库的职位（先在内存中累计，定期合并写入汇总表）
+     *
+     * @param newJobList 新职位，需带爬取关键词和城市
+     */
+    void record(List<JobInfo> newJobList);
+
+    /**
+     * 把内存中累计的增量合并写入汇总表
+     */
+    void flush();
+
+    /**
+     * 查询最近几天的薪资统计
+     *
+     * @param searchQuery 搜索关键词
+     * @param cityCode    城市代码，为空时统计全部城市
+     * @param companyName 公司名，为空时统计全部公司
+     * @param days        最近几天（含今天）
+     */
+    SalaryStatsVO getSalaryStats(String searchQuery, String cityCode, String companyName, int days);
+}
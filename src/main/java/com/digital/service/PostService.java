@@ -41,6 +41,15 @@ public interface PostService extends IService<Post> {
      */
     PostVO getPostVO(Post post, HttpServletRequest request);
 
+    /**
+     * 根据 id 获取帖子封装（帖子和作者信息走缓存，只有当前用户的点赞、收藏状态每次查询）
+     *
+     * @param id
+     * @param request
+     * @return 帖子不存在时返回 null
+     */
+    PostVO getPostVOById(long id, HttpServletRequest request);
+
     /**
      * 分页获取帖子封装
      *
@@ -0,0 +1,325 @@
+package com.digital.service.competition;
+
+import com.digital.config.CompetitionProperties;
+import com.digital.model.entity.Competition;
+import com.digital.model.vo.CompetitionSourceVO;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 多来源竞赛聚合
+ * <p>
+ * 各来源并行抓取，每个来源有自己的超时和缓存时间，缓存未过期的来源直接使用缓存。
+ * 一次聚合最多等待 deadlineMillis：到时仍未返回的来源使用上一次成功的结果（没有则不参与合并），
+ * 抓取在后台继续，完成后写入缓存，调用方可通过 {@link Aggregation#getLate()} 在其完成后重新聚合。
+ * 合并时按各来源的排名交替取，名称归一化后相同的竞赛只保留先出现的一条，最后重新编排名。
+ *
+ * @author digital
+ */
+@Component
+@Slf4j
+public class CompetitionAggregator {
+
+    private final List<CompetitionSource> sources;
+
+    private final CompetitionProperties config;
+
+    private final Map<String, SourceState> states = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    public CompetitionAggregator(List<CompetitionSource> sources, CompetitionProperties competitionProperties) {
+        this.sources = List.copyOf(sources);
+        this.config = competitionProperties;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "Competition-Source-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 聚合所有启用的来源
+     *
+     * @return 合并后的竞赛列表和未按时返回的来源
+     */
+    public Aggregation aggregate() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getDeadlineMillis());
+        long now = System.currentTimeMillis();
+        Map<SourceState, CompletableFuture<List<Competition>>> futures = new LinkedHashMap<>();
+        for (CompetitionSource source : sources) {
+            CompetitionProperties.Source sourceConfig = config.getSource(source.getName());
+            if (!sourceConfig.isEnabled()) {
+                continue;
+            }
+            SourceState state = states.computeIfAbsent(source.getName(), name -> new SourceState(source));
+            futures.put(state, state.isFresh(now, sourceConfig.getCacheTtlMillis())
+                    ? CompletableFuture.completedFuture(state.items)
+                    : state.refresh(sourceConfig.getTimeoutMillis()));
+        }
+
+        Aggregation aggregation = new Aggregation();
+        List<List<Competition>> lists = new ArrayList<>();
+        for (Map.Entry<SourceState, CompletableFuture<List<Competition>>> entry : futures.entrySet()) {
+            SourceState state = entry.getKey();
+            CompletableFuture<List<Competition>> future = entry.getValue();
+            try {
+                lists.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                aggregation.sourceFetchedAt.put(state.source.getName(), state.fetchedAt);
+                continue;
+            } catch (TimeoutException e) {
+                aggregation.lateSources.add(state.source.getName());
+                aggregation.late.add(future);
+            } catch (ExecutionException e) {
+                // 失败已记录到来源状态
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            // 超时或失败：使用上一次成功的结果
+            if (state.items != null) {
+                lists.add(state.items);
+                aggregation.sourceFetchedAt.put(state.source.getName(), state.fetchedAt);
+            }
+        }
+        aggregation.competitions = merge(lists);
+        return aggregation;
+    }
+
+    /**
+     * 各来源的状态
+     */
+    public List<CompetitionSourceVO> getSourceStats() {
+        List<CompetitionSourceVO> stats = new ArrayList<>(sources.size());
+        for (CompetitionSource source : sources) {
+            CompetitionProperties.Source sourceConfig = config.getSource(source.getName());
+            SourceState state = states.get(source.getName());
+            CompetitionSourceVO vo = new CompetitionSourceVO();
+            vo.setName(source.getName());
+            vo.setEnabled(sourceConfig.isEnabled());
+            vo.setTimeoutMillis(sourceConfig.getTimeoutMillis());
+            vo.setCacheTtlMillis(sourceConfig.getCacheTtlMillis());
+            if (state != null) {
+                vo.setItemCount(state.items != null ? state.items.size() : 0);
+                vo.setLastSuccessTime(state.fetchedAt > 0 ? new Date(state.fetchedAt) : null);
+                vo.setLastLatencyMillis(state.lastLatencyMillis);
+                vo.setSuccessCount(state.successCount.get());
+                vo.setFailureCount(state.failureCount.get());
+                vo.setTimeoutCount(state.timeoutCount.get());
+                vo.setConsecutiveFailures(state.consecutiveFailures);
+                vo.setLastError(state.lastError);
+            }
+            stats.add(vo);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 按排名交替合并各来源的列表，名称相同的只保留先出现的一条，重新编排名
+     *
+     * @param lists 各来源的竞赛列表，靠前的来源优先
+     * @return 合并后的列表
+     */
+    static List<Competition> merge(List<List<Competition>> lists) {
+        List<List<Competition>> sorted = new ArrayList<>(lists.size());
+        int maxSize = 0;
+        for (List<Competition> list : lists) {
+            List<Competition> copy = new ArrayList<>(list);
+            copy.sort(Comparator.comparing(Competition::getRank, Comparator.nullsLast(Comparator.naturalOrder())));
+            sorted.add(copy);
+            maxSize = Math.max(maxSize, copy.size());
+        }
+        Map<String, Competition> merged = new LinkedHashMap<>();
+        for (int i = 0; i < maxSize; i++) {
+            for (List<Competition> list : sorted) {
+                if (i >= list.size()) {
+                    continue;
+                }
+                Competition competition = list.get(i);
+                String key = normalizeName(competition.getName());
+                if (!key.isEmpty()) {
+                    merged.putIfAbsent(key, competition);
+                }
+            }
+        }
+        List<Competition> result = new ArrayList<>(merged.size());
+        int rank = 1;
+        for (Competition competition : merged.values()) {
+            result.add(new Competition(rank++, competition.getName(), competition.getPopularity(),
+                    competition.getUrl(), competition.getSource()));
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * 归一化竞赛名称：全角转半角、小写，去掉空白和标点
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC).toLowerCase();
+        StringBuilder sb = new StringBuilder(normalized.length());
+        normalized.codePoints()
+                .filter(Character::isLetterOrDigit)
+                .forEach(sb::appendCodePoint);
+        return sb.toString();
+    }
+
+    /**
+     * 一次聚合的结果
+     */
+    @Data
+    public static class Aggregation {
+
+        /**
+         * 合并后的竞赛列表
+         */
+        private List<Competition> competitions = List.of();
+
+        /**
+         * 未在 deadlineMillis 内返回的来源
+         */
+        private List<String> lateSources = new ArrayList<>();
+
+        /**
+         * 未按时返回的来源的抓取结果，完成后已写入缓存
+         */
+        private List<CompletableFuture<List<Competition>>> late = new ArrayList<>();
+
+        /**
+         * 参与合并的各来源数据的抓取时间（毫秒时间戳），使用缓存或上一次结果的来源是当时的抓取时间
+         */
+        private Map<String, Long> sourceFetchedAt = new LinkedHashMap<>();
+    }
+
+    /**
+     * 单个来源的缓存、进行中的抓取和统计
+     */
+    private final class SourceState {
+
+        private final CompetitionSource source;
+
+        private volatile List<Competition> items;
+
+        private volatile long fetchedAt;
+
+        private volatile Long lastLatencyMillis;
+
+        private volatile int consecutiveFailures;
+
+        private volatile String lastError;
+
+        private final AtomicLong successCount = new AtomicLong();
+
+        private final AtomicLong failureCount = new AtomicLong();
+
+        private final AtomicLong timeoutCount = new AtomicLong();
+
+        private final AtomicReference<CompletableFuture<List<Competition>>> inFlight = new AtomicReference<>();
+
+        private SourceState(CompetitionSource source) {
+            this.source = source;
+        }
+
+        private boolean isFresh(long now, long cacheTtlMillis) {
+            return items != null && now - fetchedAt < cacheTtlMillis;
+        }
+
+        /**
+         * 抓取一次；已有抓取在进行时返回同一个结果
+         */
+        private CompletableFuture<List<Competition>> refresh(long timeoutMillis) {
+            CompletableFuture<List<Competition>> future = new CompletableFuture<>();
+            CompletableFuture<List<Competition>> running = inFlight.compareAndExchange(null, future);
+            if (running != null) {
+                return running;
+            }
+            long start = System.nanoTime();
+            try {
+                CompletableFuture.supplyAsync(() -> fetch(timeoutMillis), executor)
+                        .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                        .whenComplete((competitions, e) -> {
+                            lastLatencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                            if (e == null) {
+                                onSuccess(competitions);
+                            } else {
+                                onFailure(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                            }
+                            inFlight.set(null);
+                            if (e == null) {
+                                future.complete(competitions);
+                            } else {
+                                future.completeExceptionally(e);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                // 应用关闭中
+                inFlight.set(null);
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        private List<Competition> fetch(long timeoutMillis) {
+            List<Competition> competitions;
+            try {
+                competitions = source.fetch(Duration.ofMillis(timeoutMillis));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            if (competitions == null || competitions.isEmpty()) {
+                throw new IllegalStateException("解析结果为空");
+            }
+            return List.copyOf(competitions);
+        }
+
+        private void onSuccess(List<Competition> competitions) {
+            items = competitions;
+            fetchedAt = System.currentTimeMillis();
+            consecutiveFailures = 0;
+            successCount.incrementAndGet();
+            log.info("竞赛来源 {} 抓取成功: {} 条, 耗时 {}ms", source.getName(), competitions.size(), lastLatencyMillis);
+        }
+
+        private void onFailure(Throwable e) {
+            failureCount.incrementAndGet();
+            if (e instanceof TimeoutException) {
+                timeoutCount.incrementAndGet();
+            }
+            consecutiveFailures++;
+            lastError = e instanceof TimeoutException ? "超时" : e.toString();
+            log.warn("竞赛来源 {} 抓取失败（连续 {} 次）: {}", source.getName(), consecutiveFailures, lastError);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.digital.service.competition;
+
+import com.digital.model.entity.Competition;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 竞赛信息来源
+ * <p>
+ * 每个来源负责抓取并解析一个网站的竞赛榜单，注册为 Spring Bean 后由 {@link CompetitionAggregator} 并行调用。
+ * 来源的超时、缓存时间通过 competition.sources.&lt;name&gt; 配置。
+ *
+ * @author digital
+ */
+public interface CompetitionSource {
+
+    /**
+     * 来源名称，用作配置键和统计标识
+     */
+    String getName();
+
+    /**
+     * 抓取并解析竞赛榜单，按排名升序返回
+     *
+     * @param timeout 本次抓取的总超时
+     * @return 竞赛列表，页面结构变化等解析不到结果时返回空列表
+     * @throws Exception 请求失败
+     */
+    List<Competition> fetch(Duration timeout) throws Exception;
+}
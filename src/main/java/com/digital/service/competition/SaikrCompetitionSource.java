@@ -0,0 +1,126 @@
+package com.digital.service.competition;
+
+import com.digital.manager.HttpClientManager;
+import com.digital.model.entity.Competition;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 赛氪网最新竞赛TOP10
+ *
+ * @author digital
+ */
+@Component
+@Order(0)
+@Slf4j
+public class SaikrCompetitionSource implements CompetitionSource {
+
+    public static final String NAME = "saikr";
+
+    private static final String SAIKR_URL = "https://www.saikr.com/vs";
+
+    private final HttpClientManager httpClientManager;
+
+    public SaikrCompetitionSource(HttpClientManager httpClientManager) {
+        this.httpClientManager = httpClientManager;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<Competition> fetch(Duration timeout) throws IOException {
+        Request request = new Request.Builder()
+                .url(SAIKR_URL)
+                .addHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
+                .addHeader("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8")
+                .addHeader("Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8")
+                .build();
+        OkHttpClient client = httpClientManager.withCallTimeout(timeout);
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("HTTP请求失败，状态码: " + response.code());
+            }
+            return parseCompetitionsFromHtml(response.body().string());
+        }
+    }
+
+    /**
+     * 从HTML中解析竞赛信息
+     *
+     * @param html HTML内容
+     * @return 竞赛列表
+     */
+    List<Competition> parseCompetitionsFromHtml(String html) {
+        List<Competition> competitions = new ArrayList<>();
+
+        // 解析HTML文档
+        Document doc = Jsoup.parse(html);
+
+        // 查找最新竞赛TOP10的容器
+        Element listContainer = doc.selectFirst("div.ranking-new-list");
+        if (listContainer == null) {
+            log.warn("未找到最新竞赛列表容器 div.ranking-new-list");
+            return competitions;
+        }
+
+        // 遍历每个竞赛链接，提取信息
+        for (Element link : listContainer.select("a")) {
+            try {
+                Competition competition = parseCompetitionFromLink(link);
+                if (competition != null) {
+                    competitions.add(competition);
+                }
+            } catch (Exception e) {
+                log.warn("解析单个竞赛信息失败", e);
+            }
+        }
+        return competitions;
+    }
+
+    /**
+     * 从单个链接元素解析竞赛信息
+     *
+     * @param link 链接元素
+     * @return 竞赛信息
+     */
+    private Competition parseCompetitionFromLink(Element link) {
+        // 提取链接
+        String url = link.attr("href");
+        if (url.isEmpty()) {
+            return null;
+        }
+
+        // 提取排名、名称、热度值（<a>标签下的3个<span>）
+        Elements spans = link.select("span");
+        if (spans.size() < 3) {
+            log.warn("竞赛链接格式异常，span数量: {}", spans.size());
+            return null;
+        }
+
+        try {
+            Integer rank = Integer.parseInt(spans.get(0).text().trim());
+            String name = spans.get(1).text().trim();
+            String popularityText = spans.get(2).text().trim();
+            return new Competition(rank, name, popularityText, url, NAME);
+        } catch (NumberFormatException e) {
+            log.warn("解析竞赛数据时数字格式异常", e);
+            return null;
+        }
+    }
+}
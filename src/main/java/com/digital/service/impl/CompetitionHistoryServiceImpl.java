@@ -0,0 +1,264 @@
+package com.digital.service.impl;
+
+import com.digital.config.CompetitionProperties;
+import com.digital.mapper.CompetitionRankHistoryMapper;
+import com.digital.model.entity.Competition;
+import com.digital.model.entity.CompetitionRankHistory;
+import com.digital.model.vo.CompetitionDiffVO;
+import com.digital.model.vo.CompetitionRankDiffVO;
+import com.digital.model.vo.CompetitionRankPointVO;
+import com.digital.model.vo.CompetitionSnapshotVO;
+import com.digital.service.CompetitionHistoryService;
+import com.digital.utils.ContentFingerprint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * 竞赛排名历史服务实现
+ * <p>
+ * 每次刷新成功后把 TOP10 追加为一组快照（同一 snapshotTime 的若干行），不修改已有行；
+ * 每天按保留策略删除多余的旧快照，历史越久越稀疏。查询都按时间范围走索引。
+ *
+ * @author digital
+ */
+@Service
+@Slf4j
+public class CompetitionHistoryServiceImpl implements CompetitionHistoryService {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final int DELETE_CHUNK_SIZE = 500;
+
+    /**
+     * 热度值：数字 + 可选的单位（万、千、w、k）
+     */
+    private static final Pattern POPULARITY_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*([万wW千kK])?");
+
+    @Resource
+    private CompetitionRankHistoryMapper competitionRankHistoryMapper;
+
+    @Resource
+    private CompetitionProperties competitionProperties;
+
+    @Override
+    public void record(List<Competition> competitionList, Date snapshotTime) {
+        if (!competitionProperties.getHistory().isEnabled() || competitionList.isEmpty()) {
+            return;
+        }
+        // 精确到秒，与 datetime 列一致，同一快照的行时间完全相同
+        Date time = new Date(snapshotTime.getTime() / 1000 * 1000);
+        List<CompetitionRankHistory> rows = new ArrayList<>(competitionList.size());
+        for (Competition competition : competitionList) {
+            CompetitionRankHistory row = new CompetitionRankHistory();
+            row.setSnapshotTime(time);
+            row.setCompetitionKey(ContentFingerprint.of(competition.getUrl()));
+            row.setRanking(competition.getRank());
+            row.setName(competition.getName());
+            row.setPopularity(competition.getPopularity());
+            row.setPopularityValue(parsePopularity(competition.getPopularity()));
+            row.setUrl(competition.getUrl());
+            rows.add(row);
+        }
+        competitionRankHistoryMapper.batchInsert(rows);
+    }
+
+    @Override
+    public List<CompetitionSnapshotVO> listSnapshots(Date fromTime, Date toTime) {
+        return competitionRankHistoryMapper.selectSnapshots(fromTime, toTime);
+    }
+
+    @Override
+    public List<CompetitionRankPointVO> getTrajectory(String url, Date fromTime, Date toTime) {
+        List<CompetitionRankHistory> rows = competitionRankHistoryMapper.selectTrajectory(ContentFingerprint.of(url),
+                fromTime, toTime);
+        List<CompetitionRankPointVO> points = new ArrayList<>(rows.size());
+        for (CompetitionRankHistory row : rows) {
+            CompetitionRankPointVO point = new CompetitionRankPointVO();
+            point.setSnapshotTime(row.getSnapshotTime());
+            point.setRanking(row.getRanking());
+            point.setName(row.getName());
+            point.setPopularity(row.getPopularity());
+            point.setPopularityValue(row.getPopularityValue());
+            points.add(point);
+        }
+        return points;
+    }
+
+    @Override
+    public CompetitionDiffVO diff(Date fromTime, Date toTime) {
+        // 给定的时间不一定正好是快照时间，取不晚于它的最近一个快照
+        List<Date> toTimes = competitionRankHistoryMapper.selectLatestSnapshotTimes(toTime, 2);
+        if (toTimes.isEmpty()) {
+            return null;
+        }
+        Date to = toTimes.get(0);
+        Date from;
+        if (fromTime == null) {
+            if (toTimes.size() < 2) {
+                return null;
+            }
+            from = toTimes.get(1);
+        } else {
+            List<Date> fromTimes = competitionRankHistoryMapper.selectLatestSnapshotTimes(fromTime, 1);
+            if (fromTimes.isEmpty()) {
+                return null;
+            }
+            from = fromTimes.get(0);
+        }
+        CompetitionDiffVO diffVO = new CompetitionDiffVO();
+        diffVO.setFromTime(from);
+        diffVO.setToTime(to);
+        diffVO.setItems(diffItems(competitionRankHistoryMapper.selectBySnapshotTime(from),
+                competitionRankHistoryMapper.selectBySnapshotTime(to)));
+        return diffVO;
+    }
+
+    /**
+     * 每天凌晨 4 点 30 分降采样
+     */
+    @Scheduled(cron = "0 30 4 * * ?")
+    @Override
+    public int downsample() {
+        CompetitionProperties.History config = competitionProperties.getHistory();
+        long now = System.currentTimeMillis();
+        Date rawCutoff = new Date(now - config.getRawRetentionDays() * 86400000L);
+        Date hourlyCutoff = new Date(now - config.getHourlyRetentionDays() * 86400000L);
+        int deleted = 0;
+        try {
+            deleted += deleteSnapshots(thin(snapshotTimes(hourlyCutoff, rawCutoff), ChronoUnit.HOURS));
+            deleted += deleteSnapshots(thin(snapshotTimes(new Date(0), hourlyCutoff), ChronoUnit.DAYS));
+            if (deleted > 0) {
+                log.info("竞赛排名历史降采样，删除快照 {} 个", deleted);
+            }
+        } catch (Exception e) {
+            log.error("竞赛排名历史降采样失败", e);
+        }
+        return deleted;
+    }
+
+    private List<Date> snapshotTimes(Date fromTime, Date toTime) {
+        return competitionRankHistoryMapper.selectSnapshots(fromTime, toTime).stream()
+                .map(CompetitionSnapshotVO::getSnapshotTime)
+                .toList();
+    }
+
+    private int deleteSnapshots(List<Date> snapshotTimes) {
+        for (int i = 0; i < snapshotTimes.size(); i += DELETE_CHUNK_SIZE) {
+            competitionRankHistoryMapper.deleteBySnapshotTimes(
+                    snapshotTimes.subList(i, Math.min(snapshotTimes.size(), i + DELETE_CHUNK_SIZE)));
+        }
+        return snapshotTimes.size();
+    }
+
+    /**
+     * 每个时间段（小时/天）只保留第一个快照
+     *
+     * @param snapshotTimes 按时间升序的快照时间
+     * @return 需要删除的快照时间
+     */
+    static List<Date> thin(List<Date> snapshotTimes, ChronoUnit unit) {
+        List<Date> toDelete = new ArrayList<>();
+        LocalDateTime lastBucket = null;
+        for (Date time : snapshotTimes) {
+            LocalDateTime bucket = LocalDateTime.ofInstant(time.toInstant(), ZONE).truncatedTo(unit);
+            if (bucket.equals(lastBucket)) {
+                toDelete.add(time);
+            } else {
+                lastBucket = bucket;
+            }
+        }
+        return toDelete;
+    }
+
+    /**
+     * 按竞赛链接对比两个快照，按新快照的排名排列，跌出榜单的排在最后
+     */
+    static List<CompetitionRankDiffVO> diffItems(List<CompetitionRankHistory> fromRows, List<CompetitionRankHistory> toRows) {
+        Map<Long, CompetitionRankHistory> fromByKey = new LinkedHashMap<>();
+        for (CompetitionRankHistory row : fromRows) {
+            fromByKey.putIfAbsent(row.getCompetitionKey(), row);
+        }
+        List<CompetitionRankDiffVO> items = new ArrayList<>(toRows.size() + 1);
+        Set<Long> matched = new HashSet<>();
+        for (CompetitionRankHistory to : toRows) {
+            CompetitionRankHistory from = fromByKey.get(to.getCompetitionKey());
+            if (from != null) {
+                matched.add(to.getCompetitionKey());
+            }
+            items.add(diffItem(from, to));
+        }
+        for (CompetitionRankHistory from : fromByKey.values()) {
+            if (!matched.contains(from.getCompetitionKey())) {
+                items.add(diffItem(from, null));
+            }
+        }
+        return items;
+    }
+
+    private static CompetitionRankDiffVO diffItem(CompetitionRankHistory from, CompetitionRankHistory to) {
+        CompetitionRankHistory current = to != null ? to : from;
+        CompetitionRankDiffVO item = new CompetitionRankDiffVO();
+        item.setUrl(current.getUrl());
+        item.setName(current.getName());
+        if (from != null) {
+            item.setFromRanking(from.getRanking());
+            item.setFromPopularity(from.getPopularity());
+        }
+        if (to != null) {
+            item.setToRanking(to.getRanking());
+            item.setToPopularity(to.getPopularity());
+        }
+        if (from == null) {
+            item.setStatus(CompetitionRankDiffVO.NEW);
+            return item;
+        }
+        if (to == null) {
+            item.setStatus(CompetitionRankDiffVO.DROPPED);
+            return item;
+        }
+        int change = from.getRanking() - to.getRanking();
+        item.setRankingChange(change);
+        item.setStatus(change > 0 ? CompetitionRankDiffVO.UP : change < 0 ? CompetitionRankDiffVO.DOWN : CompetitionRankDiffVO.SAME);
+        if (from.getPopularityValue() != null && to.getPopularityValue() != null) {
+            item.setPopularityChange(to.getPopularityValue() - from.getPopularityValue());
+        }
+        return item;
+    }
+
+    /**
+     * 解析热度值，如 "3456"、"1.2万"、"8,912"
+     *
+     * @return 无法解析时返回 null
+     */
+    static Long parsePopularity(String popularity) {
+        if (popularity == null) {
+            return null;
+        }
+        Matcher matcher = POPULARITY_PATTERN.matcher(popularity.replace(",", ""));
+        if (!matcher.find()) {
+            return null;
+        }
+        BigDecimal value = new BigDecimal(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit != null) {
+            value = value.multiply(BigDecimal.valueOf("万wW".contains(unit) ? 10000 : 1000));
+        }
+        return value.longValue();
+    }
+}
@@ -0,0 +1,126 @@
+package com.digital.service.impl;
+
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.service.JobInfoExportService;
+import com.digital.utils.CsvWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.aop.framework.AopContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 招聘信息导出服务实现
+ *
+ * @author digital
+ */
+@Service
+@Slf4j
+public class JobInfoExportServiceImpl implements JobInfoExportService {
+
+    private static final String[] CSV_HEADER = {"URL", "工作名称", "薪水", "工作地址", "工作经验", "学历要求", "公司名称", "工作内容"};
+
+    /**
+     * 按链接指纹导出时每次查询的职位数
+     */
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
+    @Resource
+    private JobInfoMapper jobInfoMapper;
+
+    /**
+     * 游标只在事务（同一连接）内有效
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCsv(WritableByteChannel channel, boolean gzip, Date minCreateTime) throws IOException {
+        long count = 0;
+        try (CsvWriter csvWriter = new CsvWriter(channel, gzip);
+             Cursor<JobInfo> cursor = jobInfoMapper.streamJobInfo(minCreateTime)) {
+            csvWriter.writeRow(CSV_HEADER);
+            for (JobInfo jobInfo : cursor) {
+                writeRow(csvWriter, jobInfo);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long exportCsvToFile(Path file, boolean gzip, Date minCreateTime) throws IOException {
+        // 通过代理调用，保证事务生效
+        JobInfoExportService proxy = (JobInfoExportService) AopContext.currentProxy();
+        return writeToFile(file, channel -> proxy.exportCsv(channel, gzip, minCreateTime));
+    }
+
+    @Override
+    public long exportCsvToFileByUrlHashes(Path file, boolean gzip, Collection<Long> urlHashes) throws IOException {
+        List<Long> urlHashList = new ArrayList<>(urlHashes);
+        return writeToFile(file, channel -> {
+            long count = 0;
+            try (CsvWriter csvWriter = new CsvWriter(channel, gzip)) {
+                csvWriter.writeRow(CSV_HEADER);
+                for (int from = 0; from < urlHashList.size(); from += EXPORT_BATCH_SIZE) {
+                    List<Long> batch = urlHashList.subList(from, Math.min(from + EXPORT_BATCH_SIZE, urlHashList.size()));
+                    for (JobInfo jobInfo : jobInfoMapper.selectForExport(batch)) {
+                        writeRow(csvWriter, jobInfo);
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+    }
+
+    private static void writeRow(CsvWriter csvWriter, JobInfo jobInfo) throws IOException {
+        csvWriter.writeRow(jobInfo.getUrl(),
+                jobInfo.getWorkName(),
+                jobInfo.getWorkSalary(),
+                jobInfo.getWorkAddress(),
+                jobInfo.getWorkYear(),
+                jobInfo.getGraduate(),
+                jobInfo.getCompanyName(),
+                jobInfo.getWorkContent());
+    }
+
+    /**
+     * 先写临时文件，完成后替换目标文件
+     */
+    private static long writeToFile(Path file, ChannelExport export) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        long count;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            count = export.writeTo(channel);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("导出职位信息 {} 条到 {}", count, absolute);
+        return count;
+    }
+
+    private interface ChannelExport {
+
+        long writeTo(WritableByteChannel channel) throws IOException;
+    }
+}
@@ -0,0 +1,119 @@
+package com.digital.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.dto.jobinfo.JobInfoSearchRequest;
+import com.digital.model.entity.JobInfo;
+import com.digital.model.vo.FacetCountVO;
+import com.digital.model.vo.JobInfoVO;
+import com.digital.model.vo.JobSearchResultVO;
+import com.digital.service.JobInfoSearchService;
+import com.digital.utils.JobAttributeNormalizer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+/**
+ * 职位搜索服务实现
+ * <p>
+ * 关键词走 job_info 上的 ngram 全文索引（ft_job_text），以短语方式匹配（布尔模式下加引号，
+ * 要求所有 ngram 按顺序出现），避免 ngram 自然语言模式匹配到大量只含单个二元组的职位；
+ * 数值条件走规范化列的索引。分页按 id 倒序取游标，翻页代价与页码无关。
+ * 分面统计代价较高，只在第一页计算，只统计最新的 FACET_SCAN_LIMIT 条匹配职位（结果是近期职位的分布，
+ * 不是全部匹配的精确计数，此时结果中 facetsApproximate 为 true），并按筛选条件缓存一分钟。
+ *
+ * @author digital
+ */
+@Service
+@Slf4j
+public class JobInfoSearchServiceImpl implements JobInfoSearchService {
+
+    /**
+     * 公司分面最多返回的公司数
+     */
+    private static final int COMPANY_FACET_LIMIT = 20;
+
+    /**
+     * 分面统计最多扫描的匹配职位数，使分面的代价不随表的大小增长
+     */
+    static final int FACET_SCAN_LIMIT = 5000;
+
+    /**
+     * 全文检索的布尔模式运算符，搜索词中出现时替换为空格
+     */
+    private static final String BOOLEAN_OPERATORS = "+-<>()~*\"@";
+
+    private final LRUCache<String, JobSearchResultVO> facetCache = CacheUtil.newLRUCache(1000, 60 * 1000L);
+
+    @Resource
+    private JobInfoMapper jobInfoMapper;
+
+    @Override
+    public JobSearchResultVO search(JobInfoSearchRequest searchRequest) {
+        String searchPhrase = toSearchPhrase(searchRequest.getSearchText());
+        int pageSize = searchRequest.getPageSize();
+        // 多取一条判断是否还有下一页
+        List<JobInfo> jobInfoList = jobInfoMapper.searchJobInfo(searchRequest, searchPhrase, pageSize + 1);
+        JobSearchResultVO result = new JobSearchResultVO();
+        boolean hasNext = jobInfoList.size() > pageSize;
+        if (hasNext) {
+            jobInfoList = jobInfoList.subList(0, pageSize);
+        }
+        result.setRecords(jobInfoList.stream().map(JobInfoVO::objToVo).collect(Collectors.toList()));
+        result.setNextCursor(hasNext ? jobInfoList.get(jobInfoList.size() - 1).getId() : null);
+        if (searchRequest.isFacets() && searchRequest.getCursor() == null) {
+            JobSearchResultVO facets = facetsOf(searchRequest, searchPhrase);
+            result.setCompanyFacets(facets.getCompanyFacets());
+            result.setDegreeFacets(facets.getDegreeFacets());
+            result.setWorkYearFacets(facets.getWorkYearFacets());
+            result.setFacetScanLimit(facets.getFacetScanLimit());
+            result.setFacetsApproximate(facets.getFacetsApproximate());
+        }
+        return result;
+    }
+
+    /**
+     * 分面统计：每个分面不应用自身维度的筛选，选中一个取值后仍能看到同维度的其它取值
+     */
+    private JobSearchResultVO facetsOf(JobInfoSearchRequest searchRequest, String searchPhrase) {
+        String cacheKey = String.join("|", String.valueOf(searchPhrase), String.valueOf(searchRequest.getCompanyName()),
+                String.valueOf(searchRequest.getDegreeLevel()), String.valueOf(searchRequest.getWorkYearMin()),
+                String.valueOf(searchRequest.getSalary()));
+        JobSearchResultVO cached = facetCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        JobSearchResultVO facets = new JobSearchResultVO();
+        List<FacetCountVO> companyFacets = jobInfoMapper.facetByCompany(searchRequest, searchPhrase,
+                COMPANY_FACET_LIMIT, FACET_SCAN_LIMIT);
+        companyFacets.forEach(facet -> facet.setLabel(facet.getValue()));
+        facets.setCompanyFacets(companyFacets);
+        List<FacetCountVO> degreeFacets = jobInfoMapper.facetByDegree(searchRequest, searchPhrase, FACET_SCAN_LIMIT);
+        degreeFacets.forEach(facet -> facet.setLabel(JobAttributeNormalizer.degreeNameOf(Integer.valueOf(facet.getValue()))));
+        facets.setDegreeFacets(degreeFacets);
+        List<FacetCountVO> workYearFacets = jobInfoMapper.facetByWorkYear(searchRequest, searchPhrase, FACET_SCAN_LIMIT);
+        workYearFacets.forEach(facet -> facet.setLabel("0".equals(facet.getValue()) ? "经验不限/应届" : facet.getValue() + "年以上"));
+        facets.setWorkYearFacets(workYearFacets);
+        facets.setFacetScanLimit(FACET_SCAN_LIMIT);
+        facets.setFacetsApproximate(jobInfoMapper.countFacetScope(searchRequest, searchPhrase, FACET_SCAN_LIMIT) >= FACET_SCAN_LIMIT);
+        facetCache.put(cacheKey, facets);
+        return facets;
+    }
+
+    /**
+     * 搜索词转为全文检索短语，空白搜索词返回 null（不做全文匹配）
+     */
+    static String toSearchPhrase(String searchText) {
+        if (StringUtils.isBlank(searchText)) {
+            return null;
+        }
+        String cleaned = StringUtils.replaceChars(searchText, BOOLEAN_OPERATORS, StringUtils.repeat(' ', BOOLEAN_OPERATORS.length()));
+        cleaned = StringUtils.normalizeSpace(cleaned);
+        return cleaned.isEmpty() ? null : "\"" + cleaned + "\"";
+    }
+}
@@ -0,0 +1,370 @@
+package com.digital.service.impl;
+
+import com.digital.mapper.JobMarketRollupMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.model.entity.JobMarketRollup;
+import com.digital.model.vo.FacetCountVO;
+import com.digital.model.vo.SalaryStatsVO;
+import com.digital.service.JobMarketRollupService;
+import com.digital.utils.JobAttributeNormalizer;
+import com.digital.utils.SalarySketch;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 职位市场汇总服务实现
+ * <p>
+ * 每个新职位更新 4 个汇总单元：(关键词, 城市, 公司)、(关键词, 城市, 全部公司)、(关键词, 全部城市, 公司)、
+ * (关键词, 全部城市, 全部公司)，按天分行。增量先在内存中累计，定期在事务内对汇总行加锁、合并草图后写回，
+ * 查询时每天最多读一行，与原始职位数量无关。
+ * <p>
+ * 唯一键各列去掉首尾空白，关键词统一小写（见 {@link RollupKey}），读回的汇总行也按同样的规则归一后再与增量对应，
+ * 大小写或尾部空格不同的关键词、公司名落在同一个汇总单元里。
+ *
+ * @author digital
+ */
+@Service
+@Slf4j
+public class JobMarketRollupServiceImpl implements JobMarketRollupService {
+
+    /**
+     * 经验分段下限（按最少工作年限），最后一项之后是未知经验
+     */
+    private static final int[] WORK_YEAR_BUCKETS = {0, 1, 3, 5, 10};
+
+    private static final String[] WORK_YEAR_LABELS = {"经验不限/应届", "1年以上", "3年以上", "5年以上", "10年以上", "未知"};
+
+    /**
+     * 学历序数个数，最后一项之后是未知学历
+     */
+    private static final int DEGREE_LEVELS = 8;
+
+    /**
+     * 全部城市/全部公司
+     */
+    private static final String ALL = "";
+
+    private static final int FLUSH_CHUNK_SIZE = 200;
+
+    private static final int MAX_DAYS = 366;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Resource
+    private JobMarketRollupMapper jobMarketRollupMapper;
+
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 记录时持读锁，刷新时持写锁换出累计的增量
+     */
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private Map<RollupKey, RollupCell> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(List<JobInfo> newJobList) {
+        LocalDate today = LocalDate.now(ZONE);
+        swapLock.readLock().lock();
+        try {
+            for (JobInfo jobInfo : newJobList) {
+                if (StringUtils.isBlank(jobInfo.getCrawlQuery())) {
+                    continue;
+                }
+                String searchQuery = jobInfo.getCrawlQuery();
+                String cityCode = StringUtils.defaultString(jobInfo.getCrawlCityCode());
+                String companyName = jobInfo.getCompanyName();
+                addTo(new RollupKey(searchQuery, cityCode, companyName, today), jobInfo);
+                addTo(new RollupKey(searchQuery, cityCode, ALL, today), jobInfo);
+                if (StringUtils.isNotBlank(cityCode)) {
+                    addTo(new RollupKey(searchQuery, ALL, companyName, today), jobInfo);
+                    addTo(new RollupKey(searchQuery, ALL, ALL, today), jobInfo);
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void addTo(RollupKey key, JobInfo jobInfo) {
+        RollupCell cell = pending.computeIfAbsent(key, k -> new RollupCell());
+        synchronized (cell) {
+            cell.add(jobInfo);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelay = 30000)
+    @PreDestroy
+    public void flush() {
+        Map<RollupKey, RollupCell> deltas;
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            deltas = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        List<RollupKey> keys = new ArrayList<>(deltas.keySet());
+        for (int i = 0; i < keys.size(); i += FLUSH_CHUNK_SIZE) {
+            List<RollupKey> chunk = keys.subList(i, Math.min(i + FLUSH_CHUNK_SIZE, keys.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> mergeChunk(chunk, deltas));
+            } catch (Exception e) {
+                log.error("写入职位汇总失败，{} 个汇总单元下次重试", chunk.size(), e);
+                requeue(chunk, deltas);
+            }
+        }
+        log.debug("写入职位汇总 {} 个单元", keys.size());
+    }
+
+    /**
+     * 对已有汇总行加锁，合并增量后整行写回（增量对象不修改，失败时可以原样放回）
+     */
+    private void mergeChunk(List<RollupKey> chunk, Map<RollupKey, RollupCell> deltas) {
+        List<JobMarketRollup> keyRows = new ArrayList<>(chunk.size());
+        for (RollupKey key : chunk) {
+            keyRows.add(key.toEntity());
+        }
+        Map<RollupKey, JobMarketRollup> existing = new HashMap<>();
+        for (JobMarketRollup row : jobMarketRollupMapper.selectByKeysForUpdate(keyRows)) {
+            existing.put(RollupKey.of(row), row);
+        }
+        List<JobMarketRollup> merged = new ArrayList<>(chunk.size());
+        for (RollupKey key : chunk) {
+            JobMarketRollup current = existing.get(key);
+            RollupCell cell = current != null ? RollupCell.fromEntity(current) : new RollupCell();
+            cell.merge(deltas.get(key));
+            JobMarketRollup row = cell.toEntity(key);
+            row.setId(current != null ? current.getId() : null);
+            merged.add(row);
+        }
+        jobMarketRollupMapper.batchUpsert(merged);
+    }
+
+    private void requeue(List<RollupKey> chunk, Map<RollupKey, RollupCell> deltas) {
+        swapLock.readLock().lock();
+        try {
+            for (RollupKey key : chunk) {
+                RollupCell cell = pending.computeIfAbsent(key, k -> new RollupCell());
+                synchronized (cell) {
+                    cell.merge(deltas.get(key));
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public SalaryStatsVO getSalaryStats(String searchQuery, String cityCode, String companyName, int days) {
+        int dayCount = Math.max(1, Math.min(days, MAX_DAYS));
+        LocalDate toDay = LocalDate.now(ZONE);
+        LocalDate fromDay = toDay.minusDays(dayCount - 1);
+        RollupKey key = new RollupKey(searchQuery, cityCode, companyName, toDay);
+        String city = key.cityCode();
+        String company = key.companyName();
+        List<JobMarketRollup> rows = jobMarketRollupMapper.selectRange(key.searchQuery(), city, company,
+                toDate(fromDay), toDate(toDay));
+        RollupCell total = new RollupCell();
+        for (JobMarketRollup row : rows) {
+            total.merge(RollupCell.fromEntity(row));
+        }
+
+        SalaryStatsVO salaryStatsVO = new SalaryStatsVO();
+        salaryStatsVO.setSearchQuery(searchQuery);
+        salaryStatsVO.setCityCode(city);
+        salaryStatsVO.setCompanyName(company);
+        salaryStatsVO.setFromDay(toDate(fromDay));
+        salaryStatsVO.setToDay(toDate(toDay));
+        salaryStatsVO.setJobCount(total.jobCount);
+        SalarySketch sketch = total.salary;
+        salaryStatsVO.setSalaryCount(sketch.getCount());
+        salaryStatsVO.setSalaryMin(sketch.getMin());
+        salaryStatsVO.setSalaryP25(sketch.quantile(0.25));
+        salaryStatsVO.setSalaryMedian(sketch.quantile(0.5));
+        salaryStatsVO.setSalaryP75(sketch.quantile(0.75));
+        salaryStatsVO.setSalaryP90(sketch.quantile(0.9));
+        salaryStatsVO.setSalaryMax(sketch.getMax());
+        salaryStatsVO.setSalaryMean(sketch.getMean());
+        List<FacetCountVO> degreeCounts = new ArrayList<>();
+        for (int i = 0; i < total.degreeCounts.length; i++) {
+            if (total.degreeCounts[i] > 0) {
+                degreeCounts.add(facet(String.valueOf(i), i < DEGREE_LEVELS ? JobAttributeNormalizer.degreeNameOf(i) : "未知",
+                        total.degreeCounts[i]));
+            }
+        }
+        salaryStatsVO.setDegreeCounts(degreeCounts);
+        List<FacetCountVO> workYearCounts = new ArrayList<>();
+        for (int i = 0; i < total.workYearCounts.length; i++) {
+            if (total.workYearCounts[i] > 0) {
+                workYearCounts.add(facet(i < WORK_YEAR_BUCKETS.length ? String.valueOf(WORK_YEAR_BUCKETS[i]) : "",
+                        WORK_YEAR_LABELS[i], total.workYearCounts[i]));
+            }
+        }
+        salaryStatsVO.setWorkYearCounts(workYearCounts);
+        return salaryStatsVO;
+    }
+
+    private static FacetCountVO facet(String value, String label, long count) {
+        FacetCountVO facetCountVO = new FacetCountVO();
+        facetCountVO.setValue(value);
+        facetCountVO.setLabel(label);
+        facetCountVO.setCount(count);
+        return facetCountVO;
+    }
+
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZONE).toInstant());
+    }
+
+    /**
+     * 汇总单元的唯一键（构造时归一：去掉首尾空白、按列宽截断，关键词统一小写）
+     */
+    private record RollupKey(String searchQuery, String cityCode, String companyName, LocalDate day) {
+
+        RollupKey {
+            searchQuery = normalize(StringUtils.defaultString(searchQuery).toLowerCase(Locale.ROOT), 64);
+            cityCode = normalize(cityCode, 32);
+            companyName = normalize(companyName, 256);
+        }
+
+        private static String normalize(String value, int maxLength) {
+            return StringUtils.stripEnd(StringUtils.left(StringUtils.strip(StringUtils.defaultString(value)), maxLength), null);
+        }
+
+        static RollupKey of(JobMarketRollup row) {
+            LocalDate day = row.getStatDay() instanceof java.sql.Date sqlDate
+                    ? sqlDate.toLocalDate()
+                    : row.getStatDay().toInstant().atZone(ZONE).toLocalDate();
+            return new RollupKey(row.getSearchQuery(), row.getCityCode(), row.getCompanyName(), day);
+        }
+
+        JobMarketRollup toEntity() {
+            JobMarketRollup row = new JobMarketRollup();
+            row.setSearchQuery(searchQuery);
+            row.setCityCode(cityCode);
+            row.setCompanyName(companyName);
+            row.setStatDay(toDate(day));
+            return row;
+        }
+    }
+
+    /**
+     * 一个汇总单元的统计：职位数、月薪草图、学历和经验分布，可合并
+     */
+    private static class RollupCell {
+
+        private long jobCount;
+
+        private final SalarySketch salary;
+
+        private final long[] degreeCounts = new long[DEGREE_LEVELS + 1];
+
+        private final long[] workYearCounts = new long[WORK_YEAR_BUCKETS.length + 1];
+
+        RollupCell() {
+            this(new SalarySketch());
+        }
+
+        private RollupCell(SalarySketch salary) {
+            this.salary = salary;
+        }
+
+        void add(JobInfo jobInfo) {
+            jobCount++;
+            if (jobInfo.getSalaryMin() != null && jobInfo.getSalaryMax() != null) {
+                // 薪资范围取中点
+                salary.add((jobInfo.getSalaryMin() + jobInfo.getSalaryMax()) / 2);
+            }
+            Integer degreeLevel = jobInfo.getDegreeLevel();
+            degreeCounts[degreeLevel != null && degreeLevel >= 0 && degreeLevel < DEGREE_LEVELS ? degreeLevel : DEGREE_LEVELS]++;
+            workYearCounts[workYearBucketOf(jobInfo.getWorkYearMin())]++;
+        }
+
+        void merge(RollupCell other) {
+            if (other == null) {
+                return;
+            }
+            jobCount += other.jobCount;
+            salary.merge(other.salary);
+            for (int i = 0; i < degreeCounts.length; i++) {
+                degreeCounts[i] += other.degreeCounts[i];
+            }
+            for (int i = 0; i < workYearCounts.length; i++) {
+                workYearCounts[i] += other.workYearCounts[i];
+            }
+        }
+
+        JobMarketRollup toEntity(RollupKey key) {
+            JobMarketRollup row = key.toEntity();
+            row.setJobCount(jobCount);
+            row.setSalarySketch(salary.toBytes());
+            row.setDegreeCounts(join(degreeCounts));
+            row.setWorkYearCounts(join(workYearCounts));
+            return row;
+        }
+
+        static RollupCell fromEntity(JobMarketRollup row) {
+            RollupCell cell = new RollupCell(SalarySketch.fromBytes(row.getSalarySketch()));
+            cell.jobCount = row.getJobCount() != null ? row.getJobCount() : 0;
+            split(row.getDegreeCounts(), cell.degreeCounts);
+            split(row.getWorkYearCounts(), cell.workYearCounts);
+            return cell;
+        }
+
+        private static int workYearBucketOf(Integer workYearMin) {
+            if (workYearMin == null) {
+                return WORK_YEAR_BUCKETS.length;
+            }
+            int bucket = 0;
+            for (int i = 0; i < WORK_YEAR_BUCKETS.length; i++) {
+                if (workYearMin >= WORK_YEAR_BUCKETS[i]) {
+                    bucket = i;
+                }
+            }
+            return bucket;
+        }
+
+        private static String join(long[] counts) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < counts.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(counts[i]);
+            }
+            return sb.toString();
+        }
+
+        private static void split(String text, long[] counts) {
+            if (StringUtils.isBlank(text)) {
+                return;
+            }
+            String[] parts = text.split(",");
+            for (int i = 0; i < parts.length && i < counts.length; i++) {
+                counts[i] = Long.parseLong(parts[i].trim());
+            }
+        }
+    }
+}
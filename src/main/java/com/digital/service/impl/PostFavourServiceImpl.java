@@ -7,6 +7,7 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.digital.common.ErrorCode;
 import com.digital.exception.BusinessException;
+import com.digital.manager.PostCacheManager;
 import com.digital.mapper.PostFavourMapper;
 import com.digital.model.entity.Post;
 import com.digital.model.entity.PostFavour;
@@ -31,6 +32,9 @@ public class PostFavourServiceImpl extends ServiceImpl<PostFavourMapper, PostFav
     @Resource
     private PostService postService;
 
+    @Resource
+    private PostCacheManager postCacheManager;
+
     /**
      * 帖子收藏
      *
@@ -89,6 +93,7 @@ public class PostFavourServiceImpl extends ServiceImpl<PostFavourMapper, PostFav
                         .gt("favourNum", 0)
                         .setSql("favourNum = favourNum - 1")
                         .update();
+                postCacheManager.invalidate(postId);
                 return result ? -1 : 0;
             } else {
                 throw new BusinessException(ErrorCode.SYSTEM_ERROR);
@@ -102,6 +107,7 @@ public class PostFavourServiceImpl extends ServiceImpl<PostFavourMapper, PostFav
                         .eq("id", postId)
                         .setSql("favourNum = favourNum + 1")
                         .update();
+                postCacheManager.invalidate(postId);
                 return result ? 1 : 0;
             } else {
                 throw new BusinessException(ErrorCode.SYSTEM_ERROR);
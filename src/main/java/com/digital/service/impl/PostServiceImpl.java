@@ -7,6 +7,7 @@ import com.digital.common.ErrorCode;
 import com.digital.constant.CommonConstant;
 import com.digital.exception.BusinessException;
 import com.digital.exception.ThrowUtils;
+import com.digital.manager.PostCacheManager;
 import com.digital.mapper.PostFavourMapper;
 import com.digital.mapper.PostMapper;
 import com.digital.mapper.PostThumbMapper;
@@ -20,6 +21,7 @@ import com.digital.model.vo.UserVO;
 import com.digital.service.PostService;
 import com.digital.service.UserService;
 import com.digital.utils.SqlUtils;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +56,9 @@ public class PostServiceImpl extends ServiceImpl<PostMapper, Post> implements Po
     @Resource
     private PostFavourMapper postFavourMapper;
 
+    @Resource
+    private PostCacheManager postCacheManager;
+
     @Override
     public void validPost(Post post, boolean add) {
         if (post == null) {
@@ -118,16 +123,57 @@ public class PostServiceImpl extends ServiceImpl<PostMapper, Post> implements Po
     @Override
     public PostVO getPostVO(Post post, HttpServletRequest request) {
         PostVO postVO = PostVO.objToVo(post);
-        long postId = post.getId();
-        // 1. 关联查询用户信息
-        Long userId = post.getUserId();
+        fillUser(postVO);
+        fillLoginUserState(postVO, request);
+        return postVO;
+    }
+
+    @Override
+    public PostVO getPostVOById(long id, HttpServletRequest request) {
+        PostVO postVO = postCacheManager.get(id, postId -> PostVO.objToVo(this.getById(postId)));
+        if (postVO != null) {
+            fillUser(postVO);
+            fillLoginUserState(postVO, request);
+        }
+        return postVO;
+    }
+
+    @Override
+    public boolean updateById(Post post) {
+        boolean result = super.updateById(post);
+        if (post != null && post.getId() != null) {
+            postCacheManager.invalidate(post.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (id != null) {
+            postCacheManager.invalidate(Long.parseLong(id.toString()));
+        }
+        return result;
+    }
+
+    /**
+     * 关联作者信息（每次查询，不随帖子缓存，作者修改资料后立即生效）
+     */
+    private void fillUser(PostVO postVO) {
+        Long userId = postVO.getUserId();
         User user = null;
         if (userId != null && userId > 0) {
             user = userService.getById(userId);
         }
         UserVO userVO = userService.getUserVO(user);
         postVO.setUser(userVO);
-        // 2. 已登录，获取用户点赞、收藏状态
+    }
+
+    /**
+     * 已登录时填充当前用户的点赞、收藏状态
+     */
+    private void fillLoginUserState(PostVO postVO, HttpServletRequest request) {
+        long postId = postVO.getId();
         User loginUser = userService.getLoginUserPermitNull(request);
         if (loginUser != null) {
             // 获取点赞
@@ -143,7 +189,6 @@ public class PostServiceImpl extends ServiceImpl<PostMapper, Post> implements Po
             PostFavour postFavour = postFavourMapper.selectOne(postFavourQueryWrapper);
             postVO.setHasFavour(postFavour != null);
         }
-        return postVO;
     }
 
     @Override
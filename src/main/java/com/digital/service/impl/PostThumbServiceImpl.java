@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.digital.common.ErrorCode;
 import com.digital.exception.BusinessException;
+import com.digital.manager.PostCacheManager;
 import com.digital.mapper.PostThumbMapper;
 import com.digital.model.entity.Post;
 import com.digital.model.entity.PostThumb;
@@ -28,6 +29,9 @@ public class PostThumbServiceImpl extends ServiceImpl<PostThumbMapper, PostThumb
     @Resource
     private PostService postService;
 
+    @Resource
+    private PostCacheManager postCacheManager;
+
     /**
      * 点赞
      *
@@ -78,6 +82,7 @@ public class PostThumbServiceImpl extends ServiceImpl<PostThumbMapper, PostThumb
                         .gt("thumbNum", 0)
                         .setSql("thumbNum = thumbNum - 1")
                         .update();
+                postCacheManager.invalidate(postId);
                 return result ? -1 : 0;
             } else {
                 throw new BusinessException(ErrorCode.SYSTEM_ERROR);
@@ -91,6 +96,7 @@ public class PostThumbServiceImpl extends ServiceImpl<PostThumbMapper, PostThumb
                         .eq("id", postId)
                         .setSql("thumbNum = thumbNum + 1")
                         .update();
+                postCacheManager.invalidate(postId);
                 return result ? 1 : 0;
             } else {
                 throw new BusinessException(ErrorCode.SYSTEM_ERROR);
@@ -1,15 +1,15 @@
 package com.digital.service.impl;
 
+import com.digital.manager.HttpClientManager;
 import com.digital.service.SmsService;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 
 /**
- * 短信服务实现（使用OkHttp调用第三方短信服务）
+ * 短信服务实现（通过共享的 HTTP 客户端调用第三方短信服务，POST 请求不重试）
  */
 @Service
 @Slf4j
@@ -20,12 +20,8 @@ public class SmsServiceImpl implements SmsService {
     
     private final OkHttpClient client;
 
-    public SmsServiceImpl() {
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .writeTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .build();
+    public SmsServiceImpl(HttpClientManager httpClientManager) {
+        this.client = httpClientManager.getClient();
     }
 
     @Override
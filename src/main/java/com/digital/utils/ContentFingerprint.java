@@ -0,0 +1,51 @@
+package com.digital.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 内容指纹工具
+ * <p>
+ * 多个字段按顺序拼接后取 SHA-1 前 8 字节（去掉符号位），字段之间用不可见分隔符隔开，
+ * null 与空字符串区分开，避免 ("ab", "c") 与 ("a", "bc") 得到相同指纹。
+ *
+ */
+public class ContentFingerprint {
+
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    private static final char NULL_MARKER = '\u0000';
+
+    /**
+     * 计算内容指纹
+     *
+     * @param fields
+     * @return
+     */
+    public static long of(String... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (String field : fields) {
+            if (field == null) {
+                sb.append(NULL_MARKER);
+            } else {
+                sb.append(field.trim());
+            }
+            sb.append(FIELD_SEPARATOR);
+        }
+        byte[] digest = sha1().digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (digest[i] & 0xff);
+        }
+        return value & Long.MAX_VALUE;
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.digital.utils;
+
+import com.digital.model.entity.JobInfo;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 职位属性规范化：把薪资、经验、学历的原始文本解析成可建索引的数值列
+ * <p>
+ * 薪资统一为每月人民币元：K/千 ×1000，万 ×10000，元/天 按每月 21.75 个工作日、元/时 再按每天 8 小时折算，
+ * "/年" 按 12 个月摊分；"·13薪" 记为每年发放月数，缺省 12。
+ * 经验为最少/最多年限，"10年以上" 没有上限，"应届生"、"在校生" 记为 0 年，"不限" 只有下限 0。
+ * 学历为序数（见 {@link #degreeLevelOf}），数值越大要求越高。
+ * 无法识别的文本（"面议" 等）对应列保留为 null。
+ *
+ */
+public class JobAttributeNormalizer {
+
+    /**
+     * 规范化规则版本，规则修改后加一，回填任务会重新处理旧版本的数据
+     */
+    public static final int VERSION = 1;
+
+    private static final Pattern SALARY = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*(?:[-~至]\\s*(\\d+(?:\\.\\d+)?))?\\s*(k|K|千|万|元)?");
+
+    private static final Pattern SALARY_MONTHS = Pattern.compile("(\\d{2})\\s*薪");
+
+    private static final Pattern YEAR_RANGE = Pattern.compile("(\\d+)\\s*[-~至]\\s*(\\d+)\\s*年");
+
+    private static final Pattern YEAR_ABOVE = Pattern.compile("(\\d+)\\s*年以上");
+
+    private static final Pattern YEAR_BELOW = Pattern.compile("(\\d+)\\s*年(?:以内|以下)");
+
+    private static final String[] DEGREE_NAMES = {"不限", "初中及以下", "中专/中技", "高中", "大专", "本科", "硕士", "博士"};
+
+    private static final double WORK_DAYS_PER_MONTH = 21.75;
+
+    private static final int WORK_HOURS_PER_DAY = 8;
+
+    /**
+     * 解析 jobInfo 的原始文本，写入数值列
+     */
+    public static void normalize(JobInfo jobInfo) {
+        int[] salary = parseSalary(jobInfo.getWorkSalary());
+        jobInfo.setSalaryMin(salary != null ? salary[0] : null);
+        jobInfo.setSalaryMax(salary != null ? salary[1] : null);
+        jobInfo.setSalaryMonths(salary != null ? salary[2] : null);
+        Integer[] years = parseWorkYear(jobInfo.getWorkYear());
+        jobInfo.setWorkYearMin(years[0]);
+        jobInfo.setWorkYearMax(years[1]);
+        jobInfo.setDegreeLevel(degreeLevelOf(jobInfo.getGraduate()));
+        jobInfo.setNormalizeVersion(VERSION);
+    }
+
+    /**
+     * 解析薪资
+     *
+     * @param text 如 "15-25K·13薪"、"8000-10000元/月"、"200-300元/天"
+     * @return [每月最低, 每月最高, 每年发放月数]，无法识别时返回 null
+     */
+    public static int[] parseSalary(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        Matcher matcher = SALARY.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+        double low = Double.parseDouble(matcher.group(1));
+        double high = matcher.group(2) != null ? Double.parseDouble(matcher.group(2)) : low;
+        String unit = matcher.group(3);
+        double multiplier;
+        if (unit == null) {
+            // 没有单位时按数值大小推断：BOSS直聘的月薪通常写成 K
+            multiplier = high < 1000 ? 1000 : 1;
+        } else if ("万".equals(unit)) {
+            multiplier = 10000;
+        } else if ("元".equals(unit)) {
+            multiplier = 1;
+        } else {
+            multiplier = 1000;
+        }
+        if (text.contains("/天")) {
+            multiplier *= WORK_DAYS_PER_MONTH;
+        } else if (text.contains("/时") || text.contains("/小时")) {
+            multiplier *= WORK_DAYS_PER_MONTH * WORK_HOURS_PER_DAY;
+        } else if (text.contains("/年")) {
+            multiplier /= 12;
+        }
+        int months = 12;
+        Matcher monthsMatcher = SALARY_MONTHS.matcher(text);
+        if (monthsMatcher.find()) {
+            months = Integer.parseInt(monthsMatcher.group(1));
+        }
+        return new int[]{(int) Math.round(low * multiplier), (int) Math.round(high * multiplier), months};
+    }
+
+    /**
+     * 解析经验要求
+     *
+     * @param text 如 "3-5年"、"10年以上"、"经验不限"、"在校/应届"
+     * @return [最少年限, 最多年限]，没有上限或无法识别的一端为 null
+     */
+    public static Integer[] parseWorkYear(String text) {
+        if (text == null || text.isBlank()) {
+            return new Integer[]{null, null};
+        }
+        Matcher matcher = YEAR_RANGE.matcher(text);
+        if (matcher.find()) {
+            return new Integer[]{Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))};
+        }
+        matcher = YEAR_ABOVE.matcher(text);
+        if (matcher.find()) {
+            return new Integer[]{Integer.parseInt(matcher.group(1)), null};
+        }
+        matcher = YEAR_BELOW.matcher(text);
+        if (matcher.find()) {
+            return new Integer[]{0, Integer.parseInt(matcher.group(1))};
+        }
+        if (text.contains("应届") || text.contains("在校")) {
+            return new Integer[]{0, 0};
+        }
+        if (text.contains("不限")) {
+            return new Integer[]{0, null};
+        }
+        return new Integer[]{null, null};
+    }
+
+    /**
+     * 学历序数：0 不限，1 初中及以下，2 中专/中技，3 高中，4 大专，5 本科，6 硕士，7 博士
+     *
+     * @return 无法识别时返回 null
+     */
+    public static Integer degreeLevelOf(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        if (text.contains("博士")) {
+            return 7;
+        }
+        if (text.contains("硕士") || text.contains("研究生")) {
+            return 6;
+        }
+        if (text.contains("本科")) {
+            return 5;
+        }
+        if (text.contains("大专")) {
+            return 4;
+        }
+        if (text.contains("高中")) {
+            return 3;
+        }
+        if (text.contains("中专") || text.contains("中技")) {
+            return 2;
+        }
+        if (text.contains("初中")) {
+            return 1;
+        }
+        if (text.contains("不限")) {
+            return 0;
+        }
+        return null;
+    }
+
+    /**
+     * 学历序数对应的名称
+     */
+    public static String degreeNameOf(Integer level) {
+        return level != null && level >= 0 && level < DEGREE_NAMES.length ? DEGREE_NAMES[level] : "未知";
+    }
+}
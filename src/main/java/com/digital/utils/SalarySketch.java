@@ -0,0 +1,218 @@
+package com.digital.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 可合并的薪资分布草图
+ * <p>
+ * 固定分桶直方图：5 万元以内每 500 元一个桶，5 万到 20 万每 2000 元一个桶，更高的归入最后一个桶。
+ * 同一分桶方案下两个草图按桶相加即可合并，合并结果与直接统计全部数据完全一致，
+ * 分位数误差不超过所在桶的宽度（并限制在已记录的最小值和最大值之间）。
+ * 序列化时只写非空桶（变长整数编码），一天一个公司的草图通常只有几十字节。
+ *
+ */
+public class SalarySketch {
+
+    private static final int FINE_LIMIT = 50000;
+
+    private static final int FINE_WIDTH = 500;
+
+    private static final int COARSE_LIMIT = 200000;
+
+    private static final int COARSE_WIDTH = 2000;
+
+    private static final int FINE_BUCKETS = FINE_LIMIT / FINE_WIDTH;
+
+    private static final int BUCKET_COUNT = FINE_BUCKETS + (COARSE_LIMIT - FINE_LIMIT) / COARSE_WIDTH + 1;
+
+    /**
+     * 序列化格式版本
+     */
+    private static final byte FORMAT_VERSION = 1;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+
+    private long count;
+
+    private long sum;
+
+    private int min = Integer.MAX_VALUE;
+
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * 记录一个月薪（元）
+     */
+    public void add(int value) {
+        int v = Math.max(0, value);
+        counts[bucketOf(v)]++;
+        count++;
+        sum += v;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+    }
+
+    /**
+     * 合并另一个草图
+     */
+    public void merge(SalarySketch other) {
+        if (other == null || other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Integer getMin() {
+        return count > 0 ? min : null;
+    }
+
+    public Integer getMax() {
+        return count > 0 ? max : null;
+    }
+
+    public Integer getMean() {
+        return count > 0 ? (int) Math.round((double) sum / count) : null;
+    }
+
+    /**
+     * 分位数，桶内按线性插值
+     *
+     * @param q 0 到 1
+     * @return 没有数据时返回 null
+     */
+    public Integer quantile(double q) {
+        if (count == 0) {
+            return null;
+        }
+        double rank = Math.max(0, Math.min(1, q)) * count;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (seen + counts[i] >= rank) {
+                if (i == BUCKET_COUNT - 1) {
+                    // 溢出桶没有上界，取最大值
+                    return max;
+                }
+                double fraction = (rank - seen) / counts[i];
+                double value = lowerBoundOf(i) + fraction * widthOf(i);
+                return (int) Math.round(Math.max(min, Math.min(max, value)));
+            }
+            seen += counts[i];
+        }
+        return max;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(FORMAT_VERSION);
+        writeVarLong(out, count);
+        writeVarLong(out, sum);
+        writeVarLong(out, count > 0 ? min : 0);
+        writeVarLong(out, count > 0 ? max : 0);
+        int previous = -1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) {
+                // 桶序号写与上一个非空桶的差值
+                writeVarLong(out, i - previous);
+                writeVarLong(out, counts[i]);
+                previous = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static SalarySketch fromBytes(byte[] bytes) {
+        SalarySketch sketch = new SalarySketch();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的薪资草图版本: " + version);
+        }
+        sketch.count = readVarLong(buffer);
+        sketch.sum = readVarLong(buffer);
+        int min = (int) readVarLong(buffer);
+        int max = (int) readVarLong(buffer);
+        if (sketch.count > 0) {
+            sketch.min = min;
+            sketch.max = max;
+        }
+        int bucket = -1;
+        while (buffer.hasRemaining()) {
+            bucket += (int) readVarLong(buffer);
+            sketch.counts[bucket] = readVarLong(buffer);
+        }
+        return sketch;
+    }
+
+    private static int bucketOf(int value) {
+        if (value < FINE_LIMIT) {
+            return value / FINE_WIDTH;
+        }
+        if (value < COARSE_LIMIT) {
+            return FINE_BUCKETS + (value - FINE_LIMIT) / COARSE_WIDTH;
+        }
+        return BUCKET_COUNT - 1;
+    }
+
+    private static int lowerBoundOf(int bucket) {
+        if (bucket < FINE_BUCKETS) {
+            return bucket * FINE_WIDTH;
+        }
+        return FINE_LIMIT + (bucket - FINE_BUCKETS) * COARSE_WIDTH;
+    }
+
+    private static int widthOf(int bucket) {
+        return bucket < FINE_BUCKETS ? FINE_WIDTH : COARSE_WIDTH;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long v = value;
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("薪资草图格式错误");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof SalarySketch other)) {
+            return false;
+        }
+        return count == other.count && sum == other.sum && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+}
@@ -0,0 +1,102 @@
+package com.digital.utils;
+
+/**
+ * 64 位 SimHash 文本指纹
+ * <p>
+ * 文本先去掉空白和标点、统一小写，再切成字符 3-gram 作为特征（中文不需要分词），
+ * 每个特征取 64 位哈希按位投票，相似文本的指纹只在少数位上不同，用汉明距离衡量相似度。
+ * 职位名称和公司名的特征权重更高，描述相同但公司不同的职位不会被判为重复。
+ *
+ */
+public class SimHash {
+
+    private static final int GRAM = 3;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 职位指纹：职位描述 + 职位名称 + 公司名
+     */
+    public static long ofJob(String workName, String workContent, String companyName) {
+        int[] votes = new int[64];
+        addFeatures(votes, workContent, 1, 'c');
+        addFeatures(votes, workName, 4, 'n');
+        addFeatures(votes, companyName, 4, 'o');
+        return fold(votes);
+    }
+
+    /**
+     * 单段文本的指纹
+     */
+    public static long of(String text) {
+        int[] votes = new int[64];
+        addFeatures(votes, text, 1, 'c');
+        return fold(votes);
+    }
+
+    public static int hammingDistance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void addFeatures(int[] votes, String text, int weight, char field) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        if (normalized.length() == 0) {
+            return;
+        }
+        if (normalized.length() < GRAM) {
+            vote(votes, hash(normalized, 0, normalized.length(), field), weight);
+            return;
+        }
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            vote(votes, hash(normalized, i, i + GRAM, field), weight);
+        }
+    }
+
+    private static void vote(int[] votes, long featureHash, int weight) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += ((featureHash >>> bit) & 1L) != 0 ? weight : -weight;
+        }
+    }
+
+    private static long fold(int[] votes) {
+        long result = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) {
+                result |= 1L << bit;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * FNV-1a 后再做一次 murmur3 混淆，保证各位分布均匀
+     */
+    private static long hash(CharSequence text, int start, int end, char field) {
+        long h = FNV_OFFSET ^ field;
+        h *= FNV_PRIME;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            h ^= c & 0xFF;
+            h *= FNV_PRIME;
+            h ^= c >>> 8;
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,65 @@
+package com.digital.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * URL 指纹工具
+ * <p>
+ * 指纹取规范化URL的 SHA-1 前 15 位十六进制（60 位正数），
+ * 与 SQL 表达式 CONV(LEFT(SHA1(url), 15), 16, 10) 结果一致，便于在数据库中回填历史数据。
+ *
+ */
+public class UrlFingerprint {
+
+    /**
+     * 规范化URL：去掉锚点；职位详情页再去掉查询参数（lid、securityId 等跟踪参数不影响职位本身）
+     *
+     * @param url
+     * @return
+     */
+    public static String normalize(String url) {
+        if (url == null) {
+            return "";
+        }
+        String result = url.trim();
+        int hashIndex = result.indexOf('#');
+        if (hashIndex >= 0) {
+            result = result.substring(0, hashIndex);
+        }
+        if (result.contains("/job_detail/")) {
+            int queryIndex = result.indexOf('?');
+            if (queryIndex >= 0) {
+                result = result.substring(0, queryIndex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 计算URL指纹
+     *
+     * @param url
+     * @return
+     */
+    public static long of(String url) {
+        byte[] digest = sha1().digest(normalize(url).getBytes(StandardCharsets.UTF_8));
+        // 与 SQL 的 LEFT(SHA1(x), 15) 对齐：取前 7.5 个字节
+        long value = 0;
+        for (int i = 0; i < 15; i++) {
+            int b = digest[i / 2] & 0xff;
+            int nibble = (i % 2 == 0) ? (b >>> 4) : (b & 0x0f);
+            value = (value << 4) | nibble;
+        }
+        return value;
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.digital.manager;
+
+import com.digital.config.HttpClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 对外 HTTP 请求测试
+ *
+ */
+public class HttpClientManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void backoffIsJitteredAndCapped() {
+        for (int i = 0; i < 100; i++) {
+            long first = HttpClientManager.backoffMillis(0, 200, 3000);
+            Assertions.assertTrue(first >= 100 && first <= 200, "first=" + first);
+            long capped = HttpClientManager.backoffMillis(10, 200, 3000);
+            Assertions.assertTrue(capped >= 1500 && capped <= 3000, "capped=" + capped);
+        }
+    }
+
+    @Test
+    void revalidatesWithEtag() throws Exception {
+        AtomicInteger conditionalRequests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                conditionalRequests.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            respond(exchange, 200, "hello");
+        });
+        server.start();
+        HttpClientManager manager = new HttpClientManager(properties(), new SimpleMeterRegistry());
+        try {
+            Request request = new Request.Builder().url(url(server, "/page")).build();
+            try (Response response = manager.getClient().newCall(request).execute()) {
+                Assertions.assertEquals("hello", response.body().string());
+                Assertions.assertEquals("MISS", HttpClientManager.cacheOutcome(response));
+            }
+            try (Response response = manager.getClient().newCall(request).execute()) {
+                Assertions.assertEquals(200, response.code());
+                Assertions.assertEquals("hello", response.body().string());
+                Assertions.assertEquals("REVALIDATED", HttpClientManager.cacheOutcome(response));
+            }
+            Assertions.assertEquals(1, conditionalRequests.get());
+        } finally {
+            manager.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void retriesGetOnServiceUnavailable() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/flaky", exchange -> {
+            if (requests.incrementAndGet() == 1) {
+                respond(exchange, 503, "busy");
+            } else {
+                respond(exchange, 200, "ok");
+            }
+        });
+        server.start();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HttpClientManager manager = new HttpClientManager(properties(), registry);
+        try {
+            Request request = new Request.Builder().url(url(server, "/flaky")).build();
+            try (Response response = manager.getClient().newCall(request).execute()) {
+                Assertions.assertEquals("ok", response.body().string());
+            }
+            Assertions.assertEquals(2, requests.get());
+            Assertions.assertEquals(1.0, registry.get("outbound.http.retries").counter().count());
+            Assertions.assertEquals(1, registry.get("outbound.http.requests").tag("status", "200").timer().count());
+        } finally {
+            manager.shutdown();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void withoutRetryReturnsServiceUnavailableToCaller() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/busy", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 503, "busy");
+        });
+        server.start();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HttpClientManager manager = new HttpClientManager(properties(), registry);
+        try {
+            Request request = new Request.Builder().url(url(server, "/busy")).build();
+            try (Response response = manager.withoutRetry(Duration.ofSeconds(5)).newCall(request).execute()) {
+                Assertions.assertEquals(503, response.code());
+            }
+            Assertions.assertEquals(1, requests.get());
+            Assertions.assertTrue(registry.find("outbound.http.retries").counters().isEmpty());
+            // 共享客户端仍然重试
+            try (Response response = manager.getClient().newCall(request).execute()) {
+                Assertions.assertEquals(503, response.code());
+            }
+            Assertions.assertEquals(2 + properties().getRetry().getMaxRetries(), requests.get());
+        } finally {
+            manager.shutdown();
+            server.stop(0);
+        }
+    }
+
+    private HttpClientProperties properties() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getCache().setDirectory(tempDir.resolve("http-cache").toString());
+        properties.getRetry().setBaseDelayMillis(1);
+        return properties;
+    }
+
+    private static String url(HttpServer server, String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, int code, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
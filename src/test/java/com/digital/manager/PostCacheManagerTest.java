@@ -0,0 +1,145 @@
+package com.digital.manager;
+
+import com.digital.config.PostCacheProperties;
+import com.digital.model.vo.PostVO;
+import com.digital.model.vo.UserVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 帖子详情缓存测试
+ *
+ */
+public class PostCacheManagerTest {
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PostCacheManager cacheManager = localOnly(registry);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("title", cacheManager.get(1L, id -> post(id, loads)).getTitle());
+        }
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(2.0, registry.get("post.cache.requests").tag("level", "local").tag("result", "hit").counter().count());
+        Assertions.assertEquals(1.0, registry.get("post.cache.requests").tag("level", "local").tag("result", "miss").counter().count());
+
+        cacheManager.invalidate(1L);
+        cacheManager.get(1L, id -> post(id, loads));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void callerChangesDoNotLeakIntoCache() {
+        PostCacheManager cacheManager = localOnly(new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        PostVO first = cacheManager.get(1L, id -> post(id, loads));
+        first.setHasThumb(true);
+        first.getTagList().add("changed");
+
+        PostVO second = cacheManager.get(1L, id -> post(id, loads));
+        Assertions.assertNull(second.getHasThumb());
+        Assertions.assertEquals(List.of("java"), second.getTagList());
+    }
+
+    @Test
+    void authorAndMutableFieldsAreNotShared() {
+        PostCacheManager cacheManager = localOnly(new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        PostVO first = cacheManager.get(1L, id -> {
+            PostVO postVO = post(id, loads);
+            postVO.setUser(new UserVO());
+            return postVO;
+        });
+        // 作者信息由调用方每次查询，不进入缓存
+        Assertions.assertNull(first.getUser());
+        first.getCreateTime().setTime(0);
+
+        PostVO second = cacheManager.get(1L, id -> post(id, loads));
+        Assertions.assertNull(second.getUser());
+        Assertions.assertEquals(1000L, second.getCreateTime().getTime());
+        Assertions.assertNotSame(first.getCreateTime(), second.getCreateTime());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void missingPostIsNotCached() {
+        PostCacheManager cacheManager = localOnly(new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        Assertions.assertNull(cacheManager.get(2L, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        Assertions.assertNull(cacheManager.get(2L, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadStartedBeforeInvalidateIsNotWrittenBack() throws Exception {
+        PostCacheManager cacheManager = localOnly(new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            // 读请求在帖子修改前读到旧数据，修改并清除缓存后才返回
+            Future<PostVO> stale = reader.submit(() -> cacheManager.get(1L, id -> {
+                PostVO postVO = post(id, loads);
+                loading.countDown();
+                try {
+                    updated.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return postVO;
+            }));
+            Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cacheManager.invalidate(1L);
+            updated.countDown();
+            Assertions.assertEquals("title", stale.get(5, TimeUnit.SECONDS).getTitle());
+
+            PostVO fresh = cacheManager.get(1L, id -> {
+                PostVO postVO = post(id, loads);
+                postVO.setTitle("new title");
+                return postVO;
+            });
+            Assertions.assertEquals("new title", fresh.getTitle());
+            Assertions.assertEquals(2, loads.get());
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    private static PostCacheManager localOnly(SimpleMeterRegistry registry) {
+        return new PostCacheManager(new PostCacheProperties(), registry, (StringRedisTemplate) null, new ObjectMapper());
+    }
+
+    private static PostVO post(long id, AtomicInteger loads) {
+        loads.incrementAndGet();
+        PostVO postVO = new PostVO();
+        postVO.setId(id);
+        postVO.setTitle("title");
+        postVO.setTagList(new ArrayList<>(List.of("java")));
+        postVO.setCreateTime(new Date(1000L));
+        return postVO;
+    }
+}
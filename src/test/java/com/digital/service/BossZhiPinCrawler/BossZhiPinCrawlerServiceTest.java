@@ -0,0 +1,245 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import com.digital.mapper.JobInfoMapper;
+import com.digital.service.JobInfoExportService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 爬虫获取/解析/写入流水线测试（页面获取为桩实现，不启动浏览器、不访问网络和数据库）
+ *
+ */
+public class BossZhiPinCrawlerServiceTest {
+
+    private static final String QUERY = "Java";
+
+    private static final String CITY_CODE = "101270100";
+
+    private static final String START_URL = BossZhiPinCrawlerService.searchUrl(QUERY, CITY_CODE, 1);
+
+    @TempDir
+    Path tempDir;
+
+    private final JobInfoWriteBehindTest.InMemoryJobInfoTable table = new JobInfoWriteBehindTest.InMemoryJobInfoTable();
+
+    private final AtomicInteger detailFetches = new AtomicInteger();
+
+    private PersistentSeenStore seenStore;
+
+    private JobInfoWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+        if (seenStore != null) {
+            seenStore.close();
+        }
+    }
+
+    @Test
+    void crawlTerminatesAndParseErrorsDoNotStallThePipeline() throws Exception {
+        CrawlerProperties properties = properties(20);
+        String brokenUrl = "https://www.zhipin.com/job_detail/job3.html";
+        BossZhiPinCrawlerService crawler = crawler(properties, table.asMapper(), brokenUrl);
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> crawler.crawl(START_URL));
+
+        CrawlFrontier frontier = (CrawlFrontier) ReflectionTestUtils.getField(crawler, "frontier");
+        Assertions.assertTrue(frontier.isDrained());
+        Assertions.assertEquals(0, crawler.getFrontierSize());
+        Assertions.assertEquals(0, crawler.getParseQueueSize());
+        Assertions.assertEquals(20, crawler.getPagesCrawled());
+        // 详情页优先于下一页列表页，第一页列表页中的 job3 一定会被抓取
+        Assertions.assertEquals(1, crawler.getErrorCount());
+        Assertions.assertEquals(detailFetches.get() - 1, crawler.getJobsSaved());
+        Assertions.assertEquals(crawler.getJobsSaved(), table.size());
+    }
+
+    @Test
+    void fullWriteQueueBlocksInsteadOfDropping() throws Exception {
+        CrawlerProperties properties = properties(12);
+        properties.getPersist().setQueueCapacity(1);
+        properties.getPersist().setBatchSize(1);
+        properties.getPersist().setBackpressure("BLOCK");
+        properties.getPersist().setOfferTimeoutMillis(30000);
+        BossZhiPinCrawlerService crawler = crawler(properties, slow(table.asMapper(), 30), null);
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(30), () -> crawler.crawl(START_URL));
+
+        Assertions.assertTrue(detailFetches.get() > 1);
+        Assertions.assertEquals(0, writeBehind.getDroppedCount());
+        Assertions.assertEquals(detailFetches.get(), crawler.getJobsSaved());
+        Assertions.assertEquals(detailFetches.get(), table.size());
+    }
+
+    @Test
+    void cancelDuringFetchDoesNotCountAsHostFailure() throws Exception {
+        CrawlerProperties properties = properties(20);
+        CountDownLatch fetching = new CountDownLatch(1);
+        BossZhiPinCrawlerService crawler = crawler(properties, table.asMapper(), null);
+        TieredPageFetcher delegate = fetcher(properties, null);
+        ReflectionTestUtils.setField(crawler, "pageFetcher", new TieredPageFetcher(properties, null) {
+            @Override
+            public FetchResult fetch(String url, String resourcePolicy) throws InterruptedException {
+                if (CrawlRequest.isDetailUrl(url)) {
+                    // 模拟浏览器渲染中被取消
+                    fetching.countDown();
+                    Thread.sleep(60_000);
+                }
+                return delegate.fetch(url, resourcePolicy);
+            }
+        });
+        Thread crawlThread = new Thread(() -> crawler.crawl(START_URL));
+        crawlThread.start();
+        Assertions.assertTrue(fetching.await(10, TimeUnit.SECONDS));
+        crawlThread.interrupt();
+        crawlThread.join(10_000);
+        Assertions.assertFalse(crawlThread.isAlive());
+
+        HostPolitenessBudget hostBudget = (HostPolitenessBudget) ReflectionTestUtils.getField(crawler, "hostBudget");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (hostBudget.snapshot().get("www.zhipin.com").getInFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        HostPolitenessBudget.HostRateSummary summary = hostBudget.snapshot().get("www.zhipin.com");
+        Assertions.assertEquals(0, summary.getInFlight());
+        Assertions.assertEquals(0, summary.getFailures());
+        Assertions.assertEquals(0, crawler.getErrorCount());
+    }
+
+    private CrawlerProperties properties(int maxPages) {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getPlan().setMaxPagesPerSeed(maxPages);
+        properties.setWorkerCount(2);
+        properties.setIdlePollMillis(20);
+        properties.setHostMinIntervalMillis(0);
+        properties.getRateControl().setEnabled(false);
+        properties.getPipeline().setParseThreads(2);
+        properties.getPipeline().setParseQueueCapacity(1);
+        properties.getPersist().setFlushIntervalMillis(10);
+        properties.getRecrawl().setEnabled(false);
+        properties.getSeenStore().setEnabled(false);
+        properties.getSeenStore().setPath(tempDir.resolve("seen.bin").toString());
+        properties.getSeenStore().setExpectedEntries(1000);
+        properties.getExtraction().setRulesPath(tempDir.resolve("extraction-rules.json").toString());
+        return properties;
+    }
+
+    /**
+     * 组装爬虫，页面获取换成桩：列表页每页 10 个职位链接，详情页返回样例页面，brokenUrl 的页面解析时抛出异常
+     */
+    private BossZhiPinCrawlerService crawler(CrawlerProperties properties, JobInfoMapper mapper, String brokenUrl) {
+        seenStore = new PersistentSeenStore(null, properties);
+        writeBehind = new JobInfoWriteBehind(mapper, seenStore, properties);
+        writeBehind.start();
+        BossZhiPinCrawlerService crawler = new BossZhiPinCrawlerService();
+        ReflectionTestUtils.setField(crawler, "crawlerProperties", properties);
+        ReflectionTestUtils.setField(crawler, "crawlerMetrics", CrawlerMetrics.noop());
+        ReflectionTestUtils.setField(crawler, "pageFetcher", fetcher(properties, brokenUrl));
+        ReflectionTestUtils.setField(crawler, "seenStore", seenStore);
+        ReflectionTestUtils.setField(crawler, "jobInfoWriteBehind", writeBehind);
+        ReflectionTestUtils.setField(crawler, "jobInfoExportService", exportService());
+        crawler.setResultFile(tempDir.resolve("result.csv").toString());
+        crawler.initialize(START_URL, List.of(new CrawlSeed(QUERY, CITY_CODE, properties.getPlan().getMaxPagesPerSeed())));
+        return crawler;
+    }
+
+    private TieredPageFetcher fetcher(CrawlerProperties properties, String brokenUrl) {
+        String detailHtml = sampleHtml();
+        return new TieredPageFetcher(properties, null) {
+            @Override
+            public FetchResult fetch(String url, String resourcePolicy) {
+                FetchResult result;
+                if (url.equals(brokenUrl)) {
+                    result = new FetchResult() {
+                        @Override
+                        public Document getDocument() {
+                            throw new IllegalStateException("页面结构异常");
+                        }
+                    };
+                } else {
+                    result = new FetchResult();
+                }
+                result.setUrl(url);
+                result.setTier(FetchTier.HTTP);
+                if (CrawlRequest.isDetailUrl(url)) {
+                    detailFetches.incrementAndGet();
+                    result.setHtml(detailHtml);
+                } else {
+                    result.setHtml(listHtml(url));
+                }
+                return result;
+            }
+        };
+    }
+
+    private static String listHtml(String url) {
+        int page = url.contains("&page=") ? Integer.parseInt(url.substring(url.indexOf("&page=") + 6)) : 1;
+        StringBuilder html = new StringBuilder("<div class='job-list-box'>");
+        for (int i = (page - 1) * 10; i < page * 10; i++) {
+            html.append("<a class='job-card-left' href='/job_detail/job").append(i).append(".html'>职位").append(i).append("</a>");
+        }
+        return html.append("</div>").toString();
+    }
+
+    /**
+     * 每次批量写入前等待 delayMillis，模拟慢数据库
+     */
+    private static JobInfoMapper slow(JobInfoMapper mapper, long delayMillis) {
+        return (JobInfoMapper) Proxy.newProxyInstance(JobInfoMapper.class.getClassLoader(),
+                new Class<?>[]{JobInfoMapper.class}, (proxy, method, args) -> {
+                    if ("batchUpsert".equals(method.getName())) {
+                        Thread.sleep(delayMillis);
+                    }
+                    return method.invoke(mapper, args);
+                });
+    }
+
+    private static JobInfoExportService exportService() {
+        return new JobInfoExportService() {
+            @Override
+            public long exportCsv(WritableByteChannel channel, boolean gzip, Date minCreateTime) {
+                return 0;
+            }
+
+            @Override
+            public long exportCsvToFile(Path file, boolean gzip, Date minCreateTime) {
+                return 0;
+            }
+
+            @Override
+            public long exportCsvToFileByUrlHashes(Path file, boolean gzip, Collection<Long> urlHashes) {
+                return 0;
+            }
+        };
+    }
+
+    private static String sampleHtml() {
+        try (InputStream in = BossZhiPinCrawlerServiceTest.class.getClassLoader()
+                .getResourceAsStream("crawler/job_detail_sample.html")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
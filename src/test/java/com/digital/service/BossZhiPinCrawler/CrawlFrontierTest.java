@@ -0,0 +1,45 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 待爬队列测试
+ *
+ */
+public class CrawlFrontierTest {
+
+    @Test
+    void roundRobinAcrossSeeds() throws InterruptedException {
+        CrawlFrontier frontier = new CrawlFrontier();
+        // 种子 0 有大量待爬页面，种子 1 只有一个
+        for (int i = 0; i < 100; i++) {
+            frontier.offer(new CrawlRequest("https://www.zhipin.com/job_detail/big" + i + ".html", CrawlRequest.PRIORITY_DETAIL, 0));
+        }
+        frontier.offer(new CrawlRequest("https://www.zhipin.com/job_detail/small.html", CrawlRequest.PRIORITY_DETAIL, 1));
+        Assertions.assertEquals(0, frontier.poll(10).getSeed());
+        Assertions.assertEquals(1, frontier.poll(10).getSeed());
+        Assertions.assertEquals(0, frontier.poll(10).getSeed());
+        Assertions.assertEquals(98, frontier.size());
+    }
+
+    @Test
+    void sameJobFromDifferentSeedsEnqueuedOnce() {
+        CrawlFrontier frontier = new CrawlFrontier();
+        Assertions.assertTrue(frontier.offer(new CrawlRequest(
+                "https://www.zhipin.com/job_detail/abc.html?lid=1&securityId=a", CrawlRequest.PRIORITY_DETAIL, 0)));
+        Assertions.assertFalse(frontier.offer(new CrawlRequest(
+                "https://www.zhipin.com/job_detail/abc.html?lid=2&securityId=b", CrawlRequest.PRIORITY_DETAIL, 1)));
+        Assertions.assertEquals(1, frontier.size());
+    }
+
+    @Test
+    void detailBeforeListWithinSeed() throws InterruptedException {
+        CrawlFrontier frontier = new CrawlFrontier();
+        frontier.offer(new CrawlRequest("https://www.zhipin.com/web/geek/job?query=Java&city=1&page=2", CrawlRequest.PRIORITY_LIST, 0));
+        frontier.offer(new CrawlRequest("https://www.zhipin.com/job_detail/x.html", CrawlRequest.PRIORITY_DETAIL, 0));
+        Assertions.assertTrue(frontier.poll(10).isDetail());
+        Assertions.assertFalse(frontier.poll(10).isDetail());
+        Assertions.assertNull(frontier.poll(0));
+    }
+}
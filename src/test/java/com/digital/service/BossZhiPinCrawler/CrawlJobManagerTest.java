@@ -0,0 +1,161 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import com.digital.exception.BusinessException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * 爬取任务调度测试（爬虫为桩实现：开始后等待放行或中断）
+ *
+ */
+public class CrawlJobManagerTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    private final AtomicInteger crawls = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private CrawlJobManager manager;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    void submitBeyondQueueCapacityIsRejected() throws Exception {
+        manager = new CrawlJobManager(crawlerProvider(), properties(1, 1, 100));
+
+        CrawlJob running = manager.submit("Java", "101270100", 10);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CrawlJob queued = manager.submit("Java", "101280100", 10);
+        Assertions.assertThrows(BusinessException.class, () -> manager.submit("Java", "101010100", 10));
+
+        Assertions.assertEquals(CrawlJobStatus.RUNNING, running.getStatus());
+        Assertions.assertEquals(CrawlJobStatus.QUEUED, queued.getStatus());
+        Assertions.assertEquals(2, manager.list().size());
+        Assertions.assertEquals(1, manager.getQueuedCount());
+    }
+
+    @Test
+    void cancelInterruptsRunningJob() throws Exception {
+        manager = new CrawlJobManager(crawlerProvider(), properties(1, 5, 100));
+
+        CrawlJob running = manager.submit("Java", "101270100", 10);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CrawlJob queued = manager.submit("Java", "101280100", 10);
+
+        Assertions.assertTrue(manager.cancel(queued.getId()));
+        Assertions.assertEquals(CrawlJobStatus.CANCELLED, queued.getStatus());
+
+        Assertions.assertTrue(manager.cancel(running.getId()));
+        Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        awaitFinished(running);
+        Assertions.assertEquals(CrawlJobStatus.CANCELLED, running.getStatus());
+        Assertions.assertNotNull(running.getEndTime());
+        Assertions.assertFalse(manager.cancel(running.getId()));
+        // 排队中被取消的任务不会再运行
+        Assertions.assertEquals(1, crawls.get());
+    }
+
+    @Test
+    void finishedJobsBeyondHistorySizeAreEvicted() throws Exception {
+        release.countDown();
+        manager = new CrawlJobManager(crawlerProvider(), properties(1, 5, 2));
+
+        List<CrawlJob> submitted = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            CrawlJob job = manager.submit("Java", "10127010" + i, 10);
+            awaitFinished(job);
+            Assertions.assertEquals(CrawlJobStatus.SUCCEEDED, job.getStatus());
+            submitted.add(job);
+        }
+        // 状态先于历史淘汰更新，等最后一个任务的淘汰完成
+        long deadline = System.currentTimeMillis() + 5000;
+        while (manager.list().size() > 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertNull(manager.get(submitted.get(0).getId()));
+        Assertions.assertNull(manager.get(submitted.get(1).getId()));
+        Assertions.assertNotNull(manager.get(submitted.get(2).getId()));
+        Assertions.assertNotNull(manager.get(submitted.get(3).getId()));
+        Assertions.assertEquals(2, manager.list().size());
+    }
+
+    private static CrawlerProperties properties(int maxConcurrent, int queueCapacity, int historySize) {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getJobs().setMaxConcurrent(maxConcurrent);
+        properties.getJobs().setQueueCapacity(queueCapacity);
+        properties.getJobs().setHistorySize(historySize);
+        return properties;
+    }
+
+    private static void awaitFinished(CrawlJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(job.getStatus().isFinished(), "任务未在超时前结束: " + job.getStatus());
+    }
+
+    private ObjectProvider<BossZhiPinCrawlerService> crawlerProvider() {
+        return new ObjectProvider<>() {
+            @Override
+            public BossZhiPinCrawlerService getObject() {
+                return new StubCrawler();
+            }
+
+            @Override
+            public BossZhiPinCrawlerService getObject(Object... args) {
+                return getObject();
+            }
+
+            @Override
+            public BossZhiPinCrawlerService getIfAvailable() {
+                return getObject();
+            }
+
+            @Override
+            public BossZhiPinCrawlerService getIfUnique() {
+                return getObject();
+            }
+        };
+    }
+
+    /**
+     * 不访问网络的爬虫：开始后等待放行，被中断时与真实爬虫一样恢复中断标志后正常返回
+     */
+    private class StubCrawler extends BossZhiPinCrawlerService {
+
+        @Override
+        public void initialize(String startUrl, List<CrawlSeed> seeds) {
+        }
+
+        @Override
+        public void crawl(String startUrl) {
+            crawls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                interrupted.countDown();
+            }
+        }
+    }
+}
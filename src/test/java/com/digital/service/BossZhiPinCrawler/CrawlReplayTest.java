@@ -0,0 +1,128 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 页面归档与离线回放测试
+ *
+ */
+public class CrawlReplayTest {
+
+    private static final String DETAIL_URL = "https://www.zhipin.com/job_detail/abc123.html";
+
+    private static final String LIST_URL = "https://www.zhipin.com/web/geek/job?query=Java&city=101270100";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void appendedSessionsAreReadBackInOrder() throws IOException {
+        Path archive = tempDir.resolve("pages.gz");
+        try (PageArchive.Writer writer = PageArchive.openForAppend(archive)) {
+            writer.append(page(DETAIL_URL, "<h1>一</h1>", Map.of("etag", List.of("\"v1\""))));
+        }
+        try (PageArchive.Writer writer = PageArchive.openForAppend(archive)) {
+            writer.append(page(LIST_URL, "<p>二</p>", Map.of()));
+        }
+        try (PageArchive.Reader reader = PageArchive.openForRead(archive)) {
+            PageArchive.ArchivedPage first = reader.next();
+            Assertions.assertEquals(DETAIL_URL, first.getUrl());
+            Assertions.assertEquals("<h1>一</h1>", first.getBody());
+            Assertions.assertEquals(List.of("\"v1\""), first.getHeaders().get("etag"));
+            Assertions.assertEquals(FetchTier.HTTP, first.getTier());
+            Assertions.assertEquals(LIST_URL, reader.next().getUrl());
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void truncatedTailIsIgnored() throws IOException {
+        Path archive = tempDir.resolve("pages.gz");
+        try (PageArchive.Writer writer = PageArchive.openForAppend(archive)) {
+            writer.append(page(DETAIL_URL, "<h1>一</h1>", Map.of()));
+            writer.append(page(LIST_URL, "x".repeat(10000), Map.of()));
+        }
+        byte[] bytes = Files.readAllBytes(archive);
+        Files.write(archive, Arrays.copyOf(bytes, bytes.length - 20));
+        try (PageArchive.Reader reader = PageArchive.openForRead(archive)) {
+            Assertions.assertEquals(DETAIL_URL, reader.next().getUrl());
+            Assertions.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void sessionAppendedAfterCrashIsStillReadable() throws Exception {
+        Path archive = tempDir.resolve("pages.gz");
+        try (PageArchive.Writer writer = PageArchive.openForAppend(archive)) {
+            writer.append(page(DETAIL_URL, "<h1>一</h1>", Map.of()));
+            writer.append(page(LIST_URL, "x".repeat(10000), Map.of()));
+        }
+        // 模拟进程在写入中途退出：压缩流没有结束，最后一条记录不完整
+        byte[] bytes = Files.readAllBytes(archive);
+        Files.write(archive, Arrays.copyOf(bytes, bytes.length - 20));
+        try (PageArchive.Writer writer = PageArchive.openForAppend(archive)) {
+            writer.append(page(DETAIL_URL.replace("abc123", "def456"), sampleHtml(), Map.of()));
+            writer.append(page(LIST_URL + "&page=2", "<p>三</p>", Map.of()));
+        }
+        Assertions.assertTrue(Files.exists(PageArchive.segmentOf(archive, 1)));
+
+        try (PageArchive.Reader reader = PageArchive.openForRead(archive)) {
+            Assertions.assertEquals(DETAIL_URL, reader.next().getUrl());
+            Assertions.assertEquals(DETAIL_URL.replace("abc123", "def456"), reader.next().getUrl());
+            Assertions.assertEquals(LIST_URL + "&page=2", reader.next().getUrl());
+            Assertions.assertNull(reader.next());
+        }
+        CrawlReplay.ReplayReport report = new CrawlReplay(new CrawlerProperties(), 1).replay(archive);
+        Assertions.assertEquals(3, report.getPages());
+        Assertions.assertEquals(0, report.getFailures());
+    }
+
+    @Test
+    void replayParsesAndPersistsRecordedPages() throws Exception {
+        Path archive = tempDir.resolve("pages.gz");
+        String listHtml = "<div class='job-list-box'><a class='job-card-left' href='/job_detail/abc123.html'>Java</a></div>";
+        try (PageArchive.Writer writer = PageArchive.openForAppend(archive)) {
+            for (int i = 0; i < 20; i++) {
+                writer.append(page(DETAIL_URL.replace("abc123", "abc" + i), sampleHtml(), Map.of()));
+                writer.append(page(LIST_URL + "&page=" + i, listHtml, Map.of()));
+            }
+        }
+        CrawlerProperties crawlerProperties = new CrawlerProperties();
+        crawlerProperties.getPersist().setFlushIntervalMillis(50);
+        CrawlReplay.ReplayReport report = new CrawlReplay(crawlerProperties, 2).replay(archive);
+        System.out.println("[回放] " + report);
+        Assertions.assertEquals(40, report.getPages());
+        Assertions.assertEquals(20, report.getJobs());
+        Assertions.assertEquals(20, report.getRowsWritten());
+        Assertions.assertEquals(0, report.getFailures());
+        Assertions.assertTrue(report.getPagesPerSecond() > 0);
+    }
+
+    private static PageArchive.ArchivedPage page(String url, String body, Map<String, List<String>> headers) {
+        PageArchive.ArchivedPage page = new PageArchive.ArchivedPage();
+        page.setUrl(url);
+        page.setFetchedAt(System.currentTimeMillis());
+        page.setTier(FetchTier.HTTP);
+        page.setHeaders(headers);
+        page.setBody(body);
+        return page;
+    }
+
+    private static String sampleHtml() throws IOException {
+        try (InputStream in = CrawlReplayTest.class.getClassLoader()
+                .getResourceAsStream("crawler/job_detail_sample.html")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
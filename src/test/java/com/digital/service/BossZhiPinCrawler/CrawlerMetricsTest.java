@@ -0,0 +1,61 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 爬虫指标测试
+ *
+ */
+public class CrawlerMetricsTest {
+
+    @Test
+    void fetchesAreSplitByTier() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CrawlerMetrics metrics = new CrawlerMetrics(registry);
+        metrics.recordFetch(fetchResult(FetchTier.HTTP, 120, "<html>http</html>"));
+        metrics.recordFetch(fetchResult(FetchTier.BROWSER, 3000, "<html>browser</html>"));
+        metrics.recordFetch(fetchResult(FetchTier.BROWSER, 5000, "<html>browser</html>"));
+
+        Assertions.assertEquals(1, registry.get("crawler.pages").tag("tier", "http").counter().count());
+        Assertions.assertEquals(2, registry.get("crawler.pages").tag("tier", "browser").counter().count());
+        Assertions.assertEquals(8000, registry.get("crawler.fetch").tag("tier", "browser").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(3, registry.get("crawler.page.source.size").summary().count());
+    }
+
+    @Test
+    void failuresAreCountedByCause() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CrawlerMetrics metrics = new CrawlerMetrics(registry);
+        metrics.failure("empty_page");
+        metrics.failure("empty_page");
+        metrics.failure("persist_failed", 50);
+        metrics.duplicateSkipped("seen");
+
+        Assertions.assertEquals(2, registry.get("crawler.failures").tag("cause", "empty_page").counter().count());
+        Assertions.assertEquals(50, registry.get("crawler.failures").tag("cause", "persist_failed").counter().count());
+        Assertions.assertEquals(1, registry.get("crawler.jobs.duplicate").tag("reason", "seen").counter().count());
+    }
+
+    @Test
+    void busyWorkersGaugeFollowsWorkers() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CrawlerMetrics metrics = new CrawlerMetrics(registry);
+        metrics.workerBusy();
+        metrics.workerBusy();
+        metrics.workerIdle();
+        Assertions.assertEquals(1, registry.get("crawler.workers.busy").gauge().value());
+        Assertions.assertEquals(0, registry.get("crawler.frontier.size").gauge().value());
+    }
+
+    private static FetchResult fetchResult(FetchTier tier, long elapsedMillis, String html) {
+        FetchResult fetchResult = new FetchResult();
+        fetchResult.setTier(tier);
+        fetchResult.setElapsedMillis(elapsedMillis);
+        fetchResult.setHtml(html);
+        return fetchResult;
+    }
+}
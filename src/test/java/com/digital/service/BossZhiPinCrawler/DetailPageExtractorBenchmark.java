@@ -0,0 +1,49 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.model.entity.JobInfo;
+import java.io.IOException;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 详情页单页抽取耗时对比：原先逐字段 selectFirst 的写法与预编译规则（不随单元测试运行，见 pom.xml 中的 test.excludedGroups）
+ *
+ */
+@Tag("benchmark")
+public class DetailPageExtractorBenchmark {
+
+    @Test
+    void perPageExtractionCost() throws IOException {
+        Document doc = Jsoup.parse(DetailPageExtractorTest.paddedHtml());
+        CompiledExtractionRules rules = CompiledExtractionRules.compile(DetailPageExtractor.loadDefaultRuleSet());
+        int warmup = 300;
+        int iterations = 1000;
+        for (int i = 0; i < warmup; i++) {
+            DetailPageExtractorTest.legacyExtract(doc);
+            rules.extract(doc, new JobInfo());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            DetailPageExtractorTest.legacyExtract(doc);
+        }
+        long legacyNanos = (System.nanoTime() - start) / iterations;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            rules.extract(doc, new JobInfo());
+        }
+        long compiledNanos = (System.nanoTime() - start) / iterations;
+        String html = DetailPageExtractorTest.paddedHtml();
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Jsoup.parse(html, "https://www.zhipin.com/job_detail/abc.html");
+        }
+        long parseNanos = (System.nanoTime() - start) / iterations;
+        System.out.printf("详情页抽取耗时（%d 个元素）: 原写法 %.1f µs/页, 预编译规则 %.1f µs/页; 解析一次 %.1f µs%n",
+                doc.getAllElements().size(), legacyNanos / 1000.0, compiledNanos / 1000.0, parseNanos / 1000.0);
+        // 原流程每个详情页解析两次（提取链接、提取字段各一次），现在只解析一次
+        System.out.printf("详情页总耗时: 原流程 %.1f µs/页, 现流程 %.1f µs/页%n",
+                (2 * parseNanos + legacyNanos) / 1000.0, (parseNanos + compiledNanos) / 1000.0);
+    }
+}
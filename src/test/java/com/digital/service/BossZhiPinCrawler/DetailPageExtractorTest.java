@@ -0,0 +1,144 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.model.entity.JobInfo;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.digital.config.CrawlerProperties;
+
+/**
+ * 详情页抽取规则测试（耗时对比见 DetailPageExtractorBenchmark）
+ *
+ */
+public class DetailPageExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void extractsAllFieldsWithDefaultRules() throws IOException {
+        CompiledExtractionRules rules = CompiledExtractionRules.compile(DetailPageExtractor.loadDefaultRuleSet());
+        JobInfo jobInfo = new JobInfo();
+        Assertions.assertTrue(rules.extract(Jsoup.parse(sampleHtml()), jobInfo));
+        Assertions.assertEquals("Java开发工程师", jobInfo.getWorkName());
+        Assertions.assertEquals("15-25K·13薪", jobInfo.getWorkSalary());
+        Assertions.assertEquals("3-5年", jobInfo.getWorkYear());
+        Assertions.assertEquals("本科", jobInfo.getGraduate());
+        Assertions.assertEquals("成都高新区天府软件园E区", jobInfo.getWorkAddress());
+        Assertions.assertEquals("成都某某科技有限公司", jobInfo.getCompanyName());
+        Assertions.assertEquals("刚刚活跃", jobInfo.getHrTime());
+        Assertions.assertTrue(jobInfo.getWorkContent().startsWith("岗位职责"));
+    }
+
+    @Test
+    void candidatesAreTriedInPriorityOrder() {
+        ExtractionRuleSet ruleSet = DetailPageExtractor.parse("{\"version\":2,\"rules\":[{\"field\":\"workYear\",\"required\":true,"
+                + "\"candidates\":[{\"selector\":\".text-experience\"},"
+                + "{\"selector\":\".job-require span\",\"match\":\"经验\",\"extract\":\"经验(\\\\S+)\"}]}]}");
+        CompiledExtractionRules rules = CompiledExtractionRules.compile(ruleSet);
+        // 回退候选在文档中更靠前，但优先级更低
+        JobInfo fallback = new JobInfo();
+        Assertions.assertTrue(rules.extract(Jsoup.parse(
+                "<div class='job-require'><span>成都</span><span>经验1-3年</span></div>"), fallback));
+        Assertions.assertEquals("1-3年", fallback.getWorkYear());
+        JobInfo preferred = new JobInfo();
+        rules.extract(Jsoup.parse("<div class='job-require'><span>经验1-3年</span></div><p class='text-experience'>3-5年</p>"), preferred);
+        Assertions.assertEquals("3-5年", preferred.getWorkYear());
+        JobInfo missing = new JobInfo();
+        Assertions.assertFalse(rules.extract(Jsoup.parse("<p>无</p>"), missing));
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompiledExtractionRules.compile(DetailPageExtractor.parse(
+                "{\"rules\":[{\"field\":\"noSuchField\",\"candidates\":[{\"selector\":\"h1\"}]}]}")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompiledExtractionRules.compile(DetailPageExtractor.parse(
+                "{\"rules\":[{\"field\":\"workName\",\"candidates\":[{\"selector\":\"h1[\"}]}]}")));
+    }
+
+    @Test
+    void hotReloadKeepsOldRulesOnError() throws IOException {
+        Path rulesFile = tempDir.resolve("extraction-rules.json");
+        CrawlerProperties crawlerProperties = new CrawlerProperties();
+        crawlerProperties.getExtraction().setRulesPath(rulesFile.toString());
+        DetailPageExtractor extractor = new DetailPageExtractor(crawlerProperties);
+        Assertions.assertEquals(1, extractor.getRules().getVersion());
+
+        Files.writeString(rulesFile, "{\"version\":7,\"rules\":[{\"field\":\"workName\",\"required\":true,"
+                + "\"candidates\":[{\"selector\":\"h1.title\"}]}]}");
+        extractor.reloadIfChanged();
+        Assertions.assertEquals(7, extractor.getRules().getVersion());
+        JobInfo jobInfo = new JobInfo();
+        Assertions.assertTrue(extractor.extract(Jsoup.parse("<h1 class='title'>测试</h1>"), jobInfo));
+
+        Files.writeString(rulesFile, "{\"version\":8,\"rules\":[{\"field\":\"workName\",\"candidates\":[{\"selector\":\"h1[\"}]}]}");
+        Files.setLastModifiedTime(rulesFile, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        extractor.reloadIfChanged();
+        Assertions.assertEquals(7, extractor.getRules().getVersion());
+
+        Files.delete(rulesFile);
+        extractor.reloadIfChanged();
+        Assertions.assertEquals(1, extractor.getRules().getVersion());
+    }
+
+    @Test
+    void compiledRulesMatchLegacyExtraction() throws IOException {
+        Document doc = Jsoup.parse(paddedHtml());
+        CompiledExtractionRules rules = CompiledExtractionRules.compile(DetailPageExtractor.loadDefaultRuleSet());
+        JobInfo legacy = legacyExtract(doc);
+        JobInfo compiled = new JobInfo();
+        rules.extract(doc, compiled);
+        Assertions.assertEquals(legacy.getWorkName(), compiled.getWorkName());
+        Assertions.assertEquals(legacy.getWorkSalary(), compiled.getWorkSalary());
+        Assertions.assertEquals(legacy.getCompanyName(), compiled.getCompanyName());
+    }
+
+    /**
+     * 原先 processDetailPage 中的写法：每个字段一个多选择器字符串，每次调用都重新解析选择器
+     */
+    static JobInfo legacyExtract(Document doc) {
+        JobInfo jobInfo = new JobInfo();
+        jobInfo.setWorkName(textOf(doc.selectFirst("div.name h1, .job-name h1, h1.job-name, .job-detail-header h1")));
+        jobInfo.setWorkSalary(textOf(doc.selectFirst("div.name span.salary, .job-primary span.salary, span.salary-text, .salary")));
+        jobInfo.setWorkAddress(textOf(doc.selectFirst("div.location-address, .location-address, .job-location, [class*=location]")));
+        jobInfo.setWorkContent(textOf(doc.selectFirst("div.job-sec-text, .job-sec-text, .job-detail-content, .job-detail-text")));
+        jobInfo.setWorkYear(textOf(doc.selectFirst("p.text-experience, .text-experience, [class*=experience], .job-require span")));
+        jobInfo.setGraduate(textOf(doc.selectFirst("p.text-degree, .text-degree, [class*=degree], .job-require span")));
+        jobInfo.setHrTime(textOf(doc.selectFirst("h2.name span, .hr-info span, .hr-active-time, [class*=active]")));
+        jobInfo.setCompanyName(textOf(doc.selectFirst("a.company-name, .company-name, .company-info a, [class*=company] a")));
+        return jobInfo;
+    }
+
+    private static String textOf(Element element) {
+        return element == null ? null : element.text().trim();
+    }
+
+    /**
+     * 在样例页面后追加推荐职位等无关内容，接近真实页面的元素数量
+     */
+    static String paddedHtml() throws IOException {
+        StringBuilder filler = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            filler.append("<li class='similar-job'><a href='/job_detail/").append(i)
+                    .append(".html'><span class='job-title'>推荐职位").append(i)
+                    .append("</span><span class='tag'>五险一金</span></a></li>");
+        }
+        return sampleHtml().replace("<div id=\"footer\">", "<ul class='similar-list'>" + filler + "</ul><div id=\"footer\">");
+    }
+
+    private static String sampleHtml() throws IOException {
+        try (InputStream in = DetailPageExtractorTest.class.getClassLoader()
+                .getResourceAsStream("crawler/job_detail_sample.html")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
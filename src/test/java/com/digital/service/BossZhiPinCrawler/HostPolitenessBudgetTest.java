@@ -0,0 +1,69 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 按域名自适应限速测试
+ *
+ */
+public class HostPolitenessBudgetTest {
+
+    private static final String HOST = "www.zhipin.com";
+
+    @Test
+    void healthyResponsesIncreaseRateAndConcurrency() throws InterruptedException {
+        HostPolitenessBudget budget = new HostPolitenessBudget(properties(true));
+        for (int i = 0; i < 20; i++) {
+            budget.release(HOST, budget.acquire(HOST), true);
+        }
+        HostPolitenessBudget.HostRateSummary summary = budget.snapshot().get(HOST);
+        // 初始 50 次/秒，每次成功 + 5
+        Assertions.assertEquals(150, summary.getRatePerSecond(), 0.001);
+        Assertions.assertEquals(3, summary.getConcurrencyLimit());
+        Assertions.assertEquals(0, summary.getDecreases());
+    }
+
+    @Test
+    void failureBacksOffOncePerInFlightWindow() throws InterruptedException {
+        HostPolitenessBudget budget = new HostPolitenessBudget(properties(true));
+        for (int i = 0; i < 10; i++) {
+            budget.release(HOST, budget.acquire(HOST), true);
+        }
+        double rate = budget.snapshot().get(HOST).getRatePerSecond();
+        long first = budget.acquire(HOST);
+        long second = budget.acquire(HOST);
+        budget.release(HOST, first, false);
+        // 第二个请求在退让之前就已发出，它的失败不再重复退让
+        budget.release(HOST, second, false);
+        HostPolitenessBudget.HostRateSummary summary = budget.snapshot().get(HOST);
+        Assertions.assertEquals(rate / 2, summary.getRatePerSecond(), 0.001);
+        Assertions.assertEquals(1, summary.getDecreases());
+        Assertions.assertEquals(2, summary.getFailures());
+        Assertions.assertEquals(0, summary.getInFlight());
+    }
+
+    @Test
+    void disabledRateControlKeepsFixedLimits() throws InterruptedException {
+        HostPolitenessBudget budget = new HostPolitenessBudget(properties(false));
+        for (int i = 0; i < 5; i++) {
+            budget.release(HOST, budget.acquire(HOST), i % 2 == 0);
+        }
+        HostPolitenessBudget.HostRateSummary summary = budget.snapshot().get(HOST);
+        Assertions.assertEquals(50, summary.getRatePerSecond(), 0.001);
+        Assertions.assertEquals(3, summary.getConcurrencyLimit());
+    }
+
+    private static CrawlerProperties properties(boolean adaptive) {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.setHostMinIntervalMillis(20);
+        properties.setHostMaxConcurrency(3);
+        properties.getRateControl().setEnabled(adaptive);
+        properties.getRateControl().setMinIntervalMillis(1);
+        properties.getRateControl().setIncreaseRatePerSecond(5);
+        // 本地调用耗时只有零点几毫秒，抖动不应被当成变慢
+        properties.getRateControl().setLatencyTolerance(1000);
+        return properties;
+    }
+}
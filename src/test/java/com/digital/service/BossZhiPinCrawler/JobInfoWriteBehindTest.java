@@ -0,0 +1,262 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.model.vo.SalaryStatsVO;
+import com.digital.service.JobMarketRollupService;
+import com.digital.utils.UrlFingerprint;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 职位异步批量写入测试
+ *
+ */
+public class JobInfoWriteBehindTest {
+
+    private final InMemoryJobInfoTable table = new InMemoryJobInfoTable();
+
+    private final List<JobInfo> rolledUp = new ArrayList<>();
+
+    private JobInfoWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    void recrawlIsNotCountedAsNewWhenSeenStoreIsDisabled() throws Exception {
+        writeBehind = start(properties(), null);
+
+        writeAndWait(job("https://www.zhipin.com/job_detail/a.html", "Java开发工程师"));
+        writeAndWait(job("https://www.zhipin.com/job_detail/a.html", "Java开发工程师"));
+
+        Assertions.assertEquals(1, table.size());
+        Assertions.assertEquals(1, rolledUp.size());
+    }
+
+    @Test
+    void sameUrlTwiceInOneBatchIsCountedOnce() throws Exception {
+        writeBehind = create(properties(), null);
+        // 先入队再启动写入线程，两条一定在同一批次
+        writeBehind.submit(job("https://www.zhipin.com/job_detail/b.html", "Java开发工程师"));
+        writeBehind.submit(job("https://www.zhipin.com/job_detail/b.html", "Java开发工程师（急招）"));
+        writeBehind.start();
+        Assertions.assertTrue(writeBehind.awaitFlushed(5000));
+
+        Assertions.assertEquals(1, table.size());
+        Assertions.assertEquals(1, rolledUp.size());
+        Assertions.assertEquals(2, writeBehind.getWrittenCount());
+    }
+
+    @Test
+    void recrawledCanonicalJobKeepsItsOwnCanonicalId() throws Exception {
+        CrawlerProperties properties = properties();
+        NearDuplicateIndex nearDuplicateIndex = new NearDuplicateIndex(null, properties);
+        writeBehind = start(properties, nearDuplicateIndex);
+        String urlA = "https://www.zhipin.com/job_detail/a.html";
+        String urlB = "https://www.zhipin.com/job_detail/b.html";
+
+        writeAndWait(job(urlA, "Java开发工程师"));
+        long idA = table.get(urlA).getId();
+        writeAndWait(job(urlB, "Java开发工程师"));
+        Assertions.assertEquals(idA, table.get(urlB).getCanonicalId());
+
+        // 原始职位内容变化后重新抓取：与 B 仍近似重复，但不能指向自己
+        JobInfo recrawl = job(urlA, "Java开发工程师");
+        recrawl.setWorkContent(recrawl.getWorkContent() + "有分布式系统经验优先。");
+        writeAndWait(recrawl);
+
+        JobInfo stored = table.get(urlA);
+        Assertions.assertEquals(idA, stored.getId());
+        Assertions.assertNull(stored.getCanonicalId());
+        Assertions.assertEquals(recrawl.getWorkContent(), stored.getWorkContent());
+        Assertions.assertEquals(2, nearDuplicateIndex.size());
+        Assertions.assertEquals(1, rolledUp.size());
+    }
+
+    @Test
+    void trackerWaitsOnlyForItsOwnSubmissions() throws Exception {
+        writeBehind = create(properties(), null);
+        JobInfoWriteBehind.WriteTracker mine = new JobInfoWriteBehind.WriteTracker();
+        JobInfoWriteBehind.WriteTracker other = new JobInfoWriteBehind.WriteTracker();
+        // 写入线程未启动，other 的职位一直积压在队列中
+        writeBehind.submit(job("https://www.zhipin.com/job_detail/c.html", "Java开发工程师"), other);
+
+        Assertions.assertTrue(mine.awaitFlushed(0));
+        Assertions.assertFalse(other.awaitFlushed(100));
+        Assertions.assertEquals(1, other.getPendingCount());
+
+        writeBehind.start();
+        Assertions.assertTrue(other.awaitFlushed(5000));
+        Assertions.assertEquals(1, other.getWrittenCount());
+        Assertions.assertEquals(0, mine.getWrittenCount());
+        Assertions.assertEquals(Set.of(UrlFingerprint.of("https://www.zhipin.com/job_detail/c.html")),
+                other.getWrittenUrlHashes());
+        Assertions.assertTrue(mine.getWrittenUrlHashes().isEmpty());
+    }
+
+    @Test
+    void failedFlushIsNotCountedAsWritten() throws Exception {
+        CrawlerProperties properties = properties();
+        properties.getPersist().setMaxRetries(0);
+        JobInfoMapper failing = (JobInfoMapper) Proxy.newProxyInstance(JobInfoMapper.class.getClassLoader(),
+                new Class<?>[]{JobInfoMapper.class}, (proxy, method, args) -> {
+                    if ("batchUpsert".equals(method.getName())) {
+                        throw new IllegalStateException("数据库不可用");
+                    }
+                    return method.invoke(table.asMapper(), args);
+                });
+        writeBehind = new JobInfoWriteBehind(failing, new PersistentSeenStore(null, properties),
+                properties, rollupService(), null, CrawlerMetrics.noop());
+        writeBehind.start();
+        JobInfoWriteBehind.WriteTracker tracker = new JobInfoWriteBehind.WriteTracker();
+
+        Assertions.assertTrue(writeBehind.submit(job("https://www.zhipin.com/job_detail/d.html", "Java开发工程师"), tracker));
+        Assertions.assertTrue(tracker.awaitFlushed(5000));
+
+        Assertions.assertEquals(0, tracker.getWrittenCount());
+        Assertions.assertEquals(1, tracker.getFailedCount());
+        Assertions.assertEquals(0, table.size());
+    }
+
+    private JobInfoWriteBehind start(CrawlerProperties properties, NearDuplicateIndex nearDuplicateIndex) {
+        JobInfoWriteBehind instance = create(properties, nearDuplicateIndex);
+        instance.start();
+        return instance;
+    }
+
+    private JobInfoWriteBehind create(CrawlerProperties properties, NearDuplicateIndex nearDuplicateIndex) {
+        return new JobInfoWriteBehind(table.asMapper(), new PersistentSeenStore(null, properties),
+                properties, rollupService(), nearDuplicateIndex, CrawlerMetrics.noop());
+    }
+
+    private void writeAndWait(JobInfo jobInfo) throws InterruptedException {
+        Assertions.assertTrue(writeBehind.submit(jobInfo));
+        Assertions.assertTrue(writeBehind.awaitFlushed(5000));
+    }
+
+    private static CrawlerProperties properties() {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getSeenStore().setEnabled(false);
+        properties.getPersist().setFlushIntervalMillis(20);
+        return properties;
+    }
+
+    private static JobInfo job(String url, String workName) {
+        JobInfo jobInfo = new JobInfo();
+        jobInfo.setUrl(url);
+        jobInfo.setWorkName(workName);
+        jobInfo.setWorkContent("岗位职责：负责后端服务开发。任职要求：熟悉Java、Spring Boot、MySQL。");
+        jobInfo.setCompanyName("成都某某科技有限公司");
+        jobInfo.setCrawlQuery("Java");
+        jobInfo.setCrawlCityCode("101270100");
+        return jobInfo;
+    }
+
+    private JobMarketRollupService rollupService() {
+        return new JobMarketRollupService() {
+            @Override
+            public synchronized void record(List<JobInfo> newJobList) {
+                rolledUp.addAll(newJobList);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public SalaryStatsVO getSalaryStats(String searchQuery, String cityCode, String companyName, int days) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * 按 urlHash 唯一键模拟 batchUpsert 的内存表
+     */
+    static class InMemoryJobInfoTable {
+
+        private final Map<Long, JobInfo> rows = new ConcurrentHashMap<>();
+
+        int size() {
+            return rows.size();
+        }
+
+        JobInfo get(String url) {
+            return rows.get(UrlFingerprint.of(url));
+        }
+
+        JobInfoMapper asMapper() {
+            return (JobInfoMapper) Proxy.newProxyInstance(JobInfoMapper.class.getClassLoader(),
+                    new Class<?>[]{JobInfoMapper.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "selectByUrlHashes":
+                                List<JobInfo> found = new ArrayList<>();
+                                for (Object urlHash : (List<?>) args[0]) {
+                                    JobInfo row = rows.get((Long) urlHash);
+                                    if (row != null) {
+                                        found.add(copyOf(row));
+                                    }
+                                }
+                                return found;
+                            case "batchUpsert":
+                                List<?> list = (List<?>) args[0];
+                                for (Object item : list) {
+                                    upsert((JobInfo) item);
+                                }
+                                return list.size();
+                            case "toString":
+                                return "InMemoryJobInfoTable";
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        private void upsert(JobInfo jobInfo) {
+            JobInfo existing = rows.get(jobInfo.getUrlHash());
+            if (existing == null) {
+                rows.put(jobInfo.getUrlHash(), copyOf(jobInfo));
+                return;
+            }
+            // 与 JobInfoMapper.xml 一致：id 和 canonicalId 保持不变，内容指纹变化时才更新内容
+            if (!Objects.equals(existing.getContentHash(), jobInfo.getContentHash())) {
+                existing.setWorkName(jobInfo.getWorkName());
+                existing.setWorkContent(jobInfo.getWorkContent());
+                existing.setSimHash(jobInfo.getSimHash());
+                existing.setContentHash(jobInfo.getContentHash());
+            }
+        }
+
+        private static JobInfo copyOf(JobInfo jobInfo) {
+            JobInfo copy = new JobInfo();
+            copy.setId(jobInfo.getId());
+            copy.setUrl(jobInfo.getUrl());
+            copy.setUrlHash(jobInfo.getUrlHash());
+            copy.setWorkName(jobInfo.getWorkName());
+            copy.setWorkContent(jobInfo.getWorkContent());
+            copy.setCompanyName(jobInfo.getCompanyName());
+            copy.setContentHash(jobInfo.getContentHash());
+            copy.setSimHash(jobInfo.getSimHash());
+            copy.setCanonicalId(jobInfo.getCanonicalId());
+            return copy;
+        }
+    }
+}
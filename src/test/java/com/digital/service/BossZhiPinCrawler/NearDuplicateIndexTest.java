@@ -0,0 +1,103 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import com.digital.model.entity.JobInfo;
+import com.digital.utils.SimHash;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 职位近似重复索引测试
+ *
+ */
+public class NearDuplicateIndexTest {
+
+    private static final String CONTENT = "岗位职责：1. 负责公司核心业务系统的设计与开发；2. 参与系统架构设计，优化系统性能；"
+            + "3. 编写技术文档，参与代码评审。任职要求：熟悉Java、Spring Boot、MySQL、Redis，有分布式系统经验者优先。";
+
+    @Test
+    void repostWithSmallEditsLinksToOriginal() {
+        NearDuplicateIndex index = new NearDuplicateIndex(null, new CrawlerProperties());
+        index.addAll(List.of(job(1L, 101L, "Java开发工程师", CONTENT, "成都某某科技有限公司")));
+
+        long repost = SimHash.ofJob("Java开发工程师", CONTENT.replace("优化系统性能", "提升系统性能"), "成都某某科技有限公司");
+        Assertions.assertEquals(1L, index.findCanonical(repost, 102L));
+        // 同一链接重新抓取不算重复
+        Assertions.assertNull(index.findCanonical(repost, 101L));
+        // 同样的描述换一家公司不算重复
+        long otherCompany = SimHash.ofJob("Java开发工程师", CONTENT, "北京另一家网络公司");
+        Assertions.assertNull(index.findCanonical(otherCompany, 103L));
+        long otherJob = SimHash.ofJob("前端开发工程师", "负责前端页面开发，使用Vue和React构建用户界面，与后端配合完成接口联调。",
+                "成都某某科技有限公司");
+        Assertions.assertNull(index.findCanonical(otherJob, 104L));
+    }
+
+    @Test
+    void duplicatesPointToTheFirstCanonical() {
+        NearDuplicateIndex index = new NearDuplicateIndex(null, new CrawlerProperties());
+        JobInfo original = job(1L, 101L, "Java开发工程师", CONTENT, "成都某某科技有限公司");
+        JobInfo duplicate = job(2L, 102L, "Java开发工程师", CONTENT + "。", "成都某某科技有限公司");
+        duplicate.setCanonicalId(1L);
+        index.addAll(List.of(original, duplicate));
+        Assertions.assertEquals(1L, index.findCanonical(duplicate.getSimHash(), 103L));
+    }
+
+    @Test
+    void findsEveryFingerprintWithinMaxDistance() {
+        assertFindsEveryFingerprintWithin(new CrawlerProperties());
+    }
+
+    @Test
+    void smallestMaxDistanceKeepsBandsWithinSixteenBits() {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getNearDuplicate().setMaxDistance(0);
+        NearDuplicateIndex index = new NearDuplicateIndex(null, properties);
+        Assertions.assertEquals(NearDuplicateIndex.MIN_BANDS, index.bandCount());
+        Assertions.assertEquals(16, index.maxBandBits());
+
+        properties.getNearDuplicate().setMaxDistance(1);
+        assertFindsEveryFingerprintWithin(properties);
+        properties.getNearDuplicate().setMaxDistance(2);
+        assertFindsEveryFingerprintWithin(properties);
+    }
+
+    private static void assertFindsEveryFingerprintWithin(CrawlerProperties properties) {
+        int maxDistance = properties.getNearDuplicate().getMaxDistance();
+        NearDuplicateIndex index = new NearDuplicateIndex(null, properties);
+        Assertions.assertTrue(index.maxBandBits() <= 16);
+        Random random = new Random(42);
+        List<JobInfo> jobs = new ArrayList<>();
+        for (long i = 1; i <= 20_000; i++) {
+            JobInfo jobInfo = new JobInfo();
+            jobInfo.setId(i);
+            jobInfo.setUrlHash(i);
+            jobInfo.setSimHash(random.nextLong());
+            jobs.add(jobInfo);
+        }
+        index.addAll(jobs);
+        for (int i = 0; i < 1000; i++) {
+            JobInfo target = jobs.get(random.nextInt(jobs.size()));
+            long probe = target.getSimHash();
+            // 翻转 maxDistance 个不同的位，分段查找也必须命中
+            for (int flipped = 0; flipped < maxDistance; ) {
+                long bit = 1L << random.nextInt(64);
+                if (((probe ^ target.getSimHash()) & bit) == 0) {
+                    probe ^= bit;
+                    flipped++;
+                }
+            }
+            Assertions.assertEquals(target.getId(), index.findCanonical(probe, -1L));
+        }
+    }
+
+    private static JobInfo job(long id, long urlHash, String workName, String workContent, String companyName) {
+        JobInfo jobInfo = new JobInfo();
+        jobInfo.setId(id);
+        jobInfo.setUrlHash(urlHash);
+        jobInfo.setSimHash(SimHash.ofJob(workName, workContent, companyName));
+        return jobInfo;
+    }
+}
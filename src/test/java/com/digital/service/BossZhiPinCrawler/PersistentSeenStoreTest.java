@@ -0,0 +1,56 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * URL 指纹集合测试
+ *
+ */
+public class PersistentSeenStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void survivesGrowAndReopen() {
+        CrawlerProperties properties = new CrawlerProperties();
+        properties.getSeenStore().setPath(tempDir.resolve("seen.bin").toString());
+        properties.getSeenStore().setExpectedEntries(1_000_000);
+
+        // 超过初始容量的装载上限，触发一次扩容
+        int count = 800_000;
+        PersistentSeenStore store = new PersistentSeenStore(null, properties);
+        List<Long> batch = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            batch.add(i * 7919);
+            if (batch.size() == 10_000) {
+                store.addFingerprints(batch);
+                batch.clear();
+            }
+        }
+        store.addFingerprints(batch);
+        Assertions.assertEquals(count, store.size());
+        store.close();
+
+        PersistentSeenStore reopened = new PersistentSeenStore(null, properties);
+        reopened.ensureOpen();
+        Assertions.assertEquals(count, reopened.size());
+        for (long i = 1; i <= count; i += 997) {
+            Assertions.assertTrue(reopened.containsFingerprint(i * 7919));
+        }
+        int falsePositives = 0;
+        for (long i = 1; i <= 10_000; i++) {
+            if (reopened.containsFingerprint(i * 7919 + 1)) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertEquals(0, falsePositives);
+        reopened.close();
+    }
+}
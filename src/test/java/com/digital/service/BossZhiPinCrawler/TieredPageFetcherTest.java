@@ -0,0 +1,84 @@
+package com.digital.service.BossZhiPinCrawler;
+
+import com.digital.config.CrawlerProperties;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 分级页面获取测试
+ *
+ */
+public class TieredPageFetcherTest {
+
+    @Test
+    void patternIgnoresIdsAndParameterValues() {
+        Assertions.assertEquals("www.zhipin.com/job_detail/*",
+                TieredPageFetcher.patternOf("https://www.zhipin.com/job_detail/a1b2c3d4e5.html"));
+        Assertions.assertEquals(TieredPageFetcher.patternOf("https://www.zhipin.com/web/geek/job?query=Java&city=101270100&page=2"),
+                TieredPageFetcher.patternOf("https://www.zhipin.com/web/geek/job?city=101300600&query=Python&page=3"));
+        Assertions.assertEquals("www.zhipin.com/web/geek/job?city&page&query",
+                TieredPageFetcher.patternOf("https://www.zhipin.com/web/geek/job?query=Java&city=101270100&page=2"));
+    }
+
+    @Test
+    void usesHttpWhenMarkupIsPresent() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/job_detail/", exchange -> {
+            byte[] body = "<html><body><div class='job-sec-text'>岗位职责</div></body></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException ignored) {
+            }
+        });
+        server.start();
+        try {
+            CrawlerProperties crawlerProperties = new CrawlerProperties();
+            // 浏览器池不会被用到
+            TieredPageFetcher fetcher = new TieredPageFetcher(crawlerProperties, null);
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/job_detail/abc123.html";
+            FetchResult result = fetcher.fetch(url);
+            Assertions.assertEquals(FetchTier.HTTP, result.getTier());
+            Assertions.assertNotNull(result.getDocument().selectFirst(".job-sec-text"));
+            TieredPageFetcher.FetchStatsSummary summary = fetcher.snapshot().get(TieredPageFetcher.patternOf(url));
+            Assertions.assertEquals(1, summary.getHttpHits());
+            Assertions.assertEquals(FetchTier.HTTP, summary.getPreferredTier());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void throttledResponseIsNotRetriedNorRenderedByBrowser() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/job_detail/", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "30");
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            // 浏览器池为空：改用浏览器会抛出异常
+            TieredPageFetcher fetcher = new TieredPageFetcher(new CrawlerProperties(), null);
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/job_detail/abc123.html";
+            FetchResult result = fetcher.fetch(url);
+            Assertions.assertTrue(result.isThrottled());
+            Assertions.assertTrue(result.isEmpty());
+            Assertions.assertEquals(FetchTier.HTTP, result.getTier());
+            Assertions.assertEquals(1, requests.get());
+            // 限流不计入 HTTP 命中率
+            Assertions.assertEquals(0, fetcher.snapshot().get(TieredPageFetcher.patternOf(url)).getHttpAttempts());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
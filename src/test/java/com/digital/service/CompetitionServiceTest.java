@@ -0,0 +1,235 @@
+package com.digital.service;
+
+import com.digital.config.CompetitionProperties;
+import com.digital.model.entity.Competition;
+import com.digital.model.vo.CompetitionDiffVO;
+import com.digital.model.vo.CompetitionRankPointVO;
+import com.digital.model.vo.CompetitionSnapshotVO;
+import com.digital.service.competition.CompetitionAggregator;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 竞赛信息服务测试（聚合器为桩实现）
+ *
+ */
+public class CompetitionServiceTest {
+
+    private final List<Date> recordedSnapshots = new ArrayList<>();
+
+    private CompetitionService competitionService;
+
+    private CompetitionAggregator competitionAggregator;
+
+    @AfterEach
+    void tearDown() {
+        if (competitionService != null) {
+            competitionService.shutdown();
+        }
+        if (competitionAggregator != null) {
+            competitionAggregator.shutdown();
+        }
+    }
+
+    @Test
+    void historyIsRecordedOnlyWhenSomeSourceFetchedNewData() throws Exception {
+        long[] fetchedAt = {1000L};
+        start(() -> aggregation(Map.of("a", fetchedAt[0], "b", 500L), "挑战杯"));
+
+        refreshAndWait();
+        // 两个来源都来自缓存：不再记录
+        refreshAndWait();
+        Assertions.assertEquals(List.of(new Date(1000L)), recordedSnapshots);
+
+        fetchedAt[0] = 2000L;
+        refreshAndWait();
+        Assertions.assertEquals(List.of(new Date(1000L), new Date(2000L)), recordedSnapshots);
+    }
+
+    @Test
+    void concurrentRefreshesShareOneAggregation() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        start(() -> {
+            calls.incrementAndGet();
+            await(release);
+            return aggregation(Map.of("a", 1000L), "挑战杯");
+        });
+
+        CompletableFuture<List<Competition>> first = competitionService.refreshAsync();
+        CompletableFuture<List<Competition>> second = competitionService.refreshAsync();
+        Assertions.assertSame(first, second);
+        release.countDown();
+        Assertions.assertEquals(1, first.get(5, TimeUnit.SECONDS).size());
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    void coldStartWaitsForFirstRefresh() {
+        start(() -> {
+            sleep(200);
+            return aggregation(Map.of("a", 1000L), "挑战杯", "蓝桥杯");
+        });
+
+        Assertions.assertEquals(List.of("挑战杯", "蓝桥杯"),
+                competitionService.getLatestCompetitions().stream().map(Competition::getName).toList());
+        Assertions.assertTrue(competitionService.getLatestFetchedAt() > 0);
+    }
+
+    @Test
+    void coldStartGivesUpAfterWaitLimit() {
+        CountDownLatch release = new CountDownLatch(1);
+        CompetitionProperties properties = new CompetitionProperties();
+        properties.setColdStartWaitMillis(100);
+        start(properties, () -> {
+            await(release);
+            return aggregation(Map.of("a", 1000L), "挑战杯");
+        });
+        try {
+            Assertions.assertEquals(List.of(), competitionService.getLatestCompetitions());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void emptyAggregationKeepsServingLastResult() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        start(() -> calls.incrementAndGet() == 1
+                ? aggregation(Map.of("a", 1000L), "挑战杯")
+                : aggregation(Map.of()));
+
+        List<Competition> first = refreshAndWait();
+        long fetchedAt = competitionService.getLatestFetchedAt();
+        Assertions.assertSame(first, refreshAndWait());
+        Assertions.assertSame(first, competitionService.getLatestCompetitions());
+        Assertions.assertEquals(fetchedAt, competitionService.getLatestFetchedAt());
+        Assertions.assertEquals(1, recordedSnapshots.size());
+    }
+
+    @Test
+    void lateSourceDuringAnotherRefreshTriggersAFollowUpRefresh() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<List<Competition>> late = new CompletableFuture<>();
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        CountDownLatch releaseSecond = new CountDownLatch(1);
+        start(() -> {
+            int call = calls.incrementAndGet();
+            if (call == 1) {
+                CompetitionAggregator.Aggregation aggregation = aggregation(Map.of("a", 1000L), "挑战杯");
+                aggregation.getLateSources().add("b");
+                aggregation.getLate().add(late);
+                return aggregation;
+            }
+            if (call == 2) {
+                secondStarted.countDown();
+                await(releaseSecond);
+                return aggregation(Map.of("a", 1000L), "挑战杯");
+            }
+            return aggregation(Map.of("a", 1000L, "b", 2000L), "挑战杯", "蓝桥杯");
+        });
+
+        refreshAndWait();
+        CompletableFuture<List<Competition>> second = competitionService.refreshAsync();
+        Assertions.assertTrue(secondStarted.await(5, TimeUnit.SECONDS));
+        // 迟到的来源在第二次刷新聚合之后完成：并入进行中的刷新，结束后必须再刷新一次
+        late.complete(List.of());
+        Assertions.assertSame(second, competitionService.refreshAsync());
+        releaseSecond.countDown();
+        Assertions.assertEquals(1, second.get(5, TimeUnit.SECONDS).size());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (competitionService.getLatestCompetitions().size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(List.of("挑战杯", "蓝桥杯"),
+                competitionService.getLatestCompetitions().stream().map(Competition::getName).toList());
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    private void start(Supplier<CompetitionAggregator.Aggregation> aggregations) {
+        start(new CompetitionProperties(), aggregations);
+    }
+
+    private void start(CompetitionProperties properties, Supplier<CompetitionAggregator.Aggregation> aggregations) {
+        competitionAggregator = new CompetitionAggregator(List.of(), properties) {
+            @Override
+            public Aggregation aggregate() {
+                return aggregations.get();
+            }
+        };
+        competitionService = new CompetitionService(properties, competitionAggregator);
+        ReflectionTestUtils.setField(competitionService, "competitionHistoryService", historyService());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Competition> refreshAndWait() throws Exception {
+        return competitionService.refreshAsync().get(5, TimeUnit.SECONDS);
+    }
+
+    private static CompetitionAggregator.Aggregation aggregation(Map<String, Long> sourceFetchedAt, String... names) {
+        CompetitionAggregator.Aggregation aggregation = new CompetitionAggregator.Aggregation();
+        List<Competition> competitions = new ArrayList<>();
+        for (String name : names) {
+            competitions.add(new Competition(competitions.size() + 1, name, "1", "u/" + name, "stub"));
+        }
+        aggregation.setCompetitions(competitions);
+        aggregation.getSourceFetchedAt().putAll(sourceFetchedAt);
+        return aggregation;
+    }
+
+    private CompetitionHistoryService historyService() {
+        return new CompetitionHistoryService() {
+            @Override
+            public synchronized void record(List<Competition> competitionList, Date snapshotTime) {
+                recordedSnapshots.add(snapshotTime);
+            }
+
+            @Override
+            public List<CompetitionSnapshotVO> listSnapshots(Date fromTime, Date toTime) {
+                return List.of();
+            }
+
+            @Override
+            public List<CompetitionRankPointVO> getTrajectory(String url, Date fromTime, Date toTime) {
+                return List.of();
+            }
+
+            @Override
+            public CompetitionDiffVO diff(Date fromTime, Date toTime) {
+                return null;
+            }
+
+            @Override
+            public int downsample() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package com.digital.service.competition;
+
+import com.digital.config.CompetitionProperties;
+import com.digital.model.entity.Competition;
+import com.digital.model.vo.CompetitionSourceVO;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 多来源竞赛聚合测试
+ *
+ */
+public class CompetitionAggregatorTest {
+
+    @Test
+    void normalizeNameIgnoresWidthCaseAndPunctuation() {
+        Assertions.assertEquals(CompetitionAggregator.normalizeName("第十届 “挑战杯” ACM-ICPC"),
+                CompetitionAggregator.normalizeName("第十届「挑战杯」ａｃｍ ＩＣＰＣ"));
+        Assertions.assertEquals("", CompetitionAggregator.normalizeName(null));
+    }
+
+    @Test
+    void mergeInterleavesByRankAndDeduplicates() {
+        List<Competition> a = List.of(
+                new Competition(2, "蓝桥杯", "900", "a/2", "a"),
+                new Competition(1, "挑战杯", "1000", "a/1", "a"));
+        List<Competition> b = List.of(
+                new Competition(1, "数学建模", "800", "b/1", "b"),
+                new Competition(2, "挑战 杯", "700", "b/2", "b"),
+                new Competition(3, "互联网+", "600", "b/3", "b"));
+
+        List<Competition> merged = CompetitionAggregator.merge(List.of(a, b));
+        Assertions.assertEquals(List.of("挑战杯", "数学建模", "蓝桥杯", "互联网+"),
+                merged.stream().map(Competition::getName).toList());
+        Assertions.assertEquals(List.of(1, 2, 3, 4), merged.stream().map(Competition::getRank).toList());
+        Assertions.assertEquals("a", merged.get(0).getSource());
+    }
+
+    @Test
+    void slowSourceIsLeftOutAndCachedWhenItArrives() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompetitionSource fast = source("fast", timeout -> List.of(new Competition(1, "挑战杯", "1", "f/1", "fast")));
+        CompetitionSource slow = source("slow", timeout -> {
+            release.await();
+            return List.of(new Competition(1, "蓝桥杯", "1", "s/1", "slow"));
+        });
+        CompetitionProperties properties = new CompetitionProperties();
+        properties.setDeadlineMillis(200);
+        CompetitionAggregator aggregator = new CompetitionAggregator(List.of(fast, slow), properties);
+        try {
+            CompetitionAggregator.Aggregation first = aggregator.aggregate();
+            Assertions.assertEquals(List.of("slow"), first.getLateSources());
+            Assertions.assertFalse(first.getSourceFetchedAt().containsKey("slow"));
+            Assertions.assertEquals(List.of("挑战杯"), first.getCompetitions().stream().map(Competition::getName).toList());
+
+            release.countDown();
+            first.getLate().get(0).get(5, TimeUnit.SECONDS);
+
+            CompetitionAggregator.Aggregation second = aggregator.aggregate();
+            Assertions.assertTrue(second.getLateSources().isEmpty());
+            Assertions.assertEquals(List.of("挑战杯", "蓝桥杯"),
+                    second.getCompetitions().stream().map(Competition::getName).toList());
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    @Test
+    void cachedSourceReportsOriginalFetchTime() {
+        AtomicInteger calls = new AtomicInteger();
+        CompetitionSource cached = source("cached", timeout -> {
+            calls.incrementAndGet();
+            return List.of(new Competition(1, "挑战杯", "1", "c/1", "cached"));
+        });
+        CompetitionAggregator aggregator = new CompetitionAggregator(List.of(cached), new CompetitionProperties());
+        try {
+            Long fetchedAt = aggregator.aggregate().getSourceFetchedAt().get("cached");
+            Assertions.assertNotNull(fetchedAt);
+            Assertions.assertEquals(fetchedAt, aggregator.aggregate().getSourceFetchedAt().get("cached"));
+            Assertions.assertEquals(1, calls.get());
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    @Test
+    void failingSourceKeepsLastResultAndCountsFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        CompetitionSource flaky = source("flaky", timeout -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new IllegalStateException("down");
+            }
+            return List.of(new Competition(1, "挑战杯", "1", "x/1", "flaky"));
+        });
+        CompetitionProperties properties = new CompetitionProperties();
+        CompetitionProperties.Source sourceConfig = new CompetitionProperties.Source();
+        sourceConfig.setCacheTtlMillis(0);
+        properties.getSources().put("flaky", sourceConfig);
+        CompetitionAggregator aggregator = new CompetitionAggregator(List.of(flaky), properties);
+        try {
+            Assertions.assertEquals(1, aggregator.aggregate().getCompetitions().size());
+            Assertions.assertEquals(1, aggregator.aggregate().getCompetitions().size());
+
+            CompetitionSourceVO stats = aggregator.getSourceStats().get(0);
+            Assertions.assertEquals(1L, stats.getSuccessCount());
+            Assertions.assertEquals(1L, stats.getFailureCount());
+            Assertions.assertEquals(1, stats.getConsecutiveFailures());
+        } finally {
+            aggregator.shutdown();
+        }
+    }
+
+    private interface Fetcher {
+        List<Competition> fetch(Duration timeout) throws Exception;
+    }
+
+    private static CompetitionSource source(String name, Fetcher fetcher) {
+        return new CompetitionSource() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public List<Competition> fetch(Duration timeout) throws Exception {
+                return fetcher.fetch(timeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.digital.service.impl;
+
+import com.digital.model.entity.CompetitionRankHistory;
+import com.digital.model.vo.CompetitionRankDiffVO;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 竞赛排名历史测试
+ *
+ */
+public class CompetitionHistoryServiceImplTest {
+
+    @Test
+    void parsePopularityHandlesUnits() {
+        Assertions.assertEquals(3456L, CompetitionHistoryServiceImpl.parsePopularity("3456"));
+        Assertions.assertEquals(8912L, CompetitionHistoryServiceImpl.parsePopularity("8,912"));
+        Assertions.assertEquals(12000L, CompetitionHistoryServiceImpl.parsePopularity("1.2万"));
+        Assertions.assertEquals(35000L, CompetitionHistoryServiceImpl.parsePopularity("3.5w"));
+        Assertions.assertEquals(2000L, CompetitionHistoryServiceImpl.parsePopularity("2k"));
+        Assertions.assertNull(CompetitionHistoryServiceImpl.parsePopularity("暂无"));
+        Assertions.assertNull(CompetitionHistoryServiceImpl.parsePopularity(null));
+    }
+
+    @Test
+    void thinKeepsFirstSnapshotPerBucket() {
+        Date h10m0 = time(2026, 3, 1, 10, 0);
+        Date h10m10 = time(2026, 3, 1, 10, 10);
+        Date h10m50 = time(2026, 3, 1, 10, 50);
+        Date h11m5 = time(2026, 3, 1, 11, 5);
+        Date nextDay = time(2026, 3, 2, 9, 0);
+        List<Date> times = List.of(h10m0, h10m10, h10m50, h11m5, nextDay);
+
+        Assertions.assertEquals(List.of(h10m10, h10m50), CompetitionHistoryServiceImpl.thin(times, ChronoUnit.HOURS));
+        Assertions.assertEquals(List.of(h10m10, h10m50, h11m5), CompetitionHistoryServiceImpl.thin(times, ChronoUnit.DAYS));
+    }
+
+    @Test
+    void diffItemsClassifiesMovements() {
+        List<CompetitionRankHistory> from = List.of(
+                row(1L, 1, "a", 1000L), row(2L, 2, "b", 800L), row(3L, 3, "c", 500L));
+        List<CompetitionRankHistory> to = List.of(
+                row(2L, 1, "b", 1200L), row(1L, 2, "a", 1100L), row(4L, 3, "d", null));
+
+        List<CompetitionRankDiffVO> items = CompetitionHistoryServiceImpl.diffItems(from, to);
+        Assertions.assertEquals(4, items.size());
+
+        CompetitionRankDiffVO b = items.get(0);
+        Assertions.assertEquals("b", b.getName());
+        Assertions.assertEquals(CompetitionRankDiffVO.UP, b.getStatus());
+        Assertions.assertEquals(1, b.getRankingChange());
+        Assertions.assertEquals(400L, b.getPopularityChange());
+
+        CompetitionRankDiffVO a = items.get(1);
+        Assertions.assertEquals(CompetitionRankDiffVO.DOWN, a.getStatus());
+        Assertions.assertEquals(-1, a.getRankingChange());
+
+        CompetitionRankDiffVO d = items.get(2);
+        Assertions.assertEquals(CompetitionRankDiffVO.NEW, d.getStatus());
+        Assertions.assertNull(d.getFromRanking());
+
+        CompetitionRankDiffVO c = items.get(3);
+        Assertions.assertEquals(CompetitionRankDiffVO.DROPPED, c.getStatus());
+        Assertions.assertEquals(3, c.getFromRanking());
+        Assertions.assertNull(c.getToRanking());
+    }
+
+    private static CompetitionRankHistory row(Long key, int ranking, String name, Long popularity) {
+        CompetitionRankHistory row = new CompetitionRankHistory();
+        row.setCompetitionKey(key);
+        row.setRanking(ranking);
+        row.setName(name);
+        row.setUrl("https://www.saikr.com/vse/" + name);
+        row.setPopularityValue(popularity);
+        row.setPopularity(popularity == null ? null : String.valueOf(popularity));
+        return row;
+    }
+
+    private static Date time(int year, int month, int day, int hour, int minute) {
+        return Date.from(LocalDateTime.of(year, month, day, hour, minute).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,169 @@
+package com.digital.service.impl;
+
+import com.digital.mapper.JobInfoMapper;
+import com.digital.model.dto.jobinfo.JobInfoSearchRequest;
+import com.digital.model.entity.JobInfo;
+import com.digital.model.vo.FacetCountVO;
+import com.digital.model.vo.JobInfoVO;
+import com.digital.model.vo.JobSearchResultVO;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * 职位搜索测试（职位表为内存实现，按 id 倒序返回）
+ *
+ */
+public class JobInfoSearchServiceImplTest {
+
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    private final List<Integer> searchLimits = new ArrayList<>();
+
+    private final JobInfoSearchServiceImpl searchService = new JobInfoSearchServiceImpl();
+
+    @Test
+    void searchTextBecomesQuotedPhraseWithoutBooleanOperators() {
+        Assertions.assertNull(JobInfoSearchServiceImpl.toSearchPhrase(null));
+        Assertions.assertNull(JobInfoSearchServiceImpl.toSearchPhrase("  "));
+        Assertions.assertNull(JobInfoSearchServiceImpl.toSearchPhrase("+-\"*"));
+        Assertions.assertEquals("\"Java 开发\"", JobInfoSearchServiceImpl.toSearchPhrase("  Java   开发 "));
+        Assertions.assertEquals("\"C 工程师\"", JobInfoSearchServiceImpl.toSearchPhrase("+C* -\"工程师\""));
+        Assertions.assertEquals("\"a b\"", JobInfoSearchServiceImpl.toSearchPhrase("a@(b)~"));
+    }
+
+    @Test
+    void cursorPagingWalksAllMatchesOnce() {
+        ReflectionTestUtils.setField(searchService, "jobInfoMapper", mapper(45, 45));
+        JobInfoSearchRequest request = new JobInfoSearchRequest();
+        request.setPageSize(20);
+        request.setFacets(false);
+
+        List<Long> ids = new ArrayList<>();
+        JobSearchResultVO page = searchService.search(request);
+        ids.addAll(idsOf(page));
+        Assertions.assertEquals(26L, page.getNextCursor());
+        request.setCursor(page.getNextCursor());
+        page = searchService.search(request);
+        ids.addAll(idsOf(page));
+        Assertions.assertEquals(6L, page.getNextCursor());
+        request.setCursor(page.getNextCursor());
+        page = searchService.search(request);
+        ids.addAll(idsOf(page));
+        Assertions.assertNull(page.getNextCursor());
+
+        Assertions.assertEquals(45, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Assertions.assertEquals(45L - i, ids.get(i));
+        }
+        // 每页多取一条判断是否还有下一页
+        searchLimits.forEach(limit -> Assertions.assertEquals(21, limit));
+        Assertions.assertNull(calls.get("facetByCompany"));
+    }
+
+    @Test
+    void exactPageSizeHasNoNextCursor() {
+        ReflectionTestUtils.setField(searchService, "jobInfoMapper", mapper(20, 20));
+        JobInfoSearchRequest request = new JobInfoSearchRequest();
+        request.setPageSize(20);
+        request.setFacets(false);
+
+        JobSearchResultVO page = searchService.search(request);
+        Assertions.assertEquals(20, page.getRecords().size());
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void facetsOnFirstPageOnlyAndFlaggedWhenScanLimitIsReached() {
+        ReflectionTestUtils.setField(searchService, "jobInfoMapper", mapper(30, JobInfoSearchServiceImpl.FACET_SCAN_LIMIT));
+        JobInfoSearchRequest request = new JobInfoSearchRequest();
+        request.setSearchText("Java");
+        request.setPageSize(20);
+
+        JobSearchResultVO first = searchService.search(request);
+        Assertions.assertEquals(JobInfoSearchServiceImpl.FACET_SCAN_LIMIT, first.getFacetScanLimit());
+        Assertions.assertTrue(first.getFacetsApproximate());
+        Assertions.assertEquals("本科", first.getDegreeFacets().get(0).getLabel());
+        Assertions.assertEquals("3年以上", first.getWorkYearFacets().get(0).getLabel());
+
+        request.setCursor(first.getNextCursor());
+        JobSearchResultVO next = searchService.search(request);
+        Assertions.assertNull(next.getCompanyFacets());
+        Assertions.assertNull(next.getFacetsApproximate());
+
+        // 相同筛选条件的第一页走缓存
+        request.setCursor(null);
+        Assertions.assertTrue(searchService.search(request).getFacetsApproximate());
+        Assertions.assertEquals(1, calls.get("facetByCompany").get());
+        Assertions.assertEquals(1, calls.get("countFacetScope").get());
+    }
+
+    @Test
+    void facetsAreExactBelowScanLimit() {
+        ReflectionTestUtils.setField(searchService, "jobInfoMapper", mapper(30, 30));
+        JobInfoSearchRequest request = new JobInfoSearchRequest();
+        request.setPageSize(20);
+
+        JobSearchResultVO first = searchService.search(request);
+        Assertions.assertFalse(first.getFacetsApproximate());
+        Assertions.assertEquals(JobInfoSearchServiceImpl.FACET_SCAN_LIMIT, first.getFacetScanLimit());
+    }
+
+    private static List<Long> idsOf(JobSearchResultVO page) {
+        return page.getRecords().stream().map(JobInfoVO::getId).collect(Collectors.toList());
+    }
+
+    private static FacetCountVO facet(String value, long count) {
+        FacetCountVO facet = new FacetCountVO();
+        facet.setValue(value);
+        facet.setCount(count);
+        return facet;
+    }
+
+    /**
+     * @param jobCount   职位表中的职位数（id 为 1..jobCount）
+     * @param facetScope 分面统计范围内的职位数（已按 scanLimit 截断）
+     */
+    private JobInfoMapper mapper(int jobCount, int facetScope) {
+        return (JobInfoMapper) Proxy.newProxyInstance(JobInfoMapper.class.getClassLoader(),
+                new Class<?>[]{JobInfoMapper.class}, (proxy, method, args) -> {
+                    calls.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+                    switch (method.getName()) {
+                        case "searchJobInfo":
+                            Long cursor = ((JobInfoSearchRequest) args[0]).getCursor();
+                            int limit = (Integer) args[2];
+                            searchLimits.add(limit);
+                            List<JobInfo> found = new ArrayList<>();
+                            for (long id = cursor == null ? jobCount : cursor - 1; id >= 1 && found.size() < limit; id--) {
+                                JobInfo jobInfo = new JobInfo();
+                                jobInfo.setId(id);
+                                found.add(jobInfo);
+                            }
+                            return found;
+                        case "countFacetScope":
+                            return Math.min(facetScope, (Integer) args[2]);
+                        case "facetByCompany":
+                            return new ArrayList<>(List.of(facet("某某科技", 12L)));
+                        case "facetByDegree":
+                            return new ArrayList<>(List.of(facet("5", 20L)));
+                        case "facetByWorkYear":
+                            return new ArrayList<>(List.of(facet("3", 8L)));
+                        case "toString":
+                            return "InMemoryJobInfoTable";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
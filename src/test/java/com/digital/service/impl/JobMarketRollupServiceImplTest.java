@@ -0,0 +1,127 @@
+package com.digital.service.impl;
+
+import com.digital.mapper.JobMarketRollupMapper;
+import com.digital.model.entity.JobInfo;
+import com.digital.model.entity.JobMarketRollup;
+import com.digital.model.vo.SalaryStatsVO;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 职位市场汇总测试（汇总表为内存实现，唯一键按二进制排序规则精确匹配）
+ *
+ */
+public class JobMarketRollupServiceImplTest {
+
+    private final Map<String, JobMarketRollup> rows = new ConcurrentHashMap<>();
+
+    private final JobMarketRollupServiceImpl rollupService = new JobMarketRollupServiceImpl();
+
+    @Test
+    void keysDifferingOnlyInCaseOrSpacesAccumulateIntoOneCell() {
+        ReflectionTestUtils.setField(rollupService, "jobMarketRollupMapper", mapper());
+        ReflectionTestUtils.setField(rollupService, "transactionTemplate", new TransactionTemplate(noopTransactionManager()));
+
+        rollupService.record(List.of(job("Java", "某某科技", 20000, 30000)));
+        rollupService.flush();
+        // 同一次刷新里的两个键归一后是同一个单元，不会在一条 insert 里冲突
+        rollupService.record(List.of(job(" java", "某某科技  ", 10000, 20000), job("JAVA ", "某某科技", 30000, 40000)));
+        rollupService.flush();
+
+        SalaryStatsVO companyStats = rollupService.getSalaryStats("Java", "101270100", "某某科技", 1);
+        Assertions.assertEquals(3L, companyStats.getJobCount());
+        Assertions.assertEquals(3L, companyStats.getSalaryCount());
+        Assertions.assertEquals(3L, rollupService.getSalaryStats(" JAVA ", "", "", 1).getJobCount());
+        // 每个粒度只有一行：(关键词, 城市, 公司)、(关键词, 城市, 全部)、(关键词, 全部, 公司)、(关键词, 全部, 全部)
+        Assertions.assertEquals(4, rows.size());
+        rows.values().forEach(row -> Assertions.assertEquals("java", row.getSearchQuery()));
+    }
+
+    private static JobInfo job(String crawlQuery, String companyName, int salaryMin, int salaryMax) {
+        JobInfo jobInfo = new JobInfo();
+        jobInfo.setCrawlQuery(crawlQuery);
+        jobInfo.setCrawlCityCode("101270100");
+        jobInfo.setCompanyName(companyName);
+        jobInfo.setSalaryMin(salaryMin);
+        jobInfo.setSalaryMax(salaryMax);
+        return jobInfo;
+    }
+
+    private static String keyOf(JobMarketRollup row) {
+        return row.getSearchQuery() + "|" + row.getCityCode() + "|" + row.getCompanyName() + "|" + row.getStatDay().getTime();
+    }
+
+    private JobMarketRollupMapper mapper() {
+        return (JobMarketRollupMapper) Proxy.newProxyInstance(JobMarketRollupMapper.class.getClassLoader(),
+                new Class<?>[]{JobMarketRollupMapper.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "selectByKeysForUpdate":
+                            List<JobMarketRollup> found = new ArrayList<>();
+                            for (Object key : (List<?>) args[0]) {
+                                JobMarketRollup row = rows.get(keyOf((JobMarketRollup) key));
+                                if (row != null) {
+                                    found.add(row);
+                                }
+                            }
+                            return found;
+                        case "batchUpsert":
+                            List<?> list = (List<?>) args[0];
+                            List<String> keys = new ArrayList<>();
+                            for (Object item : list) {
+                                String key = keyOf((JobMarketRollup) item);
+                                Assertions.assertFalse(keys.contains(key), "同一条 insert 中唯一键重复: " + key);
+                                keys.add(key);
+                                rows.put(key, (JobMarketRollup) item);
+                            }
+                            return list.size();
+                        case "selectRange":
+                            List<JobMarketRollup> range = new ArrayList<>();
+                            for (JobMarketRollup row : rows.values()) {
+                                if (row.getSearchQuery().equals(args[0]) && row.getCityCode().equals(args[1])
+                                        && row.getCompanyName().equals(args[2])
+                                        && !row.getStatDay().before((Date) args[3]) && !row.getStatDay().after((Date) args[4])) {
+                                    range.add(row);
+                                }
+                            }
+                            return range;
+                        case "toString":
+                            return "InMemoryJobMarketRollupTable";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static PlatformTransactionManager noopTransactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+}
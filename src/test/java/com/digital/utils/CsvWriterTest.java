@@ -0,0 +1,41 @@
+package com.digital.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CSV 写入测试
+ *
+ */
+public class CsvWriterTest {
+
+    @Test
+    void escapesFields() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter csvWriter = new CsvWriter(Channels.newChannel(out), false)) {
+            csvWriter.writeRow("a", null, "b,c", "say \"hi\"", "line1\nline2");
+        }
+        Assertions.assertEquals("a,,\"b,c\",\"say \"\"hi\"\"\",\"line1\nline2\"\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter csvWriter = new CsvWriter(Channels.newChannel(out), true)) {
+            csvWriter.writeRow("职位", "薪水");
+            csvWriter.writeRow("Java开发", "15-25K");
+            Assertions.assertEquals(2, csvWriter.getRowCount());
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            Assertions.assertEquals("职位,薪水\r\nJava开发,15-25K\r\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.digital.utils;
+
+import com.digital.model.entity.JobInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 职位属性规范化测试
+ *
+ */
+public class JobAttributeNormalizerTest {
+
+    @Test
+    void parsesMonthlySalaryInVariousUnits() {
+        Assertions.assertArrayEquals(new int[]{15000, 25000, 13}, JobAttributeNormalizer.parseSalary("15-25K·13薪"));
+        Assertions.assertArrayEquals(new int[]{8000, 10000, 12}, JobAttributeNormalizer.parseSalary("8000-10000元/月"));
+        Assertions.assertArrayEquals(new int[]{10000, 15000, 12}, JobAttributeNormalizer.parseSalary("1-1.5万"));
+        Assertions.assertArrayEquals(new int[]{4350, 6525, 12}, JobAttributeNormalizer.parseSalary("200-300元/天"));
+        Assertions.assertArrayEquals(new int[]{20000, 25000, 12}, JobAttributeNormalizer.parseSalary("24-30万/年"));
+        Assertions.assertNull(JobAttributeNormalizer.parseSalary("面议"));
+        Assertions.assertNull(JobAttributeNormalizer.parseSalary(null));
+    }
+
+    @Test
+    void parsesWorkYearRanges() {
+        Assertions.assertArrayEquals(new Integer[]{3, 5}, JobAttributeNormalizer.parseWorkYear("3-5年"));
+        Assertions.assertArrayEquals(new Integer[]{10, null}, JobAttributeNormalizer.parseWorkYear("10年以上"));
+        Assertions.assertArrayEquals(new Integer[]{0, 1}, JobAttributeNormalizer.parseWorkYear("1年以内"));
+        Assertions.assertArrayEquals(new Integer[]{0, 0}, JobAttributeNormalizer.parseWorkYear("在校/应届"));
+        Assertions.assertArrayEquals(new Integer[]{0, null}, JobAttributeNormalizer.parseWorkYear("经验不限"));
+        Assertions.assertArrayEquals(new Integer[]{null, null}, JobAttributeNormalizer.parseWorkYear("若干"));
+    }
+
+    @Test
+    void degreeLevelsAreOrdered() {
+        Assertions.assertEquals(5, JobAttributeNormalizer.degreeLevelOf("本科"));
+        Assertions.assertEquals(6, JobAttributeNormalizer.degreeLevelOf("硕士"));
+        Assertions.assertEquals(2, JobAttributeNormalizer.degreeLevelOf("中专/中技"));
+        Assertions.assertEquals(0, JobAttributeNormalizer.degreeLevelOf("学历不限"));
+        Assertions.assertNull(JobAttributeNormalizer.degreeLevelOf(""));
+    }
+
+    @Test
+    void normalizeFillsNumericColumns() {
+        JobInfo jobInfo = new JobInfo();
+        jobInfo.setWorkSalary("15-25K·13薪");
+        jobInfo.setWorkYear("3-5年");
+        jobInfo.setGraduate("本科");
+        JobAttributeNormalizer.normalize(jobInfo);
+        Assertions.assertEquals(15000, jobInfo.getSalaryMin());
+        Assertions.assertEquals(25000, jobInfo.getSalaryMax());
+        Assertions.assertEquals(13, jobInfo.getSalaryMonths());
+        Assertions.assertEquals(3, jobInfo.getWorkYearMin());
+        Assertions.assertEquals(5, jobInfo.getWorkYearMax());
+        Assertions.assertEquals(5, jobInfo.getDegreeLevel());
+        Assertions.assertEquals(JobAttributeNormalizer.VERSION, jobInfo.getNormalizeVersion());
+    }
+}
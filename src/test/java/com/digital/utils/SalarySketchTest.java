@@ -0,0 +1,66 @@
+package com.digital.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 薪资分布草图测试
+ *
+ */
+public class SalarySketchTest {
+
+    @Test
+    void mergedSketchEqualsSketchOfAllValues() {
+        SalarySketch even = new SalarySketch();
+        SalarySketch odd = new SalarySketch();
+        SalarySketch all = new SalarySketch();
+        for (int i = 1; i <= 1000; i++) {
+            int salary = i * 100;
+            (i % 2 == 0 ? even : odd).add(salary);
+            all.add(salary);
+        }
+        even.merge(odd);
+        Assertions.assertEquals(all, even);
+        Assertions.assertEquals(1000, even.getCount());
+        Assertions.assertEquals(100, even.getMin());
+        Assertions.assertEquals(100000, even.getMax());
+    }
+
+    @Test
+    void quantilesAreWithinOneBucket() {
+        SalarySketch sketch = new SalarySketch();
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i * 100);
+        }
+        // 5 万以内桶宽 500 元，5 万以上桶宽 2000 元
+        Assertions.assertEquals(25000, sketch.quantile(0.25), 500);
+        Assertions.assertEquals(50000, sketch.quantile(0.5), 500);
+        Assertions.assertEquals(90000, sketch.quantile(0.9), 2000);
+        Assertions.assertEquals(50050, sketch.getMean());
+        Assertions.assertNull(new SalarySketch().quantile(0.5));
+    }
+
+    @Test
+    void overflowBucketReportsMax() {
+        SalarySketch sketch = new SalarySketch();
+        sketch.add(15000);
+        sketch.add(300000);
+        Assertions.assertEquals(300000, sketch.quantile(1));
+    }
+
+    @Test
+    void serializationRoundTrip() {
+        SalarySketch sketch = new SalarySketch();
+        sketch.add(8000);
+        sketch.add(15000);
+        sketch.add(15200);
+        sketch.add(120000);
+        byte[] bytes = sketch.toBytes();
+        Assertions.assertTrue(bytes.length < 32);
+        SalarySketch restored = SalarySketch.fromBytes(bytes);
+        Assertions.assertEquals(sketch, restored);
+        Assertions.assertEquals(sketch.quantile(0.5), restored.quantile(0.5));
+        Assertions.assertEquals(8000, restored.getMin());
+        Assertions.assertEquals(new SalarySketch(), SalarySketch.fromBytes(null));
+    }
+}
@@ -0,0 +1,32 @@
+package com.digital.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * URL 指纹测试
+ *
+ */
+public class UrlFingerprintTest {
+
+    @Test
+    void sameJobWithDifferentTrackingParams() {
+        long a = UrlFingerprint.of("https://www.zhipin.com/job_detail/abc123.html?lid=1&securityId=x");
+        long b = UrlFingerprint.of("https://www.zhipin.com/job_detail/abc123.html#top");
+        Assertions.assertEquals(a, b);
+    }
+
+    @Test
+    void listPagesKeepQuery() {
+        long page1 = UrlFingerprint.of("https://www.zhipin.com/web/geek/job?query=Java&city=101270100&page=1");
+        long page2 = UrlFingerprint.of("https://www.zhipin.com/web/geek/job?query=Java&city=101270100&page=2");
+        Assertions.assertNotEquals(page1, page2);
+    }
+
+    @Test
+    void matchesSqlExpression() {
+        // SELECT CONV(LEFT(SHA1('abc'), 15), 16, 10)，SHA1('abc') = a9993e364706816aba3e25717850c26c9cd0d89d
+        Assertions.assertEquals(Long.parseLong("a9993e364706816", 16), UrlFingerprint.of("abc"));
+        Assertions.assertTrue(UrlFingerprint.of("abc") > 0);
+    }
+}